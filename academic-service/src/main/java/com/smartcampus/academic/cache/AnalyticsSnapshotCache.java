@@ -0,0 +1,241 @@
+package com.smartcampus.academic.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Analitik istatistik snapshot'ları için bellek içi cache.
+ * TTL'in refresh-ahead oranına ulaşan snapshot'lar arka planda yeniden hesaplanır, istek eski
+ * snapshot ile hemen cevaplanır. Aynı anahtar için aynı anda tek hesaplama çalışır; bekleyen
+ * istekler o hesaplamanın sonucunu paylaşır. Sadece hiç snapshot yoksa veya snapshot
+ * max-stale süresini aştıysa istek hesaplamayı bekler.
+ * register ile bildirilen anahtarlar açılışta hesaplanır ve istek gelmese de arka planda
+ * refresh-ahead yaşına geldikçe yenilenir; böylece ilk istek ve uzun sessizlikten sonraki istek beklemez.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AnalyticsSnapshotCache {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${analytics.cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${analytics.cache.refresh-ahead-ratio:0.8}")
+    private double refreshAheadRatio;
+
+    @Value("${analytics.cache.max-stale-seconds:600}")
+    private long maxStaleSeconds;
+
+    @Value("${analytics.cache.refresh-threads:2}")
+    private int refreshThreads;
+
+    @Value("${analytics.cache.background-refresh-enabled:true}")
+    private boolean backgroundRefreshEnabled;
+
+    private final ConcurrentHashMap<String, Slot<?>> slots = new ConcurrentHashMap<>();
+
+    private ExecutorService refresher;
+    private ScheduledExecutorService scheduler;
+    private Counter hitCounter;
+    private Counter refreshAheadCounter;
+    private Counter missCounter;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCounter = new AtomicInteger();
+        refresher = Executors.newFixedThreadPool(refreshThreads, r -> {
+            Thread thread = new Thread(r, "analytics-refresh-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        hitCounter = Counter.builder("analytics.snapshot_cache.requests")
+                .tag("result", "hit")
+                .description("Güncel snapshot ile cevaplanan istekler")
+                .register(meterRegistry);
+        refreshAheadCounter = Counter.builder("analytics.snapshot_cache.requests")
+                .tag("result", "refresh_ahead")
+                .description("Eski snapshot ile cevaplanıp arka planda yenileme başlatan istekler")
+                .register(meterRegistry);
+        missCounter = Counter.builder("analytics.snapshot_cache.requests")
+                .tag("result", "miss")
+                .description("Hesaplamayı beklemek zorunda kalan istekler")
+                .register(meterRegistry);
+
+        if (backgroundRefreshEnabled) {
+            // Yenileme refresh-ahead yaşı ile TTL arasında başlasın diye aradaki pay kadar sık kontrol edilir
+            long periodMillis = Math.max(1000, ttlSeconds * 1000 - refreshAheadMillis());
+            scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "analytics-refresh-scheduler");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::refreshDue, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    /**
+     * Anahtarı arka plan yenilemesine kaydeder ve ilk snapshot'ı beklemeden hesaplatır.
+     *
+     * @param loader snapshot'ı hesaplayan fonksiyon, arka plan thread'inde çalışır
+     */
+    @SuppressWarnings("unchecked")
+    public <T> void register(String key, Supplier<T> loader) {
+        Slot<T> slot = (Slot<T>) slots.computeIfAbsent(key, k -> new Slot<>());
+        slot.loader = loader;
+        refresh(key, slot, loader);
+    }
+
+    /**
+     * Anahtarın snapshot'ını döner; gerekirse hesaplamayı tetikler.
+     *
+     * @param loader snapshot'ı hesaplayan fonksiyon, arka plan thread'inde çalışabilir
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Snapshot<T> get(String key, Supplier<T> loader) {
+        Slot<T> slot = (Slot<T>) slots.computeIfAbsent(key, k -> new Slot<>());
+        Snapshot<T> current = slot.current;
+        long now = System.currentTimeMillis();
+
+        if (current == null || current.getAgeMillis(now) >= maxStaleSeconds * 1000) {
+            missCounter.increment();
+            return await(refresh(key, slot, loader));
+        }
+
+        if (current.getAgeMillis(now) >= refreshAheadMillis()) {
+            refreshAheadCounter.increment();
+            refresh(key, slot, loader);
+        } else {
+            hitCounter.increment();
+        }
+        return current;
+    }
+
+    /**
+     * Kayıtlı anahtarlardan snapshot'ı olmayan veya refresh-ahead yaşına gelenleri yeniler.
+     */
+    void refreshDue() {
+        long now = System.currentTimeMillis();
+        slots.forEach((key, slot) -> refreshIfDue(key, slot, now));
+    }
+
+    private <T> void refreshIfDue(String key, Slot<T> slot, long now) {
+        Supplier<T> loader = slot.loader;
+        Snapshot<T> current = slot.current;
+        if (loader != null && (current == null || current.getAgeMillis(now) >= refreshAheadMillis())) {
+            refresh(key, slot, loader);
+        }
+    }
+
+    private long refreshAheadMillis() {
+        return (long) (ttlSeconds * 1000 * refreshAheadRatio);
+    }
+
+    /**
+     * Devam eden bir hesaplama varsa onu döner, yoksa yenisini başlatır.
+     */
+    private <T> CompletableFuture<Snapshot<T>> refresh(String key, Slot<T> slot, Supplier<T> loader) {
+        while (true) {
+            CompletableFuture<Snapshot<T>> inFlight = slot.inFlight.get();
+            if (inFlight != null) {
+                return inFlight;
+            }
+
+            CompletableFuture<Snapshot<T>> future = new CompletableFuture<>();
+            if (!slot.inFlight.compareAndSet(null, future)) {
+                continue;
+            }
+
+            try {
+                refresher.execute(() -> load(key, slot, loader, future));
+            } catch (RejectedExecutionException e) {
+                // Uygulama kapanırken isteği yapan thread hesaplar
+                load(key, slot, loader, future);
+            }
+            return future;
+        }
+    }
+
+    private <T> void load(String key, Slot<T> slot, Supplier<T> loader, CompletableFuture<Snapshot<T>> future) {
+        try {
+            long start = System.currentTimeMillis();
+            Snapshot<T> snapshot = new Snapshot<>(loader.get(), System.currentTimeMillis());
+            slot.current = snapshot;
+            log.debug("Analitik snapshot yenilendi - key: {}, süre: {} ms", key, System.currentTimeMillis() - start);
+            future.complete(snapshot);
+        } catch (Exception e) {
+            // Son başarılı snapshot kullanılmaya devam eder
+            log.warn("Analitik snapshot yenilenemedi - key: {}: {}", key, e.getMessage());
+            future.completeExceptionally(e);
+        } finally {
+            slot.inFlight.compareAndSet(future, null);
+        }
+    }
+
+    private static <T> Snapshot<T> await(CompletableFuture<Snapshot<T>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    private static final class Slot<T> {
+        private volatile Snapshot<T> current;
+        private volatile Supplier<T> loader;
+        private final AtomicReference<CompletableFuture<Snapshot<T>>> inFlight = new AtomicReference<>();
+    }
+
+    @Getter
+    public static final class Snapshot<T> {
+        private final T value;
+        private final long computedAtMillis;
+
+        private Snapshot(T value, long computedAtMillis) {
+            this.value = value;
+            this.computedAtMillis = computedAtMillis;
+        }
+
+        public long getAgeMillis(long now) {
+            return Math.max(0, now - computedAtMillis);
+        }
+
+        public long getAgeSeconds() {
+            return getAgeMillis(System.currentTimeMillis()) / 1000;
+        }
+    }
+}
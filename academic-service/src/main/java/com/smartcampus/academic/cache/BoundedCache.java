@@ -0,0 +1,156 @@
+package com.smartcampus.academic.cache;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sınırlı boyutlu, isteğe bağlı TTL'li bellek içi eşleme; servisteki bellek içi cache'lerin ortak deposu.
+ * Okumalar ConcurrentHashMap üzerinden kilitsizdir, her isabet kaydın son erişim zamanını günceller.
+ * Kapasite dolunca önce süresi dolmuş kayıtlar, sonra en uzun süredir erişilmeyen kayıtlar çıkarılır
+ * (yaklaşık LRU). Temizlik tek seferde kapasitenin ~%10'unu boşaltır; sıralama maliyeti bu sayede
+ * sonraki eklemelere yayılır.
+ */
+public final class BoundedCache<K, V> {
+
+    // Bundan uzun TTL süresiz sayılır; System.nanoTime() toplamı taşmaz
+    private static final long MAX_TTL_NANOS = TimeUnit.DAYS.toNanos(365L * 100);
+
+    private final ConcurrentHashMap<K, Node<V>> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final long ttlNanos;
+
+    /**
+     * Süresiz kayıtlar tutan, sadece boyutu sınırlı cache.
+     */
+    public BoundedCache(int maxSize) {
+        this(maxSize, 0, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param ttl kayıtların varsayılan ömrü; 0 veya negatifse kayıtlar süresizdir
+     */
+    public BoundedCache(int maxSize, long ttl, TimeUnit unit) {
+        this.maxSize = Math.max(1, maxSize);
+        this.ttlNanos = unit.toNanos(ttl);
+    }
+
+    /**
+     * @return kayıt yoksa veya süresi dolmuşsa null
+     */
+    public V get(K key) {
+        Node<V> node = entries.get(key);
+        if (node == null) {
+            return null;
+        }
+        long now = System.nanoTime();
+        if (node.isExpired(now)) {
+            entries.remove(key, node);
+            return null;
+        }
+        node.lastAccessNanos = now;
+        return node.value;
+    }
+
+    /**
+     * Kaydı varsayılan TTL ile ekler.
+     *
+     * @return anahtarın önceki değeri (süresi dolmuş olsa bile) veya null
+     */
+    public V put(K key, V value) {
+        return put(key, value, ttlNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Kaydı verilen ömürle ekler (ör. JWT'nin kalan süresi).
+     *
+     * @param ttl 0 veya negatifse kayıt süresizdir
+     */
+    public V put(K key, V value, long ttl, TimeUnit unit) {
+        long now = System.nanoTime();
+        if (entries.size() >= maxSize) {
+            evictForCapacity(now);
+        }
+        Node<V> previous = entries.put(key, new Node<>(value, now, unit.toNanos(ttl)));
+        return previous != null ? previous.value : null;
+    }
+
+    /**
+     * Anahtarın geçerli bir kaydı yoksa değeri ekler.
+     *
+     * @return mevcut geçerli değer veya değer eklendiyse null
+     */
+    public V putIfAbsent(K key, V value) {
+        V existing = get(key);
+        if (existing != null) {
+            return existing;
+        }
+        long now = System.nanoTime();
+        if (entries.size() >= maxSize) {
+            evictForCapacity(now);
+        }
+        Node<V> created = new Node<>(value, now, ttlNanos);
+        Node<V> winner = entries.compute(key,
+                (k, current) -> current == null || current.isExpired(now) ? created : current);
+        return winner == created ? null : winner.value;
+    }
+
+    /**
+     * @return çıkarılan değer veya null
+     */
+    public V remove(K key) {
+        Node<V> removed = entries.remove(key);
+        return removed != null ? removed.value : null;
+    }
+
+    /**
+     * Kaydı sadece değeri hâlâ verilen nesneyse (referans eşitliği) çıkarır.
+     */
+    public boolean remove(K key, V value) {
+        Node<V> node = entries.get(key);
+        return node != null && node.value == value && entries.remove(key, node);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private synchronized void evictForCapacity(long now) {
+        if (entries.size() < maxSize) {
+            return;
+        }
+        entries.values().removeIf(node -> node.isExpired(now));
+
+        int toRemove = entries.size() - maxSize + Math.max(1, maxSize / 10);
+        if (toRemove <= 0) {
+            return;
+        }
+        long[] accessTimes = entries.values().stream().mapToLong(node -> node.lastAccessNanos).toArray();
+        if (toRemove >= accessTimes.length) {
+            entries.clear();
+            return;
+        }
+        // Eşik, çıkarılacak en yeni kaydın erişim zamanıdır; aynı zamana sahip kayıtlar birlikte çıkar
+        Arrays.sort(accessTimes);
+        long threshold = accessTimes[toRemove - 1];
+        entries.values().removeIf(node -> node.lastAccessNanos - threshold <= 0);
+    }
+
+    private static final class Node<V> {
+        private final V value;
+        private final boolean expires;
+        private final long expiresAtNanos;
+        private volatile long lastAccessNanos;
+
+        private Node(V value, long now, long ttlNanos) {
+            this.value = value;
+            this.expires = ttlNanos > 0 && ttlNanos < MAX_TTL_NANOS;
+            this.expiresAtNanos = expires ? now + ttlNanos : 0;
+            this.lastAccessNanos = now;
+        }
+
+        private boolean isExpired(long now) {
+            return expires && now - expiresAtNanos > 0;
+        }
+    }
+}
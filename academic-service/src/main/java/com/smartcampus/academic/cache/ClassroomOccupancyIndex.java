@@ -0,0 +1,499 @@
+package com.smartcampus.academic.cache;
+
+import com.smartcampus.academic.entity.Schedule;
+import com.smartcampus.academic.repository.ClassroomRepository;
+import com.smartcampus.academic.repository.ClassroomReservationRepository;
+import com.smartcampus.academic.repository.ScheduleRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Derslik doluluğu için bellek içi aralık indeksi.
+ * Haftalık tekrar eden {@link Schedule} satırları (derslik + gün) ve tarihli, bekleyen/onaylı
+ * rezervasyonlar (derslik + tarih) ayrı kovalarda, başlangıca göre sıralı ve önek maksimum bitişli
+ * değişmez dizilerde tutulur. Çakışma kontrolü ikili arama + tek karşılaştırma ile O(log n)'dir;
+ * bir rezervasyon hem o tarihteki rezervasyonlara hem o günün haftalık programına karşı kontrol edilir.
+ *
+ * <p>Haftalık program sadece section'ının dönemi boyunca geçerlidir. Tarihli sorgular için programlar
+ * ayrıca derslik + gün + dönem kovalarında tutulur ve tarihi içeren dönemin kovasına bakılır.
+ * Dönem tarihe aydan çözülür: Eylül-Ocak FALL (Ocak önceki yılın dönemidir), Şubat-Haziran SPRING,
+ * Temmuz-Ağustos SUMMER.
+ *
+ * <p>Değişiklikler servislerin yayınladığı olaylarla transaction commit edildikten sonra uygulanır;
+ * geri alınan transaction indeksi değiştirmez. Diğer instance'ların yaptığı değişiklikler için
+ * indeks periyodik olarak veritabanından yeniden kurulur; bu yüzden indeks sadece okuma tarafındaki
+ * sorgulara cevap verir, yazma işlemlerindeki son çakışma kontrolü veritabanında yapılır.
+ * Geçmiş tarihli rezervasyonlar yüklenmez; {@link #covers(LocalDate)} false dönen tarihler için
+ * çağıran veritabanına gitmelidir.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ClassroomOccupancyIndex {
+
+    private final ScheduleRepository scheduleRepository;
+    private final ClassroomReservationRepository reservationRepository;
+    private final ClassroomRepository classroomRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${academic.occupancy-index.reload-minutes:10}")
+    private long reloadMinutes;
+
+    private volatile State state = new State(LocalDate.MAX);
+    private ScheduledExecutorService reloader;
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("academic.occupancy_index.intervals", this, index -> index.state.weeklyCount())
+                .tag("kind", "schedule")
+                .description("İndeksteki haftalık program aralığı sayısı")
+                .register(meterRegistry);
+        Gauge.builder("academic.occupancy_index.intervals", this, index -> index.state.datedCount())
+                .tag("kind", "reservation")
+                .description("İndeksteki rezervasyon aralığı sayısı")
+                .register(meterRegistry);
+
+        reload();
+        reloader = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "occupancy-index-reload");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reloader.scheduleWithFixedDelay(this::reload, reloadMinutes, reloadMinutes, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (reloader != null) {
+            reloader.shutdownNow();
+        }
+    }
+
+    /**
+     * İndeksi veritabanından baştan kurar. Olay uygulamalarıyla aynı kilidi tuttuğu için
+     * okuma ile değiştirme arasında commit edilen bir değişiklik kaybolmaz.
+     */
+    public synchronized void reload() {
+        try {
+            LocalDate today = LocalDate.now();
+            State fresh = new State(today);
+            for (Object[] row : scheduleRepository.findActiveOccupancyRows()) {
+                fresh.putSchedule((Long) row[0], (Long) row[1], (Schedule.DayOfWeek) row[2],
+                        (LocalTime) row[3], (LocalTime) row[4], Term.of((String) row[5], (Integer) row[6]));
+            }
+            for (Object[] row : reservationRepository.findBlockingOccupancyRowsFrom(today)) {
+                fresh.putReservation((Long) row[0], (Long) row[1], (LocalDate) row[2],
+                        (LocalTime) row[3], (LocalTime) row[4]);
+            }
+            for (Object[] row : classroomRepository.findActiveCapacities()) {
+                fresh.capacities.put((Long) row[0], (Integer) row[1]);
+            }
+            fresh.rebuildCapacityOrder();
+            state = fresh;
+            log.info("Derslik doluluk indeksi yüklendi - {} program, {} rezervasyon, {} derslik",
+                    fresh.weeklyCount(), fresh.datedCount(), fresh.capacities.size());
+        } catch (Exception e) {
+            // Mevcut indeks kullanılmaya devam eder
+            log.warn("Derslik doluluk indeksi yenilenemedi: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * İndeksin bu tarihteki rezervasyonları içerip içermediği (son yüklemeden önceki günler içermez).
+     */
+    public boolean covers(LocalDate date) {
+        return !date.isBefore(state.loadedFrom);
+    }
+
+    /**
+     * Dersliğin o gün ve saatte başka bir aktif programla çakışıp çakışmadığı (dönemden bağımsız).
+     *
+     * @param excludeScheduleId güncellenen programın kendisi; yoksa null
+     */
+    public boolean hasScheduleConflict(Long classroomId, Schedule.DayOfWeek day, LocalTime start, LocalTime end,
+            Long excludeScheduleId) {
+        Intervals weekly = state.weekly.get(new WeeklyKey(classroomId, day));
+        return weekly != null && weekly.overlaps(toSeconds(start), toSeconds(end), excludeScheduleId);
+    }
+
+    /**
+     * Dersliğin o tarihte bekleyen/onaylı bir rezervasyonla veya o tarihin dönemindeki haftalık programla
+     * çakışıp çakışmadığı.
+     */
+    public boolean hasReservationConflict(Long classroomId, LocalDate date, LocalTime start, LocalTime end) {
+        return !isFree(state, classroomId, date, toSeconds(start), toSeconds(end));
+    }
+
+    /**
+     * Dersliğin verilen tarih ve saat penceresindeki boş aralıkları (program ve rezervasyonlar düşülmüş).
+     */
+    public List<TimeRange> findFreeSlots(Long classroomId, LocalDate date, LocalTime dayStart, LocalTime dayEnd) {
+        State current = state;
+        Intervals weekly = termWeekly(current, classroomId, date);
+        Intervals dated = current.dated.get(new DatedKey(classroomId, date));
+
+        List<TimeRange> free = new ArrayList<>();
+        int cursor = toSeconds(dayStart);
+        int windowEnd = toSeconds(dayEnd);
+        int i = 0;
+        int j = 0;
+        int weeklySize = weekly == null ? 0 : weekly.starts.length;
+        int datedSize = dated == null ? 0 : dated.starts.length;
+        // İki sıralı listeyi başlangıca göre birleştirerek dolu aralıkların arasındaki boşlukları toplar
+        while ((i < weeklySize || j < datedSize) && cursor < windowEnd) {
+            int busyStart;
+            int busyEnd;
+            if (j == datedSize || (i < weeklySize && weekly.starts[i] <= dated.starts[j])) {
+                busyStart = weekly.starts[i];
+                busyEnd = weekly.ends[i++];
+            } else {
+                busyStart = dated.starts[j];
+                busyEnd = dated.ends[j++];
+            }
+            if (busyStart > cursor) {
+                free.add(new TimeRange(fromSeconds(cursor), fromSeconds(Math.min(busyStart, windowEnd))));
+            }
+            cursor = Math.max(cursor, busyEnd);
+        }
+        if (cursor < windowEnd) {
+            free.add(new TimeRange(fromSeconds(cursor), fromSeconds(windowEnd)));
+        }
+        return free;
+    }
+
+    /**
+     * Verilen tarih ve saatte boş olan, kapasitesi en az minCapacity olan aktif derslikleri
+     * kapasiteye göre artan sırada döner. Eşik ikili aramayla bulunur, her derslik O(log n)'de kontrol edilir.
+     */
+    public List<Long> findFreeClassrooms(LocalDate date, LocalTime start, LocalTime end, int minCapacity, int limit) {
+        State current = state;
+        CapacityOrder order = current.capacityOrder;
+        int from = lowerBound(order.capacities, minCapacity);
+        int startSeconds = toSeconds(start);
+        int endSeconds = toSeconds(end);
+
+        List<Long> free = new ArrayList<>(Math.min(limit, order.classroomIds.length - from));
+        for (int i = from; i < order.classroomIds.length && free.size() < limit; i++) {
+            if (isFree(current, order.classroomIds[i], date, startSeconds, endSeconds)) {
+                free.add(order.classroomIds[i]);
+            }
+        }
+        return free;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onScheduleChanged(ScheduleChanged event) {
+        State current = state;
+        current.removeSchedule(event.scheduleId());
+        if (event.active()) {
+            current.putSchedule(event.scheduleId(), event.classroomId(), event.dayOfWeek(),
+                    event.startTime(), event.endTime(), Term.of(event.semester(), event.year()));
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onReservationChanged(ReservationChanged event) {
+        State current = state;
+        current.removeReservation(event.reservationId());
+        if (event.blocking() && !event.date().isBefore(current.loadedFrom)) {
+            current.putReservation(event.reservationId(), event.classroomId(), event.date(),
+                    event.startTime(), event.endTime());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onClassroomChanged(ClassroomChanged event) {
+        State current = state;
+        if (event.active()) {
+            current.capacities.put(event.classroomId(), event.capacity());
+        } else {
+            current.capacities.remove(event.classroomId());
+        }
+        current.rebuildCapacityOrder();
+    }
+
+    private static boolean isFree(State current, Long classroomId, LocalDate date, int start, int end) {
+        Intervals dated = current.dated.get(new DatedKey(classroomId, date));
+        if (dated != null && dated.overlaps(start, end, null)) {
+            return false;
+        }
+        Intervals weekly = termWeekly(current, classroomId, date);
+        return weekly == null || !weekly.overlaps(start, end, null);
+    }
+
+    // Tarihin haftanın gününe ve dönemine düşen programlar; Pazar günü program yoktur
+    private static Intervals termWeekly(State current, Long classroomId, LocalDate date) {
+        Schedule.DayOfWeek day = toScheduleDay(date.getDayOfWeek());
+        return day == null ? null : current.termWeekly.get(new TermKey(classroomId, day, Term.containing(date)));
+    }
+
+    private static Schedule.DayOfWeek toScheduleDay(DayOfWeek day) {
+        return day == DayOfWeek.SUNDAY ? null : Schedule.DayOfWeek.valueOf(day.name());
+    }
+
+    private static int toSeconds(LocalTime time) {
+        return time.toSecondOfDay();
+    }
+
+    private static LocalTime fromSeconds(int seconds) {
+        return LocalTime.ofSecondOfDay(seconds);
+    }
+
+    private static int lowerBound(int[] sorted, int value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Program oluşturuldu, güncellendi veya silindi (active=false); semester ve year section'ın dönemidir.
+     */
+    public record ScheduleChanged(Long scheduleId, Long classroomId, Schedule.DayOfWeek dayOfWeek,
+            LocalTime startTime, LocalTime endTime, String semester, Integer year, boolean active) {
+    }
+
+    /**
+     * Rezervasyon oluşturuldu veya durumu değişti; blocking sadece PENDING/APPROVED için true.
+     */
+    public record ReservationChanged(Long reservationId, Long classroomId, LocalDate date,
+            LocalTime startTime, LocalTime endTime, boolean blocking) {
+    }
+
+    /**
+     * Derslik oluşturuldu, güncellendi veya silindi (active=false).
+     */
+    public record ClassroomChanged(Long classroomId, int capacity, boolean active) {
+    }
+
+    public record TimeRange(LocalTime startTime, LocalTime endTime) {
+    }
+
+    private record WeeklyKey(Long classroomId, Schedule.DayOfWeek day) {
+    }
+
+    private record TermKey(Long classroomId, Schedule.DayOfWeek day, Term term) {
+    }
+
+    private record ScheduleKeys(WeeklyKey weekly, TermKey term) {
+    }
+
+    /**
+     * Akademik dönem; FALL dönemi Eylül'den Ocak sonuna kadar sürer ve başladığı yılla anılır.
+     */
+    public record Term(String semester, int year) {
+
+        private static Term of(String semester, Integer year) {
+            return new Term(semester == null ? "" : semester.trim().toUpperCase(Locale.ROOT),
+                    year == null ? 0 : year);
+        }
+
+        public static Term containing(LocalDate date) {
+            int month = date.getMonthValue();
+            if (month >= 2 && month <= 6) {
+                return new Term("SPRING", date.getYear());
+            }
+            if (month == 7 || month == 8) {
+                return new Term("SUMMER", date.getYear());
+            }
+            return new Term("FALL", month == 1 ? date.getYear() - 1 : date.getYear());
+        }
+    }
+
+    private record DatedKey(Long classroomId, LocalDate date) {
+    }
+
+    /**
+     * İndeksin tamamı; yeniden yüklemede tek seferde değiştirilir, olaylar kilit altında yerinde günceller.
+     */
+    private static final class State {
+        private final LocalDate loadedFrom;
+        private final ConcurrentHashMap<WeeklyKey, Intervals> weekly = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<TermKey, Intervals> termWeekly = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<DatedKey, Intervals> dated = new ConcurrentHashMap<>();
+        private final Map<Long, ScheduleKeys> scheduleKeys = new HashMap<>();
+        private final Map<Long, DatedKey> reservationKeys = new HashMap<>();
+        private final Map<Long, Integer> capacities = new HashMap<>();
+        private volatile CapacityOrder capacityOrder = CapacityOrder.EMPTY;
+
+        private State(LocalDate loadedFrom) {
+            this.loadedFrom = loadedFrom;
+        }
+
+        private void putSchedule(Long id, Long classroomId, Schedule.DayOfWeek day, LocalTime start, LocalTime end,
+                Term term) {
+            WeeklyKey key = new WeeklyKey(classroomId, day);
+            TermKey termKey = new TermKey(classroomId, day, term);
+            weekly.merge(key, Intervals.EMPTY.with(id, toSeconds(start), toSeconds(end)),
+                    (existing, added) -> existing.with(id, toSeconds(start), toSeconds(end)));
+            termWeekly.merge(termKey, Intervals.EMPTY.with(id, toSeconds(start), toSeconds(end)),
+                    (existing, added) -> existing.with(id, toSeconds(start), toSeconds(end)));
+            scheduleKeys.put(id, new ScheduleKeys(key, termKey));
+        }
+
+        private void removeSchedule(Long id) {
+            ScheduleKeys keys = scheduleKeys.remove(id);
+            if (keys != null) {
+                weekly.computeIfPresent(keys.weekly(), (k, existing) -> existing.without(id));
+                termWeekly.computeIfPresent(keys.term(), (k, existing) -> existing.without(id));
+            }
+        }
+
+        private void putReservation(Long id, Long classroomId, LocalDate date, LocalTime start, LocalTime end) {
+            DatedKey key = new DatedKey(classroomId, date);
+            dated.merge(key, Intervals.EMPTY.with(id, toSeconds(start), toSeconds(end)),
+                    (existing, added) -> existing.with(id, toSeconds(start), toSeconds(end)));
+            reservationKeys.put(id, key);
+        }
+
+        private void removeReservation(Long id) {
+            DatedKey key = reservationKeys.remove(id);
+            if (key != null) {
+                dated.computeIfPresent(key, (k, existing) -> existing.without(id));
+            }
+        }
+
+        private void rebuildCapacityOrder() {
+            Long[] ids = capacities.keySet().toArray(new Long[0]);
+            Arrays.sort(ids, (a, b) -> Integer.compare(capacities.get(a), capacities.get(b)));
+            int[] sortedCapacities = new int[ids.length];
+            long[] sortedIds = new long[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                sortedCapacities[i] = capacities.get(ids[i]);
+                sortedIds[i] = ids[i];
+            }
+            capacityOrder = new CapacityOrder(sortedCapacities, sortedIds);
+        }
+
+        private int weeklyCount() {
+            return scheduleKeys.size();
+        }
+
+        private int datedCount() {
+            return reservationKeys.size();
+        }
+    }
+
+    private record CapacityOrder(int[] capacities, long[] classroomIds) {
+        private static final CapacityOrder EMPTY = new CapacityOrder(new int[0], new long[0]);
+    }
+
+    /**
+     * Başlangıca göre sıralı, değişmez aralık kümesi. maxEnd[i], ilk i+1 aralığın en büyük bitişidir;
+     * [start, end) ile çakışan aralık varsa bunlardan biri başlangıcı end'den küçük olan son önekte kalır.
+     * Güncellemeler yeni dizi üretir (bir derslik-gün kovasında en fazla birkaç düzine aralık olur).
+     */
+    private static final class Intervals {
+        private static final Intervals EMPTY = new Intervals(new long[0], new int[0], new int[0]);
+
+        private final long[] ids;
+        private final int[] starts;
+        private final int[] ends;
+        private final int[] maxEnd;
+
+        private Intervals(long[] ids, int[] starts, int[] ends) {
+            this.ids = ids;
+            this.starts = starts;
+            this.ends = ends;
+            this.maxEnd = new int[starts.length];
+            int max = Integer.MIN_VALUE;
+            for (int i = 0; i < ends.length; i++) {
+                max = Math.max(max, ends[i]);
+                maxEnd[i] = max;
+            }
+        }
+
+        private boolean overlaps(int start, int end, Long excludeId) {
+            // Başlangıcı end'den küçük aralık sayısı
+            int low = 0;
+            int high = starts.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] < end) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            if (excludeId == null) {
+                return low > 0 && maxEnd[low - 1] > start;
+            }
+            for (int i = low - 1; i >= 0 && maxEnd[i] > start; i--) {
+                if (ends[i] > start && ids[i] != excludeId) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private Intervals with(long id, int start, int end) {
+            Intervals base = without(id);
+            int n = base.starts.length;
+            int position = 0;
+            while (position < n && base.starts[position] <= start) {
+                position++;
+            }
+            long[] newIds = new long[n + 1];
+            int[] newStarts = new int[n + 1];
+            int[] newEnds = new int[n + 1];
+            System.arraycopy(base.ids, 0, newIds, 0, position);
+            System.arraycopy(base.starts, 0, newStarts, 0, position);
+            System.arraycopy(base.ends, 0, newEnds, 0, position);
+            newIds[position] = id;
+            newStarts[position] = start;
+            newEnds[position] = end;
+            System.arraycopy(base.ids, position, newIds, position + 1, n - position);
+            System.arraycopy(base.starts, position, newStarts, position + 1, n - position);
+            System.arraycopy(base.ends, position, newEnds, position + 1, n - position);
+            return new Intervals(newIds, newStarts, newEnds);
+        }
+
+        private Intervals without(long id) {
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == id) {
+                    int n = ids.length - 1;
+                    long[] newIds = new long[n];
+                    int[] newStarts = new int[n];
+                    int[] newEnds = new int[n];
+                    System.arraycopy(ids, 0, newIds, 0, i);
+                    System.arraycopy(starts, 0, newStarts, 0, i);
+                    System.arraycopy(ends, 0, newEnds, 0, i);
+                    System.arraycopy(ids, i + 1, newIds, i, n - i);
+                    System.arraycopy(starts, i + 1, newStarts, i, n - i);
+                    System.arraycopy(ends, i + 1, newEnds, i, n - i);
+                    return new Intervals(newIds, newStarts, newEnds);
+                }
+            }
+            return this;
+        }
+    }
+}
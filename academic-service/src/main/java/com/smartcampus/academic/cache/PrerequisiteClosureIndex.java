@@ -0,0 +1,236 @@
+package com.smartcampus.academic.cache;
+
+import com.smartcampus.academic.repository.CoursePrerequisiteRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * course_prerequisites tablosunun geçişli kapanışı (transitive closure).
+ * Önkoşul grafiğindeki her ders 0..n-1 arası yoğun bir indekse eşlenir; her dersin doğrudan ve
+ * dolaylı tüm önkoşulları bir BitSet'te tutulur. Kayıt sırasındaki önkoşul kontrolü, öğrencinin
+ * tamamladığı dersler BitSet'e çevrildikten sonra tek bir andNot işlemine indirgenir.
+ * Tablo periyodik olarak parmak iziyle kontrol edilir, değiştiyse indeks yeniden kurulur.
+ * Döngüdeki dersler kendi kapanışlarında yer alır; bu dersler loglanır ve kayıt olunamaz.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PrerequisiteClosureIndex {
+
+    private final CoursePrerequisiteRepository prerequisiteRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${academic.prerequisite-index.refresh-seconds:60}")
+    private long refreshSeconds;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private volatile List<Object> fingerprint;
+    private ScheduledExecutorService refresher;
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("academic.prerequisite_index.courses", this, index -> index.snapshot.codes.length)
+                .description("Önkoşul grafiğindeki ders sayısı")
+                .register(meterRegistry);
+        Gauge.builder("academic.prerequisite_index.cyclic_courses", this, index -> index.snapshot.cyclicCount)
+                .description("Önkoşul döngüsünde yer alan ders sayısı")
+                .register(meterRegistry);
+
+        refreshIfChanged();
+        refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "prerequisite-index-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresher.scheduleWithFixedDelay(this::refreshIfChanged, refreshSeconds, refreshSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    /**
+     * Öğrencinin tamamlamadığı (doğrudan veya dolaylı) önkoşul derslerinin kodlarını döner.
+     *
+     * @param completedCourseIds öğrencinin başarıyla tamamladığı dersler
+     * @return eksik önkoşul yoksa boş liste
+     */
+    public List<String> findMissingPrerequisites(Long courseId, Collection<Long> completedCourseIds) {
+        Snapshot current = snapshot;
+        BitSet closure = current.closureOf(courseId);
+        if (closure == null) {
+            return List.of();
+        }
+
+        BitSet missing = (BitSet) closure.clone();
+        missing.andNot(current.toBitSet(completedCourseIds));
+
+        List<String> codes = new ArrayList<>(missing.cardinality());
+        for (int i = missing.nextSetBit(0); i >= 0; i = missing.nextSetBit(i + 1)) {
+            codes.add(current.codes[i]);
+        }
+        return codes;
+    }
+
+    /**
+     * Dersin herhangi bir önkoşulu olup olmadığını döner; yoksa tamamlanan dersler hiç okunmayabilir.
+     */
+    public boolean hasPrerequisites(Long courseId) {
+        return snapshot.closureOf(courseId) != null;
+    }
+
+    synchronized void refreshIfChanged() {
+        try {
+            List<Object[]> rows = prerequisiteRepository.findEdgeFingerprint();
+            List<Object> current = rows.isEmpty() ? List.of() : Arrays.asList(rows.get(0));
+            if (current.equals(fingerprint)) {
+                return;
+            }
+            snapshot = build(prerequisiteRepository.findAllEdges());
+            fingerprint = current;
+            log.info("Önkoşul indeksi yeniden kuruldu - {} ders, {} döngüdeki ders",
+                    snapshot.codes.length, snapshot.cyclicCount);
+        } catch (Exception e) {
+            // Son başarılı indeks kullanılmaya devam eder
+            log.warn("Önkoşul indeksi yenilenemedi: {}", e.getMessage());
+        }
+    }
+
+    private Snapshot build(List<Object[]> edges) {
+        Map<Long, Integer> indexById = new HashMap<>();
+        List<String> codes = new ArrayList<>();
+        List<int[]> edgeIndexes = new ArrayList<>(edges.size());
+
+        for (Object[] edge : edges) {
+            int course = indexOf(((Number) edge[0]).longValue(), null, indexById, codes);
+            int prerequisite = indexOf(((Number) edge[1]).longValue(), (String) edge[2], indexById, codes);
+            edgeIndexes.add(new int[]{course, prerequisite});
+        }
+
+        int n = codes.size();
+        int[][] direct = adjacency(n, edgeIndexes);
+
+        // Her ders için BFS; n tipik olarak birkaç bin olduğu için O(n·(n+e)) yeniden kurulum yeterince hızlı
+        BitSet[] closures = new BitSet[n];
+        int[] queue = new int[n];
+        int cyclicCount = 0;
+        for (int start = 0; start < n; start++) {
+            if (direct[start].length == 0) {
+                continue;
+            }
+            BitSet reached = new BitSet(n);
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = start;
+            while (head < tail) {
+                for (int next : direct[queue[head++]]) {
+                    if (!reached.get(next)) {
+                        reached.set(next);
+                        queue[tail++] = next;
+                    }
+                }
+            }
+            if (reached.get(start)) {
+                cyclicCount++;
+                log.warn("Önkoşul döngüsü tespit edildi - ders: {} kendi önkoşulu durumunda", codeOrId(codes, indexById, start));
+            }
+            closures[start] = reached;
+        }
+
+        return new Snapshot(indexById, codes.toArray(new String[0]), closures, cyclicCount);
+    }
+
+    private static int indexOf(long courseId, String code, Map<Long, Integer> indexById, List<String> codes) {
+        Integer index = indexById.get(courseId);
+        if (index == null) {
+            index = codes.size();
+            indexById.put(courseId, index);
+            codes.add(code);
+        } else if (code != null && codes.get(index) == null) {
+            codes.set(index, code);
+        }
+        return index;
+    }
+
+    private static int[][] adjacency(int n, List<int[]> edges) {
+        int[] degree = new int[n];
+        for (int[] edge : edges) {
+            degree[edge[0]]++;
+        }
+        int[][] direct = new int[n][];
+        for (int i = 0; i < n; i++) {
+            direct[i] = new int[degree[i]];
+        }
+        int[] filled = new int[n];
+        for (int[] edge : edges) {
+            direct[edge[0]][filled[edge[0]]++] = edge[1];
+        }
+        return direct;
+    }
+
+    private static String codeOrId(List<String> codes, Map<Long, Integer> indexById, int index) {
+        if (codes.get(index) != null) {
+            return codes.get(index);
+        }
+        return indexById.entrySet().stream()
+                .filter(e -> e.getValue() == index)
+                .map(e -> "id=" + e.getKey())
+                .findFirst()
+                .orElse("?");
+    }
+
+    /**
+     * Değişmez indeks görüntüsü; yeniden kurulumda tek seferde değiştirilir.
+     */
+    private static final class Snapshot {
+        private static final Snapshot EMPTY = new Snapshot(Map.of(), new String[0], new BitSet[0], 0);
+
+        private final Map<Long, Integer> indexById;
+        private final String[] codes;
+        private final BitSet[] closures;
+        private final int cyclicCount;
+
+        private Snapshot(Map<Long, Integer> indexById, String[] codes, BitSet[] closures, int cyclicCount) {
+            this.indexById = indexById;
+            this.codes = codes;
+            this.closures = closures;
+            this.cyclicCount = cyclicCount;
+        }
+
+        private BitSet closureOf(Long courseId) {
+            Integer index = indexById.get(courseId);
+            return index != null ? closures[index] : null;
+        }
+
+        private BitSet toBitSet(Collection<Long> courseIds) {
+            BitSet bits = new BitSet(codes.length);
+            for (Long courseId : courseIds) {
+                Integer index = indexById.get(courseId);
+                if (index != null) {
+                    bits.set(index);
+                }
+            }
+            return bits;
+        }
+    }
+}
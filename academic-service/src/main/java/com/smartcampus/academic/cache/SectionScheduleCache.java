@@ -0,0 +1,109 @@
+package com.smartcampus.academic.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartcampus.academic.dto.ScheduleSlot;
+import com.smartcampus.academic.dto.WeeklyScheduleBitmap;
+import com.smartcampus.academic.entity.CourseSection;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Section id → derlenmiş haftalık program bitmap'i cache'i.
+ * schedule_json her kayıt isteğinde yeniden parse edilmez; kayıt, entity'deki JSON metniyle
+ * birlikte tutulur ve metin değiştiyse (section güncellendiyse) bitmap yeniden derlenir.
+ * Bu yüzden TTL gerekmez, sadece boyut sınırlanır.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SectionScheduleCache {
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${academic.schedule-cache.max-size:20000}")
+    private int maxSize;
+
+    private BoundedCache<Long, Entry> entries;
+
+    private Counter hitCounter;
+    private Counter missCounter;
+
+    @PostConstruct
+    public void init() {
+        entries = new BoundedCache<>(maxSize);
+        hitCounter = Counter.builder("academic.schedule_cache.requests")
+                .tag("result", "hit")
+                .description("Section program bitmap cache isabetleri")
+                .register(meterRegistry);
+        missCounter = Counter.builder("academic.schedule_cache.requests")
+                .tag("result", "miss")
+                .description("Section program bitmap cache ıskaları")
+                .register(meterRegistry);
+        Gauge.builder("academic.schedule_cache.size", entries, BoundedCache::size)
+                .description("Cache'teki derlenmiş program sayısı")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Section'ın derlenmiş programını döner. Programı olmayan section için boş bitmap döner.
+     *
+     * @throws IllegalArgumentException schedule_json okunamıyorsa veya saatler geçersizse; bozuk program
+     *                                  boş sayılmaz, aksi halde çakışma kontrolü sessizce atlanırdı
+     */
+    public WeeklyScheduleBitmap getBitmap(CourseSection section) {
+        String scheduleJson = section.getScheduleJson();
+        if (scheduleJson == null || scheduleJson.isBlank()) {
+            return WeeklyScheduleBitmap.EMPTY;
+        }
+        if (section.getId() == null) {
+            return compile(scheduleJson);
+        }
+
+        Entry entry = entries.get(section.getId());
+        if (entry != null && entry.scheduleJson.equals(scheduleJson)) {
+            hitCounter.increment();
+            return entry.bitmap;
+        }
+
+        missCounter.increment();
+        WeeklyScheduleBitmap bitmap = compile(scheduleJson);
+        entries.put(section.getId(), new Entry(scheduleJson, bitmap));
+        return bitmap;
+    }
+
+    public void evict(Long sectionId) {
+        entries.remove(sectionId);
+    }
+
+    private WeeklyScheduleBitmap compile(String scheduleJson) {
+        List<ScheduleSlot> slots;
+        try {
+            slots = objectMapper.readValue(scheduleJson, new TypeReference<List<ScheduleSlot>>() {});
+        } catch (JsonProcessingException e) {
+            log.warn("Schedule JSON parse hatası: {}", e.getOriginalMessage());
+            throw new IllegalArgumentException("Program JSON'u okunamadı", e);
+        }
+        return WeeklyScheduleBitmap.compile(slots);
+    }
+
+    private static final class Entry {
+        private final String scheduleJson;
+        private final WeeklyScheduleBitmap bitmap;
+
+        private Entry(String scheduleJson, WeeklyScheduleBitmap bitmap) {
+            this.scheduleJson = scheduleJson;
+            this.bitmap = bitmap;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.smartcampus.academic.cache;
+
+import com.smartcampus.academic.repository.StudentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * email → students.id eşlemesi için sınırlı boyutlu, TTL'li bellek içi cache.
+ * Program sorgusu gibi sık çağrılan isteklerde users ve students tablolarına her seferinde gidilmez.
+ * Öğrenci olmayan kullanıcılar cache'lenmez; öğrenci kaydı sonradan oluşturulabilir.
+ */
+@Component
+@RequiredArgsConstructor
+public class StudentIdentityCache {
+
+    private final StudentRepository studentRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${academic.identity-cache.max-size:50000}")
+    private int maxSize;
+
+    @Value("${academic.identity-cache.ttl-minutes:60}")
+    private long ttlMinutes;
+
+    private BoundedCache<String, Long> entries;
+
+    private Counter hitCounter;
+    private Counter missCounter;
+
+    @PostConstruct
+    public void init() {
+        entries = new BoundedCache<>(maxSize, ttlMinutes, TimeUnit.MINUTES);
+        hitCounter = Counter.builder("academic.identity_cache.requests")
+                .tag("result", "hit")
+                .description("email → student_id cache isabetleri")
+                .register(meterRegistry);
+        missCounter = Counter.builder("academic.identity_cache.requests")
+                .tag("result", "miss")
+                .description("email → student_id cache ıskaları")
+                .register(meterRegistry);
+        Gauge.builder("academic.identity_cache.size", entries, BoundedCache::size)
+                .description("Cache'teki eşleme sayısı")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Kullanıcının öğrenci id'sini döner; cache'te yoksa veya süresi dolmuşsa veritabanından okur.
+     *
+     * @return kullanıcı bulunamazsa veya öğrenci değilse boş
+     */
+    public Optional<Long> findStudentIdByEmail(String email) {
+        Long cached = entries.get(email);
+        if (cached != null) {
+            hitCounter.increment();
+            return Optional.of(cached);
+        }
+
+        missCounter.increment();
+        Optional<Long> studentId = studentRepository.findIdByUserEmail(email);
+        if (studentId.isEmpty()) {
+            entries.remove(email);
+            return Optional.empty();
+        }
+
+        entries.put(email, studentId.get());
+        return studentId;
+    }
+
+    public void evict(String email) {
+        entries.remove(email);
+    }
+}
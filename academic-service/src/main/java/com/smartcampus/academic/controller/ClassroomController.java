@@ -11,11 +11,14 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
 
 @RestController
@@ -81,6 +84,21 @@ public class ClassroomController {
         return ResponseEntity.ok(ApiResponse.success(classrooms));
     }
 
+    /**
+     * Verilen tarih ve saatte boş olan, kapasitesi yeterli derslikler (kapasiteye göre artan)
+     */
+    @GetMapping("/free")
+    public ResponseEntity<ApiResponse<List<ClassroomResponse>>> findFreeClassrooms(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam LocalTime startTime,
+            @RequestParam LocalTime endTime,
+            @RequestParam(required = false) Integer minCapacity,
+            @RequestParam(defaultValue = "20") int limit) {
+        List<ClassroomResponse> classrooms = classroomService.findFreeClassrooms(
+                date, startTime, endTime, minCapacity, Math.min(Math.max(limit, 1), 100));
+        return ResponseEntity.ok(ApiResponse.success(classrooms));
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ApiResponse<ClassroomResponse>> updateClassroom(
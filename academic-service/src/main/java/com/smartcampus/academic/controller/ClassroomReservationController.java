@@ -2,6 +2,7 @@ package com.smartcampus.academic.controller;
 
 import com.smartcampus.academic.dto.request.CreateReservationRequest;
 import com.smartcampus.academic.dto.response.ApiResponse;
+import com.smartcampus.academic.dto.response.FreeSlotResponse;
 import com.smartcampus.academic.dto.response.ReservationResponse;
 import com.smartcampus.academic.security.CustomUserDetails;
 import com.smartcampus.academic.service.ClassroomReservationService;
@@ -79,6 +80,17 @@ public class ClassroomReservationController {
         return ResponseEntity.ok(ApiResponse.success(occupiedSlots));
     }
 
+    /**
+     * Dersliğin o gündeki boş zaman aralıkları (ders programı ve rezervasyonlar düşülmüş)
+     */
+    @GetMapping("/free-slots")
+    public ResponseEntity<ApiResponse<List<FreeSlotResponse>>> getFreeSlots(
+            @RequestParam Long classroomId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        List<FreeSlotResponse> freeSlots = reservationService.getFreeSlots(classroomId, date);
+        return ResponseEntity.ok(ApiResponse.success(freeSlots));
+    }
+
     /**
      * Onay bekleyen rezervasyonlar (Admin)
      */
@@ -0,0 +1,197 @@
+package com.smartcampus.academic.dto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Bir section'ın haftalık ders programının 5 dakikalık dilimlerle derlenmiş bitmap hali.
+ * Pazartesi 00:00'dan Pazar 24:00'e kadar her dilim bir bit; hafta 32 long'a sığar.
+ * İki program arasındaki çakışma kontrolü kelime kelime AND işlemine indirgenir.
+ * 5 dakikaya hizalı olmayan saatler dilimlere genişletilerek işaretlenir; bu programlarda
+ * bitmap'in bulduğu çakışma dakika hassasiyetindeki aralıklarla ayrıca doğrulanır.
+ * Gün adı tanınmayan slotlar bitmap'e girmez; bunlar eski yöntemle, gün adı büyük/küçük harf
+ * duyarsız eşitse saat aralıkları karşılaştırılarak kontrol edilir.
+ */
+public final class WeeklyScheduleBitmap {
+
+    public static final int SLOT_MINUTES = 5;
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int SLOTS_PER_DAY = MINUTES_PER_DAY / SLOT_MINUTES;
+    private static final int WORDS = (7 * SLOTS_PER_DAY + 63) / 64;
+
+    private static final String[] DAY_NAMES = {
+            "MONDAY", "TUESDAY", "WEDNESDAY", "THURSDAY", "FRIDAY", "SATURDAY", "SUNDAY"
+    };
+
+    private static final Map<String, Integer> DAY_INDEXES = Map.ofEntries(
+            Map.entry("MONDAY", 0), Map.entry("PAZARTESİ", 0), Map.entry("PAZARTESI", 0),
+            Map.entry("TUESDAY", 1), Map.entry("SALI", 1),
+            Map.entry("WEDNESDAY", 2), Map.entry("ÇARŞAMBA", 2), Map.entry("CARSAMBA", 2),
+            Map.entry("THURSDAY", 3), Map.entry("PERŞEMBE", 3), Map.entry("PERSEMBE", 3),
+            Map.entry("FRIDAY", 4), Map.entry("CUMA", 4),
+            Map.entry("SATURDAY", 5), Map.entry("CUMARTESİ", 5), Map.entry("CUMARTESI", 5),
+            Map.entry("SUNDAY", 6), Map.entry("PAZAR", 6));
+
+    public static final WeeklyScheduleBitmap EMPTY =
+            new WeeklyScheduleBitmap(new long[WORDS], new int[0], true, List.of());
+
+    private final long[] words;
+    // Dakika hassasiyetindeki aralıklar: [gün, başlangıç, bitiş] üçlüleri
+    private final int[] intervals;
+    private final boolean aligned;
+    // Gün adı tanınmayan slotlar; ScheduleSlot.overlapsWith ile karşılaştırılır
+    private final List<ScheduleSlot> unresolved;
+
+    private WeeklyScheduleBitmap(long[] words, int[] intervals, boolean aligned, List<ScheduleSlot> unresolved) {
+        this.words = words;
+        this.intervals = intervals;
+        this.aligned = aligned;
+        this.unresolved = unresolved;
+    }
+
+    /**
+     * Program slotlarını bitmap'e derler.
+     *
+     * @throws IllegalArgumentException saat "HH:mm" biçiminde değilse
+     */
+    public static WeeklyScheduleBitmap compile(List<ScheduleSlot> slots) {
+        if (slots == null || slots.isEmpty()) {
+            return EMPTY;
+        }
+
+        long[] words = new long[WORDS];
+        int[] intervals = new int[slots.size() * 3];
+        boolean aligned = true;
+        int count = 0;
+        List<ScheduleSlot> unresolved = new ArrayList<>();
+
+        for (ScheduleSlot slot : slots) {
+            int start = parseMinutes(slot.getStartTime());
+            int end = parseMinutes(slot.getEndTime());
+            if (start >= end) {
+                continue;
+            }
+
+            Integer day = dayIndex(slot.getDay());
+            if (day == null) {
+                if (slot.getDay() == null || slot.getDay().isBlank()) {
+                    throw new IllegalArgumentException("Gün belirtilmemiş");
+                }
+                unresolved.add(ScheduleSlot.builder()
+                        .day(slot.getDay().trim())
+                        .startTime(slot.getStartTime().trim())
+                        .endTime(slot.getEndTime().trim())
+                        .build());
+                continue;
+            }
+
+            aligned &= start % SLOT_MINUTES == 0 && end % SLOT_MINUTES == 0;
+            int from = day * SLOTS_PER_DAY + start / SLOT_MINUTES;
+            int to = day * SLOTS_PER_DAY + (end + SLOT_MINUTES - 1) / SLOT_MINUTES;
+            setRange(words, from, to);
+
+            intervals[count++] = day;
+            intervals[count++] = start;
+            intervals[count++] = end;
+        }
+
+        if (count == 0 && unresolved.isEmpty()) {
+            return EMPTY;
+        }
+        return new WeeklyScheduleBitmap(words, Arrays.copyOf(intervals, count), aligned, List.copyOf(unresolved));
+    }
+
+    public boolean isEmpty() {
+        return intervals.length == 0 && unresolved.isEmpty();
+    }
+
+    /**
+     * İki programın çakıştığı ilk günü döner.
+     *
+     * @return çakışma varsa gün adı (MONDAY, TUESDAY, ... veya tanınmayan slotun kendi gün adı), yoksa null
+     */
+    public String findConflictDay(WeeklyScheduleBitmap other) {
+        String conflictDay = findBitmapConflictDay(other);
+        return conflictDay != null ? conflictDay : findUnresolvedConflictDay(other);
+    }
+
+    private String findBitmapConflictDay(WeeklyScheduleBitmap other) {
+        for (int i = 0; i < WORDS; i++) {
+            long common = words[i] & other.words[i];
+            if (common == 0) {
+                continue;
+            }
+            if (aligned && other.aligned) {
+                int bit = i * 64 + Long.numberOfTrailingZeros(common);
+                return DAY_NAMES[bit / SLOTS_PER_DAY];
+            }
+            // Hizasız saatlerde ortak dilim gerçek bir çakışma olmayabilir
+            return findExactConflictDay(other);
+        }
+        return null;
+    }
+
+    private String findExactConflictDay(WeeklyScheduleBitmap other) {
+        int conflictDay = Integer.MAX_VALUE;
+        for (int i = 0; i < intervals.length; i += 3) {
+            for (int j = 0; j < other.intervals.length; j += 3) {
+                if (intervals[i] == other.intervals[j]
+                        && intervals[i + 1] < other.intervals[j + 2]
+                        && other.intervals[j + 1] < intervals[i + 2]) {
+                    conflictDay = Math.min(conflictDay, intervals[i]);
+                }
+            }
+        }
+        return conflictDay == Integer.MAX_VALUE ? null : DAY_NAMES[conflictDay];
+    }
+
+    private String findUnresolvedConflictDay(WeeklyScheduleBitmap other) {
+        for (ScheduleSlot slot : unresolved) {
+            for (ScheduleSlot otherSlot : other.unresolved) {
+                if (slot.overlapsWith(otherSlot)) {
+                    return slot.getDay();
+                }
+            }
+        }
+        return null;
+    }
+
+    private static void setRange(long[] words, int from, int to) {
+        for (int bit = from; bit < to; bit++) {
+            words[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    /**
+     * Gün adını büyük/küçük harf duyarsız çözer; Türkçe ve İngilizce adları tanır.
+     *
+     * @return 0 (Pazartesi) - 6 (Pazar), tanınmıyorsa null
+     */
+    private static Integer dayIndex(String day) {
+        if (day == null) {
+            return null;
+        }
+        String trimmed = day.trim();
+        // Türkçe yerelde "i" → "İ" olduğundan ("friday" → "FRİDAY") önce kök yerel denenir
+        Integer index = DAY_INDEXES.get(trimmed.toUpperCase(Locale.ROOT));
+        return index != null ? index : DAY_INDEXES.get(trimmed.toUpperCase(Locale.forLanguageTag("tr")));
+    }
+
+    private static int parseMinutes(String time) {
+        try {
+            String[] parts = time.trim().split(":");
+            int hour = Integer.parseInt(parts[0]);
+            int minute = Integer.parseInt(parts[1]);
+            if (hour < 0 || minute < 0 || minute >= 60 || hour * 60 + minute > MINUTES_PER_DAY) {
+                throw new IllegalArgumentException("Geçersiz saat: " + time);
+            }
+            return hour * 60 + minute;
+        } catch (NullPointerException | IndexOutOfBoundsException | NumberFormatException e) {
+            throw new IllegalArgumentException("Geçersiz saat: " + time, e);
+        }
+    }
+}
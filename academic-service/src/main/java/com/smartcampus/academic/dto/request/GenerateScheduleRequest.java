@@ -8,11 +8,11 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.List;
+import java.util.Map;
 
 /**
- * Frontend'deki program oluşturma sayfası ile uyumlu basit istek DTO'su.
- * CSP algoritmasının tam implementasyonu henüz yok; bu DTO sadece seçilen
- * bölümlerin (section) bilgisini backend'e iletmek için kullanılır.
+ * Frontend'deki program oluşturma sayfası ile uyumlu istek DTO'su.
+ * Seçilen bölümler (section) için kısıt tabanlı program üretici çalıştırılır.
  */
 @Data
 @Builder
@@ -37,6 +37,12 @@ public class GenerateScheduleRequest {
      */
     @NotEmpty(message = "En az bir ders bölümü seçilmelidir")
     private List<Long> sectionIds;
+
+    /**
+     * Opsiyonel: section ID → dersliğin sahip olması gereken özellikler (ör. "projector", "lab").
+     * Özellikler dersliklerin features_json alanıyla büyük/küçük harf duyarsız eşleştirilir.
+     */
+    private Map<Long, List<String>> requiredFeatures;
 }
 
 
@@ -12,7 +12,7 @@ import java.util.Map;
  * Akademik performans analitik verileri
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class AcademicStatsResponse {
@@ -38,6 +38,9 @@ public class AcademicStatsResponse {
     private Long studentsBetween2And3; // 2.0 <= GPA < 3.0
     private Long studentsBelow2; // GPA < 2.0 (riskli)
 
+    // Cache'teki snapshot'ın yaşı (saniye)
+    private Long snapshotAgeSeconds;
+
     @Data
     @Builder
     @NoArgsConstructor
@@ -11,7 +11,7 @@ import java.util.List;
  * Yoklama analitik verileri
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class AttendanceStatsResponse {
@@ -31,6 +31,9 @@ public class AttendanceStatsResponse {
     // Son 7 gün trend
     private List<DailyAttendanceStats> weeklyTrend;
 
+    // Cache'teki snapshot'ın yaşı (saniye)
+    private Long snapshotAgeSeconds;
+
     @Data
     @Builder
     @NoArgsConstructor
@@ -9,7 +9,7 @@ import lombok.NoArgsConstructor;
  * Admin Dashboard ana istatistikleri
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class DashboardStatsResponse {
@@ -42,4 +42,5 @@ public class DashboardStatsResponse {
     // Sistem Durumu
     private String systemHealth;
     private String lastUpdated;
+    private Long snapshotAgeSeconds; // Cache'teki snapshot'ın yaşı
 }
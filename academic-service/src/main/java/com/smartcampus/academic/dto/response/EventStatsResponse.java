@@ -12,7 +12,7 @@ import java.util.Map;
  * Etkinlik analitik verileri
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class EventStatsResponse {
@@ -37,6 +37,9 @@ public class EventStatsResponse {
     // Aylık trend
     private List<MonthlyEventStats> monthlyTrend;
 
+    // Cache'teki snapshot'ın yaşı (saniye)
+    private Long snapshotAgeSeconds;
+
     @Data
     @Builder
     @NoArgsConstructor
@@ -0,0 +1,17 @@
+package com.smartcampus.academic.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FreeSlotResponse {
+    private LocalTime startTime;
+    private LocalTime endTime;
+}
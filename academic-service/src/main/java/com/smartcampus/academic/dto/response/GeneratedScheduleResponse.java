@@ -11,9 +11,9 @@ import java.util.List;
 
 /**
  * Program oluşturma (generate schedule) cevabı.
- * Frontend tarafındaki GeneratedSchedule tipine uyumlu olacak şekilde basit tutulmuştur.
- * Şu aşamada sadece görsel olarak alternatifleri göstermek için kullanılıyor;
- * gerçek CSP algoritması ileride eklenecek.
+ * Frontend tarafındaki GeneratedSchedule tipine uyumludur; her alternatif çözücünün bulduğu
+ * bir programdır. conflicts gerçek çakışma sayısı, score çakışmasız oturumların yüzdesidir.
+ * Kredisi birden fazla oturum gerektiren section'lar için birden fazla entry döner.
  */
 @Data
 @Builder
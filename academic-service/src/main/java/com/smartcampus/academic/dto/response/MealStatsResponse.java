@@ -12,7 +12,7 @@ import java.util.Map;
  * Yemek kullanım analitik verileri
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class MealStatsResponse {
@@ -37,6 +37,9 @@ public class MealStatsResponse {
     // Haftalık trend
     private List<DailyMealStats> weeklyTrend;
 
+    // Cache'teki snapshot'ın yaşı (saniye)
+    private Long snapshotAgeSeconds;
+
     @Data
     @Builder
     @NoArgsConstructor
@@ -45,7 +45,8 @@ public class CourseSection {
     @Builder.Default
     private Integer capacity = 40;
 
-    @Column(name = "enrolled_count", nullable = false)
+    // Sayaç sadece tryReserveSeat/releaseSeat ile değişir; entity flush'ı eski değeri geri yazmasın
+    @Column(name = "enrolled_count", nullable = false, updatable = false)
     @Builder.Default
     private Integer enrolledCount = 0;
 
@@ -75,14 +76,4 @@ public class CourseSection {
     public boolean hasAvailableSlots() {
         return enrolledCount < capacity;
     }
-
-    public void incrementEnrollment() {
-        this.enrolledCount++;
-    }
-
-    public void decrementEnrollment() {
-        if (this.enrolledCount > 0) {
-            this.enrolledCount--;
-        }
-    }
 }
\ No newline at end of file
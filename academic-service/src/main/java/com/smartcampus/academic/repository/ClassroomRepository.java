@@ -3,7 +3,9 @@ package com.smartcampus.academic.repository;
 import com.smartcampus.academic.entity.Classroom;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -30,6 +32,15 @@ public interface ClassroomRepository extends JpaRepository<Classroom, Long> {
     @Query("SELECT c FROM Classroom c WHERE c.capacity >= :minCapacity AND c.isActive = true")
     List<Classroom> findByMinCapacity(@Param("minCapacity") Integer minCapacity);
 
+    // Program/rezervasyon yazarken aynı dersliğe yapılan eşzamanlı yazmaları sıraya koyar
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Classroom c WHERE c.id = :id")
+    Optional<Classroom> findByIdForUpdate(@Param("id") Long id);
+
+    // Doluluk indeksi için: id, kapasite
+    @Query("SELECT c.id, c.capacity FROM Classroom c WHERE c.isActive = true")
+    List<Object[]> findActiveCapacities();
+
     @Query("SELECT c FROM Classroom c WHERE " +
             "LOWER(c.building) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
             "LOWER(c.roomNumber) LIKE LOWER(CONCAT('%', :keyword, '%'))")
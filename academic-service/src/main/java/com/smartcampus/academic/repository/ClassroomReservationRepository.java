@@ -44,6 +44,11 @@ public interface ClassroomReservationRepository extends JpaRepository<ClassroomR
             Long classroomId, LocalDate startDate, LocalDate endDate,
             List<ClassroomReservation.ReservationStatus> statuses);
 
+    // Doluluk indeksi için: verilen tarihten itibaren bekleyen/onaylı rezervasyonlar (id, derslik id, tarih, başlangıç, bitiş)
+    @Query("SELECT r.id, r.classroom.id, r.reservationDate, r.startTime, r.endTime FROM ClassroomReservation r " +
+            "WHERE r.reservationDate >= :from AND r.status IN ('PENDING', 'APPROVED')")
+    List<Object[]> findBlockingOccupancyRowsFrom(@Param("from") LocalDate from);
+
     // Belirli tarihteki onaylı rezervasyonlar
     @Query("SELECT r FROM ClassroomReservation r WHERE r.reservationDate = :date AND r.status = 'APPROVED'")
     List<ClassroomReservation> findApprovedReservationsForDate(@Param("date") LocalDate date);
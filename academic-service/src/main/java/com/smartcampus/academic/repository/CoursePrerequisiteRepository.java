@@ -23,4 +23,17 @@ public interface CoursePrerequisiteRepository extends JpaRepository<CoursePrereq
     List<String> findPrerequisiteCodesByCourseId(@Param("courseId") Long courseId);
 
     boolean existsByCourseIdAndPrerequisiteId(Long courseId, Long prerequisiteId);
+
+    /**
+     * Tüm önkoşul kenarlarını {courseId, prerequisiteId, prerequisiteCode} olarak döner
+     */
+    @Query("SELECT cp.id.courseId, cp.id.prerequisiteId, p.code FROM CoursePrerequisite cp JOIN cp.prerequisite p")
+    List<Object[]> findAllEdges();
+
+    /**
+     * Kenar sayısı ve kenarların toplamından oluşan parmak izi; tablo değişti mi diye ucuzca kontrol etmek için
+     */
+    @Query("SELECT COUNT(cp), COALESCE(SUM(cp.id.courseId * 1000003 + cp.id.prerequisiteId), 0) " +
+            "FROM CoursePrerequisite cp")
+    List<Object[]> findEdgeFingerprint();
 }
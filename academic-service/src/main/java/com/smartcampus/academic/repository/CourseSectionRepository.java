@@ -4,10 +4,13 @@ import com.smartcampus.academic.entity.CourseSection;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -53,4 +56,27 @@ public interface CourseSectionRepository extends JpaRepository<CourseSection, Lo
 
     @Query("SELECT DISTINCT cs.year FROM CourseSection cs ORDER BY cs.year DESC")
     List<Integer> findDistinctYears();
+
+    /**
+     * Kontenjan doluysa hiçbir şey yapmayan koşullu UPDATE ile tek koltuk ayırır.
+     * Kontrol ve artırma veritabanında tek satır kilidi altında atomik yapılır.
+     *
+     * @return koltuk ayrıldıysa 1, kontenjan doluysa 0
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE CourseSection cs SET cs.enrolledCount = cs.enrolledCount + 1, cs.updatedAt = :now " +
+            "WHERE cs.id = :id AND cs.enrolledCount < cs.capacity")
+    int tryReserveSeat(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /**
+     * Ayrılmış bir koltuğu serbest bırakır; sayaç sıfırın altına inmez.
+     *
+     * @return koltuk bırakıldıysa 1
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE CourseSection cs SET cs.enrolledCount = cs.enrolledCount - 1, cs.updatedAt = :now " +
+            "WHERE cs.id = :id AND cs.enrolledCount > 0")
+    int releaseSeat(@Param("id") Long id, @Param("now") LocalDateTime now);
 }
\ No newline at end of file
@@ -47,4 +47,21 @@ public interface ScheduleRepository extends JpaRepository<Schedule, Long> {
 
     // Tüm aktif programlar
     List<Schedule> findByIsActiveTrue();
+
+    // Rezervasyon çakışma kontrolü için: dersliğin o gün ve dönemdeki çakışan programları
+    @Query("SELECT s FROM Schedule s WHERE s.classroom.id = :classroomId AND s.dayOfWeek = :dayOfWeek " +
+            "AND s.isActive = true AND UPPER(s.section.semester) = :semester AND s.section.year = :year " +
+            "AND NOT (s.endTime <= :startTime OR s.startTime >= :endTime)")
+    List<Schedule> findConflictingSchedulesInTerm(
+            @Param("classroomId") Long classroomId,
+            @Param("dayOfWeek") Schedule.DayOfWeek dayOfWeek,
+            @Param("semester") String semester,
+            @Param("year") Integer year,
+            @Param("startTime") LocalTime startTime,
+            @Param("endTime") LocalTime endTime);
+
+    // Doluluk indeksi için: id, derslik id, gün, başlangıç, bitiş, section dönemi, section yılı
+    @Query("SELECT s.id, s.classroom.id, s.dayOfWeek, s.startTime, s.endTime, s.section.semester, s.section.year " +
+            "FROM Schedule s WHERE s.isActive = true")
+    List<Object[]> findActiveOccupancyRows();
 }
@@ -2,6 +2,8 @@ package com.smartcampus.academic.repository;
 
 import com.smartcampus.academic.entity.Student;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -13,6 +15,10 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
 
     Optional<Student> findByStudentNumber(String studentNumber);
 
+    // email → students.id tek sorguda (entity yüklenmeden)
+    @Query("SELECT s.id FROM Student s WHERE s.user.email = :email")
+    Optional<Long> findIdByUserEmail(@Param("email") String email);
+
     boolean existsByUserId(Long userId);
 
     boolean existsByStudentNumber(String studentNumber);
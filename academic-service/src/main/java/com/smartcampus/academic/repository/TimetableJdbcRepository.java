@@ -0,0 +1,152 @@
+package com.smartcampus.academic.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Program üretici (timetable generator) için toplu okuma sorguları.
+ * Binlerce section'lık bir dönem, section başına sorgu atılmadan birkaç sorguda yüklenir.
+ */
+@Repository
+public class TimetableJdbcRepository {
+
+    // MySQL'in parametre sınırına takılmamak için IN listeleri parçalara bölünür
+    private static final int IN_CHUNK_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TimetableJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    private final RowMapper<SectionRow> sectionRowMapper = (rs, rowNum) -> SectionRow.builder()
+            .sectionId(rs.getLong("section_id"))
+            .courseCode(rs.getString("course_code"))
+            .courseName(rs.getString("course_name"))
+            .credits(rs.getInt("credits"))
+            .instructorId(rs.getLong("instructor_id"))
+            .capacity(rs.getInt("capacity"))
+            .enrolledCount(rs.getInt("enrolled_count"))
+            .build();
+
+    public List<SectionRow> findSections(List<Long> sectionIds) {
+        List<SectionRow> sections = new ArrayList<>(sectionIds.size());
+        for (int from = 0; from < sectionIds.size(); from += IN_CHUNK_SIZE) {
+            List<Long> chunk = sectionIds.subList(from, Math.min(from + IN_CHUNK_SIZE, sectionIds.size()));
+            String placeholders = chunk.stream().map(id -> "?").collect(Collectors.joining(","));
+            String sql = "SELECT cs.id AS section_id, c.code AS course_code, c.name AS course_name, c.credits, " +
+                    "cs.instructor_id, cs.capacity, cs.enrolled_count " +
+                    "FROM course_sections cs " +
+                    "JOIN courses c ON cs.course_id = c.id " +
+                    "WHERE cs.id IN (" + placeholders + ")";
+            sections.addAll(jdbcTemplate.query(sql, sectionRowMapper, chunk.toArray()));
+        }
+        return sections;
+    }
+
+    public List<ClassroomRow> findActiveClassrooms() {
+        return jdbcTemplate.query(
+                "SELECT id, building, room_number, capacity, features_json FROM classrooms WHERE is_active = 1",
+                (rs, rowNum) -> ClassroomRow.builder()
+                        .classroomId(rs.getLong("id"))
+                        .building(rs.getString("building"))
+                        .roomNumber(rs.getString("room_number"))
+                        .capacity(rs.getInt("capacity"))
+                        .featuresJson(rs.getString("features_json"))
+                        .build());
+    }
+
+    /**
+     * Dönemdeki aktif program satırları; program üretilmeyen section'lar için sabit kısıt olarak kullanılır.
+     */
+    public List<ScheduleRow> findActiveSchedules(String semester, Integer year) {
+        return jdbcTemplate.query(
+                "SELECT s.section_id, cs.instructor_id, s.classroom_id, s.day_of_week, s.start_time, s.end_time " +
+                        "FROM schedules s " +
+                        "JOIN course_sections cs ON s.section_id = cs.id " +
+                        "WHERE s.is_active = 1 AND cs.semester = ? AND cs.year = ?",
+                (rs, rowNum) -> ScheduleRow.builder()
+                        .sectionId(rs.getLong("section_id"))
+                        .instructorId(rs.getLong("instructor_id"))
+                        .classroomId(rs.getLong("classroom_id"))
+                        .dayOfWeek(rs.getString("day_of_week"))
+                        .startTime(rs.getTime("start_time").toLocalTime())
+                        .endTime(rs.getTime("end_time").toLocalTime())
+                        .build(),
+                semester, year);
+    }
+
+    /**
+     * Dönemde ortak öğrencisi olan section çiftlerini ve ortak öğrenci sayısını akıtır.
+     * Çiftler satır satır işlenir, sonuç listesi bellekte biriktirilmez.
+     */
+    public void streamStudentOverlaps(String semester, Integer year, StudentOverlapHandler handler) {
+        jdbcTemplate.query(
+                "SELECT e1.section_id AS section_a, e2.section_id AS section_b, COUNT(*) AS shared_students " +
+                        "FROM enrollments e1 " +
+                        "JOIN enrollments e2 ON e2.student_id = e1.student_id AND e2.section_id > e1.section_id " +
+                        "JOIN course_sections s1 ON s1.id = e1.section_id " +
+                        "JOIN course_sections s2 ON s2.id = e2.section_id " +
+                        "WHERE e1.status = 'ENROLLED' AND e2.status = 'ENROLLED' " +
+                        "AND s1.semester = ? AND s1.year = ? AND s2.semester = ? AND s2.year = ? " +
+                        "GROUP BY e1.section_id, e2.section_id",
+                (RowCallbackHandler) rs -> handler.accept(
+                        rs.getLong("section_a"), rs.getLong("section_b"), rs.getInt("shared_students")),
+                semester, year, semester, year);
+    }
+
+    @FunctionalInterface
+    public interface StudentOverlapHandler {
+        void accept(long sectionA, long sectionB, int sharedStudents);
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SectionRow {
+        private Long sectionId;
+        private String courseCode;
+        private String courseName;
+        private int credits;
+        private Long instructorId;
+        private int capacity;
+        private int enrolledCount;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ClassroomRow {
+        private Long classroomId;
+        private String building;
+        private String roomNumber;
+        private int capacity;
+        private String featuresJson;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ScheduleRow {
+        private Long sectionId;
+        private Long instructorId;
+        private Long classroomId;
+        private String dayOfWeek;
+        private LocalTime startTime;
+        private LocalTime endTime;
+    }
+}
@@ -2,8 +2,10 @@ package com.smartcampus.academic.repository;
 
 import com.smartcampus.academic.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +14,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
 
     boolean existsByEmail(String email);
+
+    @Query("SELECT u.id FROM User u WHERE u.isActive = false OR u.deletedAt IS NOT NULL")
+    List<Long> findRevokedUserIds();
 }
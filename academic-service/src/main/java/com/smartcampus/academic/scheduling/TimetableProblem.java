@@ -0,0 +1,382 @@
+package com.smartcampus.academic.scheduling;
+
+import com.smartcampus.academic.entity.Schedule;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Program üretme probleminin çözücü için yoğun (dense) indeksli, değişmez modeli.
+ * Section'lar, derslikler, öğretim üyeleri ve zaman dilimleri 0..n-1 arası indekslere eşlenir;
+ * çözücü sadece int dizileri üzerinde çalışır.
+ *
+ * <p>Her section, dersin kredisine göre haftada bir veya birkaç oturumdan (meeting) oluşur;
+ * her oturum çözücüde bir değişkendir ve bir zaman dilimi (period) ile bir derslik alır.
+ * Program üretilmeyen section'ların mevcut {@link Schedule} satırları sabit kısıt olarak eklenir:
+ * derslik ve öğretim üyesini o saatlerde meşgul eder, ortak öğrencileri için çakışma sayılır.
+ */
+public final class TimetableProblem {
+
+    final Schedule.DayOfWeek[] days;
+    final int periodCount;
+    final int[] periodDay;
+    final LocalTime[] periodStart;
+    final LocalTime[] periodEnd;
+
+    final int sectionCount;
+    final SectionInfo[] sections;
+    final int[] sectionInstructor;
+    // Oturumlar section sırasıyla dizilir: section s'in oturumları [firstMeeting[s], firstMeeting[s + 1])
+    final int[] firstMeeting;
+    final int[] meetingSection;
+    final int meetingCount;
+    // Section'a uygun derslikler, kapasiteye göre artan sırada; boşsa section hiçbir dersliğe sığmıyor
+    final int[][] candidateRooms;
+
+    final int roomCount;
+    final RoomInfo[] rooms;
+    final int instructorCount;
+
+    // room * periodCount + period indeksli sabit doluluklar
+    final boolean[] fixedRoomBusy;
+    final int[] fixedInstructorBusy;
+    // Ortak öğrencisi olan section komşulukları ve ortak öğrenci sayıları
+    final int[][] neighbors;
+    final int[][] neighborWeights;
+    // Section'ın ortak öğrencisi olan sabit section'ların period başına ortak öğrenci toplamı; yoksa null
+    final int[][] fixedStudentClash;
+
+    private TimetableProblem(Builder builder) {
+        this.days = builder.days;
+        this.periodCount = builder.periodDay.length;
+        this.periodDay = builder.periodDay;
+        this.periodStart = builder.periodStart;
+        this.periodEnd = builder.periodEnd;
+
+        this.sectionCount = builder.sections.size();
+        this.sections = builder.sections.toArray(new SectionInfo[0]);
+        this.roomCount = builder.rooms.size();
+        this.rooms = builder.rooms.toArray(new RoomInfo[0]);
+
+        Map<Long, Integer> instructorIndexes = new HashMap<>();
+        this.sectionInstructor = new int[sectionCount];
+        this.firstMeeting = new int[sectionCount + 1];
+        int meetings = 0;
+        for (int s = 0; s < sectionCount; s++) {
+            SectionInfo section = sections[s];
+            sectionInstructor[s] = section.instructorId == null ? -1
+                    : instructorIndexes.computeIfAbsent(section.instructorId, id -> instructorIndexes.size());
+            firstMeeting[s] = meetings;
+            meetings += section.meetings;
+        }
+        firstMeeting[sectionCount] = meetings;
+        this.meetingCount = meetings;
+        this.meetingSection = new int[meetings];
+        for (int s = 0; s < sectionCount; s++) {
+            Arrays.fill(meetingSection, firstMeeting[s], firstMeeting[s + 1], s);
+        }
+        this.instructorCount = instructorIndexes.size();
+
+        this.candidateRooms = new int[sectionCount][];
+        for (int s = 0; s < sectionCount; s++) {
+            candidateRooms[s] = findCandidateRooms(sections[s]);
+        }
+
+        // Sabit program satırları
+        Map<Long, Integer> roomIndexes = new HashMap<>();
+        for (int r = 0; r < roomCount; r++) {
+            roomIndexes.put(rooms[r].classroomId, r);
+        }
+        Map<Long, Integer> sectionIndexes = new HashMap<>();
+        for (int s = 0; s < sectionCount; s++) {
+            sectionIndexes.put(sections[s].sectionId, s);
+        }
+        this.fixedRoomBusy = new boolean[roomCount * periodCount];
+        this.fixedInstructorBusy = new int[instructorCount * periodCount];
+        Map<Long, List<Integer>> fixedSectionPeriods = new HashMap<>();
+        for (FixedSchedule fixed : builder.fixedSchedules) {
+            if (sectionIndexes.containsKey(fixed.sectionId)) {
+                // Programı yeniden üretilen section'ın eski satırları kısıt değildir
+                continue;
+            }
+            Integer room = roomIndexes.get(fixed.classroomId);
+            Integer instructor = fixed.instructorId == null ? null : instructorIndexes.get(fixed.instructorId);
+            for (int p : overlappingPeriods(fixed)) {
+                if (room != null) {
+                    fixedRoomBusy[room * periodCount + p] = true;
+                }
+                if (instructor != null) {
+                    fixedInstructorBusy[instructor * periodCount + p]++;
+                }
+                fixedSectionPeriods.computeIfAbsent(fixed.sectionId, id -> new ArrayList<>()).add(p);
+            }
+        }
+
+        // Ortak öğrenci komşulukları
+        int[] degree = new int[sectionCount];
+        this.fixedStudentClash = new int[sectionCount][];
+        for (int i = 0; i < builder.overlapCount; i++) {
+            Integer a = sectionIndexes.get(builder.overlapA[i]);
+            Integer b = sectionIndexes.get(builder.overlapB[i]);
+            if (a != null && b != null && !a.equals(b)) {
+                degree[a]++;
+                degree[b]++;
+            } else if (a != null || b != null) {
+                int s = a != null ? a : b;
+                List<Integer> periods = fixedSectionPeriods.get(a != null ? builder.overlapB[i] : builder.overlapA[i]);
+                if (periods != null) {
+                    if (fixedStudentClash[s] == null) {
+                        fixedStudentClash[s] = new int[periodCount];
+                    }
+                    for (int p : periods) {
+                        fixedStudentClash[s][p] += builder.overlapShared[i];
+                    }
+                }
+            }
+        }
+        this.neighbors = new int[sectionCount][];
+        this.neighborWeights = new int[sectionCount][];
+        for (int s = 0; s < sectionCount; s++) {
+            neighbors[s] = new int[degree[s]];
+            neighborWeights[s] = new int[degree[s]];
+        }
+        int[] filled = new int[sectionCount];
+        for (int i = 0; i < builder.overlapCount; i++) {
+            Integer a = sectionIndexes.get(builder.overlapA[i]);
+            Integer b = sectionIndexes.get(builder.overlapB[i]);
+            if (a != null && b != null && !a.equals(b)) {
+                neighbors[a][filled[a]] = b;
+                neighborWeights[a][filled[a]++] = builder.overlapShared[i];
+                neighbors[b][filled[b]] = a;
+                neighborWeights[b][filled[b]++] = builder.overlapShared[i];
+            }
+        }
+    }
+
+    public static Builder builder(List<Schedule.DayOfWeek> days, List<LocalTime[]> slots) {
+        return new Builder(days, slots);
+    }
+
+    public int getSectionCount() {
+        return sectionCount;
+    }
+
+    public int getMeetingCount() {
+        return meetingCount;
+    }
+
+    public int getRoomCount() {
+        return roomCount;
+    }
+
+    public int getPeriodCount() {
+        return periodCount;
+    }
+
+    public SectionInfo getSection(int section) {
+        return sections[section];
+    }
+
+    public int getMeetingSection(int meeting) {
+        return meetingSection[meeting];
+    }
+
+    /**
+     * @return derslik atanamadıysa null
+     */
+    public RoomInfo getRoom(int room) {
+        return room >= 0 ? rooms[room] : null;
+    }
+
+    public Schedule.DayOfWeek getPeriodDay(int period) {
+        return days[periodDay[period]];
+    }
+
+    public LocalTime getPeriodStart(int period) {
+        return periodStart[period];
+    }
+
+    public LocalTime getPeriodEnd(int period) {
+        return periodEnd[period];
+    }
+
+    /**
+     * Öncelik section kapasitesini alabilen dersliklerdedir; hiçbiri yoksa mevcut kayıt sayısını
+     * alabilen derslikler kullanılır. İstenen özelliklerin hepsi derslikte bulunmalıdır.
+     */
+    private int[] findCandidateRooms(SectionInfo section) {
+        int[] fitting = roomsWithAtLeast(section, Math.max(section.capacity, section.enrolledCount));
+        if (fitting.length == 0 && section.enrolledCount < section.capacity) {
+            fitting = roomsWithAtLeast(section, section.enrolledCount);
+        }
+        return fitting;
+    }
+
+    private int[] roomsWithAtLeast(SectionInfo section, int seats) {
+        List<Integer> fitting = new ArrayList<>();
+        for (int r = 0; r < roomCount; r++) {
+            if (rooms[r].capacity >= seats && rooms[r].features.containsAll(section.requiredFeatures)) {
+                fitting.add(r);
+            }
+        }
+        fitting.sort(Comparator.comparingInt((Integer r) -> rooms[r].capacity));
+        return fitting.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private List<Integer> overlappingPeriods(FixedSchedule fixed) {
+        List<Integer> periods = new ArrayList<>(2);
+        for (int p = 0; p < periodCount; p++) {
+            if (days[periodDay[p]] == fixed.dayOfWeek
+                    && periodStart[p].isBefore(fixed.endTime) && fixed.startTime.isBefore(periodEnd[p])) {
+                periods.add(p);
+            }
+        }
+        return periods;
+    }
+
+    public static final class SectionInfo {
+        private final Long sectionId;
+        private final String courseCode;
+        private final String courseName;
+        private final Long instructorId;
+        private final int capacity;
+        private final int enrolledCount;
+        private final int meetings;
+        private final Set<String> requiredFeatures;
+
+        private SectionInfo(Long sectionId, String courseCode, String courseName, Long instructorId,
+                int capacity, int enrolledCount, int meetings, Set<String> requiredFeatures) {
+            this.sectionId = sectionId;
+            this.courseCode = courseCode;
+            this.courseName = courseName;
+            this.instructorId = instructorId;
+            this.capacity = capacity;
+            this.enrolledCount = enrolledCount;
+            this.meetings = meetings;
+            this.requiredFeatures = requiredFeatures;
+        }
+
+        public Long getSectionId() {
+            return sectionId;
+        }
+
+        public String getCourseCode() {
+            return courseCode;
+        }
+
+        public String getCourseName() {
+            return courseName;
+        }
+    }
+
+    public static final class RoomInfo {
+        private final Long classroomId;
+        private final String name;
+        private final int capacity;
+        private final Set<String> features;
+
+        private RoomInfo(Long classroomId, String name, int capacity, Set<String> features) {
+            this.classroomId = classroomId;
+            this.name = name;
+            this.capacity = capacity;
+            this.features = features;
+        }
+
+        public Long getClassroomId() {
+            return classroomId;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    private record FixedSchedule(Long sectionId, Long instructorId, Long classroomId,
+            Schedule.DayOfWeek dayOfWeek, LocalTime startTime, LocalTime endTime) {
+    }
+
+    public static final class Builder {
+
+        private final Schedule.DayOfWeek[] days;
+        private final int[] periodDay;
+        private final LocalTime[] periodStart;
+        private final LocalTime[] periodEnd;
+        private final long slotMinutes;
+
+        private final List<SectionInfo> sections = new ArrayList<>();
+        private final List<RoomInfo> rooms = new ArrayList<>();
+        private final List<FixedSchedule> fixedSchedules = new ArrayList<>();
+
+        private long[] overlapA = new long[1024];
+        private long[] overlapB = new long[1024];
+        private int[] overlapShared = new int[1024];
+        private int overlapCount;
+
+        private Builder(List<Schedule.DayOfWeek> days, List<LocalTime[]> slots) {
+            if (days.isEmpty() || slots.isEmpty()) {
+                throw new IllegalArgumentException("Program için en az bir gün ve bir ders saati tanımlanmalıdır");
+            }
+            this.days = days.toArray(new Schedule.DayOfWeek[0]);
+            int periods = days.size() * slots.size();
+            this.periodDay = new int[periods];
+            this.periodStart = new LocalTime[periods];
+            this.periodEnd = new LocalTime[periods];
+            for (int d = 0; d < days.size(); d++) {
+                for (int t = 0; t < slots.size(); t++) {
+                    int p = d * slots.size() + t;
+                    periodDay[p] = d;
+                    periodStart[p] = slots.get(t)[0];
+                    periodEnd[p] = slots.get(t)[1];
+                }
+            }
+            this.slotMinutes = Math.max(1, Duration.between(slots.get(0)[0], slots.get(0)[1]).toMinutes());
+        }
+
+        /**
+         * Haftalık oturum sayısı kredi saatinden hesaplanır (ör. 90 dakikalık dilimlerde 3 kredi → 2 oturum).
+         */
+        public Builder addSection(Long sectionId, String courseCode, String courseName, Long instructorId,
+                int credits, int capacity, int enrolledCount, Set<String> requiredFeatures) {
+            int meetings = (int) Math.round(Math.max(credits, 1) * 60.0 / slotMinutes);
+            meetings = Math.max(1, Math.min(meetings, days.length));
+            sections.add(new SectionInfo(sectionId, courseCode, courseName, instructorId,
+                    capacity, enrolledCount, meetings, requiredFeatures));
+            return this;
+        }
+
+        public Builder addClassroom(Long classroomId, String name, int capacity, Set<String> features) {
+            rooms.add(new RoomInfo(classroomId, name, capacity, features));
+            return this;
+        }
+
+        public Builder addFixedSchedule(Long sectionId, Long instructorId, Long classroomId,
+                Schedule.DayOfWeek dayOfWeek, LocalTime startTime, LocalTime endTime) {
+            fixedSchedules.add(new FixedSchedule(sectionId, instructorId, classroomId, dayOfWeek, startTime, endTime));
+            return this;
+        }
+
+        public Builder addStudentOverlap(long sectionA, long sectionB, int sharedStudents) {
+            if (overlapCount == overlapA.length) {
+                int capacity = overlapA.length * 2;
+                overlapA = Arrays.copyOf(overlapA, capacity);
+                overlapB = Arrays.copyOf(overlapB, capacity);
+                overlapShared = Arrays.copyOf(overlapShared, capacity);
+            }
+            overlapA[overlapCount] = sectionA;
+            overlapB[overlapCount] = sectionB;
+            overlapShared[overlapCount++] = sharedStudents;
+            return this;
+        }
+
+        public TimetableProblem build() {
+            return new TimetableProblem(this);
+        }
+    }
+}
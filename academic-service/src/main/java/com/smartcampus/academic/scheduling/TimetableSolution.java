@@ -0,0 +1,61 @@
+package com.smartcampus.academic.scheduling;
+
+/**
+ * Çözücünün bulduğu bir program alternatifi.
+ * meetingPeriod/meetingRoom dizileri {@link TimetableProblem} oturum indeksleriyle hizalıdır;
+ * derslik atanamayan oturumun dersliği -1'dir.
+ */
+public final class TimetableSolution {
+
+    private final int[] meetingPeriod;
+    private final int[] meetingRoom;
+    private final int conflicts;
+    private final long cost;
+    private final double score;
+
+    TimetableSolution(int[] meetingPeriod, int[] meetingRoom, int conflicts, long cost, double score) {
+        this.meetingPeriod = meetingPeriod;
+        this.meetingRoom = meetingRoom;
+        this.conflicts = conflicts;
+        this.cost = cost;
+        this.score = score;
+    }
+
+    public int getPeriod(int meeting) {
+        return meetingPeriod[meeting];
+    }
+
+    public int getRoom(int meeting) {
+        return meetingRoom[meeting];
+    }
+
+    /**
+     * Derslik ve öğretim üyesi çift rezervasyonları, uygun derslik bulunamayan oturumlar ve
+     * ortak öğrencisi olan oturumların aynı saate düşmesi; her biri bir çakışma sayılır.
+     */
+    public int getConflicts() {
+        return conflicts;
+    }
+
+    /**
+     * Ağırlıklı toplam ceza; alternatifler önce çakışma sayısına, sonra buna göre sıralanır.
+     */
+    public long getCost() {
+        return cost;
+    }
+
+    /**
+     * Hiçbir çakışmaya karışmayan oturumların yüzdesi.
+     */
+    public double getScore() {
+        return score;
+    }
+
+    int[] meetingPeriods() {
+        return meetingPeriod;
+    }
+
+    int[] meetingRooms() {
+        return meetingRoom;
+    }
+}
@@ -0,0 +1,578 @@
+package com.smartcampus.academic.scheduling;
+
+import com.smartcampus.academic.entity.Schedule;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ders programı için kısıt tabanlı yerel arama çözücüsü.
+ * Her restart önce zorlu section'lardan başlayarak açgözlü (greedy) bir yerleşim kurar, sonra
+ * min-conflicts hareketleri ve benzetilmiş tavlama (simulated annealing) ile cezayı düşürür.
+ * Restart'lar ayrı bir fork-join havuzunda paralel, ortak bir zaman bütçesiyle çalışır;
+ * en iyi sonuçlar çakışma sayısına göre sıralanıp alternatif olarak döner.
+ *
+ * <p>Sert kısıtlar (derslik ve öğretim üyesi çift rezervasyonu, uygun derslik olmaması) büyük
+ * sabit ağırlıkla, ortak öğrenci çakışmaları etkilenen öğrenci sayısıyla, aynı section'ın
+ * oturumlarının aynı güne düşmesi küçük bir ağırlıkla cezalandırılır.
+ */
+@Slf4j
+@Component
+public class TimetableSolver {
+
+    static final long HARD_WEIGHT = 100_000L;
+    static final long SAME_DAY_WEIGHT = 20L;
+
+    private static final double START_TEMPERATURE = 20.0;
+    private static final double END_TEMPERATURE = 0.2;
+    private static final double RANDOM_WALK_PROBABILITY = 0.1;
+
+    @Value("${academic.timetable.days:MONDAY,TUESDAY,WEDNESDAY,THURSDAY,FRIDAY}")
+    private String[] days;
+
+    @Value("${academic.timetable.slots:08:30-10:00,10:15-11:45,12:00-13:30,13:45-15:15,15:30-17:00,17:15-18:45}")
+    private String[] slots;
+
+    @Value("${academic.timetable.time-budget-seconds:20}")
+    private long timeBudgetSeconds;
+
+    @Value("${academic.timetable.parallelism:0}")
+    private int parallelism;
+
+    @Value("${academic.timetable.restarts:0}")
+    private int restarts;
+
+    @Value("${academic.timetable.alternatives:3}")
+    private int alternatives;
+
+    private List<Schedule.DayOfWeek> dayList;
+    private List<LocalTime[]> slotList;
+    private ForkJoinPool pool;
+
+    @PostConstruct
+    public void init() {
+        dayList = Arrays.stream(days)
+                .map(day -> Schedule.DayOfWeek.valueOf(day.trim().toUpperCase()))
+                .toList();
+        slotList = Arrays.stream(slots)
+                .map(slot -> {
+                    String[] bounds = slot.trim().split("-");
+                    return new LocalTime[]{LocalTime.parse(bounds[0].trim()), LocalTime.parse(bounds[1].trim())};
+                })
+                .toList();
+
+        if (parallelism <= 0) {
+            parallelism = Runtime.getRuntime().availableProcessors();
+        }
+        if (restarts <= 0) {
+            restarts = parallelism;
+        }
+        pool = new ForkJoinPool(parallelism, p -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            thread.setName("timetable-solver-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Yapılandırılmış gün ve ders saati ızgarasıyla yeni bir problem oluşturucu döner.
+     */
+    public TimetableProblem.Builder newProblem() {
+        return TimetableProblem.builder(dayList, slotList);
+    }
+
+    /**
+     * Problemi zaman bütçesi içinde çözer ve en iyi alternatifleri çakışma sayısına göre sıralı döner.
+     */
+    public List<TimetableSolution> solve(TimetableProblem problem) {
+        if (problem.meetingCount == 0) {
+            return List.of();
+        }
+
+        long startedAt = System.nanoTime();
+        long budgetNanos = TimeUnit.SECONDS.toNanos(timeBudgetSeconds);
+        long deadline = startedAt + budgetNanos;
+        // Restart sayısı havuzdan fazlaysa bütçe sırayla çalışacak restart'lar arasında bölünür
+        long restartBudget = budgetNanos * Math.min(restarts, parallelism) / restarts;
+        long baseSeed = System.nanoTime();
+
+        List<ForkJoinTask<TimetableSolution>> tasks = new ArrayList<>(restarts);
+        for (int i = 0; i < restarts; i++) {
+            long seed = baseSeed + i * 0x9E3779B97F4A7C15L;
+            tasks.add(pool.submit(() -> {
+                long restartDeadline = Math.min(deadline, System.nanoTime() + restartBudget);
+                Search search = new Search(problem, new SplittableRandom(seed));
+                search.construct();
+                search.improve(restartDeadline);
+                return evaluate(problem, search.bestPeriod, search.bestRoom);
+            }));
+        }
+
+        List<TimetableSolution> solutions = new ArrayList<>(restarts);
+        for (ForkJoinTask<TimetableSolution> task : tasks) {
+            try {
+                solutions.add(task.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                tasks.forEach(t -> t.cancel(true));
+                break;
+            } catch (ExecutionException e) {
+                log.error("Program üretme restart'ı başarısız: {}", e.getCause().getMessage(), e.getCause());
+            }
+        }
+
+        solutions.sort(Comparator.comparingInt(TimetableSolution::getConflicts)
+                .thenComparingLong(TimetableSolution::getCost));
+        List<TimetableSolution> ranked = new ArrayList<>(alternatives);
+        Set<Integer> seen = new HashSet<>();
+        for (TimetableSolution solution : solutions) {
+            int fingerprint = 31 * Arrays.hashCode(solution.meetingPeriods()) + Arrays.hashCode(solution.meetingRooms());
+            if (ranked.size() < alternatives && seen.add(fingerprint)) {
+                ranked.add(solution);
+            }
+        }
+
+        log.info("Program üretildi: {} section, {} oturum, {} derslik, {} restart, {} ms - en iyi çakışma: {}",
+                problem.sectionCount, problem.meetingCount, problem.roomCount, solutions.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt),
+                ranked.isEmpty() ? "-" : ranked.get(0).getConflicts());
+        return ranked;
+    }
+
+    /**
+     * Bir yerleşimin çakışmalarını, cezasını ve skorunu baştan hesaplar.
+     */
+    static TimetableSolution evaluate(TimetableProblem problem, int[] period, int[] room) {
+        int periods = problem.periodCount;
+        int meetings = problem.meetingCount;
+        boolean[] inConflict = new boolean[meetings];
+        int hardConflicts = 0;
+        int studentConflicts = 0;
+        long softCost = 0;
+
+        int[] roomUse = new int[problem.roomCount * periods];
+        int[] instructorUse = new int[problem.instructorCount * periods];
+        for (int v = 0; v < meetings; v++) {
+            int instructor = problem.sectionInstructor[problem.meetingSection[v]];
+            if (room[v] >= 0) {
+                roomUse[room[v] * periods + period[v]]++;
+            }
+            if (instructor >= 0) {
+                instructorUse[instructor * periods + period[v]]++;
+            }
+        }
+        // k oturumun düştüğü hücre k - 1 çift rezervasyondur
+        for (int use : roomUse) {
+            hardConflicts += Math.max(0, use - 1);
+        }
+        for (int use : instructorUse) {
+            hardConflicts += Math.max(0, use - 1);
+        }
+
+        for (int v = 0; v < meetings; v++) {
+            int s = problem.meetingSection[v];
+            int p = period[v];
+            int instructor = problem.sectionInstructor[s];
+
+            if (room[v] < 0) {
+                hardConflicts++;
+                inConflict[v] = true;
+            } else {
+                int cell = room[v] * periods + p;
+                if (problem.fixedRoomBusy[cell]) {
+                    hardConflicts++;
+                    inConflict[v] = true;
+                }
+                inConflict[v] |= roomUse[cell] > 1;
+            }
+            if (instructor >= 0) {
+                int cell = instructor * periods + p;
+                if (problem.fixedInstructorBusy[cell] > 0) {
+                    hardConflicts++;
+                    inConflict[v] = true;
+                }
+                inConflict[v] |= instructorUse[cell] > 1;
+            }
+
+            int[] fixedClash = problem.fixedStudentClash[s];
+            if (fixedClash != null && fixedClash[p] > 0) {
+                studentConflicts++;
+                softCost += fixedClash[p];
+                inConflict[v] = true;
+            }
+
+            // Her section çifti bir kez, küçük indeksli taraftan sayılır
+            int[] neighbors = problem.neighbors[s];
+            for (int i = 0; i < neighbors.length; i++) {
+                int t = neighbors[i];
+                if (t < s) {
+                    continue;
+                }
+                for (int u = problem.firstMeeting[t]; u < problem.firstMeeting[t + 1]; u++) {
+                    if (period[u] == p) {
+                        studentConflicts++;
+                        softCost += problem.neighborWeights[s][i];
+                        inConflict[v] = true;
+                        inConflict[u] = true;
+                    }
+                }
+            }
+
+            for (int u = v + 1; u < problem.firstMeeting[s + 1]; u++) {
+                if (problem.periodDay[period[u]] == problem.periodDay[p]) {
+                    softCost += SAME_DAY_WEIGHT;
+                }
+            }
+        }
+
+        int clean = 0;
+        for (boolean conflicted : inConflict) {
+            if (!conflicted) {
+                clean++;
+            }
+        }
+        double score = Math.round(1000.0 * clean / meetings) / 10.0;
+        return new TimetableSolution(period, room, hardConflicts + studentConflicts,
+                HARD_WEIGHT * hardConflicts + softCost, score);
+    }
+
+    /**
+     * Tek bir restart'ın arama durumu. Doluluk sayaçları her hareketle artımlı güncellenir;
+     * bir oturumun ceza katkısı sadece komşu section'ları ve kendi hücrelerini gezerek hesaplanır.
+     */
+    private static final class Search {
+
+        private final TimetableProblem problem;
+        private final SplittableRandom random;
+        private final int periods;
+
+        private final int[] period;
+        private final int[] room;
+        private final int[] roomUse;
+        private final int[] instructorUse;
+        // Derslik hücresindeki oturumların çift yönlü bağlı listesi; boş hücrede -1
+        private final int[] cellHead;
+        private final int[] cellNext;
+        private final int[] cellPrev;
+        private long cost;
+
+        private int[] bestPeriod;
+        private int[] bestRoom;
+        private long bestCost;
+
+        // bestPlacement sonucu
+        private int movePeriod;
+        private int moveRoom;
+
+        private Search(TimetableProblem problem, SplittableRandom random) {
+            this.problem = problem;
+            this.random = random;
+            this.periods = problem.periodCount;
+            this.period = new int[problem.meetingCount];
+            this.room = new int[problem.meetingCount];
+            this.roomUse = new int[problem.roomCount * periods];
+            this.instructorUse = new int[problem.instructorCount * periods];
+            this.cellHead = new int[problem.roomCount * periods];
+            this.cellNext = new int[problem.meetingCount];
+            this.cellPrev = new int[problem.meetingCount];
+            Arrays.fill(period, -1);
+            Arrays.fill(room, -1);
+            Arrays.fill(cellHead, -1);
+        }
+
+        /**
+         * Az dersliğe sığan ve çok komşusu olan section'lar önce yerleştirilir; eşitlikler rastgele
+         * bozulduğu için her restart farklı bir başlangıç üretir.
+         */
+        private void construct() {
+            int sections = problem.sectionCount;
+            double[] priority = new double[sections];
+            for (int s = 0; s < sections; s++) {
+                long weight = 0;
+                for (int w : problem.neighborWeights[s]) {
+                    weight += w;
+                }
+                int meetings = problem.firstMeeting[s + 1] - problem.firstMeeting[s];
+                priority[s] = (weight + 10.0 * meetings) * (0.75 + 0.5 * random.nextDouble());
+            }
+            Integer[] order = new Integer[sections];
+            for (int s = 0; s < sections; s++) {
+                order[s] = s;
+            }
+            Arrays.sort(order, Comparator.comparingInt((Integer s) -> problem.candidateRooms[s].length)
+                    .thenComparing(s -> -priority[s]));
+
+            for (int s : order) {
+                for (int v = problem.firstMeeting[s]; v < problem.firstMeeting[s + 1]; v++) {
+                    long contribution = bestPlacement(v);
+                    if (roomTaken(moveRoom, movePeriod)) {
+                        contribution = placeWithRelocation(v, contribution);
+                    }
+                    cost += contribution;
+                    assign(v, movePeriod, moveRoom);
+                }
+            }
+            bestPeriod = period.clone();
+            bestRoom = room.clone();
+            bestCost = cost;
+        }
+
+        private void improve(long deadline) {
+            int meetings = problem.meetingCount;
+            long stagnationLimit = Math.max(100_000L, 20L * meetings);
+            long startedAt = System.nanoTime();
+            double span = Math.max(1, deadline - startedAt);
+            double temperature = START_TEMPERATURE;
+            long lastImprovement = 0;
+
+            for (long iteration = 1; bestCost > 0; iteration++) {
+                if ((iteration & 255) == 0) {
+                    long now = System.nanoTime();
+                    if (now >= deadline || iteration - lastImprovement > stagnationLimit) {
+                        break;
+                    }
+                    double progress = (now - startedAt) / span;
+                    temperature = START_TEMPERATURE * Math.pow(END_TEMPERATURE / START_TEMPERATURE, progress);
+                }
+
+                // Küçük bir turnuvayla çakışmalı oturumlara öncelik verilir
+                int v = random.nextInt(meetings);
+                long current = currentContribution(v);
+                for (int k = 0; k < 3 && current == 0; k++) {
+                    int candidate = random.nextInt(meetings);
+                    long contribution = currentContribution(candidate);
+                    if (contribution > current) {
+                        v = candidate;
+                        current = contribution;
+                    }
+                }
+                if (current == 0) {
+                    continue;
+                }
+
+                int oldPeriod = period[v];
+                int oldRoom = room[v];
+                unassign(v);
+
+                long candidateCost;
+                if (random.nextDouble() < RANDOM_WALK_PROBABILITY) {
+                    movePeriod = random.nextInt(periods);
+                    moveRoom = freeRoom(problem.meetingSection[v], movePeriod);
+                    candidateCost = contribution(v, movePeriod, moveRoom);
+                } else {
+                    candidateCost = bestPlacement(v);
+                }
+                if (roomTaken(moveRoom, movePeriod)) {
+                    candidateCost = placeWithRelocation(v, candidateCost);
+                }
+
+                long delta = candidateCost - current;
+                if (delta <= 0 || random.nextDouble() < Math.exp(-delta / temperature)) {
+                    assign(v, movePeriod, moveRoom);
+                    cost += delta;
+                } else {
+                    assign(v, oldPeriod, oldRoom);
+                }
+
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    System.arraycopy(period, 0, bestPeriod, 0, meetings);
+                    System.arraycopy(room, 0, bestRoom, 0, meetings);
+                    lastImprovement = iteration;
+                }
+            }
+        }
+
+        /**
+         * Yerleşmemiş oturum için en düşük katkılı period'u ve o period'daki boş dersliği seçer.
+         * Eşit katkılar arasında rastgele seçim yapılır.
+         */
+        private long bestPlacement(int v) {
+            int s = problem.meetingSection[v];
+            long best = Long.MAX_VALUE;
+            int ties = 0;
+            for (int p = 0; p < periods; p++) {
+                int r = freeRoom(s, p);
+                long contribution = contribution(v, p, r);
+                if (contribution < best) {
+                    best = contribution;
+                    movePeriod = p;
+                    moveRoom = r;
+                    ties = 1;
+                } else if (contribution == best && random.nextInt(++ties) == 0) {
+                    movePeriod = p;
+                    moveRoom = r;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Period'daki en küçük boş uygun derslik; hepsi doluysa rastgele bir uygun derslik
+         * (oradaki oturum sonraki adımlarda başka yere itilebilsin diye), hiç yoksa -1.
+         */
+        private int freeRoom(int s, int p) {
+            int[] candidates = problem.candidateRooms[s];
+            for (int r : candidates) {
+                int cell = r * periods + p;
+                if (roomUse[cell] == 0 && !problem.fixedRoomBusy[cell]) {
+                    return r;
+                }
+            }
+            return candidates.length > 0 ? candidates[random.nextInt(candidates.length)] : -1;
+        }
+
+        private boolean roomTaken(int r, int p) {
+            if (r < 0) {
+                return false;
+            }
+            int cell = r * periods + p;
+            return roomUse[cell] > 0 || problem.fixedRoomBusy[cell];
+        }
+
+        /**
+         * Hedef period'da boş uygun derslik yoksa, uygun dersliklerden birindeki tek oturumu aynı saatte
+         * kendisine uyan boş bir dersliğe taşıyarak yer açar (ör. küçük section'ı büyük amfiden çıkarır).
+         * Taşınan oturumun saati değişmediği için bu adım cezayı artırmaz.
+         *
+         * @return v'nin yeni katkısı; yer açılamadıysa verilen katkı
+         */
+        private long placeWithRelocation(int v, long contribution) {
+            int p = movePeriod;
+            for (int r : problem.candidateRooms[problem.meetingSection[v]]) {
+                int cell = r * periods + p;
+                if (roomUse[cell] != 1 || problem.fixedRoomBusy[cell]) {
+                    continue;
+                }
+                int occupant = cellHead[cell];
+                for (int target : problem.candidateRooms[problem.meetingSection[occupant]]) {
+                    int targetCell = target * periods + p;
+                    if (roomUse[targetCell] == 0 && !problem.fixedRoomBusy[targetCell]) {
+                        unassign(occupant);
+                        assign(occupant, p, target);
+                        moveRoom = r;
+                        return contribution(v, p, r);
+                    }
+                }
+            }
+            return contribution;
+        }
+
+        private long currentContribution(int v) {
+            int p = period[v];
+            int r = room[v];
+            unassign(v);
+            long contribution = contribution(v, p, r);
+            assign(v, p, r);
+            return contribution;
+        }
+
+        /**
+         * Yerleşmemiş v oturumu (p, r)'ye konsaydı toplam cezaya ekleyeceği miktar.
+         */
+        private long contribution(int v, int p, int r) {
+            int s = problem.meetingSection[v];
+            long contribution = 0;
+
+            if (r < 0) {
+                contribution += HARD_WEIGHT;
+            } else {
+                int cell = r * periods + p;
+                contribution += HARD_WEIGHT * (roomUse[cell] + (problem.fixedRoomBusy[cell] ? 1 : 0));
+            }
+            int instructor = problem.sectionInstructor[s];
+            if (instructor >= 0) {
+                int cell = instructor * periods + p;
+                contribution += HARD_WEIGHT * (instructorUse[cell] + problem.fixedInstructorBusy[cell]);
+            }
+
+            int[] neighbors = problem.neighbors[s];
+            int[] weights = problem.neighborWeights[s];
+            for (int i = 0; i < neighbors.length; i++) {
+                int t = neighbors[i];
+                for (int u = problem.firstMeeting[t]; u < problem.firstMeeting[t + 1]; u++) {
+                    if (period[u] == p) {
+                        contribution += weights[i];
+                    }
+                }
+            }
+            int[] fixedClash = problem.fixedStudentClash[s];
+            if (fixedClash != null) {
+                contribution += fixedClash[p];
+            }
+
+            int day = problem.periodDay[p];
+            for (int u = problem.firstMeeting[s]; u < problem.firstMeeting[s + 1]; u++) {
+                if (u != v && period[u] >= 0 && problem.periodDay[period[u]] == day) {
+                    contribution += SAME_DAY_WEIGHT;
+                }
+            }
+            return contribution;
+        }
+
+        private void assign(int v, int p, int r) {
+            period[v] = p;
+            room[v] = r;
+            if (r >= 0) {
+                int cell = r * periods + p;
+                roomUse[cell]++;
+                int head = cellHead[cell];
+                cellNext[v] = head;
+                cellPrev[v] = -1;
+                if (head >= 0) {
+                    cellPrev[head] = v;
+                }
+                cellHead[cell] = v;
+            }
+            int instructor = problem.sectionInstructor[problem.meetingSection[v]];
+            if (instructor >= 0) {
+                instructorUse[instructor * periods + p]++;
+            }
+        }
+
+        private void unassign(int v) {
+            int p = period[v];
+            if (room[v] >= 0) {
+                int cell = room[v] * periods + p;
+                roomUse[cell]--;
+                if (cellPrev[v] >= 0) {
+                    cellNext[cellPrev[v]] = cellNext[v];
+                } else {
+                    cellHead[cell] = cellNext[v];
+                }
+                if (cellNext[v] >= 0) {
+                    cellPrev[cellNext[v]] = cellPrev[v];
+                }
+            }
+            int instructor = problem.sectionInstructor[problem.meetingSection[v]];
+            if (instructor >= 0) {
+                instructorUse[instructor * periods + p]--;
+            }
+            period[v] = -1;
+            room[v] = -1;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.smartcampus.academic.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+/**
+ * API gateway'in token'ı doğruladıktan sonra eklediği imzalı kimlik header'larını doğrular.
+ * Güvenilir header modu açıkken geçerli imzalı isteklerde JWT parse edilmez; header yoksa
+ * veya imza/zaman damgası geçersizse null döner ve filtre JWT doğrulamasına geri döner.
+ * İmza formatı gateway'deki IdentityHeaders ile aynıdır.
+ */
+@Slf4j
+@Component
+public class GatewayIdentityVerifier {
+
+    public static final String USER_ID = "X-User-Id";
+    public static final String USER_EMAIL = "X-User-Email";
+    public static final String USER_ROLE = "X-User-Role";
+    public static final String STUDENT_ID = "X-Student-Id";
+    public static final String FACULTY_ID = "X-Faculty-Id";
+    public static final String TIMESTAMP = "X-Identity-Timestamp";
+    public static final String SIGNATURE = "X-Identity-Signature";
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final boolean enabled;
+    private final byte[] secret;
+    private final long maxSkewMillis;
+
+    public GatewayIdentityVerifier(@Value("${security.gateway-headers.enabled:false}") boolean enabled,
+                                   @Value("${security.gateway-headers.secret:}") String secret,
+                                   @Value("${security.gateway-headers.max-skew-seconds:60}") long maxSkewSeconds) {
+        this.enabled = enabled && StringUtils.hasText(secret);
+        this.secret = StringUtils.hasText(secret) ? secret.getBytes(StandardCharsets.UTF_8) : null;
+        this.maxSkewMillis = maxSkewSeconds * 1000;
+
+        if (enabled && !this.enabled) {
+            log.warn("security.gateway-headers.secret tanımlı değil, güvenilir header modu devre dışı");
+        }
+    }
+
+    /**
+     * @return doğrulanmış kimlik; mod kapalıysa, header yoksa veya imza geçersizse null
+     */
+    public GatewayIdentity verify(HttpServletRequest request) {
+        if (!enabled) {
+            return null;
+        }
+
+        String signature = request.getHeader(SIGNATURE);
+        String userIdHeader = request.getHeader(USER_ID);
+        String timestampHeader = request.getHeader(TIMESTAMP);
+        if (signature == null || userIdHeader == null || timestampHeader == null) {
+            return null;
+        }
+
+        try {
+            long timestamp = Long.parseLong(timestampHeader);
+            if (Math.abs(System.currentTimeMillis() - timestamp) > maxSkewMillis) {
+                log.warn("Gateway kimlik header'ının süresi geçmiş - userId: {}", userIdHeader);
+                return null;
+            }
+
+            Long userId = Long.parseLong(userIdHeader);
+            String email = request.getHeader(USER_EMAIL);
+            String role = request.getHeader(USER_ROLE);
+            Long studentId = parseNullableLong(request.getHeader(STUDENT_ID));
+            Long facultyId = parseNullableLong(request.getHeader(FACULTY_ID));
+
+            String canonical = String.join("\n",
+                    request.getMethod(),
+                    request.getRequestURI(),
+                    String.valueOf(userId),
+                    email != null ? email : "",
+                    role != null ? role : "",
+                    studentId != null ? String.valueOf(studentId) : "",
+                    facultyId != null ? String.valueOf(facultyId) : "",
+                    String.valueOf(timestamp));
+
+            if (!MessageDigest.isEqual(sign(canonical), signature.getBytes(StandardCharsets.US_ASCII))) {
+                log.warn("Gateway kimlik header imzası geçersiz - userId: {}", userId);
+                return null;
+            }
+            return new GatewayIdentity(userId, email, role, studentId, facultyId);
+        } catch (NumberFormatException e) {
+            log.warn("Gateway kimlik header'ı okunamadı: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private byte[] sign(String canonical) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(secret, HMAC_ALGORITHM));
+            byte[] signature = mac.doFinal(canonical.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(signature)
+                    .getBytes(StandardCharsets.US_ASCII);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Kimlik header imzası hesaplanamadı", e);
+        }
+    }
+
+    private static Long parseNullableLong(String value) {
+        return StringUtils.hasText(value) ? Long.parseLong(value) : null;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class GatewayIdentity {
+        private final Long userId;
+        private final String email;
+        private final String role;
+        private final Long studentId;
+        private final Long facultyId;
+    }
+}
@@ -1,8 +1,6 @@
 package com.smartcampus.academic.security;
 
 import com.smartcampus.academic.entity.Role;
-import com.smartcampus.academic.entity.User;
-import com.smartcampus.academic.repository.UserRepository;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -24,34 +22,26 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider jwtTokenProvider;
-    private final UserRepository userRepository;
+    private final RevokedUserRegistry revokedUserRegistry;
+    private final GatewayIdentityVerifier gatewayIdentityVerifier;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
         try {
-            String jwt = getJwtFromRequest(request);
+            // Gateway token'ı doğrulamışsa imzalı kimlik header'ları kullanılır, JWT tekrar parse edilmez
+            GatewayIdentityVerifier.GatewayIdentity identity = gatewayIdentityVerifier.verify(request);
+            String jwt = identity == null ? getJwtFromRequest(request) : null;
 
-            if (StringUtils.hasText(jwt) && jwtTokenProvider.validateToken(jwt)) {
+            if (identity != null) {
+                authenticate(request, identity.getUserId(), identity.getEmail(), identity.getRole());
+            } else if (StringUtils.hasText(jwt) && jwtTokenProvider.validateToken(jwt)) {
                 Long userId = jwtTokenProvider.getUserIdFromToken(jwt);
-                String role = jwtTokenProvider.getRoleFromToken(jwt);
 
-                User user = userRepository.findById(userId).orElse(null);
-                
-                if (user != null && user.getIsActive()) {
-                    CustomUserDetails userDetails = CustomUserDetails.builder()
-                            .id(user.getId())
-                            .email(user.getEmail())
-                            .password(user.getPasswordHash())
-                            .role(Role.valueOf(role))
-                            .enabled(user.getIsActive())
-                            .build();
-
-                    UsernamePasswordAuthenticationToken authentication =
-                            new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                // Kullanıcı bilgisi token claim'lerinden alınır; hesap durumu iptal listesinden kontrol edilir
+                if (jwtTokenProvider.isActiveFromToken(jwt)) {
+                    authenticate(request, userId, jwtTokenProvider.getEmailFromToken(jwt),
+                            jwtTokenProvider.getRoleFromToken(jwt));
                 }
             }
         } catch (Exception ex) {
@@ -61,6 +51,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private void authenticate(HttpServletRequest request, Long userId, String email, String role) {
+        if (revokedUserRegistry.isRevoked(userId)) {
+            return;
+        }
+
+        CustomUserDetails userDetails = CustomUserDetails.builder()
+                .id(userId)
+                .email(email)
+                .role(Role.valueOf(role))
+                .enabled(true)
+                .build();
+
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -1,11 +1,13 @@
 package com.smartcampus.academic.service;
 
+import com.smartcampus.academic.cache.AnalyticsSnapshotCache;
+import com.smartcampus.academic.cache.AnalyticsSnapshotCache.Snapshot;
 import com.smartcampus.academic.dto.response.*;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -18,12 +20,32 @@ import java.util.*;
 public class AnalyticsService {
 
         private final JdbcTemplate jdbcTemplate;
+        private final AnalyticsSnapshotCache snapshotCache;
+
+        /**
+         * Snapshot'lar açılışta hesaplanır ve istek gelmese de arka planda güncel tutulur.
+         */
+        @PostConstruct
+        public void registerSnapshots() {
+                snapshotCache.register("dashboard", this::computeDashboardStats);
+                snapshotCache.register("academic", this::computeAcademicStats);
+                snapshotCache.register("attendance", this::computeAttendanceStats);
+                snapshotCache.register("meal", this::computeMealStats);
+                snapshotCache.register("event", this::computeEventStats);
+        }
 
         /**
          * Admin Dashboard - Genel istatistikler
+         * Cache'teki snapshot'tan döner, cevapta snapshot'ın yaşı yer alır.
          */
-        @Transactional(readOnly = true)
         public DashboardStatsResponse getDashboardStats() {
+                Snapshot<DashboardStatsResponse> snapshot = snapshotCache.get("dashboard", this::computeDashboardStats);
+                return snapshot.getValue().toBuilder()
+                                .snapshotAgeSeconds(snapshot.getAgeSeconds())
+                                .build();
+        }
+
+        private DashboardStatsResponse computeDashboardStats() {
                 log.info("Dashboard istatistikleri hesaplanıyor...");
 
                 // Kullanıcı istatistikleri
@@ -78,9 +100,16 @@ public class AnalyticsService {
 
         /**
          * Akademik performans istatistikleri
+         * Cache'teki snapshot'tan döner, cevapta snapshot'ın yaşı yer alır.
          */
-        @Transactional(readOnly = true)
         public AcademicStatsResponse getAcademicStats() {
+                Snapshot<AcademicStatsResponse> snapshot = snapshotCache.get("academic", this::computeAcademicStats);
+                return snapshot.getValue().toBuilder()
+                                .snapshotAgeSeconds(snapshot.getAgeSeconds())
+                                .build();
+        }
+
+        private AcademicStatsResponse computeAcademicStats() {
                 log.info("Akademik istatistikler hesaplanıyor...");
 
                 // Genel GPA istatistikleri
@@ -143,9 +172,16 @@ public class AnalyticsService {
 
         /**
          * Yoklama istatistikleri
+         * Cache'teki snapshot'tan döner, cevapta snapshot'ın yaşı yer alır.
          */
-        @Transactional(readOnly = true)
         public AttendanceStatsResponse getAttendanceStats() {
+                Snapshot<AttendanceStatsResponse> snapshot = snapshotCache.get("attendance", this::computeAttendanceStats);
+                return snapshot.getValue().toBuilder()
+                                .snapshotAgeSeconds(snapshot.getAgeSeconds())
+                                .build();
+        }
+
+        private AttendanceStatsResponse computeAttendanceStats() {
                 log.info("Yoklama istatistikleri hesaplanıyor...");
 
                 Long totalSessions = countFromTable("attendance_sessions", null);
@@ -193,9 +229,16 @@ public class AnalyticsService {
 
         /**
          * Yemek kullanım istatistikleri
+         * Cache'teki snapshot'tan döner, cevapta snapshot'ın yaşı yer alır.
          */
-        @Transactional(readOnly = true)
         public MealStatsResponse getMealStats() {
+                Snapshot<MealStatsResponse> snapshot = snapshotCache.get("meal", this::computeMealStats);
+                return snapshot.getValue().toBuilder()
+                                .snapshotAgeSeconds(snapshot.getAgeSeconds())
+                                .build();
+        }
+
+        private MealStatsResponse computeMealStats() {
                 log.info("Yemek istatistikleri hesaplanıyor...");
 
                 Long today = countMealReservations(LocalDate.now());
@@ -241,9 +284,16 @@ public class AnalyticsService {
 
         /**
          * Etkinlik istatistikleri
+         * Cache'teki snapshot'tan döner, cevapta snapshot'ın yaşı yer alır.
          */
-        @Transactional(readOnly = true)
         public EventStatsResponse getEventStats() {
+                Snapshot<EventStatsResponse> snapshot = snapshotCache.get("event", this::computeEventStats);
+                return snapshot.getValue().toBuilder()
+                                .snapshotAgeSeconds(snapshot.getAgeSeconds())
+                                .build();
+        }
+
+        private EventStatsResponse computeEventStats() {
                 log.info("Etkinlik istatistikleri hesaplanıyor...");
 
                 Long total = countFromTable("events", null);
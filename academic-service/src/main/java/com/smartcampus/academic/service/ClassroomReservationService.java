@@ -1,6 +1,7 @@
 package com.smartcampus.academic.service;
 
 import com.smartcampus.academic.dto.request.CreateReservationRequest;
+import com.smartcampus.academic.dto.response.FreeSlotResponse;
 import com.smartcampus.academic.dto.response.ReservationResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -29,4 +30,6 @@ public interface ClassroomReservationService {
     void cancelReservation(Long reservationId, Long userId);
 
     List<ReservationResponse> getAvailableSlots(Long classroomId, LocalDate date);
+
+    List<FreeSlotResponse> getFreeSlots(Long classroomId, LocalDate date);
 }
@@ -6,6 +6,8 @@ import com.smartcampus.academic.dto.response.ClassroomResponse;
 import com.smartcampus.academic.dto.response.PageResponse;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
 
 public interface ClassroomService {
@@ -29,4 +31,7 @@ public interface ClassroomService {
     List<String> getBuildings();
 
     List<ClassroomResponse> getClassroomsByMinCapacity(Integer minCapacity);
+
+    List<ClassroomResponse> findFreeClassrooms(LocalDate date, LocalTime startTime, LocalTime endTime,
+            Integer minCapacity, int limit);
 }
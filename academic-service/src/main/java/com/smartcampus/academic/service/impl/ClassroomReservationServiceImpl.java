@@ -1,20 +1,28 @@
 package com.smartcampus.academic.service.impl;
 
+import com.smartcampus.academic.cache.ClassroomOccupancyIndex;
 import com.smartcampus.academic.dto.request.CreateReservationRequest;
+import com.smartcampus.academic.dto.response.FreeSlotResponse;
 import com.smartcampus.academic.dto.response.ReservationResponse;
 import com.smartcampus.academic.entity.Classroom;
 import com.smartcampus.academic.entity.ClassroomReservation;
+import com.smartcampus.academic.entity.Schedule;
 import com.smartcampus.academic.repository.ClassroomRepository;
 import com.smartcampus.academic.repository.ClassroomReservationRepository;
+import com.smartcampus.academic.repository.ScheduleRepository;
 import com.smartcampus.academic.service.ClassroomReservationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -25,19 +33,27 @@ public class ClassroomReservationServiceImpl implements ClassroomReservationServ
 
     private final ClassroomReservationRepository reservationRepository;
     private final ClassroomRepository classroomRepository;
+    private final ScheduleRepository scheduleRepository;
+    private final ClassroomOccupancyIndex occupancyIndex;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Boş slot hesabında kullanılan günlük pencere
+    @Value("${academic.occupancy-index.day-start:08:00}")
+    private LocalTime dayStart;
+
+    @Value("${academic.occupancy-index.day-end:22:00}")
+    private LocalTime dayEnd;
 
     @Override
     @Transactional
     public ReservationResponse createReservation(Long userId, CreateReservationRequest request) {
-        Classroom classroom = classroomRepository.findById(request.getClassroomId())
+        // Derslik satırı kilitlenir; aynı dersliğe başka bir instance'tan gelen yazma commit'e kadar bekler
+        Classroom classroom = classroomRepository.findByIdForUpdate(request.getClassroomId())
                 .orElseThrow(() -> new RuntimeException("Derslik bulunamadı"));
 
-        // Çakışma kontrolü
-        List<ClassroomReservation> conflicts = reservationRepository.findConflictingReservations(
-                request.getClassroomId(), request.getReservationDate(),
-                request.getStartTime(), request.getEndTime());
-
-        if (!conflicts.isEmpty()) {
+        // Çakışma kontrolü: o tarihteki rezervasyonlar ve o tarihin dönemindeki haftalık ders programı
+        if (hasConflict(request.getClassroomId(), request.getReservationDate(),
+                request.getStartTime(), request.getEndTime())) {
             throw new RuntimeException("Bu derslik ve saatte çakışma var!");
         }
 
@@ -53,6 +69,7 @@ public class ClassroomReservationServiceImpl implements ClassroomReservationServ
                 .build();
 
         ClassroomReservation saved = reservationRepository.save(reservation);
+        publishReservationChanged(saved);
         log.info("Rezervasyon oluşturuldu: userId={}, classroom={}, date={}",
                 userId, classroom.getRoomNumber(), request.getReservationDate());
 
@@ -112,6 +129,7 @@ public class ClassroomReservationServiceImpl implements ClassroomReservationServ
 
         reservation.approve(adminId);
         ClassroomReservation saved = reservationRepository.save(reservation);
+        publishReservationChanged(saved);
         log.info("Rezervasyon onaylandı: id={}, adminId={}", reservationId, adminId);
 
         return mapToResponse(saved);
@@ -129,6 +147,7 @@ public class ClassroomReservationServiceImpl implements ClassroomReservationServ
 
         reservation.reject(adminId, reason);
         ClassroomReservation saved = reservationRepository.save(reservation);
+        publishReservationChanged(saved);
         log.info("Rezervasyon reddedildi: id={}, reason={}", reservationId, reason);
 
         return mapToResponse(saved);
@@ -150,6 +169,7 @@ public class ClassroomReservationServiceImpl implements ClassroomReservationServ
 
         reservation.setStatus(ClassroomReservation.ReservationStatus.CANCELLED);
         reservationRepository.save(reservation);
+        publishReservationChanged(reservation);
         log.info("Rezervasyon iptal edildi: id={}", reservationId);
     }
 
@@ -166,6 +186,46 @@ public class ClassroomReservationServiceImpl implements ClassroomReservationServ
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<FreeSlotResponse> getFreeSlots(Long classroomId, LocalDate date) {
+        if (!occupancyIndex.covers(date)) {
+            // Geçmiş tarihler rezerve edilemez
+            return List.of();
+        }
+        return occupancyIndex.findFreeSlots(classroomId, date, dayStart, dayEnd)
+                .stream()
+                .map(range -> FreeSlotResponse.builder()
+                        .startTime(range.startTime())
+                        .endTime(range.endTime())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    // Yazma yolunun kontrolü veritabanından yapılır; indeks diğer instance'ların yazdıklarını
+    // ancak periyodik yeniden yüklemede görür
+    private boolean hasConflict(Long classroomId, LocalDate date, LocalTime startTime, LocalTime endTime) {
+        if (!reservationRepository.findConflictingReservations(classroomId, date, startTime, endTime).isEmpty()) {
+            return true;
+        }
+        if (date.getDayOfWeek() == DayOfWeek.SUNDAY) {
+            return false;
+        }
+        ClassroomOccupancyIndex.Term term = ClassroomOccupancyIndex.Term.containing(date);
+        return !scheduleRepository.findConflictingSchedulesInTerm(classroomId,
+                Schedule.DayOfWeek.valueOf(date.getDayOfWeek().name()), term.semester(), term.year(),
+                startTime, endTime).isEmpty();
+    }
+
+    // İndeks, olayı transaction commit edildikten sonra uygular
+    private void publishReservationChanged(ClassroomReservation reservation) {
+        ClassroomReservation.ReservationStatus status = reservation.getStatus();
+        eventPublisher.publishEvent(new ClassroomOccupancyIndex.ReservationChanged(
+                reservation.getId(), reservation.getClassroom().getId(), reservation.getReservationDate(),
+                reservation.getStartTime(), reservation.getEndTime(),
+                status == ClassroomReservation.ReservationStatus.PENDING
+                        || status == ClassroomReservation.ReservationStatus.APPROVED));
+    }
+
     private ReservationResponse mapToResponse(ClassroomReservation reservation) {
         Classroom classroom = reservation.getClassroom();
 
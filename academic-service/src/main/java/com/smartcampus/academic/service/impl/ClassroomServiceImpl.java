@@ -1,22 +1,29 @@
 package com.smartcampus.academic.service.impl;
 
+import com.smartcampus.academic.cache.ClassroomOccupancyIndex;
 import com.smartcampus.academic.dto.request.CreateClassroomRequest;
 import com.smartcampus.academic.dto.request.UpdateClassroomRequest;
 import com.smartcampus.academic.dto.response.ClassroomResponse;
 import com.smartcampus.academic.dto.response.PageResponse;
 import com.smartcampus.academic.entity.Classroom;
+import com.smartcampus.academic.exception.BadRequestException;
 import com.smartcampus.academic.exception.ConflictException;
 import com.smartcampus.academic.exception.ResourceNotFoundException;
 import com.smartcampus.academic.repository.ClassroomRepository;
 import com.smartcampus.academic.service.ClassroomService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -25,6 +32,8 @@ import java.util.stream.Collectors;
 public class ClassroomServiceImpl implements ClassroomService {
 
     private final ClassroomRepository classroomRepository;
+    private final ClassroomOccupancyIndex occupancyIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -43,6 +52,7 @@ public class ClassroomServiceImpl implements ClassroomService {
                 .build();
 
         classroom = classroomRepository.save(classroom);
+        publishClassroomChanged(classroom, true);
         log.info("Derslik oluşturuldu: {}", classroom.getFullName());
 
         return ClassroomResponse.from(classroom);
@@ -111,6 +121,7 @@ public class ClassroomServiceImpl implements ClassroomService {
         }
 
         classroom = classroomRepository.save(classroom);
+        publishClassroomChanged(classroom, Boolean.TRUE.equals(classroom.getIsActive()));
         log.info("Derslik güncellendi: {}", classroom.getFullName());
 
         return ClassroomResponse.from(classroom);
@@ -122,6 +133,7 @@ public class ClassroomServiceImpl implements ClassroomService {
         Classroom classroom = classroomRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Derslik", id));
         classroomRepository.delete(classroom);
+        publishClassroomChanged(classroom, false);
         log.info("Derslik silindi: {}", classroom.getFullName());
     }
 
@@ -138,4 +150,34 @@ public class ClassroomServiceImpl implements ClassroomService {
                 .map(ClassroomResponse::from)
                 .collect(Collectors.toList());
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ClassroomResponse> findFreeClassrooms(LocalDate date, LocalTime startTime, LocalTime endTime,
+            Integer minCapacity, int limit) {
+        if (!startTime.isBefore(endTime)) {
+            throw new BadRequestException("Başlangıç saati bitiş saatinden önce olmalı");
+        }
+        if (!occupancyIndex.covers(date)) {
+            // Geçmiş tarihler için boş derslik aranmaz
+            return List.of();
+        }
+
+        // Doluluk indeksi kapasiteye göre artan sırada boş derslik id'lerini döner
+        List<Long> freeIds = occupancyIndex.findFreeClassrooms(date, startTime, endTime,
+                minCapacity == null ? 0 : minCapacity, limit);
+        Map<Long, Classroom> classrooms = classroomRepository.findAllById(freeIds).stream()
+                .collect(Collectors.toMap(Classroom::getId, Function.identity()));
+        return freeIds.stream()
+                .map(classrooms::get)
+                .filter(classroom -> classroom != null && Boolean.TRUE.equals(classroom.getIsActive()))
+                .map(ClassroomResponse::from)
+                .collect(Collectors.toList());
+    }
+
+    // İndeks, olayı transaction commit edildikten sonra uygular
+    private void publishClassroomChanged(Classroom classroom, boolean active) {
+        eventPublisher.publishEvent(new ClassroomOccupancyIndex.ClassroomChanged(
+                classroom.getId(), classroom.getCapacity() == null ? 0 : classroom.getCapacity(), active));
+    }
 }
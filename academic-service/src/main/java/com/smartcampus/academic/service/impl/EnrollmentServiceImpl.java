@@ -1,8 +1,8 @@
 package com.smartcampus.academic.service.impl;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.smartcampus.academic.dto.ScheduleSlot;
+import com.smartcampus.academic.cache.PrerequisiteClosureIndex;
+import com.smartcampus.academic.cache.SectionScheduleCache;
+import com.smartcampus.academic.dto.WeeklyScheduleBitmap;
 import com.smartcampus.academic.dto.request.EnrollRequest;
 import com.smartcampus.academic.dto.request.UpdateGradeRequest;
 import com.smartcampus.academic.dto.response.EnrollmentResponse;
@@ -23,6 +23,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -35,8 +36,8 @@ public class EnrollmentServiceImpl implements EnrollmentService {
     private final CourseSectionRepository sectionRepository;
     private final StudentRepository studentRepository;
     private final UserRepository userRepository;
-    private final CoursePrerequisiteRepository prerequisiteRepository;
-    private final ObjectMapper objectMapper;
+    private final PrerequisiteClosureIndex prerequisiteIndex;
+    private final SectionScheduleCache scheduleCache;
 
     @Override
     @Transactional
@@ -59,6 +60,7 @@ public class EnrollmentServiceImpl implements EnrollmentService {
             throw new ConflictException("Bu derse zaten kayıtlısınız");
         }
 
+        // Hızlı ret: okunan sayaç doluysa koşullu UPDATE'e hiç gidilmez
         if (!section.hasAvailableSlots()) {
             throw new BadRequestException("Bu section'da yer kalmadı");
         }
@@ -67,100 +69,68 @@ public class EnrollmentServiceImpl implements EnrollmentService {
 
         checkScheduleConflict(student.getId(), section);
 
+        // Koltuk tüm kontrollerden sonra ayrılır; satır kilidi sadece bu UPDATE'ten commit'e kadar tutulur
+        if (sectionRepository.tryReserveSeat(section.getId(), LocalDateTime.now()) == 0) {
+            throw new BadRequestException("Bu section'da yer kalmadı");
+        }
+
         Enrollment enrollment = Enrollment.builder()
                 .student(student)
                 .section(section)
                 .status(EnrollmentStatus.ENROLLED)
                 .build();
 
-        section.incrementEnrollment();
-        sectionRepository.save(section);
-
         enrollment = enrollmentRepository.save(enrollment);
         log.info("Öğrenci derse kayıt oldu: {} -> {}", student.getStudentNumber(), section.getCourse().getCode());
 
         String studentName = getStudentName(student);
-        return EnrollmentResponse.from(enrollment, studentName);
+        EnrollmentResponse response = EnrollmentResponse.from(enrollment, studentName);
+        // Sayaç veritabanında artırıldı; yüklenen entity değiştirilmez ki flush sırasında üzerine yazılmasın
+        response.setEnrolledCount(section.getEnrolledCount() + 1);
+        return response;
     }
 
     private void checkPrerequisites(Long studentId, Long courseId) {
-        Set<Long> prerequisiteIds = prerequisiteRepository.findPrerequisiteIdsByCourseId(courseId);
-        if (prerequisiteIds.isEmpty()) {
+        if (!prerequisiteIndex.hasPrerequisites(courseId)) {
             return;
         }
 
         Set<Long> completedCourseIds = enrollmentRepository.findCompletedCourseIdsByStudentId(studentId);
-        
-        Set<Long> allRequiredPrerequisites = new HashSet<>();
-        collectAllPrerequisites(courseId, allRequiredPrerequisites, new HashSet<>());
-        
-        List<String> missingPrerequisites = new ArrayList<>();
-        for (Long prereqId : allRequiredPrerequisites) {
-            if (!completedCourseIds.contains(prereqId)) {
-                List<String> codes = prerequisiteRepository.findPrerequisiteCodesByCourseId(courseId);
-                missingPrerequisites.addAll(codes.stream()
-                        .filter(code -> !completedCourseIds.contains(prereqId))
-                        .toList());
-            }
-        }
+        List<String> missingPrerequisites = prerequisiteIndex.findMissingPrerequisites(courseId, completedCourseIds);
 
         if (!missingPrerequisites.isEmpty()) {
             throw new BadRequestException("Önkoşul dersleri tamamlanmamış: " + String.join(", ", missingPrerequisites));
         }
     }
 
-    private void collectAllPrerequisites(Long courseId, Set<Long> allPrereqs, Set<Long> visited) {
-        if (visited.contains(courseId)) {
-            return;
-        }
-        visited.add(courseId);
-
-        Set<Long> directPrereqs = prerequisiteRepository.findPrerequisiteIdsByCourseId(courseId);
-        for (Long prereqId : directPrereqs) {
-            allPrereqs.add(prereqId);
-            collectAllPrerequisites(prereqId, allPrereqs, visited);
-        }
-    }
-
     private void checkScheduleConflict(Long studentId, CourseSection newSection) {
-        if (newSection.getScheduleJson() == null || newSection.getScheduleJson().isEmpty()) {
+        WeeklyScheduleBitmap newSchedule = getSchedule(newSection);
+        if (newSchedule.isEmpty()) {
             return;
         }
 
         List<CourseSection> enrolledSections = enrollmentRepository.findActiveEnrolledSectionsByStudentId(
                 studentId, newSection.getSemester(), newSection.getYear());
 
-        List<ScheduleSlot> newSlots = parseScheduleJson(newSection.getScheduleJson());
-        if (newSlots.isEmpty()) {
-            return;
-        }
-
         for (CourseSection existingSection : enrolledSections) {
-            if (existingSection.getScheduleJson() == null) {
-                continue;
-            }
-            List<ScheduleSlot> existingSlots = parseScheduleJson(existingSection.getScheduleJson());
-            
-            for (ScheduleSlot newSlot : newSlots) {
-                for (ScheduleSlot existingSlot : existingSlots) {
-                    if (newSlot.overlapsWith(existingSlot)) {
-                        throw new ConflictException(String.format(
-                                "Ders çakışması: %s ile %s dersleri %s günü çakışıyor",
-                                newSection.getCourse().getCode(),
-                                existingSection.getCourse().getCode(),
-                                newSlot.getDay()));
-                    }
-                }
+            String conflictDay = newSchedule.findConflictDay(getSchedule(existingSection));
+            if (conflictDay != null) {
+                throw new ConflictException(String.format(
+                        "Ders çakışması: %s ile %s dersleri %s günü çakışıyor",
+                        newSection.getCourse().getCode(),
+                        existingSection.getCourse().getCode(),
+                        conflictDay));
             }
         }
     }
 
-    private List<ScheduleSlot> parseScheduleJson(String scheduleJson) {
+    // Programı okunamayan section ile çakışma kontrol edilemez; kayıt sessizce kabul edilmek yerine reddedilir
+    private WeeklyScheduleBitmap getSchedule(CourseSection section) {
         try {
-            return objectMapper.readValue(scheduleJson, new TypeReference<List<ScheduleSlot>>() {});
-        } catch (Exception e) {
-            log.warn("Schedule JSON parse hatası: {}", e.getMessage());
-            return Collections.emptyList();
+            return scheduleCache.getBitmap(section);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(String.format(
+                    "%s dersinin programı okunamadı: %s", section.getCourse().getCode(), e.getMessage()));
         }
     }
 
@@ -310,9 +280,8 @@ public class EnrollmentServiceImpl implements EnrollmentService {
         }
 
         enrollment.setStatus(EnrollmentStatus.DROPPED);
-        enrollment.getSection().decrementEnrollment();
+        sectionRepository.releaseSeat(sectionId, LocalDateTime.now());
 
-        sectionRepository.save(enrollment.getSection());
         enrollmentRepository.save(enrollment);
 
         log.info("Ders bırakıldı: {} -> {}", student.getStudentNumber(), enrollment.getSection().getCourse().getCode());
@@ -1,5 +1,9 @@
 package com.smartcampus.academic.service.impl;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartcampus.academic.cache.ClassroomOccupancyIndex;
+import com.smartcampus.academic.cache.StudentIdentityCache;
 import com.smartcampus.academic.dto.request.CreateScheduleRequest;
 import com.smartcampus.academic.dto.request.GenerateScheduleRequest;
 import com.smartcampus.academic.dto.response.ScheduleResponse;
@@ -13,17 +17,26 @@ import com.smartcampus.academic.repository.ClassroomRepository;
 import com.smartcampus.academic.repository.CourseSectionRepository;
 import com.smartcampus.academic.repository.EnrollmentRepository;
 import com.smartcampus.academic.repository.ScheduleRepository;
+import com.smartcampus.academic.repository.TimetableJdbcRepository;
+import com.smartcampus.academic.scheduling.TimetableProblem;
+import com.smartcampus.academic.scheduling.TimetableSolution;
+import com.smartcampus.academic.scheduling.TimetableSolver;
 import com.smartcampus.academic.service.ScheduleService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalTime;
 import java.time.Year;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
@@ -36,7 +49,12 @@ public class ScheduleServiceImpl implements ScheduleService {
         private final CourseSectionRepository sectionRepository;
         private final ClassroomRepository classroomRepository;
         private final EnrollmentRepository enrollmentRepository;
-        private final JdbcTemplate jdbcTemplate;
+        private final StudentIdentityCache studentIdentityCache;
+        private final TimetableJdbcRepository timetableRepository;
+        private final TimetableSolver timetableSolver;
+        private final ObjectMapper objectMapper;
+        private final ClassroomOccupancyIndex occupancyIndex;
+        private final ApplicationEventPublisher eventPublisher;
 
         // generateSchedules için basit in-memory id üretici
         private final AtomicLong generatedIdSequence = new AtomicLong(1L);
@@ -90,17 +108,9 @@ public class ScheduleServiceImpl implements ScheduleService {
         public MyScheduleResponse getMyScheduleByEmail(String email) {
                 log.info("Getting schedule for email: {}", email);
 
-                // Önce email'den user_id'yi bul, sonra students.id'yi bul
-                Long studentId;
-                try {
-                        Long userId = jdbcTemplate.queryForObject(
-                                        "SELECT id FROM users WHERE email = ?", Long.class, email);
-                        log.info("Found user_id: {} for email: {}", userId, email);
-
-                        studentId = jdbcTemplate.queryForObject(
-                                        "SELECT id FROM students WHERE user_id = ?", Long.class, userId);
-                        log.info("Found student_id: {} for user_id: {}", studentId, userId);
-                } catch (Exception e) {
+                // email → students.id eşlemesi bellekteki kimlik cache'inden okunur
+                Long studentId = studentIdentityCache.findStudentIdByEmail(email).orElse(null);
+                if (studentId == null) {
                         log.warn("User {} is not a student, returning empty schedule", email);
                         return MyScheduleResponse.builder()
                                         .semester("FALL")
@@ -187,18 +197,19 @@ public class ScheduleServiceImpl implements ScheduleService {
         @Override
         @Transactional
         public ScheduleResponse createSchedule(CreateScheduleRequest request) {
-                // Çakışma kontrolü
-                if (hasConflict(request.getClassroomId(), request.getDayOfWeek(),
-                                request.getStartTime(), request.getEndTime(), null)) {
-                        throw new RuntimeException("Bu derslik ve saatte çakışma var!");
-                }
-
                 CourseSection section = sectionRepository.findById(request.getSectionId())
                                 .orElseThrow(() -> new RuntimeException("Bölüm bulunamadı"));
 
-                Classroom classroom = classroomRepository.findById(request.getClassroomId())
+                // Derslik satırı kilitlenir; aynı dersliğe başka bir instance'tan gelen yazma commit'e kadar bekler
+                Classroom classroom = classroomRepository.findByIdForUpdate(request.getClassroomId())
                                 .orElseThrow(() -> new RuntimeException("Derslik bulunamadı"));
 
+                // Çakışma kontrolü
+                if (hasConflictInDatabase(request.getClassroomId(), request.getDayOfWeek(),
+                                request.getStartTime(), request.getEndTime(), null)) {
+                        throw new RuntimeException("Bu derslik ve saatte çakışma var!");
+                }
+
                 Schedule schedule = Schedule.builder()
                                 .section(section)
                                 .dayOfWeek(request.getDayOfWeek())
@@ -209,6 +220,7 @@ public class ScheduleServiceImpl implements ScheduleService {
                                 .build();
 
                 Schedule saved = scheduleRepository.save(schedule);
+                publishScheduleChanged(saved);
                 log.info("Program oluşturuldu: section={}, classroom={}, day={}",
                                 section.getSectionNumber(), classroom.getRoomNumber(), request.getDayOfWeek());
 
@@ -221,18 +233,18 @@ public class ScheduleServiceImpl implements ScheduleService {
                 Schedule schedule = scheduleRepository.findById(id)
                                 .orElseThrow(() -> new RuntimeException("Program bulunamadı"));
 
-                // Çakışma kontrolü (kendisi hariç)
-                if (hasConflict(request.getClassroomId(), request.getDayOfWeek(),
-                                request.getStartTime(), request.getEndTime(), id)) {
-                        throw new RuntimeException("Bu derslik ve saatte çakışma var!");
-                }
-
                 CourseSection section = sectionRepository.findById(request.getSectionId())
                                 .orElseThrow(() -> new RuntimeException("Bölüm bulunamadı"));
 
-                Classroom classroom = classroomRepository.findById(request.getClassroomId())
+                Classroom classroom = classroomRepository.findByIdForUpdate(request.getClassroomId())
                                 .orElseThrow(() -> new RuntimeException("Derslik bulunamadı"));
 
+                // Çakışma kontrolü (kendisi hariç)
+                if (hasConflictInDatabase(request.getClassroomId(), request.getDayOfWeek(),
+                                request.getStartTime(), request.getEndTime(), id)) {
+                        throw new RuntimeException("Bu derslik ve saatte çakışma var!");
+                }
+
                 schedule.setSection(section);
                 schedule.setDayOfWeek(request.getDayOfWeek());
                 schedule.setStartTime(request.getStartTime());
@@ -240,6 +252,7 @@ public class ScheduleServiceImpl implements ScheduleService {
                 schedule.setClassroom(classroom);
 
                 Schedule saved = scheduleRepository.save(schedule);
+                publishScheduleChanged(saved);
                 log.info("Program güncellendi: id={}", id);
 
                 return mapToResponse(saved);
@@ -253,13 +266,24 @@ public class ScheduleServiceImpl implements ScheduleService {
 
                 schedule.setIsActive(false);
                 scheduleRepository.save(schedule);
+                publishScheduleChanged(schedule);
                 log.info("Program silindi (soft delete): id={}", id);
         }
 
+        /**
+         * Derslik doluluk indeksinden O(log n) kontrol; indeks commit sonrası olaylarla güncel tutulur.
+         * Diğer instance'ların yazdıkları periyodik yüklemeye kadar görünmeyebilir, bu yüzden sadece okuma
+         * amaçlı sorgularda kullanılır; program oluşturma/güncelleme veritabanından kontrol eder.
+         */
         @Override
-        @Transactional(readOnly = true)
         public boolean hasConflict(Long classroomId, Schedule.DayOfWeek dayOfWeek,
                         LocalTime startTime, LocalTime endTime, Long excludeId) {
+                return occupancyIndex.hasScheduleConflict(classroomId, dayOfWeek, startTime, endTime, excludeId);
+        }
+
+        // Yazma yolunun son kontrolü; derslik satırı kilitliyken çağrılır
+        private boolean hasConflictInDatabase(Long classroomId, Schedule.DayOfWeek dayOfWeek,
+                        LocalTime startTime, LocalTime endTime, Long excludeId) {
                 List<Schedule> conflicts;
                 if (excludeId != null) {
                         conflicts = scheduleRepository.findConflictingSchedules(
@@ -271,90 +295,136 @@ public class ScheduleServiceImpl implements ScheduleService {
                 return !conflicts.isEmpty();
         }
 
+        // İndeks, olayı transaction commit edildikten sonra uygular
+        private void publishScheduleChanged(Schedule schedule) {
+                eventPublisher.publishEvent(new ClassroomOccupancyIndex.ScheduleChanged(
+                                schedule.getId(), schedule.getClassroom().getId(), schedule.getDayOfWeek(),
+                                schedule.getStartTime(), schedule.getEndTime(),
+                                schedule.getSection().getSemester(), schedule.getSection().getYear(),
+                                Boolean.TRUE.equals(schedule.getIsActive())));
+        }
+
+        /**
+         * Seçilen section'lar için kısıt tabanlı program alternatifleri üretir.
+         * Veriler birkaç toplu sorguyla yüklenir; çözücü çalışırken veritabanı bağlantısı tutulmaz,
+         * bu yüzden metot transaction içinde çalışmaz.
+         */
         @Override
-        @Transactional(readOnly = true)
         public List<GeneratedScheduleResponse> generateSchedules(GenerateScheduleRequest request) {
-                log.info("Generating demo schedules for semester={} year={} sections={}",
-                                request.getSemester(), request.getYear(), request.getSectionIds());
+                log.info("Generating schedules for semester={} year={} sections={}",
+                                request.getSemester(), request.getYear(),
+                                request.getSectionIds() != null ? request.getSectionIds().size() : 0);
 
                 if (request.getSectionIds() == null || request.getSectionIds().isEmpty()) {
                         return List.of();
                 }
 
-                List<CourseSection> sections = sectionRepository.findAllById(request.getSectionIds());
+                List<TimetableJdbcRepository.SectionRow> sections = timetableRepository
+                                .findSections(request.getSectionIds().stream().distinct().toList());
                 if (sections.isEmpty()) {
                         return List.of();
                 }
 
-                LocalTime[][] timeSlots = new LocalTime[][] {
-                                { LocalTime.of(9, 0), LocalTime.of(10, 30) },
-                                { LocalTime.of(11, 0), LocalTime.of(12, 30) },
-                                { LocalTime.of(14, 0), LocalTime.of(15, 30) },
-                                { LocalTime.of(15, 45), LocalTime.of(17, 15) }
-                };
-
-                Schedule.DayOfWeek[] days = new Schedule.DayOfWeek[] {
-                                Schedule.DayOfWeek.MONDAY,
-                                Schedule.DayOfWeek.TUESDAY,
-                                Schedule.DayOfWeek.WEDNESDAY,
-                                Schedule.DayOfWeek.THURSDAY,
-                                Schedule.DayOfWeek.FRIDAY
-                };
-
-                List<GeneratedScheduleResponse> results = new ArrayList<>();
-
-                for (int alt = 0; alt < 2; alt++) {
-                        List<GeneratedScheduleResponse.GeneratedScheduleEntry> entries = new ArrayList<>();
-                        int slotIndex = alt;
-                        int dayIndex = 0;
-
-                        for (CourseSection section : sections) {
-                                LocalTime start = timeSlots[slotIndex % timeSlots.length][0];
-                                LocalTime end = timeSlots[slotIndex % timeSlots.length][1];
-                                Schedule.DayOfWeek day = days[dayIndex % days.length];
-
-                                String classroomName = "Derslik henüz atanmadı";
-                                List<Schedule> existing = scheduleRepository
-                                                .findBySectionIdAndIsActiveTrue(section.getId());
-                                if (!existing.isEmpty()) {
-                                        Classroom classroom = existing.get(0).getClassroom();
-                                        classroomName = classroom.getBuilding() + " " + classroom.getRoomNumber();
-                                }
+                Map<Long, List<String>> requiredFeatures = request.getRequiredFeatures() != null
+                                ? request.getRequiredFeatures()
+                                : Map.of();
+                TimetableProblem.Builder builder = timetableSolver.newProblem();
+                for (TimetableJdbcRepository.SectionRow section : sections) {
+                        builder.addSection(section.getSectionId(), section.getCourseCode(), section.getCourseName(),
+                                        section.getInstructorId(), section.getCredits(), section.getCapacity(),
+                                        section.getEnrolledCount(),
+                                        normalizeFeatures(requiredFeatures.get(section.getSectionId())));
+                }
+                for (TimetableJdbcRepository.ClassroomRow classroom : timetableRepository.findActiveClassrooms()) {
+                        builder.addClassroom(classroom.getClassroomId(),
+                                        classroom.getBuilding() + " " + classroom.getRoomNumber(),
+                                        classroom.getCapacity(), parseFeatures(classroom.getFeaturesJson()));
+                }
+                for (TimetableJdbcRepository.ScheduleRow schedule : timetableRepository
+                                .findActiveSchedules(request.getSemester(), request.getYear())) {
+                        builder.addFixedSchedule(schedule.getSectionId(), schedule.getInstructorId(),
+                                        schedule.getClassroomId(), Schedule.DayOfWeek.valueOf(schedule.getDayOfWeek()),
+                                        schedule.getStartTime(), schedule.getEndTime());
+                }
+                timetableRepository.streamStudentOverlaps(request.getSemester(), request.getYear(),
+                                builder::addStudentOverlap);
+
+                TimetableProblem problem = builder.build();
+                List<TimetableSolution> solutions = timetableSolver.solve(problem);
+
+                List<GeneratedScheduleResponse> results = new ArrayList<>(solutions.size());
+                for (TimetableSolution solution : solutions) {
+                        List<GeneratedScheduleResponse.GeneratedScheduleEntry> entries = new ArrayList<>(
+                                        problem.getMeetingCount());
+                        for (int meeting = 0; meeting < problem.getMeetingCount(); meeting++) {
+                                TimetableProblem.SectionInfo section = problem
+                                                .getSection(problem.getMeetingSection(meeting));
+                                TimetableProblem.RoomInfo room = problem.getRoom(solution.getRoom(meeting));
+                                int period = solution.getPeriod(meeting);
 
                                 entries.add(GeneratedScheduleResponse.GeneratedScheduleEntry.builder()
-                                                .sectionId(section.getId())
-                                                .courseCode(section.getCourse().getCode())
-                                                .courseName(section.getCourse().getName())
-                                                .dayOfWeek(day)
-                                                .startTime(start)
-                                                .endTime(end)
-                                                .classroomName(classroomName)
+                                                .sectionId(section.getSectionId())
+                                                .courseCode(section.getCourseCode())
+                                                .courseName(section.getCourseName())
+                                                .dayOfWeek(problem.getPeriodDay(period))
+                                                .startTime(problem.getPeriodStart(period))
+                                                .endTime(problem.getPeriodEnd(period))
+                                                .classroomName(room != null ? room.getName() : "Derslik henüz atanmadı")
                                                 .build());
-
-                                slotIndex++;
-                                if (slotIndex % timeSlots.length == 0) {
-                                        dayIndex++;
-                                }
                         }
 
-                        int conflicts = 0;
-                        double score = 100.0 - (alt * 5);
-
-                        GeneratedScheduleResponse generated = GeneratedScheduleResponse.builder()
+                        results.add(GeneratedScheduleResponse.builder()
                                         .id(generatedIdSequence.getAndIncrement())
                                         .semester(request.getSemester())
                                         .year(request.getYear())
                                         .entries(entries)
-                                        .conflicts(conflicts)
-                                        .score(score)
-                                        .build();
-
-                        results.add(generated);
+                                        .conflicts(solution.getConflicts())
+                                        .score(solution.getScore())
+                                        .build());
                 }
 
                 return results;
         }
 
+        private Set<String> normalizeFeatures(Collection<String> features) {
+                if (features == null || features.isEmpty()) {
+                        return Set.of();
+                }
+                return features.stream()
+                                .filter(Objects::nonNull)
+                                .map(feature -> feature.trim().toLowerCase(Locale.ROOT))
+                                .filter(feature -> !feature.isEmpty())
+                                .collect(Collectors.toSet());
+        }
+
+        /**
+         * features_json hem ["projector", "lab"] dizisi hem de {"projector": true} nesnesi olarak desteklenir;
+         * nesnede değeri false/null olmayan anahtarlar özellik sayılır.
+         */
+        private Set<String> parseFeatures(String featuresJson) {
+                if (featuresJson == null || featuresJson.isBlank()) {
+                        return Set.of();
+                }
+                try {
+                        JsonNode node = objectMapper.readTree(featuresJson);
+                        List<String> features = new ArrayList<>();
+                        if (node.isArray()) {
+                                node.forEach(item -> features.add(item.asText()));
+                        } else if (node.isObject()) {
+                                node.fields().forEachRemaining(field -> {
+                                        JsonNode value = field.getValue();
+                                        if (!value.isNull() && !(value.isBoolean() && !value.booleanValue())) {
+                                                features.add(field.getKey());
+                                        }
+                                });
+                        }
+                        return normalizeFeatures(features);
+                } catch (Exception e) {
+                        log.warn("Derslik features_json parse hatası: {}", e.getMessage());
+                        return Set.of();
+                }
+        }
+
         private ScheduleResponse mapToResponse(Schedule schedule) {
                 CourseSection section = schedule.getSection();
                 Classroom classroom = schedule.getClassroom();
@@ -0,0 +1,97 @@
+package com.smartcampus.academic.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AnalyticsSnapshotCache Unit Tests")
+class AnalyticsSnapshotCacheTest {
+
+    private MeterRegistry meterRegistry;
+    private AnalyticsSnapshotCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new AnalyticsSnapshotCache(meterRegistry);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 60L);
+        ReflectionTestUtils.setField(cache, "refreshAheadRatio", 0.8);
+        ReflectionTestUtils.setField(cache, "maxStaleSeconds", 600L);
+        ReflectionTestUtils.setField(cache, "refreshThreads", 1);
+        // Zamanlayıcı yerine refreshDue testte doğrudan çağrılır
+        ReflectionTestUtils.setField(cache, "backgroundRefreshEnabled", false);
+        cache.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.shutdown();
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("analytics.snapshot_cache.requests").tag("result", result).counter().count();
+    }
+
+    /**
+     * Tek yenileme thread'inde sıradaki işlerin bitmesini bekler.
+     */
+    private void awaitRefreshes() throws Exception {
+        ExecutorService refresher = (ExecutorService) ReflectionTestUtils.getField(cache, "refresher");
+        refresher.submit(() -> { }).get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("Should compute a registered snapshot before the first request")
+    void register_WarmsUpSnapshot_FirstRequestIsHit() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.register("dashboard", loads::incrementAndGet);
+        awaitRefreshes();
+
+        assertEquals(1, cache.get("dashboard", loads::incrementAndGet).getValue().intValue());
+        assertEquals(1, loads.get());
+        assertEquals(0.0, requests("miss"));
+        assertEquals(1.0, requests("hit"));
+    }
+
+    @Test
+    @DisplayName("Should refresh a registered snapshot in the background once it reaches refresh-ahead age")
+    void refreshDue_AgedSnapshot_RefreshesWithoutRequest() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        cache.register("academic", loads::incrementAndGet);
+        awaitRefreshes();
+
+        cache.refreshDue();
+        awaitRefreshes();
+        assertEquals(1, loads.get());
+
+        // Refresh-ahead yaşı 48 saniye; TTL sıfırlanınca snapshot yenilenecek yaşa gelmiş sayılır
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 0L);
+        cache.refreshDue();
+        awaitRefreshes();
+
+        assertEquals(2, loads.get());
+        assertEquals(0.0, requests("miss"));
+    }
+
+    @Test
+    @DisplayName("Should leave keys that were only requested to request-driven refresh")
+    void refreshDue_UnregisteredKey_IsNotRefreshed() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        assertEquals(1, cache.get("meal", loads::incrementAndGet).getValue().intValue());
+
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 0L);
+        cache.refreshDue();
+        awaitRefreshes();
+
+        assertEquals(1, loads.get());
+        assertEquals(1.0, requests("miss"));
+    }
+}
@@ -0,0 +1,319 @@
+package com.smartcampus.academic.cache;
+
+import com.smartcampus.academic.cache.ClassroomOccupancyIndex.ClassroomChanged;
+import com.smartcampus.academic.cache.ClassroomOccupancyIndex.ReservationChanged;
+import com.smartcampus.academic.cache.ClassroomOccupancyIndex.ScheduleChanged;
+import com.smartcampus.academic.cache.ClassroomOccupancyIndex.Term;
+import com.smartcampus.academic.cache.ClassroomOccupancyIndex.TimeRange;
+import com.smartcampus.academic.entity.Schedule;
+import com.smartcampus.academic.repository.ClassroomRepository;
+import com.smartcampus.academic.repository.ClassroomReservationRepository;
+import com.smartcampus.academic.repository.ScheduleRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ClassroomOccupancyIndex Unit Tests")
+class ClassroomOccupancyIndexTest {
+
+    private static final long ROOM = 1L;
+    private static final long OTHER_ROOM = 2L;
+
+    // Gelecek yılın Ekim ayındaki ilk Pazartesi: o yılın FALL dönemi, indeksin kapsadığı bir tarih
+    private static final int FALL_YEAR = LocalDate.now().getYear() + 1;
+    private static final LocalDate FALL_MONDAY = LocalDate.of(FALL_YEAR, 10, 1)
+            .with(TemporalAdjusters.firstInMonth(DayOfWeek.MONDAY));
+
+    @Mock
+    private ScheduleRepository scheduleRepository;
+
+    @Mock
+    private ClassroomReservationRepository reservationRepository;
+
+    @Mock
+    private ClassroomRepository classroomRepository;
+
+    private ClassroomOccupancyIndex index;
+    private List<Object[]> scheduleRows;
+    private List<Object[]> reservationRows;
+    private List<Object[]> classroomRows;
+
+    @BeforeEach
+    void setUp() {
+        index = new ClassroomOccupancyIndex(scheduleRepository, reservationRepository, classroomRepository,
+                new SimpleMeterRegistry());
+        scheduleRows = new ArrayList<>();
+        reservationRows = new ArrayList<>();
+        classroomRows = new ArrayList<>();
+        when(scheduleRepository.findActiveOccupancyRows()).thenAnswer(invocation -> scheduleRows);
+        when(reservationRepository.findBlockingOccupancyRowsFrom(any())).thenAnswer(invocation -> reservationRows);
+        when(classroomRepository.findActiveCapacities()).thenAnswer(invocation -> classroomRows);
+    }
+
+    private void schedule(long id, long classroomId, Schedule.DayOfWeek day, String start, String end,
+            String semester, int year) {
+        scheduleRows.add(new Object[]{id, classroomId, day, LocalTime.parse(start), LocalTime.parse(end),
+                semester, year});
+    }
+
+    private void reservation(long id, long classroomId, LocalDate date, String start, String end) {
+        reservationRows.add(new Object[]{id, classroomId, date, LocalTime.parse(start), LocalTime.parse(end)});
+    }
+
+    private static LocalTime t(String time) {
+        return LocalTime.parse(time);
+    }
+
+    @Nested
+    @DisplayName("Overlap Tests")
+    class OverlapTests {
+
+        @Test
+        @DisplayName("Should detect overlapping weekly schedules but not adjacent ones")
+        void hasScheduleConflict_OverlappingAndAdjacent_OnlyOverlapConflicts() {
+            schedule(10L, ROOM, Schedule.DayOfWeek.MONDAY, "09:00", "11:00", "FALL", FALL_YEAR);
+            index.reload();
+
+            assertTrue(index.hasScheduleConflict(ROOM, Schedule.DayOfWeek.MONDAY, t("10:00"), t("12:00"), null));
+            assertTrue(index.hasScheduleConflict(ROOM, Schedule.DayOfWeek.MONDAY, t("09:30"), t("10:00"), null));
+            assertFalse(index.hasScheduleConflict(ROOM, Schedule.DayOfWeek.MONDAY, t("11:00"), t("12:00"), null));
+            assertFalse(index.hasScheduleConflict(ROOM, Schedule.DayOfWeek.MONDAY, t("08:00"), t("09:00"), null));
+            assertFalse(index.hasScheduleConflict(ROOM, Schedule.DayOfWeek.TUESDAY, t("10:00"), t("12:00"), null));
+            assertFalse(index.hasScheduleConflict(OTHER_ROOM, Schedule.DayOfWeek.MONDAY, t("10:00"), t("12:00"), null));
+        }
+
+        @Test
+        @DisplayName("Should find an overlap hidden behind a long earlier interval")
+        void hasScheduleConflict_LongEarlierInterval_UsesPrefixMaxEnd() {
+            schedule(10L, ROOM, Schedule.DayOfWeek.MONDAY, "08:00", "17:00", "FALL", FALL_YEAR);
+            schedule(11L, ROOM, Schedule.DayOfWeek.MONDAY, "09:00", "10:00", "FALL", FALL_YEAR);
+            schedule(12L, ROOM, Schedule.DayOfWeek.MONDAY, "11:00", "12:00", "FALL", FALL_YEAR);
+            index.reload();
+
+            // 15:00-16:00 sadece ilk (en erken başlayan) aralıkla çakışır
+            assertTrue(index.hasScheduleConflict(ROOM, Schedule.DayOfWeek.MONDAY, t("15:00"), t("16:00"), null));
+            assertFalse(index.hasScheduleConflict(ROOM, Schedule.DayOfWeek.MONDAY, t("17:00"), t("18:00"), null));
+        }
+
+        @Test
+        @DisplayName("Should ignore the excluded schedule but still see other overlaps")
+        void hasScheduleConflict_ExcludeId_SkipsOnlyThatSchedule() {
+            schedule(10L, ROOM, Schedule.DayOfWeek.MONDAY, "09:00", "11:00", "FALL", FALL_YEAR);
+            index.reload();
+
+            assertFalse(index.hasScheduleConflict(ROOM, Schedule.DayOfWeek.MONDAY, t("09:30"), t("10:30"), 10L));
+
+            schedule(11L, ROOM, Schedule.DayOfWeek.MONDAY, "10:00", "12:00", "FALL", FALL_YEAR);
+            index.reload();
+
+            assertTrue(index.hasScheduleConflict(ROOM, Schedule.DayOfWeek.MONDAY, t("09:30"), t("10:30"), 10L));
+            assertFalse(index.hasScheduleConflict(ROOM, Schedule.DayOfWeek.MONDAY, t("09:00"), t("10:00"), 10L));
+        }
+
+        @Test
+        @DisplayName("Should check reservations against that date's reservations and weekly schedule")
+        void hasReservationConflict_ReservationsAndSchedules_DetectsBoth() {
+            schedule(10L, ROOM, Schedule.DayOfWeek.MONDAY, "09:00", "10:00", "FALL", FALL_YEAR);
+            reservation(20L, ROOM, FALL_MONDAY, "13:00", "14:00");
+            index.reload();
+
+            assertTrue(index.hasReservationConflict(ROOM, FALL_MONDAY, t("09:30"), t("09:45")));
+            assertTrue(index.hasReservationConflict(ROOM, FALL_MONDAY, t("13:30"), t("15:00")));
+            assertFalse(index.hasReservationConflict(ROOM, FALL_MONDAY, t("10:00"), t("13:00")));
+            assertFalse(index.hasReservationConflict(ROOM, FALL_MONDAY.plusDays(1), t("13:30"), t("15:00")));
+        }
+    }
+
+    @Nested
+    @DisplayName("Free Slot Tests")
+    class FreeSlotTests {
+
+        @Test
+        @DisplayName("Should merge schedules and reservations into free gaps within the window")
+        void findFreeSlots_OverlappingBusyIntervals_MergesGaps() {
+            schedule(10L, ROOM, Schedule.DayOfWeek.MONDAY, "09:00", "10:00", "FALL", FALL_YEAR);
+            schedule(11L, ROOM, Schedule.DayOfWeek.MONDAY, "15:00", "16:00", "FALL", FALL_YEAR);
+            reservation(20L, ROOM, FALL_MONDAY, "09:30", "11:00");
+            reservation(21L, ROOM, FALL_MONDAY, "13:00", "14:00");
+            reservation(22L, ROOM, FALL_MONDAY, "13:30", "13:45");
+            index.reload();
+
+            List<TimeRange> free = index.findFreeSlots(ROOM, FALL_MONDAY, t("08:00"), t("22:00"));
+
+            assertEquals(List.of(
+                    new TimeRange(t("08:00"), t("09:00")),
+                    new TimeRange(t("11:00"), t("13:00")),
+                    new TimeRange(t("14:00"), t("15:00")),
+                    new TimeRange(t("16:00"), t("22:00"))), free);
+        }
+
+        @Test
+        @DisplayName("Should clip busy intervals that cross the window edges")
+        void findFreeSlots_BusyAcrossWindowEdges_ClipsToWindow() {
+            reservation(20L, ROOM, FALL_MONDAY, "07:00", "08:30");
+            reservation(21L, ROOM, FALL_MONDAY, "21:00", "23:00");
+            index.reload();
+
+            assertEquals(List.of(new TimeRange(t("08:30"), t("21:00"))),
+                    index.findFreeSlots(ROOM, FALL_MONDAY, t("08:00"), t("22:00")));
+        }
+
+        @Test
+        @DisplayName("Should list free classrooms by ascending capacity above the threshold")
+        void findFreeClassrooms_MixedCapacities_ReturnsFreeOnesInCapacityOrder() {
+            classroomRows.add(new Object[]{ROOM, 80});
+            classroomRows.add(new Object[]{OTHER_ROOM, 40});
+            classroomRows.add(new Object[]{3L, 20});
+            classroomRows.add(new Object[]{4L, 60});
+            reservation(20L, 4L, FALL_MONDAY, "09:00", "10:00");
+            index.reload();
+
+            assertEquals(List.of(OTHER_ROOM, ROOM),
+                    index.findFreeClassrooms(FALL_MONDAY, t("09:00"), t("10:00"), 30, 10));
+            assertEquals(List.of(OTHER_ROOM),
+                    index.findFreeClassrooms(FALL_MONDAY, t("09:00"), t("10:00"), 30, 1));
+        }
+    }
+
+    @Nested
+    @DisplayName("Term Tests")
+    class TermTests {
+
+        @Test
+        @DisplayName("Should resolve the term containing a date by month")
+        void containing_MonthBoundaries_FollowAcademicCalendar() {
+            assertEquals(new Term("FALL", 2025), Term.containing(LocalDate.of(2025, 9, 1)));
+            assertEquals(new Term("FALL", 2025), Term.containing(LocalDate.of(2025, 12, 31)));
+            assertEquals(new Term("FALL", 2025), Term.containing(LocalDate.of(2026, 1, 31)));
+            assertEquals(new Term("SPRING", 2026), Term.containing(LocalDate.of(2026, 2, 1)));
+            assertEquals(new Term("SPRING", 2026), Term.containing(LocalDate.of(2026, 6, 30)));
+            assertEquals(new Term("SUMMER", 2026), Term.containing(LocalDate.of(2026, 7, 1)));
+            assertEquals(new Term("SUMMER", 2026), Term.containing(LocalDate.of(2026, 8, 31)));
+        }
+
+        @Test
+        @DisplayName("Should apply a weekly schedule only on dates within its section's term")
+        void hasReservationConflict_ScheduleFromOtherTerm_IsIgnored() {
+            schedule(10L, ROOM, Schedule.DayOfWeek.MONDAY, "09:00", "11:00", "fall", FALL_YEAR);
+            index.reload();
+
+            LocalDate januaryMonday = LocalDate.of(FALL_YEAR + 1, 1, 1)
+                    .with(TemporalAdjusters.firstInMonth(DayOfWeek.MONDAY));
+            LocalDate springMonday = LocalDate.of(FALL_YEAR + 1, 3, 1)
+                    .with(TemporalAdjusters.firstInMonth(DayOfWeek.MONDAY));
+            LocalDate nextFallMonday = FALL_MONDAY.plusYears(1)
+                    .with(TemporalAdjusters.firstInMonth(DayOfWeek.MONDAY));
+
+            assertTrue(index.hasReservationConflict(ROOM, FALL_MONDAY, t("10:00"), t("10:30")));
+            assertTrue(index.hasReservationConflict(ROOM, januaryMonday, t("10:00"), t("10:30")));
+            assertFalse(index.hasReservationConflict(ROOM, springMonday, t("10:00"), t("10:30")));
+            assertFalse(index.hasReservationConflict(ROOM, nextFallMonday, t("10:00"), t("10:30")));
+            assertEquals(List.of(new TimeRange(t("08:00"), t("12:00"))),
+                    index.findFreeSlots(ROOM, springMonday, t("08:00"), t("12:00")));
+        }
+    }
+
+    @Nested
+    @DisplayName("Event And Reload Tests")
+    class EventTests {
+
+        @Test
+        @DisplayName("Should move a schedule between buckets on update and drop it on delete")
+        void onScheduleChanged_UpdateThenDelete_KeepsBucketsConsistent() {
+            schedule(10L, ROOM, Schedule.DayOfWeek.MONDAY, "09:00", "11:00", "FALL", FALL_YEAR);
+            index.reload();
+
+            index.onScheduleChanged(new ScheduleChanged(10L, ROOM, Schedule.DayOfWeek.TUESDAY,
+                    t("09:00"), t("11:00"), "SPRING", FALL_YEAR + 1, true));
+
+            assertFalse(index.hasScheduleConflict(ROOM, Schedule.DayOfWeek.MONDAY, t("09:00"), t("10:00"), null));
+            assertTrue(index.hasScheduleConflict(ROOM, Schedule.DayOfWeek.TUESDAY, t("09:00"), t("10:00"), null));
+            assertFalse(index.hasReservationConflict(ROOM, FALL_MONDAY, t("09:00"), t("10:00")));
+
+            index.onScheduleChanged(new ScheduleChanged(10L, ROOM, Schedule.DayOfWeek.TUESDAY,
+                    t("09:00"), t("11:00"), "SPRING", FALL_YEAR + 1, false));
+
+            assertFalse(index.hasScheduleConflict(ROOM, Schedule.DayOfWeek.TUESDAY, t("09:00"), t("10:00"), null));
+        }
+
+        @Test
+        @DisplayName("Should let a reload replace state built from earlier events")
+        void reload_AfterEvents_ReflectsDatabase() {
+            index.reload();
+            index.onScheduleChanged(new ScheduleChanged(10L, ROOM, Schedule.DayOfWeek.MONDAY,
+                    t("09:00"), t("11:00"), "FALL", FALL_YEAR, true));
+            assertTrue(index.hasScheduleConflict(ROOM, Schedule.DayOfWeek.MONDAY, t("09:00"), t("10:00"), null));
+
+            // Başka bir instance programı silmiş; veritabanında yok
+            index.reload();
+
+            assertFalse(index.hasScheduleConflict(ROOM, Schedule.DayOfWeek.MONDAY, t("09:00"), t("10:00"), null));
+        }
+
+        @Test
+        @DisplayName("Should keep serving the previous state when a reload fails")
+        void reload_RepositoryFails_KeepsPreviousState() {
+            schedule(10L, ROOM, Schedule.DayOfWeek.MONDAY, "09:00", "11:00", "FALL", FALL_YEAR);
+            index.reload();
+
+            when(scheduleRepository.findActiveOccupancyRows()).thenThrow(new IllegalStateException("db down"));
+            index.reload();
+
+            assertTrue(index.hasScheduleConflict(ROOM, Schedule.DayOfWeek.MONDAY, t("09:00"), t("10:00"), null));
+        }
+
+        @Test
+        @DisplayName("Should index blocking reservations and drop them when cancelled")
+        void onReservationChanged_CreateThenCancel_UpdatesDateBucket() {
+            index.reload();
+
+            index.onReservationChanged(new ReservationChanged(20L, ROOM, FALL_MONDAY, t("13:00"), t("14:00"), true));
+            assertTrue(index.hasReservationConflict(ROOM, FALL_MONDAY, t("13:30"), t("14:30")));
+
+            index.onReservationChanged(new ReservationChanged(20L, ROOM, FALL_MONDAY, t("13:00"), t("14:00"), false));
+            assertFalse(index.hasReservationConflict(ROOM, FALL_MONDAY, t("13:30"), t("14:30")));
+        }
+
+        @Test
+        @DisplayName("Should not index reservations dated before the last reload")
+        void onReservationChanged_PastDate_IsNotIndexed() {
+            index.reload();
+            LocalDate yesterday = LocalDate.now().minusDays(1);
+
+            index.onReservationChanged(new ReservationChanged(20L, ROOM, yesterday, t("13:00"), t("14:00"), true));
+
+            assertFalse(index.covers(yesterday));
+            assertFalse(index.hasReservationConflict(ROOM, yesterday, t("13:00"), t("14:00")));
+        }
+
+        @Test
+        @DisplayName("Should add and remove classrooms from the capacity order")
+        void onClassroomChanged_DeactivateRoom_RemovesFromFreeList() {
+            classroomRows.add(new Object[]{ROOM, 50});
+            index.reload();
+
+            index.onClassroomChanged(new ClassroomChanged(OTHER_ROOM, 30, true));
+            assertEquals(List.of(OTHER_ROOM, ROOM), index.findFreeClassrooms(FALL_MONDAY, t("09:00"), t("10:00"), 0, 10));
+
+            index.onClassroomChanged(new ClassroomChanged(ROOM, 50, false));
+            assertEquals(List.of(OTHER_ROOM), index.findFreeClassrooms(FALL_MONDAY, t("09:00"), t("10:00"), 0, 10));
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.smartcampus.academic.cache;
+
+import com.smartcampus.academic.repository.CoursePrerequisiteRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PrerequisiteClosureIndex Unit Tests")
+class PrerequisiteClosureIndexTest {
+
+    // Zincir: 3 → 2 → 1
+    private static final Long CHAIN_1 = 1L;
+    private static final Long CHAIN_2 = 2L;
+    private static final Long CHAIN_3 = 3L;
+    // Elmas: 13 → {11, 12} → 10
+    private static final Long DIAMOND_BASE = 10L;
+    private static final Long DIAMOND_LEFT = 11L;
+    private static final Long DIAMOND_RIGHT = 12L;
+    private static final Long DIAMOND_TOP = 13L;
+    // Döngü: 20 → 21 → 22 → 20
+    private static final Long CYCLE_A = 20L;
+    private static final Long CYCLE_B = 21L;
+    private static final Long CYCLE_C = 22L;
+
+    @Mock
+    private CoursePrerequisiteRepository prerequisiteRepository;
+
+    private MeterRegistry meterRegistry;
+    private PrerequisiteClosureIndex index;
+
+    @BeforeEach
+    void setUp() {
+        when(prerequisiteRepository.findEdgeFingerprint()).thenReturn(fingerprint(9));
+        when(prerequisiteRepository.findAllEdges()).thenReturn(edges());
+
+        meterRegistry = new SimpleMeterRegistry();
+        index = new PrerequisiteClosureIndex(prerequisiteRepository, meterRegistry);
+        // Zamanlanmış yenileme test süresince çalışmaz; refreshIfChanged doğrudan çağrılır
+        ReflectionTestUtils.setField(index, "refreshSeconds", 3600L);
+        index.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        index.shutdown();
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).gauge().value();
+    }
+
+    @Test
+    @DisplayName("Should require every course along a prerequisite chain")
+    void findMissingPrerequisites_Chain_ReturnsTransitivePrerequisites() {
+        assertEquals(Set.of("C1", "C2"), missing(CHAIN_3));
+        assertEquals(Set.of("C2"), missing(CHAIN_3, CHAIN_1));
+        assertEquals(Set.of(), missing(CHAIN_3, CHAIN_1, CHAIN_2));
+        assertEquals(Set.of("C1"), missing(CHAIN_2));
+    }
+
+    @Test
+    @DisplayName("Should report a shared prerequisite of a diamond once and still require it")
+    void findMissingPrerequisites_Diamond_ReturnsSharedPrerequisiteOnce() {
+        assertEquals(List.of("D10", "D11", "D12"), sorted(index.findMissingPrerequisites(DIAMOND_TOP, List.of())));
+        assertEquals(Set.of("D10"), missing(DIAMOND_TOP, DIAMOND_LEFT, DIAMOND_RIGHT));
+        assertEquals(Set.of("D12"), missing(DIAMOND_TOP, DIAMOND_BASE, DIAMOND_LEFT));
+    }
+
+    @Test
+    @DisplayName("Should treat courses without prerequisites as unconstrained")
+    void hasPrerequisites_LeafOrUnknownCourse_ReturnsFalse() {
+        assertTrue(index.hasPrerequisites(CHAIN_3));
+        assertFalse(index.hasPrerequisites(CHAIN_1));
+        assertFalse(index.hasPrerequisites(DIAMOND_BASE));
+        assertFalse(index.hasPrerequisites(99L));
+        assertTrue(index.findMissingPrerequisites(99L, List.of()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should detect cyclic courses and keep them in their own closure")
+    void build_Cycle_CountsCyclicCoursesAndBlocksEnrollment() {
+        assertEquals(3.0, gauge("academic.prerequisite_index.cyclic_courses"));
+        assertEquals(10.0, gauge("academic.prerequisite_index.courses"));
+
+        assertEquals(Set.of("Y20", "Y21", "Y22"), missing(CYCLE_A));
+        // Döngüdeki diğer dersler tamamlanmış olsa bile ders kendi önkoşulu olarak kalır
+        assertEquals(Set.of("Y20"), missing(CYCLE_A, CYCLE_B, CYCLE_C));
+    }
+
+    @Test
+    @DisplayName("Should rebuild only when the edge fingerprint changes")
+    void refreshIfChanged_FingerprintChanged_RebuildsIndex() {
+        List<Object[]> extended = new ArrayList<>(edges());
+        extended.add(edge(CHAIN_1, DIAMOND_TOP, "D13"));
+        when(prerequisiteRepository.findAllEdges()).thenReturn(extended);
+
+        index.refreshIfChanged();
+        assertEquals(Set.of("C1", "C2"), missing(CHAIN_3));
+        verify(prerequisiteRepository, times(1)).findAllEdges();
+
+        when(prerequisiteRepository.findEdgeFingerprint()).thenReturn(fingerprint(10));
+        index.refreshIfChanged();
+
+        assertEquals(Set.of("C1", "C2", "D10", "D11", "D12", "D13"), missing(CHAIN_3));
+        verify(prerequisiteRepository, times(2)).findAllEdges();
+    }
+
+    private Set<String> missing(Long courseId, Long... completedCourseIds) {
+        return new HashSet<>(index.findMissingPrerequisites(courseId, List.of(completedCourseIds)));
+    }
+
+    private static List<String> sorted(List<String> codes) {
+        List<String> copy = new ArrayList<>(codes);
+        copy.sort(null);
+        return copy;
+    }
+
+    private static List<Object[]> fingerprint(long edgeCount) {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{edgeCount, edgeCount * 31});
+        return rows;
+    }
+
+    private static List<Object[]> edges() {
+        return List.of(
+                edge(CHAIN_3, CHAIN_2, "C2"),
+                edge(CHAIN_2, CHAIN_1, "C1"),
+                edge(DIAMOND_TOP, DIAMOND_LEFT, "D11"),
+                edge(DIAMOND_TOP, DIAMOND_RIGHT, "D12"),
+                edge(DIAMOND_LEFT, DIAMOND_BASE, "D10"),
+                edge(DIAMOND_RIGHT, DIAMOND_BASE, "D10"),
+                edge(CYCLE_A, CYCLE_B, "Y21"),
+                edge(CYCLE_B, CYCLE_C, "Y22"),
+                edge(CYCLE_C, CYCLE_A, "Y20"));
+    }
+
+    private static Object[] edge(Long courseId, Long prerequisiteId, String prerequisiteCode) {
+        return new Object[]{courseId, prerequisiteId, prerequisiteCode};
+    }
+}
@@ -0,0 +1,55 @@
+package com.smartcampus.academic.dto;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("WeeklyScheduleBitmap Unit Tests")
+class WeeklyScheduleBitmapTest {
+
+    private static WeeklyScheduleBitmap schedule(String day, String start, String end) {
+        return WeeklyScheduleBitmap.compile(List.of(new ScheduleSlot(day, start, end)));
+    }
+
+    @Test
+    @DisplayName("Should resolve day names case-insensitively in English and Turkish")
+    void findConflictDay_MixedCaseDayNames_DetectsConflict() {
+        assertEquals("FRIDAY", schedule("friday", "09:00", "10:30")
+                .findConflictDay(schedule("FRIDAY", "10:00", "11:00")));
+        assertEquals("TUESDAY", schedule("Salı", "13:00", "15:00")
+                .findConflictDay(schedule("tuesday", "14:00", "16:00")));
+        assertEquals("MONDAY", schedule(" pazartesi ", "08:00", "09:00")
+                .findConflictDay(schedule("Monday", "08:30", "09:30")));
+    }
+
+    @Test
+    @DisplayName("Should not report back-to-back or unaligned non-overlapping slots")
+    void findConflictDay_AdjacentSlots_ReturnsNull() {
+        assertNull(schedule("MONDAY", "09:00", "10:00")
+                .findConflictDay(schedule("MONDAY", "10:00", "11:00")));
+        assertNull(schedule("MONDAY", "09:00", "10:02")
+                .findConflictDay(schedule("MONDAY", "10:03", "11:00")));
+    }
+
+    @Test
+    @DisplayName("Should fall back to day name comparison for unrecognized days")
+    void findConflictDay_UnrecognizedDay_ComparesLikeScheduleSlot() {
+        WeeklyScheduleBitmap unknown = schedule("Pzt", "09:00", "10:00");
+
+        assertFalse(unknown.isEmpty());
+        assertEquals("Pzt", unknown.findConflictDay(schedule("pzt", "09:30", "10:30")));
+        assertNull(unknown.findConflictDay(schedule("Sal", "09:30", "10:30")));
+        assertNull(unknown.findConflictDay(schedule("MONDAY", "09:30", "10:30")));
+    }
+
+    @Test
+    @DisplayName("Should reject invalid times instead of compiling an empty schedule")
+    void compile_InvalidTime_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> schedule("MONDAY", "9am", "10:00"));
+        assertThrows(IllegalArgumentException.class, () -> schedule("MONDAY", "09:00", null));
+        assertThrows(IllegalArgumentException.class, () -> schedule(null, "09:00", "10:00"));
+    }
+}
@@ -0,0 +1,191 @@
+package com.smartcampus.academic.repository;
+
+import com.smartcampus.academic.entity.*;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("CourseSection Seat Admission Load Tests")
+class CourseSectionSeatAdmissionTest {
+
+    private static final int CAPACITY = 150;
+    private static final int ATTEMPTS = 3000;
+    private static final int THREADS = 32;
+    // Gevşek alt sınır: yavaş CI makinelerinde de geçer, kabul yolunda ciddi bir yavaşlamayı yakalar
+    private static final double MIN_ATTEMPTS_PER_SECOND = 100;
+
+    @Autowired
+    private CourseSectionRepository sectionRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private FacultyRepository facultyRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private CourseSection section;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        Department department = departmentRepository.save(Department.builder()
+                .name("Bilgisayar Mühendisliği")
+                .code("CSE")
+                .facultyName("Mühendislik Fakültesi")
+                .build());
+
+        User instructorUser = userRepository.save(User.builder()
+                .email("instructor@smartcampus.edu.tr")
+                .passwordHash("hash")
+                .firstName("Ayşe")
+                .lastName("Yılmaz")
+                .role(Role.FACULTY)
+                .build());
+
+        Faculty instructor = facultyRepository.save(Faculty.builder()
+                .user(instructorUser)
+                .department(department)
+                .employeeNumber("EMP001")
+                .title("Dr.")
+                .build());
+
+        Course course = courseRepository.save(Course.builder()
+                .code("CSE101")
+                .name("Programlamaya Giriş")
+                .department(department)
+                .build());
+
+        section = sectionRepository.save(CourseSection.builder()
+                .course(course)
+                .sectionNumber("1")
+                .semester("FALL")
+                .year(2025)
+                .instructor(instructor)
+                .capacity(CAPACITY)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        sectionRepository.deleteAll();
+        courseRepository.deleteAll();
+        facultyRepository.deleteAll();
+        userRepository.deleteAll();
+        departmentRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should admit exactly capacity seats under concurrent enrollments")
+    void tryReserveSeat_ConcurrentAttempts_NeverOversubscribes() throws Exception {
+        AtomicInteger admitted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        double seconds;
+
+        try {
+            List<Future<?>> futures = new ArrayList<>(ATTEMPTS);
+            for (int i = 0; i < ATTEMPTS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    Integer updated = transactionTemplate.execute(status ->
+                            sectionRepository.tryReserveSeat(section.getId(), LocalDateTime.now()));
+                    (updated != null && updated == 1 ? admitted : rejected).incrementAndGet();
+                    return null;
+                }));
+            }
+
+            long startedAt = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+            seconds = (System.nanoTime() - startedAt) / 1e9;
+            System.out.printf("Seat admission: %d attempts in %.2f s (%.0f/s), admitted=%d, rejected=%d%n",
+                    ATTEMPTS, seconds, ATTEMPTS / seconds, admitted.get(), rejected.get());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(CAPACITY, admitted.get());
+        assertEquals(ATTEMPTS - CAPACITY, rejected.get());
+        assertEquals(CAPACITY, sectionRepository.findById(section.getId()).orElseThrow().getEnrolledCount());
+        double attemptsPerSecond = ATTEMPTS / seconds;
+        assertTrue(attemptsPerSecond >= MIN_ATTEMPTS_PER_SECOND,
+                String.format("Seat admission too slow: %.0f attempts/s (expected >= %.0f)",
+                        attemptsPerSecond, MIN_ATTEMPTS_PER_SECOND));
+    }
+
+    @Test
+    @DisplayName("Should reuse released seats and never go below zero")
+    void releaseSeat_ConcurrentDropsAndEnrollments_KeepsCountConsistent() throws Exception {
+        for (int i = 0; i < CAPACITY; i++) {
+            assertEquals(1, sectionRepository.tryReserveSeat(section.getId(), LocalDateTime.now()));
+        }
+        assertEquals(0, sectionRepository.tryReserveSeat(section.getId(), LocalDateTime.now()));
+
+        int drops = CAPACITY / 3;
+        AtomicInteger admitted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Callable<Object>> tasks = new ArrayList<>();
+            for (int i = 0; i < drops; i++) {
+                tasks.add(() -> transactionTemplate.execute(status ->
+                        sectionRepository.releaseSeat(section.getId(), LocalDateTime.now())));
+            }
+            for (int i = 0; i < drops * 4; i++) {
+                tasks.add(() -> {
+                    Integer updated = transactionTemplate.execute(status ->
+                            sectionRepository.tryReserveSeat(section.getId(), LocalDateTime.now()));
+                    if (updated != null && updated == 1) {
+                        admitted.incrementAndGet();
+                    }
+                    return null;
+                });
+            }
+            for (Future<Object> future : executor.invokeAll(tasks, 60, TimeUnit.SECONDS)) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int enrolledCount = sectionRepository.findById(section.getId()).orElseThrow().getEnrolledCount();
+        assertTrue(enrolledCount <= CAPACITY);
+        assertEquals(CAPACITY - drops + admitted.get(), enrolledCount);
+
+        for (int i = 0; i < CAPACITY * 2; i++) {
+            sectionRepository.releaseSeat(section.getId(), LocalDateTime.now());
+        }
+        assertEquals(0, sectionRepository.findById(section.getId()).orElseThrow().getEnrolledCount());
+    }
+}
@@ -0,0 +1,170 @@
+package com.smartcampus.academic.scheduling;
+
+import com.smartcampus.academic.entity.Schedule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TimetableProblem Unit Tests")
+class TimetableProblemTest {
+
+    private static final List<Schedule.DayOfWeek> WEEK = List.of(Schedule.DayOfWeek.MONDAY,
+            Schedule.DayOfWeek.TUESDAY, Schedule.DayOfWeek.WEDNESDAY, Schedule.DayOfWeek.THURSDAY,
+            Schedule.DayOfWeek.FRIDAY);
+
+    private static List<LocalTime[]> slots(String... ranges) {
+        return Arrays.stream(ranges)
+                .map(range -> new LocalTime[]{LocalTime.parse(range.substring(0, 5)), LocalTime.parse(range.substring(6))})
+                .toList();
+    }
+
+    private static int meetingsFor(List<Schedule.DayOfWeek> days, List<LocalTime[]> slots, int credits) {
+        return TimetableProblem.builder(days, slots)
+                .addSection(1L, "CSE101", "Programlamaya Giriş", 1L, credits, 30, 0, Set.of())
+                .build()
+                .getMeetingCount();
+    }
+
+    @Test
+    @DisplayName("Should derive weekly meetings from credits and slot length")
+    void addSection_Credits_DerivesMeetingCount() {
+        List<LocalTime[]> ninetyMinutes = slots("08:30-10:00", "10:15-11:45");
+        List<LocalTime[]> fiftyMinutes = slots("09:00-09:50", "10:00-10:50");
+
+        assertEquals(1, meetingsFor(WEEK, ninetyMinutes, 1));
+        assertEquals(1, meetingsFor(WEEK, ninetyMinutes, 2));
+        assertEquals(2, meetingsFor(WEEK, ninetyMinutes, 3));
+        assertEquals(3, meetingsFor(WEEK, ninetyMinutes, 4));
+        assertEquals(4, meetingsFor(WEEK, fiftyMinutes, 3));
+        // Kredisi girilmemiş ders yine de bir oturum alır
+        assertEquals(1, meetingsFor(WEEK, ninetyMinutes, 0));
+    }
+
+    @Test
+    @DisplayName("Should cap meetings at one per programme day")
+    void addSection_ManyCredits_CapsAtDayCount() {
+        List<LocalTime[]> ninetyMinutes = slots("08:30-10:00", "10:15-11:45");
+
+        assertEquals(5, meetingsFor(WEEK, ninetyMinutes, 10));
+        assertEquals(2, meetingsFor(List.of(Schedule.DayOfWeek.MONDAY, Schedule.DayOfWeek.TUESDAY),
+                ninetyMinutes, 4));
+    }
+
+    @Test
+    @DisplayName("Should lay meetings out in section order")
+    void build_MultipleSections_AlignsMeetingsWithSections() {
+        TimetableProblem problem = TimetableProblem.builder(WEEK, slots("08:30-10:00", "10:15-11:45"))
+                .addSection(10L, "CSE101", "Programlamaya Giriş", 1L, 3, 30, 0, Set.of())
+                .addSection(20L, "CSE102", "Veri Yapıları", 1L, 1, 30, 0, Set.of())
+                .addSection(30L, "CSE103", "Algoritmalar", 2L, 4, 30, 0, Set.of())
+                .build();
+
+        assertEquals(3, problem.getSectionCount());
+        assertEquals(6, problem.getMeetingCount());
+        assertArrayEquals(new int[]{0, 0, 1, 2, 2, 2}, problem.meetingSection);
+        assertArrayEquals(new int[]{0, 2, 3, 6}, problem.firstMeeting);
+        assertEquals(2, problem.instructorCount);
+        assertEquals(10, problem.getPeriodCount());
+        assertEquals(Schedule.DayOfWeek.TUESDAY, problem.getPeriodDay(3));
+        assertEquals(LocalTime.of(10, 15), problem.getPeriodStart(3));
+    }
+
+    @Test
+    @DisplayName("Should prefer rooms fitting capacity and fall back to enrolled count")
+    void build_RoomCapacitiesAndFeatures_SelectsCandidateRooms() {
+        TimetableProblem problem = TimetableProblem.builder(WEEK, slots("08:30-10:00"))
+                .addClassroom(1L, "A-101", 120, Set.of("projector"))
+                .addClassroom(2L, "A-102", 40, Set.of("projector"))
+                .addClassroom(3L, "LAB-1", 60, Set.of("projector", "computers"))
+                .addSection(10L, "CSE101", "Programlamaya Giriş", 1L, 3, 50, 10, Set.of())
+                .addSection(20L, "CSE201", "Laboratuvar", 2L, 3, 50, 10, Set.of("computers"))
+                .addSection(30L, "CSE301", "Büyük Sınıf", 3L, 3, 200, 90, Set.of())
+                .addSection(40L, "CSE401", "Dolu Sınıf", 4L, 3, 200, 200, Set.of())
+                .build();
+
+        // Kapasiteye göre artan sırada
+        assertArrayEquals(new int[]{2, 0}, problem.candidateRooms[0]);
+        assertArrayEquals(new int[]{2}, problem.candidateRooms[1]);
+        // Kapasiteyi alan derslik yok; mevcut 90 kayıt 120'lik amfiye sığar
+        assertArrayEquals(new int[]{0}, problem.candidateRooms[2]);
+        assertArrayEquals(new int[]{}, problem.candidateRooms[3]);
+    }
+
+    @Test
+    @DisplayName("Should ignore existing schedule rows of sections being regenerated")
+    void build_FixedRowsOfRegeneratedSection_AreNotConstraints() {
+        TimetableProblem problem = TimetableProblem.builder(WEEK, slots("08:30-10:00", "10:15-11:45"))
+                .addClassroom(1L, "A-101", 60, Set.of())
+                .addSection(10L, "CSE101", "Programlamaya Giriş", 7L, 1, 30, 0, Set.of())
+                .addSection(20L, "CSE102", "Veri Yapıları", 8L, 1, 30, 0, Set.of())
+                .addFixedSchedule(10L, 7L, 1L, Schedule.DayOfWeek.MONDAY,
+                        LocalTime.of(8, 30), LocalTime.of(10, 0))
+                .addStudentOverlap(10L, 20L, 5)
+                .build();
+
+        for (boolean busy : problem.fixedRoomBusy) {
+            assertFalse(busy);
+        }
+        for (int busy : problem.fixedInstructorBusy) {
+            assertEquals(0, busy);
+        }
+        assertNull(problem.fixedStudentClash[0]);
+        assertNull(problem.fixedStudentClash[1]);
+        // İki section da yeniden üretildiği için ortak öğrenciler komşuluk olarak kalır
+        assertArrayEquals(new int[]{1}, problem.neighbors[0]);
+        assertArrayEquals(new int[]{5}, problem.neighborWeights[1]);
+    }
+
+    @Test
+    @DisplayName("Should turn schedule rows of other sections into room, instructor and student constraints")
+    void build_FixedRowsOfOtherSections_BlockOverlappingPeriods() {
+        TimetableProblem problem = TimetableProblem.builder(WEEK, slots("08:30-10:00", "10:15-11:45"))
+                .addClassroom(1L, "A-101", 60, Set.of())
+                .addClassroom(2L, "A-102", 60, Set.of())
+                .addSection(10L, "CSE101", "Programlamaya Giriş", 7L, 1, 30, 0, Set.of())
+                // 09:30-11:00 hem 08:30 hem 10:15 dilimine taşar
+                .addFixedSchedule(99L, 7L, 2L, Schedule.DayOfWeek.TUESDAY,
+                        LocalTime.of(9, 30), LocalTime.of(11, 0))
+                // Programı üretilmeyen öğretim üyesinin satırı sadece dersliği meşgul eder
+                .addFixedSchedule(98L, 55L, 1L, Schedule.DayOfWeek.FRIDAY,
+                        LocalTime.of(10, 15), LocalTime.of(11, 45))
+                .addStudentOverlap(99L, 10L, 4)
+                .addStudentOverlap(10L, 98L, 3)
+                .build();
+
+        int periods = problem.getPeriodCount();
+        int tuesdayFirst = 2;
+        int tuesdaySecond = 3;
+        int fridaySecond = 9;
+        assertTrue(problem.fixedRoomBusy[periods + tuesdayFirst]);
+        assertTrue(problem.fixedRoomBusy[periods + tuesdaySecond]);
+        assertTrue(problem.fixedRoomBusy[fridaySecond]);
+        assertFalse(problem.fixedRoomBusy[0]);
+        assertEquals(1, problem.fixedInstructorBusy[tuesdayFirst]);
+        assertEquals(1, problem.fixedInstructorBusy[tuesdaySecond]);
+        assertEquals(0, problem.fixedInstructorBusy[fridaySecond]);
+        assertEquals(1, problem.instructorCount);
+
+        int[] clash = problem.fixedStudentClash[0];
+        assertEquals(4, clash[tuesdayFirst]);
+        assertEquals(4, clash[tuesdaySecond]);
+        assertEquals(3, clash[fridaySecond]);
+        assertEquals(0, clash[0]);
+        assertEquals(0, problem.neighbors[0].length);
+    }
+
+    @Test
+    @DisplayName("Should reject an empty day or slot grid")
+    void builder_EmptyGrid_Throws() {
+        assertThrows(IllegalArgumentException.class,
+                () -> TimetableProblem.builder(List.of(), slots("08:30-10:00")));
+        assertThrows(IllegalArgumentException.class,
+                () -> TimetableProblem.builder(WEEK, List.of()));
+    }
+}
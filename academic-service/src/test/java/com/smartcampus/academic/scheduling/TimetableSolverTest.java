@@ -0,0 +1,259 @@
+package com.smartcampus.academic.scheduling;
+
+import com.smartcampus.academic.entity.Schedule;
+import org.junit.jupiter.api.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TimetableSolver Unit Tests")
+class TimetableSolverTest {
+
+    // Pazartesi ve Salı, günde iki 90 dakikalık dilim: period 0-1 Pazartesi, 2-3 Salı
+    private static final List<Schedule.DayOfWeek> DAYS = List.of(Schedule.DayOfWeek.MONDAY,
+            Schedule.DayOfWeek.TUESDAY);
+    private static final List<LocalTime[]> SLOTS = List.of(
+            new LocalTime[]{LocalTime.of(8, 30), LocalTime.of(10, 0)},
+            new LocalTime[]{LocalTime.of(10, 15), LocalTime.of(11, 45)});
+
+    private static TimetableProblem.Builder problem() {
+        return TimetableProblem.builder(DAYS, SLOTS)
+                .addClassroom(1L, "A-101", 60, Set.of())
+                .addClassroom(2L, "A-102", 60, Set.of());
+    }
+
+    private static TimetableProblem.Builder oneMeeting(TimetableProblem.Builder builder, long sectionId,
+            long instructorId) {
+        return builder.addSection(sectionId, "CSE" + sectionId, "Ders " + sectionId, instructorId, 1, 30, 0, Set.of());
+    }
+
+    private static TimetableSolution evaluate(TimetableProblem problem, int[] periods, int[] rooms) {
+        return TimetableSolver.evaluate(problem, periods, rooms);
+    }
+
+    @Nested
+    @DisplayName("Evaluate Tests")
+    class EvaluateTests {
+
+        @Test
+        @DisplayName("Should report a clean placement with full score")
+        void evaluate_NoConflicts_ScoresHundred() {
+            TimetableProblem p = oneMeeting(oneMeeting(problem(), 10L, 1L), 20L, 1L).build();
+
+            TimetableSolution solution = evaluate(p, new int[]{0, 1}, new int[]{0, 0});
+
+            assertEquals(0, solution.getConflicts());
+            assertEquals(0L, solution.getCost());
+            assertEquals(100.0, solution.getScore());
+        }
+
+        @Test
+        @DisplayName("Should count k - 1 conflicts for k meetings in one room and period")
+        void evaluate_RoomDoubleBooking_CountsExtraMeetings() {
+            TimetableProblem p = oneMeeting(oneMeeting(oneMeeting(problem(), 10L, 1L), 20L, 2L), 30L, 3L).build();
+
+            TimetableSolution twice = evaluate(p, new int[]{0, 0, 1}, new int[]{0, 0, 0});
+            TimetableSolution thrice = evaluate(p, new int[]{0, 0, 0}, new int[]{1, 1, 1});
+
+            assertEquals(1, twice.getConflicts());
+            assertEquals(TimetableSolver.HARD_WEIGHT, twice.getCost());
+            assertEquals(33.3, twice.getScore());
+            assertEquals(2, thrice.getConflicts());
+            assertEquals(2 * TimetableSolver.HARD_WEIGHT, thrice.getCost());
+            assertEquals(0.0, thrice.getScore());
+        }
+
+        @Test
+        @DisplayName("Should count an instructor teaching two meetings at once")
+        void evaluate_InstructorDoubleBooking_CountsConflict() {
+            TimetableProblem p = oneMeeting(oneMeeting(problem(), 10L, 1L), 20L, 1L).build();
+
+            TimetableSolution solution = evaluate(p, new int[]{2, 2}, new int[]{0, 1});
+
+            assertEquals(1, solution.getConflicts());
+            assertEquals(TimetableSolver.HARD_WEIGHT, solution.getCost());
+        }
+
+        @Test
+        @DisplayName("Should count a meeting without a room as a hard conflict")
+        void evaluate_NoRoom_CountsConflict() {
+            TimetableProblem p = oneMeeting(problem(), 10L, 1L).build();
+
+            TimetableSolution solution = evaluate(p, new int[]{0}, new int[]{-1});
+
+            assertEquals(1, solution.getConflicts());
+            assertEquals(TimetableSolver.HARD_WEIGHT, solution.getCost());
+            assertEquals(0.0, solution.getScore());
+        }
+
+        @Test
+        @DisplayName("Should count fixed schedules of other sections against room and instructor")
+        void evaluate_FixedSchedules_BlockRoomAndInstructor() {
+            TimetableProblem p = oneMeeting(problem(), 10L, 1L)
+                    .addFixedSchedule(99L, 1L, 1L, Schedule.DayOfWeek.MONDAY,
+                            LocalTime.of(8, 30), LocalTime.of(10, 0))
+                    .build();
+
+            assertEquals(2, evaluate(p, new int[]{0}, new int[]{0}).getConflicts());
+            assertEquals(1, evaluate(p, new int[]{0}, new int[]{1}).getConflicts());
+            assertEquals(0, evaluate(p, new int[]{1}, new int[]{0}).getConflicts());
+        }
+
+        @Test
+        @DisplayName("Should ignore old schedule rows of a section being regenerated")
+        void evaluate_FixedRowsOfRegeneratedSection_AreIgnored() {
+            TimetableProblem p = oneMeeting(problem(), 10L, 1L)
+                    .addFixedSchedule(10L, 1L, 1L, Schedule.DayOfWeek.MONDAY,
+                            LocalTime.of(8, 30), LocalTime.of(10, 0))
+                    .build();
+
+            TimetableSolution solution = evaluate(p, new int[]{0}, new int[]{0});
+
+            assertEquals(0, solution.getConflicts());
+            assertEquals(0L, solution.getCost());
+        }
+
+        @Test
+        @DisplayName("Should weight student overlaps by shared students")
+        void evaluate_StudentOverlaps_CostsSharedStudents() {
+            TimetableProblem p = oneMeeting(oneMeeting(problem(), 10L, 1L), 20L, 2L)
+                    .addStudentOverlap(10L, 20L, 12)
+                    .addFixedSchedule(99L, 3L, 2L, Schedule.DayOfWeek.TUESDAY,
+                            LocalTime.of(10, 15), LocalTime.of(11, 45))
+                    .addStudentOverlap(99L, 20L, 5)
+                    .build();
+
+            TimetableSolution together = evaluate(p, new int[]{0, 0}, new int[]{0, 1});
+            TimetableSolution apart = evaluate(p, new int[]{0, 1}, new int[]{0, 1});
+            TimetableSolution withFixed = evaluate(p, new int[]{0, 3}, new int[]{0, 0});
+
+            assertEquals(1, together.getConflicts());
+            assertEquals(12L, together.getCost());
+            assertEquals(0.0, together.getScore());
+            assertEquals(0, apart.getConflicts());
+            assertEquals(1, withFixed.getConflicts());
+            assertEquals(5L, withFixed.getCost());
+            assertEquals(50.0, withFixed.getScore());
+        }
+
+        @Test
+        @DisplayName("Should add a soft cost when a section meets twice on one day")
+        void evaluate_SameDayMeetings_AddsSoftCostOnly() {
+            TimetableProblem p = problem()
+                    .addSection(10L, "CSE101", "Programlamaya Giriş", 1L, 3, 30, 0, Set.of())
+                    .build();
+
+            TimetableSolution sameDay = evaluate(p, new int[]{0, 1}, new int[]{0, 0});
+            TimetableSolution spread = evaluate(p, new int[]{0, 2}, new int[]{0, 0});
+
+            assertEquals(0, sameDay.getConflicts());
+            assertEquals(TimetableSolver.SAME_DAY_WEIGHT, sameDay.getCost());
+            assertEquals(0L, spread.getCost());
+        }
+    }
+
+    @Nested
+    @DisplayName("Solve Tests")
+    class SolveTests {
+
+        private static final int SECTIONS = 3000;
+        private static final int ROOMS = 300;
+        private static final int INSTRUCTORS = 600;
+        private static final long BUDGET_SECONDS = 10;
+
+        private TimetableSolver solver;
+
+        @BeforeEach
+        void setUp() {
+            solver = new TimetableSolver();
+            ReflectionTestUtils.setField(solver, "days",
+                    new String[]{"MONDAY", "TUESDAY", "WEDNESDAY", "THURSDAY", "FRIDAY"});
+            ReflectionTestUtils.setField(solver, "slots", new String[]{"08:30-10:00", "10:15-11:45",
+                    "12:00-13:30", "13:45-15:15", "15:30-17:00", "17:15-18:45"});
+            ReflectionTestUtils.setField(solver, "timeBudgetSeconds", BUDGET_SECONDS);
+            ReflectionTestUtils.setField(solver, "parallelism", 2);
+            ReflectionTestUtils.setField(solver, "restarts", 2);
+            ReflectionTestUtils.setField(solver, "alternatives", 2);
+            solver.init();
+        }
+
+        @AfterEach
+        void tearDown() {
+            solver.shutdown();
+        }
+
+        @Test
+        @DisplayName("Should return no alternatives for an empty problem")
+        void solve_NoSections_ReturnsEmpty() {
+            assertTrue(solver.solve(solver.newProblem().build()).isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should place a few thousand sections within budget without hard conflicts")
+        void solve_SyntheticTerm_NoHardConflictsWithinBudget() {
+            TimetableProblem.Builder builder = solver.newProblem();
+            int[] roomCapacities = {40, 60, 120};
+            for (int r = 0; r < ROOMS; r++) {
+                Set<String> features = r % 10 == 0 ? Set.of("projector", "computers") : Set.of("projector");
+                builder.addClassroom((long) r + 1, "R-" + r, roomCapacities[r % 3], features);
+            }
+            int[] sectionCapacities = {30, 50, 100};
+            for (int s = 0; s < SECTIONS; s++) {
+                int capacity = sectionCapacities[s % 3];
+                Set<String> required = s % 20 == 0 ? Set.of("computers") : Set.of();
+                builder.addSection((long) s + 1, "C" + s, "Ders " + s, (long) (s % INSTRUCTORS) + 1,
+                        3, capacity, capacity - 5, required);
+            }
+            // Önceki dönemden kalan, programı yeniden üretilmeyen satırlar
+            for (int f = 0; f < 60; f++) {
+                builder.addFixedSchedule(100_000L + f, (long) (f % INSTRUCTORS) + 1, (long) (f * 5) + 1,
+                        Schedule.DayOfWeek.values()[f % 5], LocalTime.of(8, 30), LocalTime.of(10, 0));
+            }
+            for (int s = 0; s < SECTIONS; s++) {
+                builder.addStudentOverlap(s + 1, (s + 1) % SECTIONS + 1, 3);
+                builder.addStudentOverlap(s + 1, (s + 7) % SECTIONS + 1, 2);
+            }
+            TimetableProblem problem = builder.build();
+            assertEquals(2 * SECTIONS, problem.getMeetingCount());
+
+            long startedAt = System.nanoTime();
+            List<TimetableSolution> solutions = solver.solve(problem);
+            long elapsedSeconds = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startedAt);
+
+            assertFalse(solutions.isEmpty());
+            // Bütçe iyileştirme aşamasını sınırlar; açgözlü yerleşim için pay bırakılır
+            assertTrue(elapsedSeconds < BUDGET_SECONDS + 10, "Solve took " + elapsedSeconds + " s");
+            TimetableSolution best = solutions.get(0);
+            assertEquals(0, hardConflicts(problem, best));
+        }
+
+        /**
+         * Çözücüden bağımsız sayım: derslik atanmamış oturumlar, derslik ve öğretim üyesi hücre tekrarları
+         * ve sabit programlarla çakışmalar.
+         */
+        private int hardConflicts(TimetableProblem problem, TimetableSolution solution) {
+            int periods = problem.getPeriodCount();
+            int[] roomUse = new int[problem.getRoomCount() * periods];
+            int[] instructorUse = new int[problem.instructorCount * periods];
+            int conflicts = 0;
+            for (int v = 0; v < problem.getMeetingCount(); v++) {
+                int p = solution.getPeriod(v);
+                int r = solution.getRoom(v);
+                int instructor = problem.sectionInstructor[problem.getMeetingSection(v)];
+                if (r < 0 || problem.fixedRoomBusy[r * periods + p] || roomUse[r * periods + p]++ > 0) {
+                    conflicts++;
+                }
+                if (problem.fixedInstructorBusy[instructor * periods + p] > 0
+                        || instructorUse[instructor * periods + p]++ > 0) {
+                    conflicts++;
+                }
+            }
+            return conflicts;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.smartcampus.academic.security;
+
+import org.junit.jupiter.api.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Kimlik header sözleşmesinin servis tarafı: imzalar api-gateway'deki IdentityHeadersTest'in
+ * IdentityHeaders.canonical/sign ile ürettiği sabit vektörlerdir.
+ */
+@DisplayName("GatewayIdentityVerifier Unit Tests")
+class GatewayIdentityVerifierTest {
+
+    private static final String SECRET = "gateway-identity-contract-secret";
+    private static final long TIMESTAMP = 1_700_000_000_000L;
+
+    private static final String STUDENT_SIGNATURE = "u12IefQxNTp9JQ99tGNJL0-C7phLK_pIdhSM9I1PJIc";
+    private static final String FACULTY_SIGNATURE = "-TqYwrqW3k68cg3vdEa7RLhzBAqkBsZl_U3HU9Wa1_o";
+
+    // Sabit vektörlerin zaman damgası geçmişte kaldığından saat kayması sınırı geniş tutulur
+    private static final long UNBOUNDED_SKEW_SECONDS = Long.MAX_VALUE / 1000;
+
+    private GatewayIdentityVerifier verifier;
+
+    @BeforeEach
+    void setUp() {
+        verifier = new GatewayIdentityVerifier(true, SECRET, UNBOUNDED_SKEW_SECONDS);
+    }
+
+    private static MockHttpServletRequest studentRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/attendance/sessions/42");
+        request.addHeader("X-User-Id", "7");
+        request.addHeader("X-User-Email", "student@smartcampus.edu.tr");
+        request.addHeader("X-User-Role", "STUDENT");
+        request.addHeader("X-Student-Id", "15");
+        request.addHeader("X-Identity-Timestamp", String.valueOf(TIMESTAMP));
+        request.addHeader("X-Identity-Signature", STUDENT_SIGNATURE);
+        return request;
+    }
+
+    @Test
+    @DisplayName("Should accept a student identity signed by the gateway")
+    void verify_GatewaySignedStudent_ReturnsIdentity() {
+        GatewayIdentityVerifier.GatewayIdentity identity = verifier.verify(studentRequest());
+
+        assertNotNull(identity);
+        assertEquals(7L, identity.getUserId());
+        assertEquals("student@smartcampus.edu.tr", identity.getEmail());
+        assertEquals("STUDENT", identity.getRole());
+        assertEquals(15L, identity.getStudentId());
+        assertNull(identity.getFacultyId());
+    }
+
+    @Test
+    @DisplayName("Should accept a faculty identity signed by the gateway")
+    void verify_GatewaySignedFaculty_ReturnsIdentity() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/courses/3/sections");
+        request.addHeader("X-User-Id", "9");
+        request.addHeader("X-User-Email", "faculty@smartcampus.edu.tr");
+        request.addHeader("X-User-Role", "FACULTY");
+        request.addHeader("X-Faculty-Id", "4");
+        request.addHeader("X-Identity-Timestamp", String.valueOf(TIMESTAMP));
+        request.addHeader("X-Identity-Signature", FACULTY_SIGNATURE);
+
+        GatewayIdentityVerifier.GatewayIdentity identity = verifier.verify(request);
+
+        assertNotNull(identity);
+        assertEquals(9L, identity.getUserId());
+        assertNull(identity.getStudentId());
+        assertEquals(4L, identity.getFacultyId());
+    }
+
+    @Test
+    @DisplayName("Should reject a signed identity replayed on another path")
+    void verify_OtherPath_ReturnsNull() {
+        MockHttpServletRequest request = studentRequest();
+        request.setRequestURI("/api/v1/attendance/sessions/43");
+
+        assertNull(verifier.verify(request));
+    }
+
+    @Test
+    @DisplayName("Should reject a signed identity with a changed role")
+    void verify_TamperedRole_ReturnsNull() {
+        MockHttpServletRequest request = studentRequest();
+        request.removeHeader("X-User-Role");
+        request.addHeader("X-User-Role", "ADMIN");
+
+        assertNull(verifier.verify(request));
+    }
+
+    @Test
+    @DisplayName("Should reject a signed identity older than the allowed skew")
+    void verify_ExpiredTimestamp_ReturnsNull() {
+        GatewayIdentityVerifier strict = new GatewayIdentityVerifier(true, SECRET, 60);
+
+        assertNull(strict.verify(studentRequest()));
+    }
+
+    @Test
+    @DisplayName("Should ignore identity headers when trusted header mode is disabled")
+    void verify_Disabled_ReturnsNull() {
+        GatewayIdentityVerifier disabled = new GatewayIdentityVerifier(false, SECRET, UNBOUNDED_SKEW_SECONDS);
+
+        assertNull(disabled.verify(studentRequest()));
+    }
+}
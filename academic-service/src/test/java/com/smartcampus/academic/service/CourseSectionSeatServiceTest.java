@@ -0,0 +1,239 @@
+package com.smartcampus.academic.service;
+
+import com.smartcampus.academic.cache.PrerequisiteClosureIndex;
+import com.smartcampus.academic.cache.SectionScheduleCache;
+import com.smartcampus.academic.dto.WeeklyScheduleBitmap;
+import com.smartcampus.academic.dto.request.EnrollRequest;
+import com.smartcampus.academic.dto.request.UpdateSectionRequest;
+import com.smartcampus.academic.entity.*;
+import com.smartcampus.academic.exception.BadRequestException;
+import com.smartcampus.academic.repository.*;
+import com.smartcampus.academic.service.impl.EnrollmentServiceImpl;
+import com.smartcampus.academic.service.impl.SectionServiceImpl;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({EnrollmentServiceImpl.class, SectionServiceImpl.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("CourseSection Seat Counter Service Tests")
+class CourseSectionSeatServiceTest {
+
+    private static final int CAPACITY = 20;
+    private static final int STUDENTS = 60;
+    private static final int THREADS = 16;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private SectionService sectionService;
+
+    @Autowired
+    private CourseSectionRepository sectionRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private FacultyRepository facultyRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private PrerequisiteClosureIndex prerequisiteIndex;
+
+    @MockBean
+    private SectionScheduleCache scheduleCache;
+
+    private CourseSection section;
+    private List<Long> studentUserIds;
+
+    @BeforeEach
+    void setUp() {
+        when(scheduleCache.getBitmap(any())).thenReturn(WeeklyScheduleBitmap.EMPTY);
+
+        Department department = departmentRepository.save(Department.builder()
+                .name("Bilgisayar Mühendisliği")
+                .code("CSE")
+                .facultyName("Mühendislik Fakültesi")
+                .build());
+
+        User instructorUser = userRepository.save(User.builder()
+                .email("instructor@smartcampus.edu.tr")
+                .passwordHash("hash")
+                .firstName("Ayşe")
+                .lastName("Yılmaz")
+                .role(Role.FACULTY)
+                .build());
+
+        Faculty instructor = facultyRepository.save(Faculty.builder()
+                .user(instructorUser)
+                .department(department)
+                .employeeNumber("EMP001")
+                .title("Dr.")
+                .build());
+
+        Course course = courseRepository.save(Course.builder()
+                .code("CSE101")
+                .name("Programlamaya Giriş")
+                .department(department)
+                .build());
+
+        section = sectionRepository.save(CourseSection.builder()
+                .course(course)
+                .sectionNumber("1")
+                .semester("FALL")
+                .year(2025)
+                .instructor(instructor)
+                .capacity(CAPACITY)
+                .build());
+
+        studentUserIds = new ArrayList<>(STUDENTS);
+        for (int i = 0; i < STUDENTS; i++) {
+            User studentUser = userRepository.save(User.builder()
+                    .email("student" + i + "@smartcampus.edu.tr")
+                    .passwordHash("hash")
+                    .firstName("Öğrenci")
+                    .lastName(String.valueOf(i))
+                    .role(Role.STUDENT)
+                    .build());
+            studentRepository.save(Student.builder()
+                    .user(studentUser)
+                    .department(department)
+                    .studentNumber(String.format("2025%04d", i))
+                    .build());
+            studentUserIds.add(studentUser.getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        enrollmentRepository.deleteAll();
+        studentRepository.deleteAll();
+        sectionRepository.deleteAll();
+        courseRepository.deleteAll();
+        facultyRepository.deleteAll();
+        userRepository.deleteAll();
+        departmentRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should enroll exactly capacity students under concurrent requests")
+    void enrollStudent_ConcurrentRequests_NeverOverbooks() throws Exception {
+        AtomicInteger admitted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        try {
+            List<Future<?>> futures = new ArrayList<>(STUDENTS);
+            for (Long userId : studentUserIds) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        enrollmentService.enrollStudent(userId, new EnrollRequest(section.getId()));
+                        admitted.incrementAndGet();
+                    } catch (BadRequestException e) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(CAPACITY, admitted.get());
+        assertEquals(STUDENTS - CAPACITY, rejected.get());
+        assertEquals(CAPACITY, enrollmentRepository.count());
+        assertEquals(CAPACITY, sectionRepository.findById(section.getId()).orElseThrow().getEnrolledCount());
+    }
+
+    @Test
+    @DisplayName("Should release the seat on drop so the next student can enroll")
+    void dropEnrollment_FullSection_ReleasesSeat() {
+        for (int i = 0; i < CAPACITY; i++) {
+            enrollmentService.enrollStudent(studentUserIds.get(i), new EnrollRequest(section.getId()));
+        }
+        Long waitingUserId = studentUserIds.get(CAPACITY);
+        assertThrows(BadRequestException.class,
+                () -> enrollmentService.enrollStudent(waitingUserId, new EnrollRequest(section.getId())));
+
+        enrollmentService.dropEnrollment(studentUserIds.get(0), section.getId());
+        assertEquals(CAPACITY - 1, sectionRepository.findById(section.getId()).orElseThrow().getEnrolledCount());
+
+        // Bırakılmış kayıt ikinci kez koltuk serbest bırakmaz
+        assertThrows(BadRequestException.class,
+                () -> enrollmentService.dropEnrollment(studentUserIds.get(0), section.getId()));
+        assertEquals(CAPACITY - 1, sectionRepository.findById(section.getId()).orElseThrow().getEnrolledCount());
+
+        enrollmentService.enrollStudent(waitingUserId, new EnrollRequest(section.getId()));
+        assertEquals(CAPACITY, sectionRepository.findById(section.getId()).orElseThrow().getEnrolledCount());
+    }
+
+    @Test
+    @DisplayName("Should not overwrite enrolled count when a section is updated with a stale entity")
+    void updateSection_SeatReservedAfterLoad_KeepsEnrolledCount() {
+        TransactionTemplate outer = new TransactionTemplate(transactionManager);
+        TransactionTemplate concurrent = new TransactionTemplate(transactionManager);
+        concurrent.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        outer.executeWithoutResult(status -> {
+            // Entity sayaç 0 iken persistence context'e yüklenir
+            assertEquals(0, sectionRepository.findById(section.getId()).orElseThrow().getEnrolledCount());
+
+            // Bu arada başka bir istek koltuk ayırır ve commit eder
+            concurrent.executeWithoutResult(inner ->
+                    assertEquals(1, sectionRepository.tryReserveSeat(section.getId(), LocalDateTime.now())));
+
+            sectionService.updateSection(section.getId(), UpdateSectionRequest.builder()
+                    .capacity(CAPACITY + 10)
+                    .build());
+        });
+
+        CourseSection updated = sectionRepository.findById(section.getId()).orElseThrow();
+        assertEquals(CAPACITY + 10, updated.getCapacity());
+        assertEquals(1, updated.getEnrolledCount());
+    }
+}
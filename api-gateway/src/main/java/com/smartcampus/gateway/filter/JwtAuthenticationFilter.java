@@ -0,0 +1,157 @@
+package com.smartcampus.gateway.filter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartcampus.gateway.security.GatewayJwtVerifier;
+import com.smartcampus.gateway.security.GatewayJwtVerifier.InvalidTokenException;
+import com.smartcampus.gateway.security.GatewayJwtVerifier.VerifiedToken;
+import com.smartcampus.gateway.security.IdentityHeaders;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bearer token'ı gateway'de bir kez doğrular.
+ * Geçersiz veya süresi dolmuş token'larda Authorization header'ı silinir ve istek anonim olarak iletilir;
+ * herkese açık endpoint'lere izin verip korunanları 401 ile reddetmek servislerin güvenlik yapılandırmasına
+ * kalır. Geçerli token'larda kullanıcı bilgileri imzalı kimlik header'ları olarak servislere iletilir.
+ * İstemcinin gönderdiği kimlik header'ları her istekte silinir. Geçerli token'ın Authorization header'ı
+ * servislerin JWT doğrulamasına geri dönebilmesi için olduğu gibi iletilir.
+ */
+@Slf4j
+@Component
+public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
+
+    private final GatewayJwtVerifier jwtVerifier;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final byte[] identitySecret;
+
+    public JwtAuthenticationFilter(GatewayJwtVerifier jwtVerifier,
+                                   ObjectMapper objectMapper,
+                                   @Value("${gateway.auth.enabled:true}") boolean enabled,
+                                   @Value("${gateway.identity.secret:}") String identitySecret) {
+        this.jwtVerifier = jwtVerifier;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled && jwtVerifier.isConfigured();
+        this.identitySecret = StringUtils.hasText(identitySecret)
+                ? identitySecret.getBytes(StandardCharsets.UTF_8) : null;
+
+        if (enabled && !jwtVerifier.isConfigured()) {
+            log.warn("jwt.secret tanımlı değil, gateway token doğrulaması devre dışı");
+        } else if (this.enabled && this.identitySecret == null) {
+            log.warn("gateway.identity.secret tanımlı değil, kimlik header'ları iletilmeyecek");
+        }
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest().mutate()
+                .headers(headers -> IdentityHeaders.ALL.forEach(headers::remove))
+                .build();
+
+        String token = enabled ? getJwtFromRequest(request) : null;
+        if (token == null) {
+            return chain.filter(exchange.mutate().request(request).build());
+        }
+
+        String path = request.getURI().getRawPath();
+        VerifiedToken verified;
+        try {
+            verified = jwtVerifier.verify(token);
+        } catch (InvalidTokenException ex) {
+            log.debug("Geçersiz token, istek anonim iletiliyor - path: {}, kod: {}, sebep: {}",
+                    path, ex.getErrorCode(), ex.getMessage());
+            ServerHttpRequest anonymous = request.mutate()
+                    .headers(headers -> headers.remove(HttpHeaders.AUTHORIZATION))
+                    .build();
+            return chain.filter(exchange.mutate().request(anonymous).build());
+        }
+
+        if (!verified.isActive()) {
+            return unauthorized(exchange, "Hesabınız devre dışı bırakılmış", "ACCOUNT_DISABLED");
+        }
+
+        // userId içermeyen eski token'larda servisler JWT doğrulamasına geri döner
+        if (verified.getUserId() == null || identitySecret == null) {
+            return chain.filter(exchange.mutate().request(request).build());
+        }
+
+        long timestamp = System.currentTimeMillis();
+        String canonical = IdentityHeaders.canonical(request.getMethod().name(), path,
+                verified.getUserId(), verified.getEmail(), verified.getRole(),
+                verified.getStudentId(), verified.getFacultyId(), timestamp);
+        String signature = IdentityHeaders.sign(identitySecret, canonical);
+
+        ServerHttpRequest withIdentity = request.mutate()
+                .headers(headers -> {
+                    headers.set(IdentityHeaders.USER_ID, String.valueOf(verified.getUserId()));
+                    setIfPresent(headers, IdentityHeaders.USER_EMAIL, verified.getEmail());
+                    setIfPresent(headers, IdentityHeaders.USER_ROLE, verified.getRole());
+                    setIfPresent(headers, IdentityHeaders.STUDENT_ID, verified.getStudentId());
+                    setIfPresent(headers, IdentityHeaders.FACULTY_ID, verified.getFacultyId());
+                    headers.set(IdentityHeaders.TIMESTAMP, String.valueOf(timestamp));
+                    headers.set(IdentityHeaders.SIGNATURE, signature);
+                })
+                .build();
+
+        return chain.filter(exchange.mutate().request(withIdentity).build());
+    }
+
+    @Override
+    public int getOrder() {
+        // Routing filtrelerinden önce çalışmalı
+        return Ordered.HIGHEST_PRECEDENCE + 10;
+    }
+
+    private String getJwtFromRequest(ServerHttpRequest request) {
+        String bearerToken = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
+            return bearerToken.substring(7);
+        }
+        return null;
+    }
+
+    private static void setIfPresent(HttpHeaders headers, String name, Object value) {
+        if (value != null) {
+            headers.set(name, String.valueOf(value));
+        }
+    }
+
+    private Mono<Void> unauthorized(ServerWebExchange exchange, String message, String errorCode) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.UNAUTHORIZED);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+
+        // Servislerin ApiResponse formatıyla aynı
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("success", false);
+        body.put("message", message);
+        body.put("error", Map.of("code", errorCode));
+
+        byte[] bytes;
+        try {
+            bytes = objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            bytes = new byte[0];
+        }
+        DataBuffer buffer = response.bufferFactory().wrap(bytes);
+        return response.writeWith(Mono.just(buffer));
+    }
+}
@@ -0,0 +1,118 @@
+package com.smartcampus.gateway.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+/**
+ * Auth-service'in ürettiği HMAC imzalı (HS256/HS384/HS512) access token'ları doğrular.
+ * Gateway'e JWT kütüphanesi eklememek için imza ve süre kontrolü doğrudan yapılır.
+ */
+@Component
+public class GatewayJwtVerifier {
+
+    private final ObjectMapper objectMapper;
+    private final byte[] secretKey;
+
+    public GatewayJwtVerifier(ObjectMapper objectMapper, @Value("${jwt.secret:}") String secret) {
+        this.objectMapper = objectMapper;
+        // Auth-service ile aynı encoding kullan: BASE64 decode
+        this.secretKey = StringUtils.hasText(secret) ? Base64.getDecoder().decode(secret) : null;
+    }
+
+    public boolean isConfigured() {
+        return secretKey != null;
+    }
+
+    /**
+     * @throws InvalidTokenException imza, format veya süre geçersizse
+     */
+    public VerifiedToken verify(String token) {
+        String[] parts = token.split("\\.");
+        if (parts.length != 3) {
+            throw new InvalidTokenException("INVALID_TOKEN", "Geçersiz token formatı");
+        }
+
+        try {
+            JsonNode header = objectMapper.readTree(decode(parts[0]));
+            String macAlgorithm = switch (header.path("alg").asText()) {
+                case "HS256" -> "HmacSHA256";
+                case "HS384" -> "HmacSHA384";
+                case "HS512" -> "HmacSHA512";
+                default -> throw new InvalidTokenException("INVALID_TOKEN", "Desteklenmeyen token algoritması");
+            };
+
+            Mac mac = Mac.getInstance(macAlgorithm);
+            mac.init(new SecretKeySpec(secretKey, macAlgorithm));
+            byte[] expected = mac.doFinal((parts[0] + "." + parts[1]).getBytes(StandardCharsets.US_ASCII));
+            if (!MessageDigest.isEqual(expected, decode(parts[2]))) {
+                throw new InvalidTokenException("INVALID_TOKEN", "Token imzası geçersiz");
+            }
+
+            JsonNode claims = objectMapper.readTree(decode(parts[1]));
+            long expiresAt = claims.path("exp").asLong(0);
+            if (expiresAt == 0 || System.currentTimeMillis() >= expiresAt * 1000) {
+                throw new InvalidTokenException("TOKEN_EXPIRED", "Token süresi dolmuş");
+            }
+
+            String subject = claims.path("sub").asText(null);
+            return new VerifiedToken(
+                    parseLong(subject),
+                    claims.hasNonNull("email") ? claims.get("email").asText() : subject,
+                    claims.hasNonNull("role") ? claims.get("role").asText() : null,
+                    claims.path("active").asBoolean(true),
+                    claims.hasNonNull("studentId") ? claims.get("studentId").asLong() : null,
+                    claims.hasNonNull("facultyId") ? claims.get("facultyId").asLong() : null);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new InvalidTokenException("INVALID_TOKEN", "Geçersiz token");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Token doğrulanamadı", e);
+        }
+    }
+
+    private static byte[] decode(String part) {
+        return Base64.getUrlDecoder().decode(part);
+    }
+
+    private static Long parseLong(String value) {
+        try {
+            return value != null ? Long.parseLong(value) : null;
+        } catch (NumberFormatException e) {
+            // Eski token'larda subject email olabilir
+            return null;
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class VerifiedToken {
+        private final Long userId;
+        private final String email;
+        private final String role;
+        private final boolean active;
+        private final Long studentId;
+        private final Long facultyId;
+    }
+
+    @Getter
+    public static class InvalidTokenException extends RuntimeException {
+        private final String errorCode;
+
+        public InvalidTokenException(String errorCode, String message) {
+            super(message);
+            this.errorCode = errorCode;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.smartcampus.gateway.security;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Gateway'in doğruladığı kimliği servislere taşıyan header'lar.
+ * İmza; kullanıcı bilgileri, zaman damgası, HTTP metodu ve path üzerinden HMAC-SHA256 ile hesaplanır.
+ * Servisler aynı sırayla kanonik metni oluşturup imzayı doğrular.
+ */
+public final class IdentityHeaders {
+
+    public static final String USER_ID = "X-User-Id";
+    public static final String USER_EMAIL = "X-User-Email";
+    public static final String USER_ROLE = "X-User-Role";
+    public static final String STUDENT_ID = "X-Student-Id";
+    public static final String FACULTY_ID = "X-Faculty-Id";
+    public static final String TIMESTAMP = "X-Identity-Timestamp";
+    public static final String SIGNATURE = "X-Identity-Signature";
+
+    /**
+     * İstemciden gelse bile gateway tarafından her istekte silinen header'lar.
+     */
+    public static final List<String> ALL = List.of(
+            USER_ID, USER_EMAIL, USER_ROLE, STUDENT_ID, FACULTY_ID, TIMESTAMP, SIGNATURE);
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private IdentityHeaders() {
+    }
+
+    public static String canonical(String method, String path, Long userId, String email, String role,
+                                   Long studentId, Long facultyId, long timestamp) {
+        return String.join("\n",
+                method,
+                path,
+                String.valueOf(userId),
+                email != null ? email : "",
+                role != null ? role : "",
+                studentId != null ? String.valueOf(studentId) : "",
+                facultyId != null ? String.valueOf(facultyId) : "",
+                String.valueOf(timestamp));
+    }
+
+    public static String sign(byte[] secret, String canonical) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(secret, HMAC_ALGORITHM));
+            byte[] signature = mac.doFinal(canonical.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Kimlik header'ı imzalanamadı", e);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.smartcampus.gateway.security;
+
+import org.junit.jupiter.api.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Kimlik header sözleşmesinin gateway tarafı.
+ * Aşağıdaki sabit vektörler servislerdeki GatewayIdentityVerifierTest'lerde birebir tekrarlanır;
+ * kanonik format veya imza değişirse iki taraftaki testlerden biri kırılır.
+ */
+@DisplayName("IdentityHeaders Unit Tests")
+class IdentityHeadersTest {
+
+    static final byte[] SECRET = "gateway-identity-contract-secret".getBytes(StandardCharsets.UTF_8);
+    static final long TIMESTAMP = 1_700_000_000_000L;
+
+    static final String STUDENT_SIGNATURE = "u12IefQxNTp9JQ99tGNJL0-C7phLK_pIdhSM9I1PJIc";
+    static final String FACULTY_SIGNATURE = "-TqYwrqW3k68cg3vdEa7RLhzBAqkBsZl_U3HU9Wa1_o";
+
+    @Test
+    @DisplayName("Should keep the header names services read")
+    void headerNames_MatchServiceContract() {
+        assertEquals(List.of("X-User-Id", "X-User-Email", "X-User-Role", "X-Student-Id", "X-Faculty-Id",
+                "X-Identity-Timestamp", "X-Identity-Signature"), IdentityHeaders.ALL);
+    }
+
+    @Test
+    @DisplayName("Should build the canonical text with empty lines for missing values")
+    void canonical_MissingValues_WritesEmptyLines() {
+        String canonical = IdentityHeaders.canonical("GET", "/api/v1/attendance/sessions/42", 7L,
+                "student@smartcampus.edu.tr", "STUDENT", 15L, null, TIMESTAMP);
+
+        assertEquals("GET\n/api/v1/attendance/sessions/42\n7\nstudent@smartcampus.edu.tr\nSTUDENT\n15\n\n"
+                + TIMESTAMP, canonical);
+    }
+
+    @Test
+    @DisplayName("Should produce the signatures services verify")
+    void sign_ContractVectors_MatchExpectedSignatures() {
+        String student = IdentityHeaders.canonical("GET", "/api/v1/attendance/sessions/42", 7L,
+                "student@smartcampus.edu.tr", "STUDENT", 15L, null, TIMESTAMP);
+        String faculty = IdentityHeaders.canonical("POST", "/api/v1/courses/3/sections", 9L,
+                "faculty@smartcampus.edu.tr", "FACULTY", null, 4L, TIMESTAMP);
+
+        assertEquals(STUDENT_SIGNATURE, IdentityHeaders.sign(SECRET, student));
+        assertEquals(FACULTY_SIGNATURE, IdentityHeaders.sign(SECRET, faculty));
+    }
+}
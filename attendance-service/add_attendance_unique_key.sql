@@ -0,0 +1,21 @@
+-- ============================================
+-- attendance_records: (session_id, student_id) unique key
+-- ============================================
+-- Bir öğrencinin bir oturumda tek yoklama kaydı olabilir. Write-behind kuyruğu
+-- (CheckInWriteBehindQueue) ve oturum kapanışındaki devamsızlık kayıtları INSERT IGNORE
+-- ile yazılır; tekrar denenen bir batch'in çift kayıt üretmemesi bu anahtara dayanır.
+
+-- Varsa mevcut çift kayıtlar temizlenir: ABSENT olmayan kayıt ABSENT'e, eşitlikte en eski kayıt tercih edilir
+DELETE r1 FROM attendance_records r1
+JOIN attendance_records r2
+    ON r2.session_id = r1.session_id
+    AND r2.student_id = r1.student_id
+    AND r2.id <> r1.id
+WHERE (r1.status = 'ABSENT' AND r2.status <> 'ABSENT')
+   OR ((r1.status = 'ABSENT') = (r2.status = 'ABSENT') AND r2.id < r1.id);
+
+ALTER TABLE attendance_records
+ADD CONSTRAINT uk_attendance UNIQUE (session_id, student_id);
+
+-- Verify the change
+-- SHOW INDEX FROM attendance_records;
@@ -0,0 +1,12 @@
+-- ============================================
+-- enrollments: updated_at index
+-- ============================================
+-- attendance-service'teki kadro cache'i (SectionRosterCache) birkaç saniyede bir
+-- son değişen kayıtları okur:
+--   WHERE updated_at >= ?
+-- Bu indeks sayesinde sorgu, tablodaki toplam kayıt sayısından bağımsız çalışır.
+
+CREATE INDEX idx_enrollment_updated_at ON enrollments (updated_at);
+
+-- Verify the change
+-- SHOW INDEX FROM enrollments;
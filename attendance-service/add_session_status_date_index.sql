@@ -0,0 +1,12 @@
+-- ============================================
+-- attendance_sessions: status + session_date composite index
+-- ============================================
+-- Gece çalışan otomatik kapatma işi (AbsenceWarningScheduler.autoCloseExpiredSessions)
+-- sadece süresi geçmiş ACTIVE oturumları okur:
+--   WHERE status = 'ACTIVE' AND session_date < CURRENT_DATE
+-- Bu indeks sayesinde sorgu, tablodaki toplam oturum sayısından bağımsız çalışır.
+
+CREATE INDEX idx_status_session_date ON attendance_sessions (status, session_date);
+
+-- Verify the change
+-- SHOW INDEX FROM attendance_sessions;
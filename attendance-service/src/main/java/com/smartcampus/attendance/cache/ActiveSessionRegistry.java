@@ -0,0 +1,171 @@
+package com.smartcampus.attendance.cache;
+
+import com.smartcampus.attendance.entity.AttendanceSession;
+import com.smartcampus.attendance.entity.SessionStatus;
+import com.smartcampus.attendance.exception.ResourceNotFoundException;
+import com.smartcampus.attendance.repository.AttendanceRecordRepository;
+import com.smartcampus.attendance.repository.AttendanceSessionRepository;
+import com.smartcampus.attendance.util.GeofenceEvaluator;
+import com.smartcampus.attendance.writebehind.CheckInWriteBehindQueue;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Aktif yoklama oturumlarının bellek içi kaydı.
+ * Check-in yoğunluğunda oturum bilgisi (konum, geofence, QR, zaman aralığı) ve
+ * yoklama veren öğrenciler her istekte veritabanından okunmaz.
+ * Diğer instance'larda yapılan değişiklikler TTL sonunda yeniden yüklenerek yakalanır.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ActiveSessionRegistry {
+
+    private final AttendanceSessionRepository sessionRepository;
+    private final AttendanceRecordRepository recordRepository;
+    private final CheckInWriteBehindQueue checkInWriteBehindQueue;
+
+    @Value("${attendance.session-registry.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    private final ConcurrentHashMap<Long, ActiveSession> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * Oturumu bellekten döner, yoksa veya süresi dolmuşsa veritabanından yükler.
+     * Sadece ACTIVE oturumlar bellekte tutulur; diğerleri için anlık görüntü döner.
+     */
+    public ActiveSession getSession(Long sessionId) {
+        ActiveSession cached = sessions.get(sessionId);
+        if (cached != null && !cached.isStale(ttlSeconds)) {
+            return cached;
+        }
+
+        ActiveSession[] result = new ActiveSession[1];
+        sessions.compute(sessionId, (id, current) -> {
+            if (current != null && !current.isStale(ttlSeconds)) {
+                result[0] = current;
+                return current;
+            }
+            result[0] = load(id);
+            return result[0].getStatus() == SessionStatus.ACTIVE ? result[0] : null;
+        });
+        return result[0];
+    }
+
+    /**
+     * Oturumu bellekten çıkarır. Aktif bir transaction varsa commit sonrasında da
+     * tekrar çıkarılır, böylece commit öncesi yüklenen eski durum bellekte kalmaz.
+     */
+    public void evict(Long sessionId) {
+        sessions.remove(sessionId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    sessions.remove(sessionId);
+                }
+            });
+        }
+    }
+
+    public void evictAll(Collection<Long> sessionIds) {
+        sessionIds.forEach(this::evict);
+    }
+
+    private ActiveSession load(Long sessionId) {
+        AttendanceSession session = sessionRepository.findById(sessionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Yoklama oturumu", "id", sessionId));
+
+        ActiveSession activeSession = new ActiveSession(session);
+        if (session.getStatus() == SessionStatus.ACTIVE) {
+            List<Long> checkedInStudentIds = recordRepository.findStudentIdsBySessionId(sessionId);
+            activeSession.checkedInStudentIds.addAll(checkedInStudentIds);
+            // Write-behind kuyruğunda bekleyen check-in'ler de yoklama vermiş sayılır
+            activeSession.checkedInStudentIds.addAll(checkInWriteBehindQueue.getPendingStudentIds(sessionId));
+            log.debug("Aktif oturum belleğe yüklendi - sessionId: {}, yoklama veren: {}",
+                    sessionId, activeSession.checkedInStudentIds.size());
+        }
+        return activeSession;
+    }
+
+    @Getter
+    public static class ActiveSession {
+        private final Long id;
+        private final Long sectionId;
+        private final Long instructorId;
+        private final LocalDate sessionDate;
+        private final LocalTime startTime;
+        private final LocalTime endTime;
+        private final Double latitude;
+        private final Double longitude;
+        private final Integer geofenceRadius;
+        private final String qrCode;
+        private final LocalDateTime qrCodeGeneratedAt;
+        private final SessionStatus status;
+        private final long loadedAtNanos;
+
+        // Konum veya yarıçap yoksa null
+        private final GeofenceEvaluator geofence;
+
+        @Getter(AccessLevel.NONE)
+        private final Set<Long> checkedInStudentIds = ConcurrentHashMap.newKeySet();
+
+        ActiveSession(AttendanceSession session) {
+            this.id = session.getId();
+            this.sectionId = session.getSectionId();
+            this.instructorId = session.getInstructorId();
+            this.sessionDate = session.getSessionDate();
+            this.startTime = session.getStartTime();
+            this.endTime = session.getEndTime();
+            this.latitude = session.getLatitude();
+            this.longitude = session.getLongitude();
+            this.geofenceRadius = session.getGeofenceRadius();
+            this.qrCode = session.getQrCode();
+            this.qrCodeGeneratedAt = session.getQrCodeGeneratedAt();
+            this.status = session.getStatus();
+            this.loadedAtNanos = System.nanoTime();
+            this.geofence = latitude != null && longitude != null && geofenceRadius != null
+                    ? new GeofenceEvaluator(latitude, longitude, geofenceRadius)
+                    : null;
+        }
+
+        public boolean isCheckedIn(Long studentId) {
+            return checkedInStudentIds.contains(studentId);
+        }
+
+        /**
+         * Öğrenciyi yoklama vermiş olarak işaretler.
+         *
+         * @return öğrenci daha önce işaretlenmişse false
+         */
+        public boolean markCheckedIn(Long studentId) {
+            return checkedInStudentIds.add(studentId);
+        }
+
+        public void unmarkCheckedIn(Long studentId) {
+            checkedInStudentIds.remove(studentId);
+        }
+
+        public int getCheckedInCount() {
+            return checkedInStudentIds.size();
+        }
+
+        boolean isStale(long ttlSeconds) {
+            return System.nanoTime() - loadedAtNanos > ttlSeconds * 1_000_000_000L;
+        }
+    }
+}
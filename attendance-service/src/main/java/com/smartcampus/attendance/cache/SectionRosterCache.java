@@ -0,0 +1,260 @@
+package com.smartcampus.attendance.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Section kadroları (ENROLLED öğrenciler) için TTL'li bellek içi cache.
+ * Her section için kayıtlı öğrenci id'leri, her öğrenci için kayıtlı olduğu section id'leri
+ * sıralı primitive long dizilerinde tutulur; üyelik kontrolü ikili arama ile yapılır.
+ * Oturum kapatma ve öğrencinin aktif oturum sorgusu her seferinde enrollments tablosuna gitmez.
+ * Kayıt değişiklikleri academic-service'te yapılır; enrollments.updated_at birkaç saniyede bir
+ * okunup değişen kayıtların section ve öğrenci girdileri cache'ten düşürülür. Geç commit edilen
+ * satırlar için pencere {@code change-lookback-seconds} kadar geriden başlar; bundan daha geç
+ * görünen bir değişiklik en fazla TTL kadar eski kalır.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SectionRosterCache {
+
+    private static final long[] EMPTY = new long[0];
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${attendance.roster-cache.ttl-minutes:5}")
+    private long ttlMinutes;
+
+    @Value("${attendance.roster-cache.max-sections:20000}")
+    private int maxSections;
+
+    @Value("${attendance.roster-cache.max-students:50000}")
+    private int maxStudents;
+
+    @Value("${attendance.roster-cache.change-poll-seconds:5}")
+    private long changePollSeconds;
+
+    @Value("${attendance.roster-cache.change-lookback-seconds:60}")
+    private long changeLookbackSeconds;
+
+    private BoundedCache<Long, long[]> rosters;
+    private BoundedCache<Long, long[]> studentSections;
+    // Her evict anahtarın şeridindeki nesli artırır; sorgusu evict'ten önce başlamış bir yükleme
+    // nesil değiştiyse okuduğu eski kaydı cache'te bırakmaz
+    private final AtomicLongArray sectionGenerations = new AtomicLongArray(GENERATION_STRIPES);
+    private final AtomicLongArray studentGenerations = new AtomicLongArray(GENERATION_STRIPES);
+
+    private Counter rosterHitCounter;
+    private Counter rosterMissCounter;
+    private Counter studentHitCounter;
+    private Counter studentMissCounter;
+
+    // Sadece değişiklik okuyan thread kullanır: görülen en yeni updated_at ve pencere içindeki kayıtlar
+    private LocalDateTime changeWatermark;
+    private final Map<Long, LocalDateTime> seenChanges = new HashMap<>();
+    private ScheduledExecutorService changePoller;
+
+    @PostConstruct
+    public void init() {
+        rosters = new BoundedCache<>(maxSections, ttlMinutes, TimeUnit.MINUTES);
+        studentSections = new BoundedCache<>(maxStudents, ttlMinutes, TimeUnit.MINUTES);
+        rosterHitCounter = requestCounter("section", "hit");
+        rosterMissCounter = requestCounter("section", "miss");
+        studentHitCounter = requestCounter("student", "hit");
+        studentMissCounter = requestCounter("student", "miss");
+        Gauge.builder("attendance.roster_cache.size", rosters, BoundedCache::size)
+                .tag("index", "section")
+                .description("Cache'teki section kadrosu sayısı")
+                .register(meterRegistry);
+        Gauge.builder("attendance.roster_cache.size", studentSections, BoundedCache::size)
+                .tag("index", "student")
+                .description("Cache'teki öğrenci → section listesi sayısı")
+                .register(meterRegistry);
+
+        if (changePollSeconds > 0) {
+            LocalDateTime latest = jdbcTemplate.queryForObject(
+                    "SELECT MAX(updated_at) FROM enrollments", LocalDateTime.class);
+            changeWatermark = latest != null ? latest : LocalDateTime.of(1970, 1, 1, 0, 0);
+            changePoller = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "roster-cache-changes");
+                thread.setDaemon(true);
+                return thread;
+            });
+            changePoller.scheduleWithFixedDelay(this::pollEnrollmentChanges,
+                    changePollSeconds, changePollSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (changePoller != null) {
+            changePoller.shutdownNow();
+        }
+    }
+
+    /**
+     * Section'a kayıtlı öğrenci id'lerini artan sırada döner. Dönen dizi paylaşılır, değiştirilmemelidir.
+     */
+    public long[] getRoster(Long sectionId) {
+        long[] cached = rosters.get(sectionId);
+        if (cached != null) {
+            rosterHitCounter.increment();
+            return cached;
+        }
+
+        rosterMissCounter.increment();
+        int stripe = stripe(sectionId);
+        long generation = sectionGenerations.get(stripe);
+        long[] roster = toSortedArray(jdbcTemplate.queryForList(
+                "SELECT student_id FROM enrollments WHERE section_id = ? AND status = 'ENROLLED'",
+                Long.class, sectionId));
+
+        long[] previous = rosters.put(sectionId, roster);
+        if (previous != null) {
+            evictChangedStudents(previous, roster);
+        }
+        // Nesil kontrolü put'tan sonra yapılır: araya giren evict ya burada görülür ya da kaydı kendisi siler
+        if (sectionGenerations.get(stripe) != generation) {
+            rosters.remove(sectionId, roster);
+        }
+        return roster;
+    }
+
+    /**
+     * Öğrencinin kayıtlı olduğu section id'lerini artan sırada döner. Dönen dizi paylaşılır, değiştirilmemelidir.
+     */
+    public long[] getSectionIds(Long studentId) {
+        long[] cached = studentSections.get(studentId);
+        if (cached != null) {
+            studentHitCounter.increment();
+            return cached;
+        }
+
+        studentMissCounter.increment();
+        int stripe = stripe(studentId);
+        long generation = studentGenerations.get(stripe);
+        long[] sectionIds = toSortedArray(jdbcTemplate.queryForList(
+                "SELECT section_id FROM enrollments WHERE student_id = ? AND status = 'ENROLLED'",
+                Long.class, studentId));
+
+        studentSections.put(studentId, sectionIds);
+        if (studentGenerations.get(stripe) != generation) {
+            studentSections.remove(studentId, sectionIds);
+        }
+        return sectionIds;
+    }
+
+    /**
+     * Section'ın kadrosunu ve bu section'daki öğrencilerin section listelerini cache'ten çıkarır.
+     * Kayıt ekleme/silme sonrasında çağrılır.
+     */
+    public void evictSection(Long sectionId) {
+        sectionGenerations.incrementAndGet(stripe(sectionId));
+        long[] removed = rosters.remove(sectionId);
+        if (removed != null) {
+            for (long studentId : removed) {
+                evictStudent(studentId);
+            }
+        }
+    }
+
+    public void evictStudent(Long studentId) {
+        studentGenerations.incrementAndGet(stripe(studentId));
+        studentSections.remove(studentId);
+    }
+
+    /**
+     * Son okumadan sonra eklenen veya güncellenen kayıtların section ve öğrenci girdilerini düşürür.
+     * Pencere içinde daha önce görülmüş (aynı updated_at) kayıtlar tekrar düşürülmez.
+     */
+    void pollEnrollmentChanges() {
+        try {
+            LocalDateTime since = changeWatermark.minusSeconds(changeLookbackSeconds);
+            LocalDateTime[] latest = {changeWatermark};
+            int[] evicted = {0};
+            jdbcTemplate.query(
+                    "SELECT id, student_id, section_id, updated_at FROM enrollments WHERE updated_at >= ?",
+                    (RowCallbackHandler) rs -> {
+                        LocalDateTime updatedAt = rs.getTimestamp("updated_at").toLocalDateTime();
+                        if (!updatedAt.equals(seenChanges.put(rs.getLong("id"), updatedAt))) {
+                            evictSection(rs.getLong("section_id"));
+                            evictStudent(rs.getLong("student_id"));
+                            evicted[0]++;
+                        }
+                        if (updatedAt.isAfter(latest[0])) {
+                            latest[0] = updatedAt;
+                        }
+                    },
+                    Timestamp.valueOf(since));
+
+            changeWatermark = latest[0];
+            LocalDateTime windowStart = changeWatermark.minusSeconds(changeLookbackSeconds);
+            seenChanges.values().removeIf(updatedAt -> updatedAt.isBefore(windowStart));
+            if (evicted[0] > 0) {
+                log.debug("{} kayıt değişikliği için kadro cache'i temizlendi", evicted[0]);
+            }
+        } catch (Exception e) {
+            // Bir sonraki okumada aynı pencere tekrar denenir
+            log.warn("Kayıt değişiklikleri okunamadı: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Yeniden okunan kadroda eklenen veya çıkan öğrencilerin section listeleri artık güncel değildir;
+     * iki sıralı dizi birleştirilerek farklı olan öğrenciler cache'ten çıkarılır.
+     */
+    private void evictChangedStudents(long[] previous, long[] current) {
+        int i = 0;
+        int j = 0;
+        while (i < previous.length || j < current.length) {
+            if (j == current.length || (i < previous.length && previous[i] < current[j])) {
+                evictStudent(previous[i++]);
+            } else if (i == previous.length || current[j] < previous[i]) {
+                evictStudent(current[j++]);
+            } else {
+                i++;
+                j++;
+            }
+        }
+    }
+
+    private Counter requestCounter(String index, String result) {
+        return Counter.builder("attendance.roster_cache.requests")
+                .tag("index", index)
+                .tag("result", result)
+                .description("Section kadrosu cache istekleri")
+                .register(meterRegistry);
+    }
+
+    private static int stripe(Long id) {
+        return Long.hashCode(id) & (GENERATION_STRIPES - 1);
+    }
+
+    private static long[] toSortedArray(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return EMPTY;
+        }
+        return ids.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+    }
+}
@@ -0,0 +1,81 @@
+package com.smartcampus.attendance.cache;
+
+import com.smartcampus.attendance.repository.StudentInfoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * user_id → students.id eşlemesi için sınırlı boyutlu, TTL'li bellek içi cache.
+ * Eşleme öğrenci kaydı oluşturulduktan sonra değişmediği için check-in gibi sık çağrılan
+ * isteklerde her seferinde students tablosuna gidilmez.
+ * Öğrenci olmayan kullanıcılar cache'lenmez; öğrenci kaydı sonradan oluşturulabilir.
+ */
+@Component
+@RequiredArgsConstructor
+public class StudentIdentityCache {
+
+    private final StudentInfoRepository studentInfoRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${attendance.identity-cache.max-size:50000}")
+    private int maxSize;
+
+    @Value("${attendance.identity-cache.ttl-minutes:60}")
+    private long ttlMinutes;
+
+    private BoundedCache<Long, Long> entries;
+
+    private Counter hitCounter;
+    private Counter missCounter;
+
+    @PostConstruct
+    public void init() {
+        entries = new BoundedCache<>(maxSize, ttlMinutes, TimeUnit.MINUTES);
+        hitCounter = Counter.builder("attendance.identity_cache.requests")
+                .tag("result", "hit")
+                .description("user_id → student_id cache isabetleri")
+                .register(meterRegistry);
+        missCounter = Counter.builder("attendance.identity_cache.requests")
+                .tag("result", "miss")
+                .description("user_id → student_id cache ıskaları")
+                .register(meterRegistry);
+        Gauge.builder("attendance.identity_cache.size", entries, BoundedCache::size)
+                .description("Cache'teki eşleme sayısı")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Kullanıcının öğrenci id'sini döner; cache'te yoksa veya süresi dolmuşsa veritabanından okur.
+     *
+     * @return kullanıcının öğrenci kaydı yoksa boş
+     */
+    public Optional<Long> findStudentId(Long userId) {
+        Long cached = entries.get(userId);
+        if (cached != null) {
+            hitCounter.increment();
+            return Optional.of(cached);
+        }
+
+        missCounter.increment();
+        Long studentId = studentInfoRepository.findStudentIdByUserId(userId);
+        if (studentId == null) {
+            entries.remove(userId);
+            return Optional.empty();
+        }
+
+        entries.put(userId, studentId);
+        return Optional.of(studentId);
+    }
+
+    public void evict(Long userId) {
+        entries.remove(userId);
+    }
+}
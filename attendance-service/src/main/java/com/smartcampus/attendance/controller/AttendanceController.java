@@ -7,7 +7,9 @@ import com.smartcampus.attendance.dto.response.*;
 import com.smartcampus.attendance.entity.SessionStatus;
 import com.smartcampus.attendance.security.CurrentUser;
 import com.smartcampus.attendance.security.CustomUserDetails;
+import com.smartcampus.attendance.service.AttendanceReportExportService;
 import com.smartcampus.attendance.service.AttendanceService;
+import com.smartcampus.attendance.util.ClientIpResolver;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -15,10 +17,15 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -29,6 +36,8 @@ import java.util.List;
 public class AttendanceController {
 
     private final AttendanceService attendanceService;
+    private final AttendanceReportExportService reportExportService;
+    private final ClientIpResolver clientIpResolver;
 
     @PostMapping("/sessions")
     @PreAuthorize("hasRole('FACULTY')")
@@ -56,6 +65,17 @@ public class AttendanceController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
+    /**
+     * Aktif oturumun yoklama sayacını canlı olarak yayınlar; eğitmenin getSession'ı tekrar tekrar sorgulaması gerekmez
+     */
+    @GetMapping(value = "/sessions/{id}/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('FACULTY')")
+    public Flux<ServerSentEvent<LiveAttendanceEvent>> streamSession(
+            @CurrentUser CustomUserDetails userDetails,
+            @PathVariable Long id) {
+        return attendanceService.streamSessionEvents(userDetails.getId(), id);
+    }
+
     @PutMapping("/sessions/{id}/close")
     @PreAuthorize("hasRole('FACULTY')")
     public ResponseEntity<ApiResponse<SessionResponse>> closeSession(
@@ -98,6 +118,39 @@ public class AttendanceController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
+    @GetMapping("/report/{sectionId}/export/csv")
+    @PreAuthorize("hasRole('FACULTY')")
+    public ResponseEntity<StreamingResponseBody> exportAttendanceReportCsv(
+            @CurrentUser CustomUserDetails userDetails,
+            @PathVariable Long sectionId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        StreamingResponseBody body = reportExportService.exportToCsv(
+                userDetails.getId(), sectionId, startDate, endDate);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=attendance_report_" + sectionId + ".csv")
+                .contentType(MediaType.parseMediaType("text/csv; charset=UTF-8"))
+                .body(body);
+    }
+
+    @GetMapping("/report/{sectionId}/export/excel")
+    @PreAuthorize("hasRole('FACULTY')")
+    public ResponseEntity<StreamingResponseBody> exportAttendanceReportExcel(
+            @CurrentUser CustomUserDetails userDetails,
+            @PathVariable Long sectionId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        StreamingResponseBody body = reportExportService.exportToExcel(
+                userDetails.getId(), sectionId, startDate, endDate);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=attendance_report_" + sectionId + ".xlsx")
+                .contentType(
+                        MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
+                .body(body);
+    }
+
     @PostMapping("/sessions/{id}/checkin")
     @PreAuthorize("hasRole('STUDENT')")
     public ResponseEntity<ApiResponse<CheckInResponse>> checkIn(
@@ -105,7 +158,7 @@ public class AttendanceController {
             @PathVariable Long id,
             @Valid @RequestBody CheckInRequest request,
             HttpServletRequest httpRequest) {
-        String ipAddress = getClientIpAddress(httpRequest);
+        String ipAddress = clientIpResolver.resolve(httpRequest);
         CheckInResponse response = attendanceService.checkIn(userDetails.getId(), id, request, ipAddress);
         return ResponseEntity.ok(ApiResponse.success("Yoklama başarıyla verildi", response));
     }
@@ -117,7 +170,7 @@ public class AttendanceController {
             @PathVariable Long id,
             @Valid @RequestBody CheckInQrRequest request,
             HttpServletRequest httpRequest) {
-        String ipAddress = getClientIpAddress(httpRequest);
+        String ipAddress = clientIpResolver.resolve(httpRequest);
         CheckInResponse response = attendanceService.checkInWithQr(userDetails.getId(), id, request, ipAddress);
         return ResponseEntity.ok(ApiResponse.success("Yoklama başarıyla verildi", response));
     }
@@ -148,12 +201,4 @@ public class AttendanceController {
         SessionResponse response = attendanceService.refreshQrCode(userDetails.getId(), id);
         return ResponseEntity.ok(ApiResponse.success("QR kod yenilendi", response));
     }
-
-    private String getClientIpAddress(HttpServletRequest request) {
-        String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-            return xForwardedFor.split(",")[0].trim();
-        }
-        return request.getRemoteAddr();
-    }
 }
@@ -0,0 +1,29 @@
+package com.smartcampus.attendance.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Canlı yoklama akışında eğitmene gönderilen olay.
+ * SNAPSHOT bağlantı açıldığında, CHECK_IN her yoklamada, CLOSED oturum kapandığında gönderilir.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LiveAttendanceEvent {
+
+    public static final String SNAPSHOT = "SNAPSHOT";
+    public static final String CHECK_IN = "CHECK_IN";
+    public static final String CLOSED = "CLOSED";
+
+    private String type;
+    private Long sessionId;
+    private Integer presentCount;
+    private Long studentId;
+    private LocalDateTime checkInTime;
+}
@@ -6,7 +6,9 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "attendance_records")
+@Table(name = "attendance_records", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_attendance", columnNames = {"session_id", "student_id"})
+})
 @Getter
 @Setter
 @NoArgsConstructor
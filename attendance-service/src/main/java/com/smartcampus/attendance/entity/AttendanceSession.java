@@ -8,7 +8,9 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 
 @Entity
-@Table(name = "attendance_sessions")
+@Table(name = "attendance_sessions", indexes = {
+        @Index(name = "idx_status_session_date", columnList = "status, session_date")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -0,0 +1,151 @@
+package com.smartcampus.attendance.live;
+
+import com.smartcampus.attendance.dto.response.LiveAttendanceEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+/**
+ * Aktif oturumların canlı yoklama sayacını SSE aboneleriyle paylaşır.
+ * Her oturum için bellekte bir sayaç ve bir sink tutulur; check-in'ler commit sonrası yayınlanır.
+ * Kanal sadece oturumu izleyen bir abone varken yaşar, son abone ayrılınca silinir.
+ */
+@Slf4j
+@Component
+public class LiveAttendanceBroadcaster {
+
+    private final Duration heartbeatInterval;
+    private final Duration maxStreamDuration;
+
+    private final ConcurrentHashMap<Long, Channel> channels = new ConcurrentHashMap<>();
+
+    public LiveAttendanceBroadcaster(
+            @Value("${attendance.live.heartbeat-seconds:15}") long heartbeatSeconds,
+            @Value("${attendance.live.max-stream-minutes:180}") long maxStreamMinutes) {
+        this.heartbeatInterval = Duration.ofSeconds(heartbeatSeconds);
+        this.maxStreamDuration = Duration.ofMinutes(maxStreamMinutes);
+    }
+
+    /**
+     * Oturumun olay akışını döner. İlk olay güncel sayacı içeren SNAPSHOT'tır.
+     *
+     * @param initialCount kanal yoksa sayacın başlangıç değerini veren fonksiyon
+     */
+    public Flux<ServerSentEvent<LiveAttendanceEvent>> subscribe(Long sessionId, IntSupplier initialCount) {
+        return Flux.defer(() -> {
+            Channel channel = channels.compute(sessionId, (id, current) -> {
+                Channel result = current != null ? current : new Channel(initialCount.getAsInt());
+                result.subscribers.incrementAndGet();
+                return result;
+            });
+
+            LiveAttendanceEvent snapshot = LiveAttendanceEvent.builder()
+                    .type(LiveAttendanceEvent.SNAPSHOT)
+                    .sessionId(sessionId)
+                    .presentCount(channel.presentCount.get())
+                    .build();
+
+            Flux<ServerSentEvent<LiveAttendanceEvent>> events = Flux.concat(Flux.just(snapshot), channel.sink.asFlux())
+                    .map(event -> ServerSentEvent.builder(event).event(event.getType()).build());
+
+            Flux<ServerSentEvent<LiveAttendanceEvent>> heartbeats = Flux.interval(heartbeatInterval)
+                    .map(tick -> ServerSentEvent.<LiveAttendanceEvent>builder().comment("heartbeat").build());
+
+            return Flux.merge(events, heartbeats)
+                    .takeUntil(sse -> sse.data() != null
+                            && LiveAttendanceEvent.CLOSED.equals(sse.data().getType()))
+                    .take(maxStreamDuration)
+                    .doFinally(signal -> release(sessionId, channel));
+        });
+    }
+
+    /**
+     * Check-in'i yayınlar; transaction varsa commit sonrasına ertelenir.
+     *
+     * @param presentCount oturumun güncel yoklama sayısı
+     */
+    public void publishCheckIn(Long sessionId, Long studentId, LocalDateTime checkInTime, int presentCount) {
+        afterCommit(() -> {
+            Channel channel = channels.get(sessionId);
+            if (channel == null) {
+                return;
+            }
+            int count = channel.presentCount.accumulateAndGet(presentCount, Math::max);
+            channel.emit(LiveAttendanceEvent.builder()
+                    .type(LiveAttendanceEvent.CHECK_IN)
+                    .sessionId(sessionId)
+                    .presentCount(count)
+                    .studentId(studentId)
+                    .checkInTime(checkInTime)
+                    .build());
+        });
+    }
+
+    /**
+     * Oturum kapandığında abonelere CLOSED gönderir ve akışları sonlandırır.
+     */
+    public void publishClosed(Long sessionId) {
+        afterCommit(() -> {
+            Channel channel = channels.remove(sessionId);
+            if (channel == null) {
+                return;
+            }
+            channel.emit(LiveAttendanceEvent.builder()
+                    .type(LiveAttendanceEvent.CLOSED)
+                    .sessionId(sessionId)
+                    .presentCount(channel.presentCount.get())
+                    .build());
+            channel.sink.tryEmitComplete();
+        });
+    }
+
+    private void release(Long sessionId, Channel channel) {
+        channels.computeIfPresent(sessionId, (id, current) -> {
+            if (current != channel) {
+                return current;
+            }
+            return current.subscribers.decrementAndGet() <= 0 ? null : current;
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static final class Channel {
+        private final AtomicInteger presentCount;
+        private final AtomicInteger subscribers = new AtomicInteger();
+        private final Sinks.Many<LiveAttendanceEvent> sink = Sinks.many().multicast().directBestEffort();
+
+        private Channel(int initialCount) {
+            this.presentCount = new AtomicInteger(initialCount);
+        }
+
+        private synchronized void emit(LiveAttendanceEvent event) {
+            Sinks.EmitResult result = sink.tryEmitNext(event);
+            if (result.isFailure() && result != Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER) {
+                log.debug("Canlı yoklama olayı gönderilemedi - sessionId: {}, sonuç: {}", event.getSessionId(), result);
+            }
+        }
+    }
+}
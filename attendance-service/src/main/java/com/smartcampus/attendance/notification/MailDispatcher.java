@@ -0,0 +1,365 @@
+package com.smartcampus.attendance.notification;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * SendGrid'e giden e-postalar için sınırlı kuyruklu, tek thread'li gönderici.
+ * <p>
+ * Çağıranlar sadece kuyruğa ekler. Dispatcher thread kuyruktan en fazla {@code batch-size}
+ * e-posta alır, aynı şablonu kullananları tek bir istekte SendGrid personalization'ları olarak
+ * gönderir; alıcıya özel alanlar substitution olarak iletilir. İstekler token bucket ile
+ * saniye başına sınırlanır, 429/5xx ve bağlantı hataları üstel bekleme ile tekrar denenir.
+ * Tüm istekler bağlantı havuzlu tek bir WebClient üzerinden yapılır.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MailDispatcher {
+
+    private static final int MAX_PERSONALIZATIONS = 1000;
+
+    private final WebClient.Builder webClientBuilder;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${sendgrid.api-key:}")
+    private String sendGridApiKey;
+
+    @Value("${sendgrid.enabled:false}")
+    private boolean sendGridEnabled;
+
+    @Value("${sendgrid.from-email:noreply@smartcampus.edu.tr}")
+    private String fromEmail;
+
+    @Value("${sendgrid.base-url:https://api.sendgrid.com}")
+    private String baseUrl;
+
+    @Value("${sendgrid.dispatcher.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${sendgrid.dispatcher.batch-size:100}")
+    private int batchSize;
+
+    @Value("${sendgrid.dispatcher.requests-per-second:5}")
+    private double requestsPerSecond;
+
+    @Value("${sendgrid.dispatcher.burst:10}")
+    private int burst;
+
+    @Value("${sendgrid.dispatcher.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${sendgrid.dispatcher.initial-backoff-ms:1000}")
+    private long initialBackoffMs;
+
+    @Value("${sendgrid.dispatcher.max-backoff-ms:30000}")
+    private long maxBackoffMs;
+
+    @Value("${sendgrid.dispatcher.max-connections:4}")
+    private int maxConnections;
+
+    @Value("${sendgrid.dispatcher.request-timeout-seconds:10}")
+    private long requestTimeoutSeconds;
+
+    @Value("${sendgrid.dispatcher.shutdown-timeout-seconds:20}")
+    private long shutdownTimeoutSeconds;
+
+    private BlockingQueue<OutgoingMail> queue;
+    private ConnectionProvider connectionProvider;
+    private WebClient webClient;
+    private TokenBucket rateLimiter;
+    private Thread dispatcher;
+    private volatile boolean running;
+
+    private Timer sendSuccessTimer;
+    private Timer sendFailureTimer;
+    private Counter sentCounter;
+    private Counter failedCounter;
+    private Counter droppedCounter;
+
+    @PostConstruct
+    public void init() {
+        // SendGrid tek istekte en fazla 1000 personalization kabul eder
+        batchSize = Math.max(1, Math.min(batchSize, MAX_PERSONALIZATIONS));
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        rateLimiter = new TokenBucket(requestsPerSecond, burst);
+
+        Gauge.builder("attendance.mail.queue.depth", queue, BlockingQueue::size)
+                .description("Gönderilmeyi bekleyen e-posta sayısı")
+                .register(meterRegistry);
+        sendSuccessTimer = sendTimer("success");
+        sendFailureTimer = sendTimer("failure");
+        sentCounter = recipientCounter("sent");
+        failedCounter = recipientCounter("failed");
+        droppedCounter = recipientCounter("dropped");
+
+        if (!isEnabled()) {
+            log.info("SendGrid is not enabled, absence emails will not be sent");
+            return;
+        }
+
+        connectionProvider = ConnectionProvider.builder("sendgrid")
+                .maxConnections(maxConnections)
+                .maxIdleTime(Duration.ofSeconds(30))
+                .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .responseTimeout(Duration.ofSeconds(requestTimeoutSeconds));
+        webClient = webClientBuilder.clone()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + sendGridApiKey)
+                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .build();
+
+        running = true;
+        dispatcher = new Thread(this::dispatchLoop, "mail-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+        log.info("Mail dispatcher started - baseUrl: {}, batchSize: {}, rate: {}/s", baseUrl, batchSize,
+                requestsPerSecond);
+    }
+
+    /**
+     * Kuyruktakiler gönderilene kadar (en fazla shutdown-timeout-seconds) bekler.
+     */
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (dispatcher != null) {
+            try {
+                dispatcher.join(TimeUnit.SECONDS.toMillis(shutdownTimeoutSeconds));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            dispatcher.interrupt();
+            if (!queue.isEmpty()) {
+                log.warn("Mail dispatcher stopped with {} unsent emails", queue.size());
+            }
+        }
+        if (connectionProvider != null) {
+            connectionProvider.dispose();
+        }
+    }
+
+    public boolean isEnabled() {
+        return sendGridEnabled && sendGridApiKey != null && !sendGridApiKey.isEmpty();
+    }
+
+    /**
+     * E-postayı gönderim kuyruğuna ekler; bloklamaz.
+     *
+     * @return SendGrid kapalıysa veya kuyruk doluysa false
+     */
+    public boolean enqueue(OutgoingMail mail) {
+        if (!isEnabled()) {
+            log.warn("SendGrid is not enabled. Email not sent to: {}", mail.to());
+            return false;
+        }
+        if (!queue.offer(mail)) {
+            droppedCounter.increment();
+            log.warn("Mail queue is full ({}), email dropped for: {}", queueCapacity, mail.to());
+            return false;
+        }
+        return true;
+    }
+
+    private void dispatchLoop() {
+        List<OutgoingMail> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                OutgoingMail first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+
+                // Aynı şablondaki e-postalar tek istekte gönderilir
+                Map<String, List<OutgoingMail>> byTemplate = new LinkedHashMap<>();
+                for (OutgoingMail mail : batch) {
+                    byTemplate.computeIfAbsent(mail.templateKey(), k -> new ArrayList<>()).add(mail);
+                }
+                for (List<OutgoingMail> mails : byTemplate.values()) {
+                    sendWithRetry(mails);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Unexpected error in mail dispatcher: {}", e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void sendWithRetry(List<OutgoingMail> mails) throws InterruptedException {
+        Map<String, Object> requestBody = buildRequestBody(mails);
+        long backoffMs = initialBackoffMs;
+
+        for (int attempt = 1; ; attempt++) {
+            rateLimiter.acquire();
+            long start = System.nanoTime();
+            try {
+                webClient.post()
+                        .uri("/v3/mail/send")
+                        .bodyValue(requestBody)
+                        .retrieve()
+                        .toBodilessEntity()
+                        // timeout() TimeoutException üretir; block() bunu nedeni olarak taşıyan bir exception fırlatır
+                        .timeout(Duration.ofSeconds(requestTimeoutSeconds + 1))
+                        .block();
+                sendSuccessTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                sentCounter.increment(mails.size());
+                log.info("Sent {} emails with template: {}", mails.size(), mails.get(0).templateKey());
+                return;
+            } catch (Exception e) {
+                sendFailureTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                if (!isRetryable(e) || attempt >= maxAttempts) {
+                    failedCounter.increment(mails.size());
+                    log.error("Failed to send {} emails with template {} after {} attempts: {}",
+                            mails.size(), mails.get(0).templateKey(), attempt, describe(e));
+                    return;
+                }
+                long sleepMs = backoffMs + ThreadLocalRandom.current().nextLong(backoffMs / 2 + 1);
+                log.warn("SendGrid request failed (attempt {}/{}): {}, retrying in {} ms",
+                        attempt, maxAttempts, describe(e), sleepMs);
+                Thread.sleep(sleepMs);
+                backoffMs = Math.min(backoffMs * 2, maxBackoffMs);
+            }
+        }
+    }
+
+    private Map<String, Object> buildRequestBody(List<OutgoingMail> mails) {
+        List<Map<String, Object>> personalizations = new ArrayList<>(mails.size());
+        for (OutgoingMail mail : mails) {
+            Map<String, Object> personalization = new LinkedHashMap<>();
+            personalization.put("to", List.of(Map.of("email", mail.to())));
+            personalization.put("subject", mail.subject());
+            personalization.put("substitutions", mail.substitutions());
+            personalizations.add(personalization);
+        }
+
+        Map<String, Object> from = new LinkedHashMap<>();
+        from.put("email", fromEmail);
+        from.put("name", "Smart Campus");
+
+        Map<String, Object> htmlContent = new LinkedHashMap<>();
+        htmlContent.put("type", "text/html");
+        htmlContent.put("value", mails.get(0).htmlTemplate());
+
+        Map<String, Object> requestBody = new LinkedHashMap<>();
+        requestBody.put("personalizations", personalizations);
+        requestBody.put("from", from);
+        requestBody.put("content", List.of(htmlContent));
+        return requestBody;
+    }
+
+    private static boolean isRetryable(Throwable e) {
+        Throwable cause = e;
+        while (cause != null) {
+            if (cause instanceof WebClientResponseException response) {
+                return response.getStatusCode().value() == 429 || response.getStatusCode().is5xxServerError();
+            }
+            if (cause instanceof WebClientRequestException || cause instanceof TimeoutException) {
+                return true;
+            }
+            cause = cause.getCause();
+        }
+        return false;
+    }
+
+    private static String describe(Throwable e) {
+        if (e instanceof WebClientResponseException response) {
+            return response.getStatusCode() + " " + response.getResponseBodyAsString();
+        }
+        return e.getMessage();
+    }
+
+    private Timer sendTimer(String result) {
+        return Timer.builder("attendance.mail.send.latency")
+                .tag("result", result)
+                .description("SendGrid istek süresi")
+                .register(meterRegistry);
+    }
+
+    private Counter recipientCounter(String result) {
+        return Counter.builder("attendance.mail.recipients")
+                .tag("result", result)
+                .description("Gönderilen, başarısız olan ve kuyruk dolu olduğu için atılan e-postalar")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Gönderilecek tek bir e-posta. Aynı templateKey'e sahip e-postaların htmlTemplate'i aynıdır;
+     * alıcıya özel değerler substitutions ile şablondaki etiketlerin yerine konur.
+     */
+    public record OutgoingMail(String templateKey, String to, String subject, String htmlTemplate,
+            Map<String, String> substitutions) {
+    }
+
+    /**
+     * Saniye başına istek sınırı için token bucket. Token yoksa çağıran thread bir sonraki token'a kadar uyur.
+     */
+    private static final class TokenBucket {
+        private final double capacity;
+        private final double tokensPerNano;
+        private double tokens;
+        private long lastRefillNanos;
+
+        private TokenBucket(double tokensPerSecond, int capacity) {
+            this.capacity = Math.max(1, capacity);
+            this.tokensPerNano = Math.max(tokensPerSecond, 0.001) / TimeUnit.SECONDS.toNanos(1);
+            this.tokens = this.capacity;
+            this.lastRefillNanos = System.nanoTime();
+        }
+
+        private void acquire() throws InterruptedException {
+            long waitNanos;
+            while ((waitNanos = tryAcquire()) > 0) {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            }
+        }
+
+        /**
+         * @return token alındıysa 0, aksi halde bir sonraki token'a kadar beklenecek süre (ns)
+         */
+        private synchronized long tryAcquire() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * tokensPerNano);
+            lastRefillNanos = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return Math.max(1, (long) ((1 - tokens) / tokensPerNano));
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.smartcampus.attendance.repository;
+
+import com.smartcampus.attendance.entity.AttendanceRecord;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.StatementCallback;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+@Repository
+public class AttendanceRecordJdbcRepository {
+
+    private static final int INSERT_CHUNK_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AttendanceRecordJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StudentSectionCounts {
+        private Long sectionId;
+        private Long studentId;
+        private int absentCount;
+        private int excusedCount;
+        private int presentCount;
+        private int lateCount;
+        private int totalSessions;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SessionListingStats {
+        private Long sessionId;
+        private int presentCount;
+        private boolean checkedIn;
+        private String courseCode;
+        private String courseName;
+        private String sectionNumber;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SectionReportSummary {
+        private int totalSessions;
+        private boolean ownedByInstructor;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StudentReportRow {
+        private Long studentId;
+        private String studentNumber;
+        private String firstName;
+        private String lastName;
+        private int presentCount;
+        private int excusedCount;
+        private boolean flagged;
+        private String flagReason;
+    }
+
+    /**
+     * Section'ın verilen tarih aralığındaki oturum sayısını ve oturumların tamamının
+     * verilen öğretim üyesine ait olup olmadığını tek sorguyla döner.
+     */
+    public SectionReportSummary findSectionReportSummary(Long sectionId, Long instructorId,
+            LocalDate startDate, LocalDate endDate) {
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*) AS total_sessions, " +
+                "COALESCE(SUM(CASE WHEN s.instructor_id <> ? THEN 1 ELSE 0 END), 0) AS foreign_sessions " +
+                "FROM attendance_sessions s WHERE s.section_id = ?");
+        List<Object> args = new ArrayList<>(List.of(instructorId, sectionId));
+        appendDateRange(sql, args, startDate, endDate);
+
+        return jdbcTemplate.queryForObject(sql.toString(), (rs, rowNum) -> SectionReportSummary.builder()
+                .totalSessions(rs.getInt("total_sessions"))
+                .ownedByInstructor(rs.getInt("foreign_sessions") == 0)
+                .build(), args.toArray());
+    }
+
+    /**
+     * Section'ın yoklama raporunu öğrenci bazında tek bir GROUP BY sorgusuyla hesaplar.
+     * PRESENT/EXCUSED sayıları, işaretlenmiş kayıt olup olmadığı ve öğrenci bilgileri veritabanında
+     * toplanır; satırlar öğrenci numarası sırasıyla consumer'a aktarılır, entity oluşturulmaz.
+     */
+    public void streamSectionReportRows(Long sectionId, LocalDate startDate, LocalDate endDate,
+            Consumer<StudentReportRow> consumer) {
+        StringBuilder sql = new StringBuilder("SELECT r.student_id, st.student_number, u.first_name, u.last_name, " +
+                "SUM(CASE WHEN r.status = 'PRESENT' THEN 1 ELSE 0 END) AS present_count, " +
+                "SUM(CASE WHEN r.status = 'EXCUSED' THEN 1 ELSE 0 END) AS excused_count, " +
+                "MAX(CASE WHEN r.is_flagged = 1 THEN 1 ELSE 0 END) AS flagged, " +
+                "MIN(CASE WHEN r.is_flagged = 1 THEN r.flag_reason END) AS flag_reason " +
+                "FROM attendance_records r " +
+                "JOIN attendance_sessions s ON s.id = r.session_id " +
+                "LEFT JOIN students st ON st.id = r.student_id " +
+                "LEFT JOIN users u ON u.id = st.user_id " +
+                "WHERE s.section_id = ?");
+        List<Object> args = new ArrayList<>(List.of(sectionId));
+        appendDateRange(sql, args, startDate, endDate);
+        sql.append(" GROUP BY r.student_id, st.student_number, u.first_name, u.last_name " +
+                "ORDER BY st.student_number, r.student_id");
+
+        RowCallbackHandler handler = rs -> consumer.accept(StudentReportRow.builder()
+                .studentId(rs.getLong("student_id"))
+                .studentNumber(rs.getString("student_number"))
+                .firstName(rs.getString("first_name"))
+                .lastName(rs.getString("last_name"))
+                .presentCount(rs.getInt("present_count"))
+                .excusedCount(rs.getInt("excused_count"))
+                .flagged(rs.getInt("flagged") > 0)
+                .flagReason(rs.getString("flag_reason"))
+                .build());
+        jdbcTemplate.query(sql.toString(), handler, args.toArray());
+    }
+
+    private static void appendDateRange(StringBuilder sql, List<Object> args, LocalDate startDate,
+            LocalDate endDate) {
+        if (startDate != null) {
+            sql.append(" AND s.session_date >= ?");
+            args.add(Date.valueOf(startDate));
+        }
+        if (endDate != null) {
+            sql.append(" AND s.session_date <= ?");
+            args.add(Date.valueOf(endDate));
+        }
+    }
+
+    /**
+     * Verilen öğrenciler için çok satırlı INSERT IGNORE ile ABSENT kaydı oluşturur.
+     * INSERT IGNORE sayesinde bu arada yoklama vermiş öğrencinin kaydı ezilmez.
+     * JDBC batch yerine tek ifade kullanılır: rewriteBatchedStatements açıkken sürücü batch sonuçlarında
+     * satır sayısı yerine SUCCESS_NO_INFO döner, tek ifadenin güncelleme sayısı ise atlanan satırları içermez.
+     *
+     * @return oluşturulan kayıt sayısı
+     */
+    public int insertAbsentRecords(Long sessionId, long[] studentIds) {
+        long created = 0;
+        for (int from = 0; from < studentIds.length; from += INSERT_CHUNK_SIZE) {
+            int to = Math.min(from + INSERT_CHUNK_SIZE, studentIds.length);
+            // Değerler long olduğundan literal olarak yazılır; parametre sayısı chunk boyutuyla büyümez
+            StringBuilder sql = new StringBuilder("INSERT IGNORE INTO attendance_records " +
+                    "(session_id, student_id, status, is_flagged, created_at, updated_at) VALUES ");
+            for (int i = from; i < to; i++) {
+                if (i > from) {
+                    sql.append(", ");
+                }
+                sql.append('(').append(sessionId.longValue()).append(", ").append(studentIds[i])
+                        .append(", 'ABSENT', 0, NOW(), NOW())");
+            }
+            Long inserted = jdbcTemplate.execute(
+                    (StatementCallback<Long>) statement -> statement.executeLargeUpdate(sql.toString()));
+            created += inserted != null ? inserted : 0;
+        }
+        return Math.toIntExact(created);
+    }
+
+    /**
+     * Verilen dönemdeki tüm section'lar için öğrenci bazında ABSENT/EXCUSED/PRESENT/LATE
+     * sayılarını tek bir GROUP BY sorgusuyla hesaplar.
+     * Sonuçlar sunucudan satır satır akıtılır ve consumer'a aktarılır, liste olarak biriktirilmez.
+     * Consumer imleç açıkken çağrılır; bağlantıyı meşgul eden başka iş (sorgu, e-posta) yapmamalıdır.
+     */
+    public void streamStudentSectionCounts(String semester, int year, Consumer<StudentSectionCounts> consumer) {
+        String sql = "SELECT s.section_id, r.student_id, " +
+                "SUM(CASE WHEN r.status = 'ABSENT' THEN 1 ELSE 0 END) AS absent_count, " +
+                "SUM(CASE WHEN r.status = 'EXCUSED' THEN 1 ELSE 0 END) AS excused_count, " +
+                "SUM(CASE WHEN r.status = 'PRESENT' THEN 1 ELSE 0 END) AS present_count, " +
+                "SUM(CASE WHEN r.status = 'LATE' THEN 1 ELSE 0 END) AS late_count, " +
+                "t.total_sessions " +
+                "FROM attendance_records r " +
+                "JOIN attendance_sessions s ON s.id = r.session_id " +
+                "JOIN (SELECT ss.section_id, COUNT(*) AS total_sessions " +
+                "FROM attendance_sessions ss " +
+                "JOIN course_sections cs ON cs.id = ss.section_id " +
+                "WHERE cs.semester = ? AND cs.year = ? " +
+                "GROUP BY ss.section_id) t ON t.section_id = s.section_id " +
+                "GROUP BY s.section_id, r.student_id, t.total_sessions";
+        RowCallbackHandler handler = rs -> consumer.accept(StudentSectionCounts.builder()
+                .sectionId(rs.getLong("section_id"))
+                .studentId(rs.getLong("student_id"))
+                .absentCount(rs.getInt("absent_count"))
+                .excusedCount(rs.getInt("excused_count"))
+                .presentCount(rs.getInt("present_count"))
+                .lateCount(rs.getInt("late_count"))
+                .totalSessions(rs.getInt("total_sessions"))
+                .build());
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            // MySQL sürücüsü satırları sadece bu fetch size ile akıtır; aksi halde tüm sonucu belleğe alır
+            ps.setFetchSize(Integer.MIN_VALUE);
+            ps.setString(1, semester);
+            ps.setInt(2, year);
+            return ps;
+        }, handler);
+    }
+
+    /**
+     * Bir sayfadaki oturumlar için PRESENT sayısını, ders bilgisini ve verilen öğrencinin
+     * yoklama verip vermediğini tek bir GROUP BY sorgusuyla döner. Oturum sayısından bağımsız
+     * olarak tek bir veritabanı çağrısı yapar.
+     *
+     * @param studentId null ise checkedIn her zaman false olur
+     */
+    public Map<Long, SessionListingStats> findSessionListingStats(List<Long> sessionIds, Long studentId) {
+        if (sessionIds.isEmpty()) {
+            return Map.of();
+        }
+        String placeholders = sessionIds.stream().map(id -> "?").collect(Collectors.joining(","));
+        String sql = "SELECT s.id AS session_id, c.code AS course_code, c.name AS course_name, " +
+                "cs.section_number, " +
+                "COALESCE(SUM(CASE WHEN r.status = 'PRESENT' THEN 1 ELSE 0 END), 0) AS present_count, " +
+                "COALESCE(MAX(CASE WHEN r.student_id = ? THEN 1 ELSE 0 END), 0) AS checked_in " +
+                "FROM attendance_sessions s " +
+                "LEFT JOIN course_sections cs ON cs.id = s.section_id " +
+                "LEFT JOIN courses c ON c.id = cs.course_id " +
+                "LEFT JOIN attendance_records r ON r.session_id = s.id " +
+                "WHERE s.id IN (" + placeholders + ") " +
+                "GROUP BY s.id, c.code, c.name, cs.section_number";
+
+        List<Object> args = new ArrayList<>(sessionIds.size() + 1);
+        args.add(studentId);
+        args.addAll(sessionIds);
+
+        Map<Long, SessionListingStats> result = new HashMap<>();
+        jdbcTemplate.query(sql, (RowCallbackHandler) rs -> result.put(rs.getLong("session_id"),
+                SessionListingStats.builder()
+                        .sessionId(rs.getLong("session_id"))
+                        .presentCount(rs.getInt("present_count"))
+                        .checkedIn(rs.getInt("checked_in") > 0)
+                        .courseCode(rs.getString("course_code"))
+                        .courseName(rs.getString("course_name"))
+                        .sectionNumber(rs.getString("section_number"))
+                        .build()), args.toArray());
+        return result;
+    }
+
+    /**
+     * Yoklama kayıtlarını JDBC batch ile yazar (rewriteBatchedStatements ile tek çok satırlı INSERT olur).
+     * INSERT IGNORE sayesinde aynı (session_id, student_id) kaydı tekrar yazılırsa atlanır,
+     * bu yüzden aynı parti güvenle yeniden denenebilir.
+     */
+    public void batchInsertRecords(List<AttendanceRecord> records, int batchSize) {
+        String sql = "INSERT IGNORE INTO attendance_records " +
+                "(session_id, student_id, status, check_in_time, check_in_method, latitude, longitude, " +
+                "distance_from_classroom, gps_accuracy, is_flagged, flag_reason, ip_address, device_info, " +
+                "created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, NOW(), NOW())";
+        jdbcTemplate.batchUpdate(sql, records, batchSize, (ps, r) -> {
+            ps.setLong(1, r.getSessionId());
+            ps.setLong(2, r.getStudentId());
+            ps.setString(3, r.getStatus().name());
+            ps.setTimestamp(4, r.getCheckInTime() != null ? Timestamp.valueOf(r.getCheckInTime()) : null);
+            ps.setString(5, r.getCheckInMethod() != null ? r.getCheckInMethod().name() : null);
+            ps.setObject(6, r.getLatitude());
+            ps.setObject(7, r.getLongitude());
+            ps.setObject(8, r.getDistanceFromClassroom());
+            ps.setObject(9, r.getGpsAccuracy());
+            ps.setBoolean(10, Boolean.TRUE.equals(r.getIsFlagged()));
+            ps.setString(11, r.getFlagReason());
+            ps.setString(12, r.getIpAddress());
+            ps.setString(13, r.getDeviceInfo());
+        });
+    }
+}
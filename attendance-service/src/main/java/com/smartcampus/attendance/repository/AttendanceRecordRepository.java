@@ -20,11 +20,20 @@ public interface AttendanceRecordRepository extends JpaRepository<AttendanceReco
 
     Optional<AttendanceRecord> findBySessionIdAndStudentId(Long sessionId, Long studentId);
 
+    @Query("SELECT r.studentId FROM AttendanceRecord r WHERE r.sessionId = :sessionId")
+    List<Long> findStudentIdsBySessionId(@Param("sessionId") Long sessionId);
+
     @Query("SELECT r FROM AttendanceRecord r WHERE r.sessionId IN :sessionIds AND r.studentId = :studentId")
     List<AttendanceRecord> findBySessionIdsAndStudentId(
             @Param("sessionIds") List<Long> sessionIds,
             @Param("studentId") Long studentId);
 
+    @Query("SELECT r FROM AttendanceRecord r WHERE r.studentId = :studentId AND r.sessionId IN " +
+            "(SELECT s.id FROM AttendanceSession s WHERE s.sectionId IN :sectionIds)")
+    List<AttendanceRecord> findByStudentIdAndSectionIds(
+            @Param("studentId") Long studentId,
+            @Param("sectionIds") List<Long> sectionIds);
+
     @Query("SELECT COUNT(r) FROM AttendanceRecord r WHERE r.sessionId = :sessionId AND r.status = :status")
     Long countBySessionIdAndStatus(
             @Param("sessionId") Long sessionId,
@@ -5,11 +5,14 @@ import com.smartcampus.attendance.entity.SessionStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -65,4 +68,24 @@ public interface AttendanceSessionRepository extends JpaRepository<AttendanceSes
 
     @Query("SELECT s FROM AttendanceSession s WHERE s.sectionId = :sectionId ORDER BY s.sessionDate DESC, s.startTime DESC")
     List<AttendanceSession> findBySectionIdOrderByDateDesc(@Param("sectionId") Long sectionId);
-}
\ No newline at end of file
+
+    @Query("SELECT s FROM AttendanceSession s WHERE s.sectionId IN :sectionIds " +
+            "ORDER BY s.sessionDate DESC, s.startTime DESC")
+    List<AttendanceSession> findBySectionIdsOrderByDateDesc(@Param("sectionIds") List<Long> sectionIds);
+
+    // idx_status_session_date indeksini kullanır; sadece süresi geçmiş aktif oturumlar okunur
+    @Query("SELECT s FROM AttendanceSession s WHERE s.status = :status AND s.sessionDate < :date " +
+            "ORDER BY s.sessionDate, s.id")
+    List<AttendanceSession> findExpiredSessions(
+            @Param("status") SessionStatus status,
+            @Param("date") LocalDate date,
+            Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE AttendanceSession s SET s.status = :status, s.updatedAt = :updatedAt WHERE s.id IN :ids")
+    int updateStatusByIds(
+            @Param("ids") List<Long> ids,
+            @Param("status") SessionStatus status,
+            @Param("updatedAt") LocalDateTime updatedAt);
+}
@@ -41,6 +41,11 @@ public class StudentInfoRepository {
             .studentNumber(rs.getString("student_number"))
             .build();
 
+    public Long findStudentIdByUserId(Long userId) {
+        List<Long> results = jdbcTemplate.queryForList("SELECT id FROM students WHERE user_id = ?", Long.class, userId);
+        return results.isEmpty() ? null : results.get(0);
+    }
+
     public StudentInfo findByStudentId(Long studentId) {
         String sql = "SELECT s.id as student_id, s.user_id, u.email, " +
                 "CONCAT(u.first_name, ' ', u.last_name) as full_name, s.student_number " +
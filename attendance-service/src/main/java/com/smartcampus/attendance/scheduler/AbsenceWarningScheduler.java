@@ -1,10 +1,11 @@
 package com.smartcampus.attendance.scheduler;
 
+import com.smartcampus.attendance.cache.ActiveSessionRegistry;
 import com.smartcampus.attendance.dto.response.CourseSectionInfo;
-import com.smartcampus.attendance.entity.AttendanceRecord;
 import com.smartcampus.attendance.entity.AttendanceSession;
-import com.smartcampus.attendance.entity.AttendanceStatus;
-import com.smartcampus.attendance.repository.AttendanceRecordRepository;
+import com.smartcampus.attendance.entity.SessionStatus;
+import com.smartcampus.attendance.live.LiveAttendanceBroadcaster;
+import com.smartcampus.attendance.repository.AttendanceRecordJdbcRepository;
 import com.smartcampus.attendance.repository.AttendanceSessionRepository;
 import com.smartcampus.attendance.repository.CourseSectionInfoRepository;
 import com.smartcampus.attendance.repository.StudentInfoRepository;
@@ -12,11 +13,17 @@ import com.smartcampus.attendance.service.AttendanceService;
 import com.smartcampus.attendance.service.NotificationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -25,145 +32,185 @@ import java.util.stream.Collectors;
 public class AbsenceWarningScheduler {
 
     private final AttendanceSessionRepository sessionRepository;
-    private final AttendanceRecordRepository recordRepository;
+    private final AttendanceRecordJdbcRepository attendanceRecordJdbcRepository;
     private final CourseSectionInfoRepository courseSectionInfoRepository;
     private final StudentInfoRepository studentInfoRepository;
     private final NotificationService notificationService;
     private final AttendanceService attendanceService;
+    private final ActiveSessionRegistry activeSessionRegistry;
+    private final LiveAttendanceBroadcaster liveAttendanceBroadcaster;
 
     private static final int WARNING_THRESHOLD_PERCENT = 30;
     private static final int CRITICAL_THRESHOLD_PERCENT = 50;
 
+    @Value("${attendance.auto-close.batch-size:200}")
+    private int autoCloseBatchSize;
+
+    @Value("${attendance.auto-close.parallelism:4}")
+    private int autoCloseParallelism;
+
     @Scheduled(cron = "0 0 8 * * MON")
     public void checkWeeklyAbsenceWarnings() {
         log.info("Haftalık devamsızlık kontrolü başlatıldı...");
-        
-        List<AttendanceSession> allSessions = sessionRepository.findAll();
-        
-        Map<Long, List<AttendanceSession>> sessionsBySectionId = allSessions.stream()
-                .collect(Collectors.groupingBy(AttendanceSession::getSectionId));
-        
-        List<Long> allSectionIds = new ArrayList<>(sessionsBySectionId.keySet());
-        Map<Long, CourseSectionInfo> sectionInfoMap = courseSectionInfoRepository.findBySectionIds(allSectionIds);
-        
-        int warningCount = 0;
-        int criticalCount = 0;
-        
-        for (Map.Entry<Long, List<AttendanceSession>> entry : sessionsBySectionId.entrySet()) {
-            Long sectionId = entry.getKey();
-            List<AttendanceSession> sectionSessions = entry.getValue();
-            
-            if (sectionSessions.isEmpty()) continue;
-            
-            CourseSectionInfo sectionInfo = sectionInfoMap.get(sectionId);
-            
-            int totalSessions = sectionSessions.size();
-            List<Long> sessionIds = sectionSessions.stream()
-                    .map(AttendanceSession::getId)
-                    .collect(Collectors.toList());
-            
-            List<Long> studentIds = recordRepository.findDistinctStudentIdsBySectionId(sectionId);
-            Map<Long, StudentInfoRepository.StudentInfo> studentInfoMap = studentInfoRepository.findByStudentIds(studentIds);
-            
-            for (Long studentId : studentIds) {
-                AbsenceStats stats = calculateAbsenceStats(studentId, sessionIds, totalSessions);
-                StudentInfoRepository.StudentInfo studentInfo = studentInfoMap.get(studentId);
-                
-                if (stats.absencePercent >= CRITICAL_THRESHOLD_PERCENT) {
-                    logCriticalWarning(studentId, sectionId, stats);
-                    if (studentInfo != null && sectionInfo != null) {
-                        notificationService.sendCriticalAbsenceEmail(
-                                studentInfo.getEmail(),
-                                studentInfo.getFullName(),
-                                sectionInfo.getCourseCode(),
-                                sectionInfo.getCourseName(),
-                                stats.absentCount,
-                                stats.totalSessions,
-                                stats.absencePercent);
-                    }
-                    criticalCount++;
-                } else if (stats.absencePercent >= WARNING_THRESHOLD_PERCENT) {
-                    logWarning(studentId, sectionId, stats);
-                    if (studentInfo != null && sectionInfo != null) {
-                        notificationService.sendAbsenceWarningEmail(
-                                studentInfo.getEmail(),
-                                studentInfo.getFullName(),
-                                sectionInfo.getCourseCode(),
-                                sectionInfo.getCourseName(),
-                                stats.absentCount,
-                                stats.totalSessions,
-                                stats.absencePercent);
-                    }
-                    warningCount++;
+
+        // Sadece içinde bulunulan dönemin section'ları kontrol edilir
+        LocalDate today = LocalDate.now();
+        String semester = resolveSemester(today);
+        int year = resolveSemesterYear(today);
+        log.info("Kontrol edilen dönem: {} {}", semester, year);
+
+        // Öğrenci/section bazındaki sayılar tek sorguda akıtılır; imleç açıkken sadece eşik kontrolü yapılır.
+        // Öğrenci/ders bilgisi ve e-postalar sorgu bağlantısı kapandıktan sonra section bazında işlenir
+        Map<Long, List<AttendanceRecordJdbcRepository.StudentSectionCounts>> flaggedBySection = new LinkedHashMap<>();
+        attendanceRecordJdbcRepository.streamStudentSectionCounts(semester, year, row -> {
+            if (toAbsenceStats(row).absencePercent >= WARNING_THRESHOLD_PERCENT) {
+                flaggedBySection.computeIfAbsent(row.getSectionId(), id -> new ArrayList<>()).add(row);
+            }
+        });
+
+        int[] totals = new int[2];
+        flaggedBySection.forEach((sectionId, flagged) -> processFlaggedSection(sectionId, flagged, totals));
+
+        log.info("Haftalık devamsızlık kontrolü tamamlandı. Uyarı: {}, Kritik: {}", 
+                totals[0], totals[1]);
+    }
+
+    /**
+     * Tek bir section'da eşik değeri aşan öğrencileri bildirir.
+     * Öğrenci ve ders bilgileri section başına toplu olarak çekilir.
+     */
+    private void processFlaggedSection(Long sectionId,
+                                       List<AttendanceRecordJdbcRepository.StudentSectionCounts> flagged,
+                                       int[] totals) {
+        CourseSectionInfo sectionInfo = courseSectionInfoRepository.findBySectionId(sectionId);
+        List<Long> studentIds = flagged.stream()
+                .map(AttendanceRecordJdbcRepository.StudentSectionCounts::getStudentId)
+                .collect(Collectors.toList());
+        Map<Long, StudentInfoRepository.StudentInfo> studentInfoMap = studentInfoRepository.findByStudentIds(studentIds);
+
+        for (AttendanceRecordJdbcRepository.StudentSectionCounts counts : flagged) {
+            Long studentId = counts.getStudentId();
+            AbsenceStats stats = toAbsenceStats(counts);
+            StudentInfoRepository.StudentInfo studentInfo = studentInfoMap.get(studentId);
+
+            if (stats.absencePercent >= CRITICAL_THRESHOLD_PERCENT) {
+                logCriticalWarning(studentId, sectionId, stats);
+                if (studentInfo != null && sectionInfo != null) {
+                    notificationService.sendCriticalAbsenceEmail(
+                            studentInfo.getEmail(),
+                            studentInfo.getFullName(),
+                            sectionInfo.getCourseCode(),
+                            sectionInfo.getCourseName(),
+                            stats.absentCount,
+                            stats.totalSessions,
+                            stats.absencePercent);
+                }
+                totals[1]++;
+            } else {
+                logWarning(studentId, sectionId, stats);
+                if (studentInfo != null && sectionInfo != null) {
+                    notificationService.sendAbsenceWarningEmail(
+                            studentInfo.getEmail(),
+                            studentInfo.getFullName(),
+                            sectionInfo.getCourseCode(),
+                            sectionInfo.getCourseName(),
+                            stats.absentCount,
+                            stats.totalSessions,
+                            stats.absencePercent);
                 }
+                totals[0]++;
             }
         }
-        
-        log.info("Haftalık devamsızlık kontrolü tamamlandı. Uyarı: {}, Kritik: {}", 
-                warningCount, criticalCount);
     }
 
     @Scheduled(cron = "0 0 0 * * *")
     public void autoCloseExpiredSessions() {
         log.info("Süresi geçen oturumlar kontrol ediliyor...");
         
-        List<AttendanceSession> allSessions = sessionRepository.findAll();
         LocalDate today = LocalDate.now();
         int closedCount = 0;
+        ExecutorService executor = Executors.newFixedThreadPool(autoCloseParallelism);
         
-        for (AttendanceSession session : allSessions) {
-            if (session.getSessionDate().isBefore(today) && 
-                session.getStatus() == com.smartcampus.attendance.entity.SessionStatus.ACTIVE) {
-                session.setStatus(com.smartcampus.attendance.entity.SessionStatus.CLOSED);
-                sessionRepository.save(session);
-                
-                // Yoklama vermeyen öğrenciler için otomatik devamsızlık kaydı oluştur
-                try {
-                    attendanceService.createAbsentRecordsForMissingStudents(session);
-                } catch (Exception e) {
-                    log.error("Otomatik kapatılan oturum için devamsızlık kaydı oluşturulurken hata - sessionId: {}, error: {}", 
-                            session.getId(), e.getMessage(), e);
+        try {
+            while (true) {
+                // Sadece süresi geçmiş aktif oturumlar, sınırlı parçalar halinde okunur
+                List<AttendanceSession> batch = sessionRepository.findExpiredSessions(
+                        SessionStatus.ACTIVE, today, PageRequest.of(0, autoCloseBatchSize));
+                if (batch.isEmpty()) {
+                    break;
                 }
                 
-                closedCount++;
+                List<Long> sessionIds = batch.stream()
+                        .map(AttendanceSession::getId)
+                        .collect(Collectors.toList());
+                int updatedCount = sessionRepository.updateStatusByIds(
+                        sessionIds, SessionStatus.CLOSED, LocalDateTime.now());
+                activeSessionRegistry.evictAll(sessionIds);
+                sessionIds.forEach(liveAttendanceBroadcaster::publishClosed);
+                closedCount += updatedCount;
+                
+                // Yoklama vermeyen öğrenciler için otomatik devamsızlık kaydı oluştur (paralel)
+                CompletableFuture<?>[] futures = batch.stream()
+                        .map(session -> CompletableFuture.runAsync(() -> createAbsentRecords(session), executor))
+                        .toArray(CompletableFuture[]::new);
+                CompletableFuture.allOf(futures).join();
+                
+                if (updatedCount == 0 || batch.size() < autoCloseBatchSize) {
+                    break;
+                }
             }
+        } finally {
+            executor.shutdown();
         }
         
         log.info("{} adet oturum otomatik olarak kapatıldı", closedCount);
     }
 
-    private AbsenceStats calculateAbsenceStats(Long studentId, List<Long> sessionIds, int totalSessions) {
-        List<AttendanceRecord> records = recordRepository.findBySessionIdsAndStudentId(sessionIds, studentId);
-        
-        long absentCount = records.stream()
-                .filter(r -> r.getStatus() == AttendanceStatus.ABSENT)
-                .count();
-        
-        long excusedCount = records.stream()
-                .filter(r -> r.getStatus() == AttendanceStatus.EXCUSED)
-                .count();
-        
-        long presentCount = records.stream()
-                .filter(r -> r.getStatus() == AttendanceStatus.PRESENT)
-                .count();
-        
-        long lateCount = records.stream()
-                .filter(r -> r.getStatus() == AttendanceStatus.LATE)
-                .count();
-        
+    private void createAbsentRecords(AttendanceSession session) {
+        try {
+            attendanceService.createAbsentRecordsForMissingStudents(session);
+        } catch (Exception e) {
+            log.error("Otomatik kapatılan oturum için devamsızlık kaydı oluşturulurken hata - sessionId: {}, error: {}", 
+                    session.getId(), e.getMessage(), e);
+        }
+    }
+
+    private AbsenceStats toAbsenceStats(AttendanceRecordJdbcRepository.StudentSectionCounts counts) {
+        int totalSessions = counts.getTotalSessions();
         double absencePercent = totalSessions > 0 ? 
-                (double) absentCount / totalSessions * 100 : 0;
+                (double) counts.getAbsentCount() / totalSessions * 100 : 0;
         
         return new AbsenceStats(
-                (int) absentCount, 
-                (int) excusedCount, 
-                (int) presentCount, 
-                (int) lateCount,
+                counts.getAbsentCount(), 
+                counts.getExcusedCount(), 
+                counts.getPresentCount(), 
+                counts.getLateCount(),
                 totalSessions,
                 absencePercent
         );
     }
 
+    /**
+     * Tarihe göre akademik dönemi belirler: Eylül-Ocak FALL, Şubat-Haziran SPRING, Temmuz-Ağustos SUMMER
+     */
+    private String resolveSemester(LocalDate date) {
+        int month = date.getMonthValue();
+        if (month >= 2 && month <= 6) {
+            return "SPRING";
+        }
+        if (month == 7 || month == 8) {
+            return "SUMMER";
+        }
+        return "FALL";
+    }
+
+    /**
+     * Ocak ayı bir önceki yılın FALL dönemine aittir
+     */
+    private int resolveSemesterYear(LocalDate date) {
+        return date.getMonthValue() == 1 ? date.getYear() - 1 : date.getYear();
+    }
+
     private void logWarning(Long studentId, Long sectionId, AbsenceStats stats) {
         log.warn("DEVAMSIZLIK UYARISI - Öğrenci: {}, Section: {}, " +
                 "Devamsız: {}/{} ({}%), Mazeretli: {}", 
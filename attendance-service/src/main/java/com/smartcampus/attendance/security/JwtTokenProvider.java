@@ -1,52 +1,77 @@
 package com.smartcampus.attendance.security;
 
+import com.smartcampus.attendance.cache.BoundedCache;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Component
 public class JwtTokenProvider {
 
     private final SecretKey secretKey;
+    private final JwtParser jwtParser;
 
-    public JwtTokenProvider(@Value("${jwt.secret}") String secret) {
+    private final BoundedCache<String, TokenClaims> claimsCache;
+
+    public JwtTokenProvider(@Value("${jwt.secret}") String secret,
+                            @Value("${jwt.claims-cache.max-size:10000}") int claimsCacheMaxSize) {
         // Auth-service ile aynı encoding kullan: BASE64 decode
         byte[] keyBytes = Decoders.BASE64.decode(secret);
         this.secretKey = Keys.hmacShaKeyFor(keyBytes);
+        this.jwtParser = Jwts.parser()
+                .verifyWith(secretKey)
+                .build();
+        this.claimsCache = new BoundedCache<>(claimsCacheMaxSize);
     }
 
-    public Long getUserIdFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    /**
+     * Token'ı tek seferde doğrular ve claim'lerini değişmez bir nesne olarak döner.
+     * Aynı token için sonraki çağrılar (ör. polling yapan istemciler) imza doğrulaması ve
+     * JSON parse yapmadan cache'ten karşılanır. Kayıtlar token'ın süresi dolunca geçersiz olur.
+     * Cache anahtarı token'ın kendisidir; eşitlik tam karşılaştırmayla yapıldığı için
+     * imzası doğrulanmamış bir token cache'ten sonuç alamaz.
+     *
+     * @throws JwtException token geçersiz veya süresi dolmuşsa
+     * @throws IllegalArgumentException token boşsa
+     */
+    public TokenClaims parseToken(String token) {
+        TokenClaims cached = token != null ? claimsCache.get(token) : null;
+        if (cached != null && !cached.isExpired()) {
+            return cached;
+        }
 
-        return Long.parseLong(claims.getSubject());
+        TokenClaims parsed = new TokenClaims(jwtParser.parseSignedClaims(token).getPayload());
+        claimsCache.put(token, parsed, Math.max(1, parsed.getExpiresAtMillis() - System.currentTimeMillis()),
+                TimeUnit.MILLISECONDS);
+        return parsed;
+    }
+
+    public Long getUserIdFromToken(String token) {
+        return Long.parseLong(parseToken(token).getSubject());
     }
 
     public String getRoleFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parseToken(token).getRole();
+    }
 
-        return claims.get("role", String.class);
+    /**
+     * active claim'i olmayan eski token'lar aktif kabul edilir (devre dışı bırakma iptal listesiyle yakalanır).
+     */
+    public boolean isActiveFromToken(String token) {
+        return parseToken(token).isActive();
     }
 
     public boolean validateToken(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(secretKey)
-                    .build()
-                    .parseSignedClaims(token);
+            parseToken(token);
             return true;
         } catch (MalformedJwtException ex) {
             log.error("Invalid JWT token");
@@ -61,4 +86,40 @@ public class JwtTokenProvider {
         }
         return false;
     }
+
+    /**
+     * Doğrulanmış access token claim'leri.
+     */
+    @Getter
+    public static final class TokenClaims {
+        private final String subject;
+        private final Long userId;
+        private final String email;
+        private final String role;
+        private final boolean active;
+        private final long expiresAtMillis;
+
+        private TokenClaims(Claims claims) {
+            this.subject = claims.getSubject();
+            this.userId = parseUserId(subject);
+            this.email = claims.get("email", String.class);
+            this.role = claims.get("role", String.class);
+            // active claim'i olmayan eski token'lar aktif kabul edilir (devre dışı bırakma iptal listesiyle yakalanır)
+            this.active = !Boolean.FALSE.equals(claims.get("active", Boolean.class));
+            this.expiresAtMillis = claims.getExpiration() != null ? claims.getExpiration().getTime() : Long.MAX_VALUE;
+        }
+
+        public boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAtMillis;
+        }
+
+        private static Long parseUserId(String subject) {
+            try {
+                return subject != null ? Long.parseLong(subject) : null;
+            } catch (NumberFormatException e) {
+                // Subject email ise userId yoktur
+                return null;
+            }
+        }
+    }
 }
@@ -0,0 +1,67 @@
+package com.smartcampus.attendance.security;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Devre dışı bırakılmış veya silinmiş kullanıcıların id listesi.
+ * JWT doğrulaması sadece token claim'leriyle yapıldığı için hesap durumu değişiklikleri
+ * bu liste üzerinden yakalanır. Liste arka planda periyodik olarak yenilenir,
+ * istek yolunda veritabanına gidilmez.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RevokedUserRegistry {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${security.revocation.refresh-seconds:30}")
+    private long refreshSeconds;
+
+    private volatile Set<Long> revokedUserIds = Set.of();
+    private ScheduledExecutorService refresher;
+
+    @PostConstruct
+    public void init() {
+        refresh();
+        refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "revoked-user-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresher.scheduleWithFixedDelay(this::refresh, refreshSeconds, refreshSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    public boolean isRevoked(Long userId) {
+        return userId != null && revokedUserIds.contains(userId);
+    }
+
+    void refresh() {
+        try {
+            String sql = "SELECT id FROM users WHERE is_active = false OR deleted_at IS NOT NULL";
+            revokedUserIds = Set.copyOf(jdbcTemplate.queryForList(sql, Long.class));
+            log.debug("İptal listesi yenilendi - {} kullanıcı", revokedUserIds.size());
+        } catch (Exception e) {
+            // Son başarılı liste kullanılmaya devam eder
+            log.warn("İptal listesi yenilenemedi: {}", e.getMessage());
+        }
+    }
+}
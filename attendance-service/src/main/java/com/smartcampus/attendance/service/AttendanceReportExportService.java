@@ -0,0 +1,161 @@
+package com.smartcampus.attendance.service;
+
+import com.smartcampus.attendance.dto.response.AttendanceReportResponse.StudentAttendance;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * Yoklama raporunu CSV veya Excel olarak yanıt gövdesine akıtır.
+ * Yetki kontrolü istek thread'inde yapılır; satırlar veritabanından okundukça yazılır,
+ * rapor bellekte liste veya byte dizisi olarak biriktirilmez.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AttendanceReportExportService {
+
+    private static final String[] HEADERS = {
+            "Öğrenci No", "Ad", "Soyad", "Katıldı", "Katılmadı", "Mazeretli",
+            "Katılım (%)", "Durum", "İşaretli", "İşaret Nedeni"
+    };
+
+    // SXSSF bellekte bu kadar satır tutar, eskileri geçici dosyaya yazar
+    private static final int EXCEL_ROW_WINDOW = 100;
+
+    private final AttendanceService attendanceService;
+
+    public StreamingResponseBody exportToCsv(Long instructorId, Long sectionId, LocalDate startDate,
+            LocalDate endDate) {
+        int totalSessions = attendanceService.countReportSessions(instructorId, sectionId, startDate, endDate);
+
+        return out -> {
+            BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            // Excel'in Türkçe karakterleri doğru açması için UTF-8 BOM
+            writer.write('\uFEFF');
+            writeCsvLine(writer, HEADERS);
+
+            if (totalSessions > 0) {
+                try {
+                    attendanceService.streamAttendanceReport(sectionId, startDate, endDate, totalSessions,
+                            student -> {
+                                try {
+                                    writeCsvLine(writer, toColumns(student));
+                                } catch (IOException e) {
+                                    throw new UncheckedIOException(e);
+                                }
+                            });
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+            }
+            writer.flush();
+            log.info("Yoklama raporu CSV olarak export edildi - sectionId: {}", sectionId);
+        };
+    }
+
+    public StreamingResponseBody exportToExcel(Long instructorId, Long sectionId, LocalDate startDate,
+            LocalDate endDate) {
+        int totalSessions = attendanceService.countReportSessions(instructorId, sectionId, startDate, endDate);
+
+        return out -> {
+            SXSSFWorkbook workbook = new SXSSFWorkbook(EXCEL_ROW_WINDOW);
+            try {
+                Sheet sheet = workbook.createSheet("Yoklama Raporu");
+
+                CellStyle headerStyle = workbook.createCellStyle();
+                Font headerFont = workbook.createFont();
+                headerFont.setBold(true);
+                headerStyle.setFont(headerFont);
+
+                Row headerRow = sheet.createRow(0);
+                for (int i = 0; i < HEADERS.length; i++) {
+                    Cell cell = headerRow.createCell(i);
+                    cell.setCellValue(HEADERS[i]);
+                    cell.setCellStyle(headerStyle);
+                }
+
+                if (totalSessions > 0) {
+                    int[] rowNum = {1};
+                    attendanceService.streamAttendanceReport(sectionId, startDate, endDate, totalSessions,
+                            student -> writeExcelRow(sheet.createRow(rowNum[0]++), student));
+                }
+
+                workbook.write(out);
+                log.info("Yoklama raporu Excel olarak export edildi - sectionId: {}", sectionId);
+            } finally {
+                // Geçici dosyaları sil
+                workbook.dispose();
+                workbook.close();
+            }
+        };
+    }
+
+    private static void writeExcelRow(Row row, StudentAttendance student) {
+        row.createCell(0).setCellValue(nullToEmpty(student.getStudentNumber()));
+        row.createCell(1).setCellValue(nullToEmpty(student.getFirstName()));
+        row.createCell(2).setCellValue(nullToEmpty(student.getLastName()));
+        row.createCell(3).setCellValue(student.getPresentCount());
+        row.createCell(4).setCellValue(student.getAbsentCount());
+        row.createCell(5).setCellValue(student.getExcusedCount());
+        row.createCell(6).setCellValue(student.getAttendancePercentage());
+        row.createCell(7).setCellValue(student.getStatus());
+        row.createCell(8).setCellValue(Boolean.TRUE.equals(student.getIsFlagged()) ? "Evet" : "Hayır");
+        row.createCell(9).setCellValue(nullToEmpty(student.getFlagReason()));
+    }
+
+    private static String[] toColumns(StudentAttendance student) {
+        return new String[]{
+                nullToEmpty(student.getStudentNumber()),
+                nullToEmpty(student.getFirstName()),
+                nullToEmpty(student.getLastName()),
+                String.valueOf(student.getPresentCount()),
+                String.valueOf(student.getAbsentCount()),
+                String.valueOf(student.getExcusedCount()),
+                String.valueOf(student.getAttendancePercentage()),
+                student.getStatus(),
+                Boolean.TRUE.equals(student.getIsFlagged()) ? "Evet" : "Hayır",
+                nullToEmpty(student.getFlagReason())
+        };
+    }
+
+    private static void writeCsvLine(BufferedWriter writer, String[] columns) throws IOException {
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeCsvValue(writer, columns[i]);
+        }
+        writer.write("\r\n");
+    }
+
+    private static void writeCsvValue(BufferedWriter writer, String value) throws IOException {
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+}
@@ -7,9 +7,12 @@ import com.smartcampus.attendance.dto.response.*;
 import com.smartcampus.attendance.entity.AttendanceSession;
 import com.smartcampus.attendance.entity.SessionStatus;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface AttendanceService {
 
@@ -19,12 +22,28 @@ public interface AttendanceService {
 
     SessionResponse closeSession(Long instructorId, Long sessionId);
 
+    /**
+     * Aktif oturumun canlı yoklama olaylarını (anlık sayaç ve yeni check-in'ler) SSE akışı olarak döner
+     */
+    Flux<ServerSentEvent<LiveAttendanceEvent>> streamSessionEvents(Long instructorId, Long sessionId);
+
     PageResponse<SessionResponse> getMySessions(Long instructorId, Long sectionId, SessionStatus status,
             LocalDate startDate, LocalDate endDate, Pageable pageable);
 
     AttendanceReportResponse getAttendanceReport(Long instructorId, Long sectionId, LocalDate startDate,
             LocalDate endDate);
 
+    /**
+     * Rapor aralığındaki oturum sayısını döner; oturumlar öğretim üyesine ait değilse ForbiddenException fırlatır
+     */
+    int countReportSessions(Long instructorId, Long sectionId, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Öğrenci bazında rapor satırlarını listede biriktirmeden consumer'a aktarır
+     */
+    void streamAttendanceReport(Long sectionId, LocalDate startDate, LocalDate endDate, int totalSessions,
+            Consumer<AttendanceReportResponse.StudentAttendance> consumer);
+
     CheckInResponse checkIn(Long studentId, Long sessionId, CheckInRequest request, String ipAddress);
 
     CheckInResponse checkInWithQr(Long studentId, Long sessionId, CheckInQrRequest request, String ipAddress);
@@ -40,6 +59,7 @@ public interface AttendanceService {
     
     /**
      * Session'a yoklama vermeyen öğrenciler için otomatik ABSENT kaydı oluşturur
+     * @return oluşturulan devamsızlık kaydı sayısı
      */
-    void createAbsentRecordsForMissingStudents(AttendanceSession session);
+    int createAbsentRecordsForMissingStudents(AttendanceSession session);
 }
@@ -1,5 +1,8 @@
 package com.smartcampus.attendance.service.impl;
 
+import com.smartcampus.attendance.cache.ActiveSessionRegistry;
+import com.smartcampus.attendance.cache.SectionRosterCache;
+import com.smartcampus.attendance.cache.StudentIdentityCache;
 import com.smartcampus.attendance.dto.request.CheckInQrRequest;
 import com.smartcampus.attendance.dto.request.CheckInRequest;
 import com.smartcampus.attendance.dto.request.CreateSessionRequest;
@@ -8,29 +11,38 @@ import com.smartcampus.attendance.entity.*;
 import com.smartcampus.attendance.exception.BadRequestException;
 import com.smartcampus.attendance.exception.ForbiddenException;
 import com.smartcampus.attendance.exception.ResourceNotFoundException;
+import com.smartcampus.attendance.live.LiveAttendanceBroadcaster;
+import com.smartcampus.attendance.repository.AttendanceRecordJdbcRepository;
 import com.smartcampus.attendance.repository.AttendanceRecordRepository;
 import com.smartcampus.attendance.repository.AttendanceSessionRepository;
 import com.smartcampus.attendance.repository.CourseSectionInfoRepository;
 import com.smartcampus.attendance.repository.ExcuseRequestRepository;
 import com.smartcampus.attendance.service.AttendanceService;
+import com.smartcampus.attendance.util.GeofenceEvaluator;
 import com.smartcampus.attendance.util.GpsUtils;
 import com.smartcampus.attendance.util.IpValidator;
 import com.smartcampus.attendance.util.QrCodeGenerator;
 import com.smartcampus.attendance.util.SpoofingDetector;
+import com.smartcampus.attendance.writebehind.CheckInWriteBehindQueue;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import reactor.core.publisher.Flux;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
-import org.springframework.jdbc.core.JdbcTemplate;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -39,20 +51,22 @@ public class AttendanceServiceImpl implements AttendanceService {
 
     private final AttendanceSessionRepository sessionRepository;
     private final AttendanceRecordRepository recordRepository;
+    private final AttendanceRecordJdbcRepository attendanceRecordJdbcRepository;
     private final ExcuseRequestRepository excuseRequestRepository;
     private final CourseSectionInfoRepository courseSectionInfoRepository;
-    private final JdbcTemplate jdbcTemplate;
     private final GpsUtils gpsUtils;
     private final QrCodeGenerator qrCodeGenerator;
     private final SpoofingDetector spoofingDetector;
     private final IpValidator ipValidator;
+    private final ActiveSessionRegistry activeSessionRegistry;
+    private final StudentIdentityCache studentIdentityCache;
+    private final SectionRosterCache sectionRosterCache;
+    private final CheckInWriteBehindQueue checkInWriteBehindQueue;
+    private final LiveAttendanceBroadcaster liveAttendanceBroadcaster;
 
     @Value("${attendance.default-geofence-radius:15}")
     private int defaultGeofenceRadius;
 
-    @Value("${attendance.qr-code-refresh-interval:5}")
-    private int qrCodeRefreshInterval;
-
     // Varsayılan kampüs koordinatları (İstanbul)
     @Value("${attendance.default-latitude:41.0082}")
     private double defaultLatitude;
@@ -174,6 +188,8 @@ public class AttendanceServiceImpl implements AttendanceService {
         session.setStatus(SessionStatus.CLOSED);
         session.setEndTime(LocalTime.now());
         session = sessionRepository.save(session);
+        activeSessionRegistry.evict(sessionId);
+        liveAttendanceBroadcaster.publishClosed(sessionId);
 
         // Yoklama vermeyen öğrenciler için otomatik devamsızlık kaydı oluştur
         createAbsentRecordsForMissingStudents(session);
@@ -184,93 +200,72 @@ public class AttendanceServiceImpl implements AttendanceService {
     /**
      * Session'a yoklama vermeyen öğrenciler için otomatik ABSENT kaydı oluşturur
      * Public yapıldı çünkü scheduler'dan da çağrılması gerekiyor
+     * Section kadrosu cache'ten okunur; yoklama verenler sıralı diziye alınıp ikili aramayla ayrılır
+     * Write-behind açıksa kuyruk önce boşaltılır ve hâlâ yazılamamış check-in'ler de yoklama vermiş sayılır
      */
-    public void createAbsentRecordsForMissingStudents(AttendanceSession session) {
+    public int createAbsentRecordsForMissingStudents(AttendanceSession session) {
         try {
             log.info("Yoklama vermeyen öğrenciler için devamsızlık kaydı oluşturuluyor - sessionId: {}, sectionId: {}",
                     session.getId(), session.getSectionId());
 
-            // Section'a kayıtlı öğrencileri bul (enrollments tablosundan, status =
-            // ENROLLED)
-            String sql = "SELECT DISTINCT e.student_id FROM enrollments e " +
-                    "WHERE e.section_id = ? AND e.status = 'ENROLLED'";
-            List<Long> enrolledStudentIds = jdbcTemplate.queryForList(sql, Long.class, session.getSectionId());
-
-            if (enrolledStudentIds.isEmpty()) {
-                log.info("Section'a kayıtlı öğrenci bulunamadı - sectionId: {}", session.getSectionId());
-                return;
-            }
-
-            log.info("Section'a kayıtlı {} öğrenci bulundu", enrolledStudentIds.size());
-
-            // Bu session'a yoklama vermiş öğrencileri bul
-            List<AttendanceRecord> existingRecords = recordRepository.findBySessionId(session.getId());
-            Set<Long> checkedInStudentIds = existingRecords.stream()
-                    .map(AttendanceRecord::getStudentId)
-                    .collect(Collectors.toSet());
-
-            log.info("Bu session'a {} öğrenci yoklama vermiş", checkedInStudentIds.size());
-
-            // Yoklama vermeyen öğrencileri bul
-            List<Long> absentStudentIds = enrolledStudentIds.stream()
-                    .filter(studentId -> !checkedInStudentIds.contains(studentId))
-                    .collect(Collectors.toList());
-
-            if (absentStudentIds.isEmpty()) {
-                log.info("Tüm öğrenciler yoklama vermiş, devamsızlık kaydı oluşturulmayacak");
-                return;
-            }
-
-            log.info("{} öğrenci için devamsızlık kaydı oluşturuluyor", absentStudentIds.size());
-
-            // Yoklama vermeyen her öğrenci için ABSENT kaydı oluştur
-            int createdCount = 0;
-            for (Long studentId : absentStudentIds) {
+            Set<Long> pendingCheckIns = Set.of();
+            if (checkInWriteBehindQueue.isEnabled()) {
                 try {
-                    // Zaten kayıt var mı kontrol et (çift kayıt önleme)
-                    Optional<AttendanceRecord> existing = recordRepository.findBySessionIdAndStudentId(
-                            session.getId(), studentId);
-                    if (existing.isPresent()) {
-                        log.debug("Öğrenci için zaten kayıt var, atlanıyor - studentId: {}", studentId);
-                        continue;
-                    }
+                    checkInWriteBehindQueue.flushNow();
+                } catch (RuntimeException e) {
+                    log.warn("Oturum kapatılırken write-behind kuyruğu yazılamadı - sessionId: {}, error: {}",
+                            session.getId(), e.getMessage());
+                }
+                pendingCheckIns = checkInWriteBehindQueue.getPendingStudentIds(session.getId());
+            }
 
-                    AttendanceRecord absentRecord = AttendanceRecord.builder()
-                            .sessionId(session.getId())
-                            .studentId(studentId)
-                            .status(AttendanceStatus.ABSENT)
-                            .checkInTime(null) // Yoklama verilmediği için null
-                            .checkInMethod(null)
-                            .latitude(null)
-                            .longitude(null)
-                            .distanceFromClassroom(null)
-                            .gpsAccuracy(null)
-                            .isFlagged(false)
-                            .flagReason(null)
-                            .ipAddress(null)
-                            .deviceInfo(null)
-                            .build();
-
-                    recordRepository.save(absentRecord);
-                    createdCount++;
-                    log.debug("Devamsızlık kaydı oluşturuldu - sessionId: {}, studentId: {}",
-                            session.getId(), studentId);
-                } catch (Exception e) {
-                    log.error("Öğrenci için devamsızlık kaydı oluşturulurken hata - studentId: {}, error: {}",
-                            studentId, e.getMessage(), e);
-                    // Bir öğrenci için hata olsa bile diğerlerini işlemeye devam et
+            long[] roster = sectionRosterCache.getRoster(session.getSectionId());
+            long[] checkedIn = Stream.concat(
+                            recordRepository.findStudentIdsBySessionId(session.getId()).stream(),
+                            pendingCheckIns.stream())
+                    .mapToLong(Long::longValue)
+                    .sorted()
+                    .toArray();
+
+            long[] missing = new long[roster.length];
+            int missingCount = 0;
+            for (long studentId : roster) {
+                if (Arrays.binarySearch(checkedIn, studentId) < 0) {
+                    missing[missingCount++] = studentId;
                 }
             }
 
+            int createdCount = attendanceRecordJdbcRepository.insertAbsentRecords(
+                    session.getId(), Arrays.copyOf(missing, missingCount));
+
             log.info("{} öğrenci için devamsızlık kaydı başarıyla oluşturuldu - sessionId: {}",
                     createdCount, session.getId());
+            return createdCount;
 
         } catch (Exception e) {
             log.error(
                     "Yoklama vermeyen öğrenciler için devamsızlık kaydı oluşturulurken hata - sessionId: {}, error: {}",
                     session.getId(), e.getMessage(), e);
             // Hata olsa bile session kapatma işlemini tamamla
+            return 0;
+        }
+    }
+
+    @Override
+    public Flux<ServerSentEvent<LiveAttendanceEvent>> streamSessionEvents(Long instructorId, Long sessionId) {
+        ActiveSessionRegistry.ActiveSession session = activeSessionRegistry.getSession(sessionId);
+
+        if (!session.getInstructorId().equals(instructorId)) {
+            throw new ForbiddenException("Bu oturumu izleme yetkiniz yok");
         }
+
+        if (session.getStatus() != SessionStatus.ACTIVE) {
+            throw new BadRequestException("Oturum aktif değil", "SESSION_NOT_ACTIVE");
+        }
+
+        // Sayaç ilk abonede bellekteki oturum kaydından başlatılır, sonrasında check-in'lerle güncellenir
+        return liveAttendanceBroadcaster.subscribe(sessionId,
+                () -> activeSessionRegistry.getSession(sessionId).getCheckedInCount());
     }
 
     @Override
@@ -279,9 +274,7 @@ public class AttendanceServiceImpl implements AttendanceService {
         Page<AttendanceSession> sessions = sessionRepository.findByInstructorIdWithFilters(
                 instructorId, sectionId, status, startDate, endDate, pageable);
 
-        List<SessionResponse> content = sessions.getContent().stream()
-                .map(this::mapToSessionResponse)
-                .toList();
+        List<SessionResponse> content = mapToSessionResponses(sessions.getContent(), null, false);
 
         return PageResponse.from(sessions, content);
     }
@@ -289,9 +282,9 @@ public class AttendanceServiceImpl implements AttendanceService {
     @Override
     public AttendanceReportResponse getAttendanceReport(Long instructorId, Long sectionId,
             LocalDate startDate, LocalDate endDate) {
-        List<AttendanceSession> sessions = sessionRepository.findBySectionIdAndDateRange(sectionId, startDate, endDate);
+        int totalSessions = countReportSessions(instructorId, sectionId, startDate, endDate);
 
-        if (sessions.isEmpty()) {
+        if (totalSessions == 0) {
             return AttendanceReportResponse.builder()
                     .sectionId(sectionId)
                     .totalSessions(0)
@@ -299,85 +292,78 @@ public class AttendanceServiceImpl implements AttendanceService {
                     .build();
         }
 
-        if (!sessions.get(0).getInstructorId().equals(instructorId)) {
-            throw new ForbiddenException("Bu dersin raporunu görüntüleme yetkiniz yok");
-        }
+        List<AttendanceReportResponse.StudentAttendance> studentAttendances = new ArrayList<>();
+        streamAttendanceReport(sectionId, startDate, endDate, totalSessions, studentAttendances::add);
 
-        List<Long> sessionIds = sessions.stream().map(AttendanceSession::getId).toList();
-        List<AttendanceRecord> allRecords = recordRepository.findBySessionIds(sessionIds);
+        CourseSectionInfo sectionInfo = courseSectionInfoRepository.findBySectionId(sectionId);
 
-        Map<Long, List<AttendanceRecord>> recordsByStudent = new HashMap<>();
-        for (AttendanceRecord record : allRecords) {
-            recordsByStudent.computeIfAbsent(record.getStudentId(), k -> new ArrayList<>()).add(record);
+        return AttendanceReportResponse.builder()
+                .sectionId(sectionId)
+                .courseCode(sectionInfo != null ? sectionInfo.getCourseCode() : null)
+                .courseName(sectionInfo != null ? sectionInfo.getCourseName() : null)
+                .totalSessions(totalSessions)
+                .students(studentAttendances)
+                .build();
+    }
+
+    @Override
+    public int countReportSessions(Long instructorId, Long sectionId, LocalDate startDate, LocalDate endDate) {
+        AttendanceRecordJdbcRepository.SectionReportSummary summary = attendanceRecordJdbcRepository
+                .findSectionReportSummary(sectionId, instructorId, startDate, endDate);
+
+        if (summary.getTotalSessions() > 0 && !summary.isOwnedByInstructor()) {
+            throw new ForbiddenException("Bu dersin raporunu görüntüleme yetkiniz yok");
         }
+        return summary.getTotalSessions();
+    }
 
-        List<AttendanceReportResponse.StudentAttendance> studentAttendances = new ArrayList<>();
-        for (Map.Entry<Long, List<AttendanceRecord>> entry : recordsByStudent.entrySet()) {
-            Long studentId = entry.getKey();
-            List<AttendanceRecord> records = entry.getValue();
-
-            int presentCount = (int) records.stream()
-                    .filter(r -> r.getStatus() == AttendanceStatus.PRESENT).count();
-            int excusedCount = (int) records.stream()
-                    .filter(r -> r.getStatus() == AttendanceStatus.EXCUSED).count();
-            int absentCount = sessions.size() - presentCount - excusedCount;
-
-            double percentage = sessions.isEmpty() ? 0
-                    : ((double) (presentCount + excusedCount) / sessions.size()) * 100;
-
-            boolean isFlagged = records.stream().anyMatch(r -> Boolean.TRUE.equals(r.getIsFlagged()));
-            String flagReason = records.stream()
-                    .filter(r -> Boolean.TRUE.equals(r.getIsFlagged()))
-                    .map(AttendanceRecord::getFlagReason)
-                    .findFirst()
-                    .orElse(null);
-
-            studentAttendances.add(AttendanceReportResponse.StudentAttendance.builder()
-                    .studentId(studentId)
+    @Override
+    public void streamAttendanceReport(Long sectionId, LocalDate startDate, LocalDate endDate, int totalSessions,
+            Consumer<AttendanceReportResponse.StudentAttendance> consumer) {
+        attendanceRecordJdbcRepository.streamSectionReportRows(sectionId, startDate, endDate, row -> {
+            int presentCount = row.getPresentCount();
+            int excusedCount = row.getExcusedCount();
+            double percentage = ((double) (presentCount + excusedCount) / totalSessions) * 100;
+
+            consumer.accept(AttendanceReportResponse.StudentAttendance.builder()
+                    .studentId(row.getStudentId())
+                    .studentNumber(row.getStudentNumber())
+                    .firstName(row.getFirstName())
+                    .lastName(row.getLastName())
                     .presentCount(presentCount)
-                    .absentCount(absentCount)
+                    .absentCount(totalSessions - presentCount - excusedCount)
                     .excusedCount(excusedCount)
                     .attendancePercentage(Math.round(percentage * 10) / 10.0)
                     .status(getAttendanceStatusString(percentage))
-                    .isFlagged(isFlagged)
-                    .flagReason(flagReason)
+                    .isFlagged(row.isFlagged())
+                    .flagReason(row.getFlagReason())
                     .build());
-        }
-
-        return AttendanceReportResponse.builder()
-                .sectionId(sectionId)
-                .totalSessions(sessions.size())
-                .students(studentAttendances)
-                .build();
+        });
     }
 
     @Override
     @Transactional
     public CheckInResponse checkIn(Long userId, Long sessionId, CheckInRequest request, String ipAddress) {
         // Önce user_id'den students.id'yi bul (attendance_records tablosu students.id
-        // kullanıyor)
-        String getStudentIdSql = "SELECT id FROM students WHERE user_id = ?";
-        Long studentId;
-        try {
-            studentId = jdbcTemplate.queryForObject(getStudentIdSql, Long.class, userId);
-            log.info("📚 CheckIn: User {} için student_id: {}", userId, studentId);
-        } catch (Exception e) {
-            log.error("❌ CheckIn: User {} için student kaydı bulunamadı: {}", userId, e.getMessage());
-            throw new ResourceNotFoundException("Öğrenci", "user_id", userId);
-        }
+        // kullanıyor); eşleme bellekteki kimlik cache'inden okunur
+        Long studentId = studentIdentityCache.findStudentId(userId)
+                .orElseThrow(() -> {
+                    log.error("❌ CheckIn: User {} için student kaydı bulunamadı", userId);
+                    return new ResourceNotFoundException("Öğrenci", "user_id", userId);
+                });
 
-        AttendanceSession session = sessionRepository.findById(sessionId)
-                .orElseThrow(() -> new ResourceNotFoundException("Yoklama oturumu", "id", sessionId));
+        // Oturum bilgisi ve yoklama verenler bellekteki kayıttan okunur
+        ActiveSessionRegistry.ActiveSession session = activeSessionRegistry.getSession(sessionId);
 
         validateSession(session);
-        // validateCampusNetwork(ipAddress); // Kampüs ağı kontrolü devre dışı bırakıldı
-        checkAlreadyCheckedIn(sessionId, studentId);
+        validateCampusNetwork(ipAddress);
+        checkAlreadyCheckedIn(session, studentId);
 
-        double distance = gpsUtils.calculateDistance(
-                session.getLatitude(), session.getLongitude(),
+        GeofenceEvaluator.Evaluation geofence = evaluateGeofence(session,
                 request.getLatitude(), request.getLongitude());
+        double distance = geofence.distance();
 
-        if (distance > session.getGeofenceRadius()) {
+        if (!geofence.inside()) {
             throw new BadRequestException("Derslik konumunun dışındasınız",
                     "OUT_OF_GEOFENCE",
                     Map.of("distance", Math.round(distance * 10) / 10.0,
@@ -387,10 +373,10 @@ public class AttendanceServiceImpl implements AttendanceService {
 
         }
 
-        Optional<AttendanceRecord> lastRecord = recordRepository.findLastRecordByStudentId(studentId);
-        SpoofingDetector.SpoofingResult spoofingResult = spoofingDetector.detectSpoofing(
+        // Öğrencinin son konumları bellekteki geçmişten okunur
+        SpoofingDetector.SpoofingResult spoofingResult = spoofingDetector.detectSpoofing(studentId,
                 request.getLatitude(), request.getLongitude(), request.getAccuracy(),
-                request.getIsMockLocation(), lastRecord);
+                request.getIsMockLocation(), request.getDeviceInfo());
 
         if (spoofingResult.isFlagged()) {
             throw new ForbiddenException("Şüpheli konum verisi tespit edildi",
@@ -413,7 +399,10 @@ public class AttendanceServiceImpl implements AttendanceService {
                 .isFlagged(false)
                 .build();
 
-        recordRepository.save(record);
+        saveCheckInRecord(session, record);
+        // Konum geçmişi sadece check-in commit edildikten sonra güncellenir; geri alınan check-in iz bırakmaz
+        runAfterCommit(() -> spoofingDetector.recordPosition(studentId, request.getLatitude(),
+                request.getLongitude(), request.getAccuracy(), request.getDeviceInfo()));
 
         return CheckInResponse.builder()
                 .sessionId(sessionId)
@@ -428,35 +417,26 @@ public class AttendanceServiceImpl implements AttendanceService {
     @Transactional
     public CheckInResponse checkInWithQr(Long userId, Long sessionId, CheckInQrRequest request, String ipAddress) {
         // Önce user_id'den students.id'yi bul (attendance_records tablosu students.id
-        // kullanıyor)
-        String getStudentIdSql = "SELECT id FROM students WHERE user_id = ?";
-        Long studentId;
-        try {
-            studentId = jdbcTemplate.queryForObject(getStudentIdSql, Long.class, userId);
-            log.info("📚 CheckInWithQr: User {} için student_id: {}", userId, studentId);
-        } catch (Exception e) {
-            log.error("❌ CheckInWithQr: User {} için student kaydı bulunamadı: {}", userId, e.getMessage());
-            throw new ResourceNotFoundException("Öğrenci", "user_id", userId);
-        }
+        // kullanıyor); eşleme bellekteki kimlik cache'inden okunur
+        Long studentId = studentIdentityCache.findStudentId(userId)
+                .orElseThrow(() -> {
+                    log.error("❌ CheckInWithQr: User {} için student kaydı bulunamadı", userId);
+                    return new ResourceNotFoundException("Öğrenci", "user_id", userId);
+                });
 
-        AttendanceSession session = sessionRepository.findById(sessionId)
-                .orElseThrow(() -> new ResourceNotFoundException("Yoklama oturumu", "id", sessionId));
+        // Oturum bilgisi ve yoklama verenler bellekteki kayıttan okunur
+        ActiveSessionRegistry.ActiveSession session = activeSessionRegistry.getSession(sessionId);
 
         validateSession(session);
         // validateCampusNetwork(ipAddress); // Kampüs ağı kontrolü devre dışı bırakıldı
-        checkAlreadyCheckedIn(sessionId, studentId);
+        checkAlreadyCheckedIn(session, studentId);
 
-        try {
-            QrCodeGenerator.QrCodeData qrData = qrCodeGenerator.parseQrCode(request.getQrCode());
-            if (!qrData.sessionId().equals(sessionId)) {
-                throw new BadRequestException("Geçersiz QR kod", "INVALID_QR_CODE");
+        // İmza ve zaman dilimi bellekte doğrulanır, oturum satırıyla karşılaştırma yapılmaz
+        switch (qrCodeGenerator.validate(request.getQrCode(), sessionId)) {
+            case INVALID -> throw new BadRequestException("Geçersiz QR kod", "INVALID_QR_CODE");
+            case EXPIRED -> throw new BadRequestException("QR kod süresi dolmuş", "QR_CODE_EXPIRED");
+            case VALID -> {
             }
-        } catch (IllegalArgumentException e) {
-            throw new BadRequestException("Geçersiz QR kod formatı", "INVALID_QR_CODE");
-        }
-
-        if (qrCodeGenerator.isQrCodeExpired(request.getQrCode(), qrCodeRefreshInterval)) {
-            throw new BadRequestException("QR kod süresi dolmuş", "QR_CODE_EXPIRED");
         }
 
         // Konum bilgisi varsa kontrol et, yoksa sadece QR kod doğrulaması yeterli
@@ -466,11 +446,10 @@ public class AttendanceServiceImpl implements AttendanceService {
 
         if (latitude != null && longitude != null) {
             // Konum bilgisi varsa geofence kontrolü yap
-            distance = gpsUtils.calculateDistance(
-                    session.getLatitude(), session.getLongitude(),
-                    latitude, longitude);
+            GeofenceEvaluator.Evaluation geofence = evaluateGeofence(session, latitude, longitude);
+            distance = geofence.distance();
 
-            if (distance > session.getGeofenceRadius()) {
+            if (!geofence.inside()) {
                 throw new BadRequestException("Derslik konumunun dışındasınız", "OUT_OF_GEOFENCE",
                         Map.of("distance", Math.round(distance * 10) / 10.0,
                                 "allowedRadius", session.getGeofenceRadius()));
@@ -498,7 +477,7 @@ public class AttendanceServiceImpl implements AttendanceService {
                 .isFlagged(false)
                 .build();
 
-        recordRepository.save(record);
+        saveCheckInRecord(session, record);
 
         return CheckInResponse.builder()
                 .sessionId(sessionId)
@@ -527,29 +506,36 @@ public class AttendanceServiceImpl implements AttendanceService {
                     .toList();
         }
 
-        List<MyAttendanceResponse> responses = new ArrayList<>();
+        if (sectionIds.isEmpty()) {
+            return Collections.emptyList();
+        }
 
+        // Oturumlar, öğrencinin kayıtları ve mazeretleri bölüm sayısından bağımsız olarak üç sorguda okunur
+        Map<Long, List<AttendanceSession>> sessionsBySection = new LinkedHashMap<>();
         for (Long sectionId : sectionIds) {
-            CourseSectionInfo sectionInfo = sectionInfoMap.get(sectionId);
-            if (sectionInfo == null)
-                continue;
+            sessionsBySection.put(sectionId, new ArrayList<>());
+        }
+        for (AttendanceSession session : sessionRepository.findBySectionIdsOrderByDateDesc(sectionIds)) {
+            sessionsBySection.get(session.getSectionId()).add(session);
+        }
 
-            List<AttendanceSession> sessions = sessionRepository.findBySectionIdOrderByDateDesc(sectionId);
-            if (sessions.isEmpty())
-                continue;
+        Map<Long, AttendanceRecord> recordMap = new HashMap<>();
+        for (AttendanceRecord r : recordRepository.findByStudentIdAndSectionIds(studentId, sectionIds)) {
+            recordMap.put(r.getSessionId(), r);
+        }
 
-            List<Long> sessionIds = sessions.stream().map(AttendanceSession::getId).toList();
-            List<AttendanceRecord> records = recordRepository.findBySessionIdsAndStudentId(sessionIds, studentId);
-            Map<Long, AttendanceRecord> recordMap = new HashMap<>();
-            for (AttendanceRecord r : records) {
-                recordMap.put(r.getSessionId(), r);
-            }
+        Map<Long, ExcuseRequest> excuseMap = new HashMap<>();
+        for (ExcuseRequest e : excuseRequestRepository.findByStudentId(studentId)) {
+            excuseMap.put(e.getSessionId(), e);
+        }
 
-            List<ExcuseRequest> excuses = excuseRequestRepository.findByStudentId(studentId);
-            Map<Long, ExcuseRequest> excuseMap = new HashMap<>();
-            for (ExcuseRequest e : excuses) {
-                excuseMap.put(e.getSessionId(), e);
-            }
+        List<MyAttendanceResponse> responses = new ArrayList<>();
+
+        for (Map.Entry<Long, List<AttendanceSession>> entry : sessionsBySection.entrySet()) {
+            CourseSectionInfo sectionInfo = sectionInfoMap.get(entry.getKey());
+            List<AttendanceSession> sessions = entry.getValue();
+            if (sectionInfo == null || sessions.isEmpty())
+                continue;
 
             int presentCount = 0;
             int absentCount = 0;
@@ -572,7 +558,7 @@ public class AttendanceServiceImpl implements AttendanceService {
                         excusedCount++;
                     }
 
-                    ExcuseRequest excuse = excuseMap.get(record.getId());
+                    ExcuseRequest excuse = excuseMap.get(session.getId());
                     if (excuse != null) {
                         excuseStatus = excuse.getStatus().name();
                     }
@@ -631,6 +617,7 @@ public class AttendanceServiceImpl implements AttendanceService {
         session.setQrCode(newQrCode);
         session.setQrCodeGeneratedAt(LocalDateTime.now());
         session = sessionRepository.save(session);
+        activeSessionRegistry.evict(sessionId);
 
         return mapToSessionResponse(session);
     }
@@ -640,69 +627,40 @@ public class AttendanceServiceImpl implements AttendanceService {
         LocalDateTime now = LocalDateTime.now();
 
         // Önce user_id'den students.id'yi bul (enrollments tablosu students.id
-        // kullanıyor)
-        String getStudentIdSql = "SELECT id FROM students WHERE user_id = ?";
-        Long studentId;
-        try {
-            studentId = jdbcTemplate.queryForObject(getStudentIdSql, Long.class, userId);
-            log.info("📚 User {} için student_id: {}", userId, studentId);
-        } catch (Exception e) {
-            log.error("❌ User {} için student kaydı bulunamadı: {}", userId, e.getMessage());
-            return new ArrayList<>();
-        }
-
+        // kullanıyor); eşleme bellekteki kimlik cache'inden okunur
+        Long studentId = studentIdentityCache.findStudentId(userId).orElse(null);
         if (studentId == null) {
             log.warn("⚠️ User {} için student kaydı bulunamadı", userId);
             return new ArrayList<>();
         }
 
-        // Öğrencinin kayıtlı olduğu section'ları enrollment tablosundan çek
-        String enrollmentSql = "SELECT DISTINCT section_id FROM enrollments " +
-                "WHERE student_id = ? AND status = 'ENROLLED'";
-        List<Long> enrolledSectionIds;
+        // Öğrencinin kayıtlı olduğu section'lar kadro cache'inden okunur (sıralı dizi)
+        long[] enrolledSectionIds;
         try {
-            enrolledSectionIds = jdbcTemplate.queryForList(enrollmentSql, Long.class, studentId);
-            log.info("📚 Student {} için kayıtlı section sayısı: {}", studentId, enrolledSectionIds.size());
+            enrolledSectionIds = sectionRosterCache.getSectionIds(studentId);
+            log.info("📚 Student {} için kayıtlı section sayısı: {}", studentId, enrolledSectionIds.length);
         } catch (Exception e) {
             log.error("❌ Enrollment bilgisi alınırken hata: {}", e.getMessage());
-            enrolledSectionIds = new ArrayList<>();
+            enrolledSectionIds = new long[0];
         }
 
         // Eğer öğrenci hiçbir derse kayıtlı değilse boş liste dön
-        if (enrolledSectionIds.isEmpty()) {
+        if (enrolledSectionIds.length == 0) {
             log.info("⚠️ Student {} hiçbir derse kayıtlı görünmüyor", studentId);
             return new ArrayList<>();
         }
 
         // Aktif oturumları bul
         List<AttendanceSession> activeSessions = sessionRepository.findActiveSessions(
-                enrolledSectionIds, SessionStatus.ACTIVE);
+                Arrays.stream(enrolledSectionIds).boxed().toList(), SessionStatus.ACTIVE);
 
         log.info("🔍 Student {} için {} aktif yoklama oturumu bulundu", studentId, activeSessions.size());
 
-        // Öğrencinin zaten yoklama verdiği oturumları ve süresi geçmiş olanları
-        // filtrele
-        List<SessionResponse> result = new ArrayList<>();
-        for (AttendanceSession session : activeSessions) {
-            // Oturum süresi geçmiş mi kontrol et
-            if (!isSessionStillActive(session, now)) {
-                log.debug("⏰ Oturum {} süresi geçmiş, atlanıyor", session.getId());
-                continue;
-            }
-
-            // Öğrenci bu oturuma yoklama vermiş mi kontrol et (studentId kullan)
-            boolean alreadyCheckedIn = recordRepository.findBySessionIdAndStudentId(
-                    session.getId(), studentId).isPresent();
-
-            if (!alreadyCheckedIn) {
-                SessionResponse response = mapToSessionResponseWithCourseInfo(session);
-                result.add(response);
-                log.info("✅ Aktif yoklama oturumu bulundu: sessionId={}, sectionId={}",
-                        session.getId(), session.getSectionId());
-            } else {
-                log.debug("✓ Student {} oturum {} için zaten yoklama vermiş", studentId, session.getId());
-            }
-        }
+        // Süresi geçmiş oturumları ele; kalanların yoklama durumu ve ders bilgisi tek sorguda okunur
+        List<AttendanceSession> openSessions = activeSessions.stream()
+                .filter(session -> isSessionStillActive(session, now))
+                .toList();
+        List<SessionResponse> result = mapToSessionResponses(openSessions, studentId, true);
 
         log.info("📋 Student {} için toplam {} aktif yoklama oturumu döndürülüyor", studentId, result.size());
         return result;
@@ -729,31 +687,51 @@ public class AttendanceServiceImpl implements AttendanceService {
     }
 
     private SessionResponse mapToSessionResponseWithCourseInfo(AttendanceSession session) {
-        SessionResponse response = mapToSessionResponse(session);
-
-        // Section bilgilerini ekle
+        Long presentCount = recordRepository.countBySessionIdAndStatus(session.getId(), AttendanceStatus.PRESENT);
         CourseSectionInfo sectionInfo = courseSectionInfoRepository.findBySectionId(session.getSectionId());
+
+        SessionResponse.SessionResponseBuilder builder = sessionResponseBuilder(session)
+                .presentCount(presentCount.intValue());
         if (sectionInfo != null) {
-            return SessionResponse.builder()
-                    .id(response.getId())
-                    .sectionId(response.getSectionId())
-                    .date(response.getDate())
-                    .startTime(response.getStartTime())
-                    .endTime(response.getEndTime())
-                    .latitude(response.getLatitude())
-                    .longitude(response.getLongitude())
-                    .geofenceRadius(response.getGeofenceRadius())
-                    .qrCode(response.getQrCode())
-                    .qrCodeUrl(response.getQrCodeUrl())
-                    .status(response.getStatus())
-                    .presentCount(response.getPresentCount())
-                    .courseCode(sectionInfo.getCourseCode())
+            builder.courseCode(sectionInfo.getCourseCode())
                     .courseName(sectionInfo.getCourseName())
-                    .sectionNumber(sectionInfo.getSectionNumber())
-                    .build();
+                    .sectionNumber(sectionInfo.getSectionNumber());
         }
+        return builder.build();
+    }
 
-        return response;
+    /**
+     * Oturum listesini tek bir gruplu sorguyla (PRESENT sayısı, ders bilgisi, yoklama durumu) cevaba çevirir.
+     * studentId verilirse öğrencinin zaten yoklama verdiği oturumlar listeden çıkarılır.
+     */
+    private List<SessionResponse> mapToSessionResponses(List<AttendanceSession> sessions, Long studentId,
+            boolean withCourseInfo) {
+        if (sessions.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Long> sessionIds = sessions.stream().map(AttendanceSession::getId).toList();
+        Map<Long, AttendanceRecordJdbcRepository.SessionListingStats> statsMap =
+                attendanceRecordJdbcRepository.findSessionListingStats(sessionIds, studentId);
+
+        List<SessionResponse> responses = new ArrayList<>(sessions.size());
+        for (AttendanceSession session : sessions) {
+            AttendanceRecordJdbcRepository.SessionListingStats stats = statsMap.get(session.getId());
+            if (studentId != null && stats != null && stats.isCheckedIn()) {
+                log.debug("✓ Student {} oturum {} için zaten yoklama vermiş", studentId, session.getId());
+                continue;
+            }
+
+            SessionResponse.SessionResponseBuilder builder = sessionResponseBuilder(session)
+                    .presentCount(stats != null ? stats.getPresentCount() : 0);
+            if (withCourseInfo && stats != null && stats.getCourseCode() != null) {
+                builder.courseCode(stats.getCourseCode())
+                        .courseName(stats.getCourseName())
+                        .sectionNumber(stats.getSectionNumber());
+            }
+            responses.add(builder.build());
+        }
+        return responses;
     }
 
     private void validateCampusNetwork(String ipAddress) {
@@ -765,21 +743,86 @@ public class AttendanceServiceImpl implements AttendanceService {
         }
     }
 
-    private void validateSession(AttendanceSession session) {
+    /**
+     * Oturum için önceden hesaplanmış geofence varsa onu kullanır; yoksa tam haversine hesaplanır.
+     */
+    private GeofenceEvaluator.Evaluation evaluateGeofence(ActiveSessionRegistry.ActiveSession session,
+            double latitude, double longitude) {
+        if (session.getGeofence() != null) {
+            return session.getGeofence().evaluate(latitude, longitude);
+        }
+        double distance = gpsUtils.calculateDistance(session.getLatitude(), session.getLongitude(),
+                latitude, longitude);
+        return new GeofenceEvaluator.Evaluation(distance <= session.getGeofenceRadius(), distance);
+    }
+
+    private void validateSession(ActiveSessionRegistry.ActiveSession session) {
         if (session.getStatus() != SessionStatus.ACTIVE) {
             throw new BadRequestException("Yoklama oturumu aktif değil", "SESSION_NOT_ACTIVE");
         }
     }
 
-    private void checkAlreadyCheckedIn(Long sessionId, Long studentId) {
-        if (recordRepository.findBySessionIdAndStudentId(sessionId, studentId).isPresent()) {
+    private void checkAlreadyCheckedIn(ActiveSessionRegistry.ActiveSession session, Long studentId) {
+        if (session.isCheckedIn(studentId)) {
             throw new BadRequestException("Bu oturuma zaten yoklama verdiniz", "ALREADY_CHECKED_IN");
         }
     }
 
+    /**
+     * Öğrenciyi bellekte işaretleyip kaydı yazar (veya write-behind kuyruğuna ekler);
+     * eşzamanlı ikinci istek burada elenir.
+     * Kayıt yazılamazsa veya transaction geri alınırsa işaret kaldırılır.
+     */
+    private void saveCheckInRecord(ActiveSessionRegistry.ActiveSession session, AttendanceRecord record) {
+        Long studentId = record.getStudentId();
+        if (!session.markCheckedIn(studentId)) {
+            throw new BadRequestException("Bu oturuma zaten yoklama verdiniz", "ALREADY_CHECKED_IN");
+        }
+        try {
+            // Write-behind modunda kayıt journal'a eklenir, veritabanına arka planda toplu yazılır
+            if (!checkInWriteBehindQueue.isEnabled() || !checkInWriteBehindQueue.enqueue(record)) {
+                recordRepository.save(record);
+            }
+        } catch (RuntimeException e) {
+            session.unmarkCheckedIn(studentId);
+            throw e;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        session.unmarkCheckedIn(studentId);
+                    }
+                }
+            });
+        }
+        liveAttendanceBroadcaster.publishCheckIn(session.getId(), studentId, record.getCheckInTime(),
+                session.getCheckedInCount());
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
     private SessionResponse mapToSessionResponse(AttendanceSession session) {
         Long presentCount = recordRepository.countBySessionIdAndStatus(session.getId(), AttendanceStatus.PRESENT);
 
+        return sessionResponseBuilder(session)
+                .presentCount(presentCount.intValue())
+                .build();
+    }
+
+    private SessionResponse.SessionResponseBuilder sessionResponseBuilder(AttendanceSession session) {
         return SessionResponse.builder()
                 .id(session.getId())
                 .sectionId(session.getSectionId())
@@ -791,9 +834,7 @@ public class AttendanceServiceImpl implements AttendanceService {
                 .geofenceRadius(session.getGeofenceRadius())
                 .qrCode(session.getQrCode())
                 .qrCodeUrl(session.getQrCode() != null ? qrCodeGenerator.getQrCodeUrl(session.getQrCode()) : null)
-                .status(session.getStatus())
-                .presentCount(presentCount.intValue())
-                .build();
+                .status(session.getStatus());
     }
 
     private String getAttendanceStatusString(double percentage) {
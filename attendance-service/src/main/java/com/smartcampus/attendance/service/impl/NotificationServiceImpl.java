@@ -1,109 +1,26 @@
 package com.smartcampus.attendance.service.impl;
 
+import com.smartcampus.attendance.notification.MailDispatcher;
+import com.smartcampus.attendance.notification.MailDispatcher.OutgoingMail;
 import com.smartcampus.attendance.service.NotificationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
-import reactor.core.publisher.Mono;
+import org.springframework.web.util.HtmlUtils;
 
-import java.util.HashMap;
-import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
+/**
+ * Devamsızlık e-postalarını gönderim kuyruğuna ekler; gönderim MailDispatcher tarafından yapılır.
+ * Şablonlar tüm alıcılar için aynıdır, öğrenciye özel alanlar SendGrid substitution etiketleriyle doldurulur.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class NotificationServiceImpl implements NotificationService {
 
-    private final WebClient.Builder webClientBuilder;
-
-    @Value("${sendgrid.api-key:}")
-    private String sendGridApiKey;
-
-    @Value("${sendgrid.enabled:false}")
-    private boolean sendGridEnabled;
-
-    @Value("${sendgrid.from-email:noreply@smartcampus.edu.tr}")
-    private String fromEmail;
-
-    @Override
-    @Async
-    public void sendAbsenceWarningEmail(String to, String studentName, String courseCode,
-            String courseName, int absentCount, int totalSessions, double absencePercent) {
-        String subject = "Smart Campus - Devamsızlık Uyarısı: " + courseCode;
-        String content = buildWarningEmailContent(studentName, courseCode, courseName, 
-                absentCount, totalSessions, absencePercent);
-        sendHtmlEmail(to, subject, content);
-        log.info("Absence warning email sent to: {} for course: {}", to, courseCode);
-    }
-
-    @Override
-    @Async
-    public void sendCriticalAbsenceEmail(String to, String studentName, String courseCode,
-            String courseName, int absentCount, int totalSessions, double absencePercent) {
-        String subject = "Smart Campus - KRİTİK: Ders Kalma Riski: " + courseCode;
-        String content = buildCriticalEmailContent(studentName, courseCode, courseName,
-                absentCount, totalSessions, absencePercent);
-        sendHtmlEmail(to, subject, content);
-        log.info("Critical absence email sent to: {} for course: {}", to, courseCode);
-    }
-
-    private void sendHtmlEmail(String to, String subject, String content) {
-        if (!sendGridEnabled || sendGridApiKey == null || sendGridApiKey.isEmpty()) {
-            log.warn("SendGrid is not enabled. Email not sent to: {}", to);
-            return;
-        }
-
-        try {
-            Map<String, Object> personalization = new HashMap<>();
-            personalization.put("to", List.of(Map.of("email", to)));
-
-            Map<String, Object> from = new HashMap<>();
-            from.put("email", fromEmail);
-            from.put("name", "Smart Campus");
-
-            Map<String, Object> htmlContent = new HashMap<>();
-            htmlContent.put("type", "text/html");
-            htmlContent.put("value", content);
-
-            Map<String, Object> requestBody = new HashMap<>();
-            requestBody.put("personalizations", List.of(personalization));
-            requestBody.put("from", from);
-            requestBody.put("subject", subject);
-            requestBody.put("content", List.of(htmlContent));
-
-            WebClient webClient = webClientBuilder
-                    .baseUrl("https://api.sendgrid.com")
-                    .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + sendGridApiKey)
-                    .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                    .build();
-
-            webClient.post()
-                    .uri("/v3/mail/send")
-                    .bodyValue(requestBody)
-                    .retrieve()
-                    .onStatus(status -> status.isError(), clientResponse -> 
-                        clientResponse.bodyToMono(String.class)
-                            .flatMap(errorBody -> {
-                                log.error("SendGrid API error: {}", errorBody);
-                                return Mono.error(new RuntimeException("SendGrid API error"));
-                            }))
-                    .bodyToMono(String.class)
-                    .block();
-
-        } catch (Exception e) {
-            log.error("Failed to send email to {}: {}", to, e.getMessage());
-        }
-    }
-
-    private String buildWarningEmailContent(String name, String courseCode, String courseName,
-            int absentCount, int totalSessions, double absencePercent) {
-        return """
+    private static final String WARNING_TEMPLATE = """
             <!DOCTYPE html>
             <html>
             <head>
@@ -123,13 +40,13 @@ public class NotificationServiceImpl implements NotificationService {
                         <h1>⚠️ Devamsızlık Uyarısı</h1>
                     </div>
                     <div class="content">
-                        <h2>Merhaba %s,</h2>
-                        <p><strong>%s - %s</strong> dersindeki devamsızlık oranınız uyarı seviyesine ulaştı.</p>
+                        <h2>Merhaba -name-,</h2>
+                        <p><strong>-courseCode- - -courseName-</strong> dersindeki devamsızlık oranınız uyarı seviyesine ulaştı.</p>
                         
                         <div class="stats">
-                            <p><strong>Ders:</strong> %s - %s</p>
-                            <p><strong>Devamsız Olduğunuz Ders:</strong> %d / %d</p>
-                            <p><strong>Devamsızlık Oranı:</strong> %%.1f%%</p>
+                            <p><strong>Ders:</strong> -courseCode- - -courseName-</p>
+                            <p><strong>Devamsız Olduğunuz Ders:</strong> -absentCount- / -totalSessions-</p>
+                            <p><strong>Devamsızlık Oranı:</strong> -absencePercent-%</p>
                         </div>
                         
                         <p>Lütfen devamsızlık limitini aşmamaya dikkat ediniz. Mazeretli devamsızlık için mazeret belgesi sunabilirsiniz.</p>
@@ -140,12 +57,9 @@ public class NotificationServiceImpl implements NotificationService {
                 </div>
             </body>
             </html>
-            """.formatted(name, courseCode, courseName, courseCode, courseName, absentCount, totalSessions, absencePercent);
-    }
+            """;
 
-    private String buildCriticalEmailContent(String name, String courseCode, String courseName,
-            int absentCount, int totalSessions, double absencePercent) {
-        return """
+    private static final String CRITICAL_TEMPLATE = """
             <!DOCTYPE html>
             <html>
             <head>
@@ -166,16 +80,16 @@ public class NotificationServiceImpl implements NotificationService {
                         <h1>🚨 KRİTİK DEVAMSIZLIK</h1>
                     </div>
                     <div class="content">
-                        <h2>Merhaba %s,</h2>
+                        <h2>Merhaba -name-,</h2>
                         
                         <div class="warning">DERS KALMA RİSKİ!</div>
                         
-                        <p><strong>%s - %s</strong> dersindeki devamsızlık oranınız kritik seviyeyi aştı.</p>
+                        <p><strong>-courseCode- - -courseName-</strong> dersindeki devamsızlık oranınız kritik seviyeyi aştı.</p>
                         
                         <div class="stats">
-                            <p><strong>Ders:</strong> %s - %s</p>
-                            <p><strong>Devamsız Olduğunuz Ders:</strong> %d / %d</p>
-                            <p><strong>Devamsızlık Oranı:</strong> %%.1f%%</p>
+                            <p><strong>Ders:</strong> -courseCode- - -courseName-</p>
+                            <p><strong>Devamsız Olduğunuz Ders:</strong> -absentCount- / -totalSessions-</p>
+                            <p><strong>Devamsızlık Oranı:</strong> -absencePercent-%</p>
                         </div>
                         
                         <p>Devamsızlık limitini aştınız. Lütfen acilen dersin öğretim üyesiyle görüşünüz.</p>
@@ -187,6 +101,38 @@ public class NotificationServiceImpl implements NotificationService {
                 </div>
             </body>
             </html>
-            """.formatted(name, courseCode, courseName, courseCode, courseName, absentCount, totalSessions, absencePercent);
+            """;
+
+    private final MailDispatcher mailDispatcher;
+
+    @Override
+    public void sendAbsenceWarningEmail(String to, String studentName, String courseCode,
+            String courseName, int absentCount, int totalSessions, double absencePercent) {
+        String subject = "Smart Campus - Devamsızlık Uyarısı: " + courseCode;
+        if (mailDispatcher.enqueue(new OutgoingMail("absence-warning", to, subject, WARNING_TEMPLATE,
+                substitutions(studentName, courseCode, courseName, absentCount, totalSessions, absencePercent)))) {
+            log.info("Absence warning email queued for: {} for course: {}", to, courseCode);
+        }
+    }
+
+    @Override
+    public void sendCriticalAbsenceEmail(String to, String studentName, String courseCode,
+            String courseName, int absentCount, int totalSessions, double absencePercent) {
+        String subject = "Smart Campus - KRİTİK: Ders Kalma Riski: " + courseCode;
+        if (mailDispatcher.enqueue(new OutgoingMail("absence-critical", to, subject, CRITICAL_TEMPLATE,
+                substitutions(studentName, courseCode, courseName, absentCount, totalSessions, absencePercent)))) {
+            log.info("Critical absence email queued for: {} for course: {}", to, courseCode);
+        }
+    }
+
+    private static Map<String, String> substitutions(String name, String courseCode, String courseName,
+            int absentCount, int totalSessions, double absencePercent) {
+        return Map.of(
+                "-name-", HtmlUtils.htmlEscape(name != null ? name : ""),
+                "-courseCode-", HtmlUtils.htmlEscape(courseCode != null ? courseCode : ""),
+                "-courseName-", HtmlUtils.htmlEscape(courseName != null ? courseName : ""),
+                "-absentCount-", String.valueOf(absentCount),
+                "-totalSessions-", String.valueOf(totalSessions),
+                "-absencePercent-", String.format(Locale.ROOT, "%.1f", absencePercent));
     }
 }
@@ -0,0 +1,88 @@
+package com.smartcampus.attendance.util;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Kampüs ağı kontrolü için istemci IP'sini belirler.
+ * X-Forwarded-For başlığı istemci tarafından serbestçe yazılabildiği için sadece bağlantı
+ * yapılandırılmış bir proxy'den (api-gateway, yük dengeleyici) geliyorsa dikkate alınır.
+ * Başlık sağdan sola okunur: her proxy kendisine bağlanan adresi sona ekler, bu yüzden
+ * güvenilir olmayan ilk (en sağdaki) adres gerçek istemcidir; soldaki değerler taklit edilebilir.
+ */
+@Slf4j
+@Component
+public class ClientIpResolver {
+
+    private static final String FORWARDED_FOR_HEADER = "X-Forwarded-For";
+
+    // Aynı makinedeki reverse proxy her zaman güvenilirdir
+    private static final List<String> LOOPBACK_RANGES = List.of("127.0.0.1/32", "::1/128");
+
+    @Value("${attendance.trusted-proxies:}")
+    private String trustedProxies;
+
+    private IpValidator.CidrTrie trustedTrie = IpValidator.CidrTrie.build(List.of());
+
+    @PostConstruct
+    public void init() {
+        List<String> entries = new ArrayList<>(LOOPBACK_RANGES);
+        if (trustedProxies != null) {
+            Arrays.stream(trustedProxies.split(","))
+                    .map(String::trim)
+                    .filter(range -> !range.isEmpty())
+                    .forEach(entries::add);
+        }
+
+        List<long[]> prefixes = new ArrayList<>();
+        for (String range : entries) {
+            long[] prefix = IpValidator.parseCidr(range);
+            if (prefix == null) {
+                log.warn("Invalid trusted proxy range: {}", range);
+            } else {
+                prefixes.add(prefix);
+            }
+        }
+        trustedTrie = IpValidator.CidrTrie.build(prefixes);
+        log.info("Client IP resolution trusts X-Forwarded-For from {} proxy ranges",
+                prefixes.size() - LOOPBACK_RANGES.size());
+    }
+
+    public String resolve(HttpServletRequest request) {
+        String remoteAddr = request.getRemoteAddr();
+        String forwardedFor = request.getHeader(FORWARDED_FOR_HEADER);
+        if (forwardedFor == null || forwardedFor.isBlank() || !isTrustedProxy(remoteAddr)) {
+            return remoteAddr;
+        }
+
+        String[] hops = forwardedFor.split(",");
+        String leftmost = remoteAddr;
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (hop.isEmpty()) {
+                continue;
+            }
+            if (!isTrustedProxy(hop)) {
+                return hop;
+            }
+            leftmost = hop;
+        }
+        // Zincirin tamamı güvenilir proxy'lerden oluşuyorsa istemci en soldaki adrestir
+        return leftmost;
+    }
+
+    private boolean isTrustedProxy(String ip) {
+        if (ip == null || ip.isEmpty()) {
+            return false;
+        }
+        long[] address = IpValidator.parseAddress(ip);
+        return address != null && trustedTrie.contains(address[0], address[1]);
+    }
+}
@@ -0,0 +1,54 @@
+package com.smartcampus.attendance.util;
+
+/**
+ * Bir oturumun geofence kontrolü için önceden hesaplanmış değerleri tutar.
+ * Derslik koordinatlarının radyan karşılığı ve enlem kosinüsü bir kez hesaplanır.
+ * Mesafe önce trigonometri gerektirmeyen equirectangular yaklaşımla bulunur; sonuç yarıçap
+ * sınırına yakınsa veya mesafe yaklaşımın hassasiyetini kaybettiği kadar büyükse haversine ile
+ * kesin mesafe hesaplanır.
+ */
+public final class GeofenceEvaluator {
+
+    // Bu mesafenin üzerinde equirectangular hata payı metre mertebesini aşabilir
+    private static final double APPROXIMATION_LIMIT_METERS = 10_000;
+
+    private final double latRad;
+    private final double lonRad;
+    private final double cosLat;
+    private final double radiusMeters;
+    private final double boundaryMargin;
+
+    public GeofenceEvaluator(double latitude, double longitude, double radiusMeters) {
+        this.latRad = Math.toRadians(latitude);
+        this.lonRad = Math.toRadians(longitude);
+        this.cosLat = Math.cos(latRad);
+        this.radiusMeters = radiusMeters;
+        this.boundaryMargin = Math.max(0.5, radiusMeters * 0.01);
+    }
+
+    /**
+     * Öğrenci konumunu değerlendirir.
+     *
+     * @return öğrencinin geofence içinde olup olmadığı ve dersliğe mesafesi (metre)
+     */
+    public Evaluation evaluate(double latitude, double longitude) {
+        double pointLatRad = Math.toRadians(latitude);
+        double pointLonRad = Math.toRadians(longitude);
+
+        double x = (pointLonRad - lonRad) * cosLat;
+        double y = pointLatRad - latRad;
+        double distance = GpsUtils.EARTH_RADIUS_METERS * Math.sqrt(x * x + y * y);
+
+        if (Math.abs(distance - radiusMeters) <= boundaryMargin || distance > APPROXIMATION_LIMIT_METERS) {
+            distance = GpsUtils.haversine(latRad, cosLat, pointLatRad, pointLonRad - lonRad);
+        }
+        return new Evaluation(distance <= radiusMeters, distance);
+    }
+
+    public double getRadiusMeters() {
+        return radiusMeters;
+    }
+
+    public record Evaluation(boolean inside, double distance) {
+    }
+}
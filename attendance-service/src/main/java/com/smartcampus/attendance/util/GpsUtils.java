@@ -5,20 +5,11 @@ import org.springframework.stereotype.Component;
 @Component
 public class GpsUtils {
 
-    private static final double EARTH_RADIUS_METERS = 6371000;
+    static final double EARTH_RADIUS_METERS = 6371000;
 
     public double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
         double lat1Rad = Math.toRadians(lat1);
-        double lat2Rad = Math.toRadians(lat2);
-        double deltaLat = Math.toRadians(lat2 - lat1);
-        double deltaLon = Math.toRadians(lon2 - lon1);
-
-        double a = Math.sin(deltaLat / 2) * Math.sin(deltaLat / 2) +
-                   Math.cos(lat1Rad) * Math.cos(lat2Rad) *
-                   Math.sin(deltaLon / 2) * Math.sin(deltaLon / 2);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-
-        return EARTH_RADIUS_METERS * c;
+        return haversine(lat1Rad, Math.cos(lat1Rad), Math.toRadians(lat2), Math.toRadians(lon2 - lon1));
     }
 
     public boolean isWithinGeofence(double studentLat, double studentLon,
@@ -27,4 +18,31 @@ public class GpsUtils {
         double distance = calculateDistance(studentLat, studentLon, classroomLat, classroomLon);
         return distance <= radiusMeters;
     }
+
+    /**
+     * Kısa mesafeler için equirectangular yaklaşım; tek bir kosinüs ve karekök ile hesaplanır.
+     * Birkaç kilometreye kadar hata metrenin altındadır.
+     */
+    static double approximateDistance(double lat1, double lon1, double lat2, double lon2) {
+        double lat1Rad = Math.toRadians(lat1);
+        double lat2Rad = Math.toRadians(lat2);
+        double x = Math.toRadians(lon2 - lon1) * Math.cos((lat1Rad + lat2Rad) / 2);
+        double y = lat2Rad - lat1Rad;
+        return EARTH_RADIUS_METERS * Math.sqrt(x * x + y * y);
+    }
+
+    /**
+     * Haversine mesafesi; ilk noktanın radyan enlemi ve kosinüsü çağıran tarafından verilir,
+     * böylece sabit bir noktaya yapılan tekrarlı hesaplamalarda yeniden hesaplanmaz.
+     */
+    static double haversine(double lat1Rad, double cosLat1, double lat2Rad, double deltaLonRad) {
+        double sinHalfDeltaLat = Math.sin((lat2Rad - lat1Rad) / 2);
+        double sinHalfDeltaLon = Math.sin(deltaLonRad / 2);
+
+        double a = sinHalfDeltaLat * sinHalfDeltaLat +
+                   cosLat1 * Math.cos(lat2Rad) * sinHalfDeltaLon * sinHalfDeltaLon;
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+
+        return EARTH_RADIUS_METERS * c;
+    }
 }
@@ -1,41 +1,73 @@
 package com.smartcampus.attendance.util;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.net.InetAddress;
-import java.net.UnknownHostException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
+/**
+ * İstemci IP'sinin kampüs ağında olup olmadığını kontrol eder.
+ * IPv4 ve IPv6 CIDR aralıkları 128 bitlik tek bir ikili prefix trie'de tutulur; IPv4 adresleri
+ * IPv4-mapped IPv6 (::ffff:a.b.c.d) olarak saklanır. İstemci adresi bir kez primitive değerlere
+ * çevrilir, InetAddress oluşturulmaz ve DNS çözümlemesi yapılmaz.
+ * Aralıklar bir dosyadan okunuyorsa dosya periyodik olarak kontrol edilip değiştiğinde trie yeniden kurulur.
+ */
 @Slf4j
 @Component
 public class IpValidator {
 
-    @Value("${attendance.campus-ip-ranges:10.0.0.0/8,172.16.0.0/12,192.168.0.0/16}")
+    // Yerel geliştirme ve health check istekleri her zaman kabul edilir
+    private static final List<String> LOOPBACK_RANGES = List.of("127.0.0.1/32", "::1/128");
+
+    @Value("${attendance.campus-ip-ranges:10.0.0.0/8,192.168.0.0/16}")
     private String campusIpRanges;
 
+    @Value("${attendance.campus-ip-ranges-file:}")
+    private String campusIpRangesFile;
+
+    @Value("${attendance.campus-ip-ranges-reload-seconds:60}")
+    private long reloadSeconds;
+
     @Value("${attendance.ip-validation-enabled:true}")
     private boolean ipValidationEnabled;
 
-    private List<CidrRange> cidrRanges;
+    private volatile CidrTrie trie = CidrTrie.build(List.of());
+    private volatile long rangesFileModifiedAt = -1;
+    private ScheduledExecutorService reloader;
 
     @PostConstruct
     public void init() {
-        cidrRanges = new ArrayList<>();
-        if (campusIpRanges != null && !campusIpRanges.isEmpty()) {
-            String[] ranges = campusIpRanges.split(",");
-            for (String range : ranges) {
-                try {
-                    cidrRanges.add(new CidrRange(range.trim()));
-                } catch (Exception e) {
-                    log.warn("Invalid CIDR range: {}", range);
-                }
-            }
+        if (campusIpRangesFile != null && !campusIpRangesFile.isBlank()) {
+            reloadFromFile();
+            reloader = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "campus-ip-ranges-reload");
+                thread.setDaemon(true);
+                return thread;
+            });
+            reloader.scheduleWithFixedDelay(this::reloadFromFile, reloadSeconds, reloadSeconds, TimeUnit.SECONDS);
+        } else {
+            reload(campusIpRanges);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (reloader != null) {
+            reloader.shutdownNow();
         }
-        log.info("Campus IP validation initialized with {} ranges, enabled: {}", cidrRanges.size(), ipValidationEnabled);
     }
 
     public boolean isIpValidationEnabled() {
@@ -51,56 +83,266 @@ public class IpValidator {
             return false;
         }
 
-        if ("127.0.0.1".equals(ipAddress) || "0:0:0:0:0:0:0:1".equals(ipAddress) || "::1".equals(ipAddress)) {
-            return true;
+        long[] address = parseAddress(ipAddress);
+        return address != null && trie.contains(address[0], address[1]);
+    }
+
+    /**
+     * Virgülle veya satır sonuyla ayrılmış CIDR listesinden trie'yi yeniden kurar.
+     * Geçersiz aralıklar loglanıp atlanır; yeni trie tek seferde devreye alınır.
+     *
+     * @return geçerli aralık sayısı
+     */
+    public int reload(String ranges) {
+        List<String> entries = new ArrayList<>(LOOPBACK_RANGES);
+        if (ranges != null) {
+            Arrays.stream(ranges.split("[,\\n]"))
+                    .map(String::trim)
+                    .filter(range -> !range.isEmpty() && !range.startsWith("#"))
+                    .forEach(entries::add);
+        }
+
+        List<long[]> prefixes = new ArrayList<>();
+        for (String range : entries) {
+            long[] prefix = parseCidr(range);
+            if (prefix == null) {
+                log.warn("Invalid CIDR range: {}", range);
+            } else {
+                prefixes.add(prefix);
+            }
         }
 
+        trie = CidrTrie.build(prefixes);
+        int count = prefixes.size() - LOOPBACK_RANGES.size();
+        log.info("Campus IP validation initialized with {} ranges, enabled: {}", count, ipValidationEnabled);
+        return count;
+    }
+
+    private void reloadFromFile() {
+        Path path = Path.of(campusIpRangesFile);
         try {
-            for (CidrRange range : cidrRanges) {
-                if (range.contains(ipAddress)) {
-                    return true;
-                }
+            long modifiedAt = Files.getLastModifiedTime(path).toMillis();
+            if (modifiedAt == rangesFileModifiedAt) {
+                return;
             }
-        } catch (Exception e) {
-            log.error("Error validating IP address: {}", ipAddress, e);
-            return false;
+            reload(Files.readAllLines(path, StandardCharsets.UTF_8).stream().collect(Collectors.joining("\n")));
+            rangesFileModifiedAt = modifiedAt;
+        } catch (IOException e) {
+            // Dosya okunamazsa son geçerli trie kullanılmaya devam eder
+            if (rangesFileModifiedAt < 0) {
+                log.warn("Campus IP ranges file could not be read ({}), falling back to configured ranges",
+                        e.getMessage());
+                reload(campusIpRanges);
+                rangesFileModifiedAt = 0;
+            } else {
+                log.warn("Campus IP ranges file could not be reloaded: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * "adres/uzunluk" biçimindeki aralığı {yüksek 64 bit, düşük 64 bit, prefix uzunluğu} olarak döner.
+     */
+    static long[] parseCidr(String cidr) {
+        int slash = cidr.indexOf('/');
+        String ip = slash >= 0 ? cidr.substring(0, slash) : cidr;
+        long[] address = parseAddress(ip);
+        if (address == null) {
+            return null;
+        }
+
+        boolean ipv4 = ip.indexOf(':') < 0;
+        int maxLength = ipv4 ? 32 : 128;
+        int prefixLength;
+        try {
+            prefixLength = slash >= 0 ? Integer.parseInt(cidr.substring(slash + 1).trim()) : maxLength;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (prefixLength < 0 || prefixLength > maxLength) {
+            return null;
+        }
+        return new long[]{address[0], address[1], ipv4 ? 96 + prefixLength : prefixLength};
+    }
+
+    /**
+     * IPv4 veya IPv6 adresini 128 bitlik {yüksek, düşük} değere çevirir; IPv4 adresleri ::ffff:0:0/96 altına yerleşir.
+     *
+     * @return adres geçersizse null
+     */
+    static long[] parseAddress(String ip) {
+        if (ip.indexOf(':') < 0) {
+            long v4 = parseIpv4(ip, 0, ip.length());
+            return v4 < 0 ? null : new long[]{0L, 0xFFFF_0000_0000L | v4};
         }
+        return parseIpv6(ip);
+    }
 
-        return false;
+    private static long parseIpv4(String ip, int start, int end) {
+        long value = 0;
+        int octets = 0;
+        int octet = -1;
+        for (int i = start; i < end; i++) {
+            char c = ip.charAt(i);
+            if (c >= '0' && c <= '9') {
+                octet = (octet < 0 ? 0 : octet * 10) + (c - '0');
+                if (octet > 255) {
+                    return -1;
+                }
+            } else if (c == '.' && octet >= 0 && octets < 3) {
+                value = (value << 8) | octet;
+                octets++;
+                octet = -1;
+            } else {
+                return -1;
+            }
+        }
+        if (octet < 0 || octets != 3) {
+            return -1;
+        }
+        return (value << 8) | octet;
     }
 
-    private static class CidrRange {
-        private final int networkAddress;
-        private final int networkMask;
+    private static long[] parseIpv6(String ip) {
+        // Zone id (fe80::1%eth0) ve köşeli parantezler adres karşılaştırmasına dahil edilmez
+        int end = ip.indexOf('%');
+        end = end >= 0 ? end : ip.length();
+        int start = 0;
+        if (ip.charAt(0) == '[') {
+            start = 1;
+            end = ip.charAt(end - 1) == ']' ? end - 1 : end;
+        }
+
+        int[] groups = new int[8];
+        int count = 0;
+        int compressAt = -1;
+        int i = start;
+        if (ip.startsWith("::", i)) {
+            compressAt = 0;
+            i += 2;
+        }
+
+        while (i < end) {
+            int colon = ip.indexOf(':', i);
+            int groupEnd = colon < 0 || colon > end ? end : colon;
+
+            if (groupEnd == end && ip.lastIndexOf('.', end - 1) >= i) {
+                // Gömülü IPv4 son eki (::ffff:192.168.1.1)
+                long v4 = parseIpv4(ip, i, end);
+                if (v4 < 0 || count > 6) {
+                    return null;
+                }
+                groups[count++] = (int) (v4 >>> 16);
+                groups[count++] = (int) (v4 & 0xFFFF);
+                i = end;
+                break;
+            }
+
+            int length = groupEnd - i;
+            if (length < 1 || length > 4 || count >= 8) {
+                return null;
+            }
+            int group = 0;
+            for (int j = i; j < groupEnd; j++) {
+                int digit = Character.digit(ip.charAt(j), 16);
+                if (digit < 0) {
+                    return null;
+                }
+                group = (group << 4) | digit;
+            }
+            groups[count++] = group;
+
+            if (groupEnd == end) {
+                i = end;
+            } else if (groupEnd + 1 < end && ip.charAt(groupEnd + 1) == ':') {
+                if (compressAt >= 0) {
+                    return null;
+                }
+                compressAt = count;
+                i = groupEnd + 2;
+            } else {
+                i = groupEnd + 1;
+                if (i == end) {
+                    return null;
+                }
+            }
+        }
+
+        if (compressAt >= 0) {
+            if (count == 8) {
+                return null;
+            }
+            int shift = 8 - count;
+            System.arraycopy(groups, compressAt, groups, compressAt + shift, count - compressAt);
+            Arrays.fill(groups, compressAt, compressAt + shift, 0);
+        } else if (count != 8) {
+            return null;
+        }
+
+        long high = 0;
+        long low = 0;
+        for (int g = 0; g < 4; g++) {
+            high = (high << 16) | groups[g];
+            low = (low << 16) | groups[g + 4];
+        }
+        return new long[]{high, low};
+    }
 
-        public CidrRange(String cidr) throws UnknownHostException {
-            String[] parts = cidr.split("/");
-            String ip = parts[0];
-            int prefixLength = parts.length > 1 ? Integer.parseInt(parts[1]) : 32;
+    /**
+     * 128 bitlik adresler için ikili prefix trie. Düğümler paralel int dizilerinde tutulur;
+     * arama en fazla 128 adım sürer ve ilk eşleşen prefix'te biter. Kurulduktan sonra değişmez.
+     */
+    static final class CidrTrie {
+        private final int[] zero;
+        private final int[] one;
+        private final boolean[] terminal;
 
-            this.networkAddress = ipToInt(ip);
-            this.networkMask = prefixLength == 0 ? 0 : (-1 << (32 - prefixLength));
+        private CidrTrie(int[] zero, int[] one, boolean[] terminal) {
+            this.zero = zero;
+            this.one = one;
+            this.terminal = terminal;
         }
 
-        public boolean contains(String ip) {
-            try {
-                int ipInt = ipToInt(ip);
-                return (ipInt & networkMask) == (networkAddress & networkMask);
-            } catch (Exception e) {
-                return false;
+        static CidrTrie build(List<long[]> prefixes) {
+            int capacity = 1 + prefixes.stream().mapToInt(p -> (int) p[2]).sum();
+            int[] zero = new int[capacity];
+            int[] one = new int[capacity];
+            boolean[] terminal = new boolean[capacity];
+            int nodes = 1;
+
+            for (long[] prefix : prefixes) {
+                int node = 0;
+                for (int bit = 0; bit < prefix[2] && !terminal[node]; bit++) {
+                    int[] next = bitAt(prefix[0], prefix[1], bit) ? one : zero;
+                    if (next[node] == 0) {
+                        next[node] = nodes++;
+                    }
+                    node = next[node];
+                }
+                terminal[node] = true;
             }
+            return new CidrTrie(Arrays.copyOf(zero, nodes), Arrays.copyOf(one, nodes),
+                    Arrays.copyOf(terminal, nodes));
         }
 
-        private static int ipToInt(String ip) throws UnknownHostException {
-            InetAddress inetAddress = InetAddress.getByName(ip);
-            byte[] bytes = inetAddress.getAddress();
-            if (bytes.length != 4) {
-                throw new UnknownHostException("Not an IPv4 address: " + ip);
+        boolean contains(long high, long low) {
+            int node = 0;
+            for (int bit = 0; bit < 128; bit++) {
+                if (terminal[node]) {
+                    return true;
+                }
+                node = bitAt(high, low, bit) ? one[node] : zero[node];
+                if (node == 0) {
+                    return false;
+                }
             }
-            return ((bytes[0] & 0xFF) << 24) |
-                   ((bytes[1] & 0xFF) << 16) |
-                   ((bytes[2] & 0xFF) << 8) |
-                   (bytes[3] & 0xFF);
+            return terminal[node];
+        }
+
+        private static boolean bitAt(long high, long low, int bit) {
+            return bit < 64
+                    ? (high >>> (63 - bit) & 1L) != 0
+                    : (low >>> (127 - bit) & 1L) != 0;
         }
     }
 }
@@ -1,44 +1,68 @@
 package com.smartcampus.attendance.util;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
-import java.time.LocalDateTime;
+import java.security.GeneralSecurityException;
 import java.util.Base64;
-import java.util.Map;
-import java.util.UUID;
 
+/**
+ * Dönen (rotating) HMAC imzalı QR token'ları üretir ve doğrular.
+ * Token sabit 33 byte'tır: versiyon (1) + sessionId (8) + zaman dilimi (8) + HMAC-SHA256'nın ilk 16 byte'ı.
+ * Zaman dilimi epoch saniyesinin refresh aralığına bölümüdür; token her aralıkta değişir.
+ * Doğrulama veritabanına gitmeden, sadece imza ve zaman dilimi kontrolüyle yapılır.
+ * İmza anahtarı yapılandırılan secret'ın kendisi değil, sabit bir etiket üzerinden HMAC ile türetilen alt anahtardır;
+ * QR_SIGNING_SECRET verilmezse JWT secret'ından türetilir ve JWT imzalarında kullanılan anahtarla aynı olmaz.
+ */
 @Component
 public class QrCodeGenerator {
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final byte[] KEY_LABEL = "smart-campus/attendance-qr-token/v1".getBytes(StandardCharsets.UTF_8);
+    private static final byte VERSION = 1;
+    private static final int PAYLOAD_LENGTH = 1 + Long.BYTES + Long.BYTES;
+    private static final int MAC_LENGTH = 16;
+    private static final int TOKEN_LENGTH = PAYLOAD_LENGTH + MAC_LENGTH;
+
+    private final SecretKeySpec signingKey;
+    private final long refreshIntervalSeconds;
+    private final ThreadLocal<Mac> macs;
 
     @Value("${FRONTEND_URL:http://localhost:3000}")
     private String frontendUrl;
 
+    public QrCodeGenerator(@Value("${attendance.qr.secret:}") String secret,
+                           @Value("${jwt.secret}") String jwtSecret,
+                           @Value("${attendance.qr-code-refresh-interval:5}") long refreshIntervalSeconds) {
+        String masterSecret = secret != null && !secret.isBlank() ? secret : jwtSecret;
+        this.signingKey = deriveSigningKey(masterSecret);
+        this.refreshIntervalSeconds = Math.max(1, refreshIntervalSeconds);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
     /**
-     * QR kod için Base64 token oluşturur
+     * Oturumun o anki zaman dilimi için QR token'ı oluşturur (Base64 URL-safe, 44 karakter)
      */
     public String generateQrToken(Long sessionId) {
-        try {
-            if (sessionId == null) {
-                throw new IllegalArgumentException("Session ID null olamaz");
-            }
-
-            java.util.HashMap<String, Object> payload = new java.util.HashMap<>();
-            payload.put("sessionId", sessionId);
-            payload.put("token", UUID.randomUUID().toString());
-            payload.put("timestamp", LocalDateTime.now().toString());
-
-            String json = objectMapper.writeValueAsString(payload);
-            return Base64.getEncoder().encodeToString(json.getBytes(StandardCharsets.UTF_8));
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("QR kod oluşturulamadı", e);
+        if (sessionId == null) {
+            throw new IllegalArgumentException("Session ID null olamaz");
         }
+
+        byte[] token = new byte[TOKEN_LENGTH];
+        token[0] = VERSION;
+        writeLong(token, 1, sessionId);
+        writeLong(token, 1 + Long.BYTES, currentSlot());
+
+        Mac mac = macs.get();
+        mac.update(token, 0, PAYLOAD_LENGTH);
+        byte[] signature = mac.doFinal();
+        System.arraycopy(signature, 0, token, PAYLOAD_LENGTH, MAC_LENGTH);
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token);
     }
 
     /**
@@ -51,9 +75,8 @@ public class QrCodeGenerator {
         String baseUrl = (frontendUrl != null && !frontendUrl.isBlank())
                 ? frontendUrl
                 : "http://localhost:3000";
-        // URL formatı: http://IP:3000/attendance/give/18?qr=BASE64_TOKEN
-        return baseUrl + "/attendance/give/" + sessionId + "?qr="
-                + URLEncoder.encode(token, StandardCharsets.UTF_8);
+        // URL formatı: http://IP:3000/attendance/give/18?qr=TOKEN
+        return baseUrl + "/attendance/give/" + sessionId + "?qr=" + token;
     }
 
     /**
@@ -65,42 +88,99 @@ public class QrCodeGenerator {
     }
 
     /**
-     * QR URL'den token'ı parse eder
+     * QR token'ını veya token içeren URL'i doğrular.
+     * Token, içinde bulunulan veya bir önceki zaman diliminde üretilmişse geçerlidir;
+     * böylece aralık sınırında okutulan kodlar reddedilmez.
+     */
+    public QrValidationResult validate(String qrTokenOrUrl, Long expectedSessionId) {
+        byte[] token = decodeToken(qrTokenOrUrl);
+        if (token == null || token[0] != VERSION) {
+            return QrValidationResult.INVALID;
+        }
+
+        Mac mac = macs.get();
+        mac.update(token, 0, PAYLOAD_LENGTH);
+        byte[] signature = mac.doFinal();
+        int diff = 0;
+        for (int i = 0; i < MAC_LENGTH; i++) {
+            diff |= signature[i] ^ token[PAYLOAD_LENGTH + i];
+        }
+        if (diff != 0 || readLong(token, 1) != expectedSessionId) {
+            return QrValidationResult.INVALID;
+        }
+
+        long slot = readLong(token, 1 + Long.BYTES);
+        long current = currentSlot();
+        if (slot > current) {
+            return QrValidationResult.INVALID;
+        }
+        return current - slot <= 1 ? QrValidationResult.VALID : QrValidationResult.EXPIRED;
+    }
+
+    private long currentSlot() {
+        return System.currentTimeMillis() / 1000 / refreshIntervalSeconds;
+    }
+
+    private static byte[] decodeToken(String qrTokenOrUrl) {
+        if (qrTokenOrUrl == null) {
+            return null;
+        }
+
+        // Eğer URL gelirse, token kısmını çıkar
+        String token = qrTokenOrUrl;
+        int start = qrTokenOrUrl.indexOf("?qr=");
+        if (start >= 0) {
+            int end = qrTokenOrUrl.indexOf('&', start);
+            token = qrTokenOrUrl.substring(start + 4, end >= 0 ? end : qrTokenOrUrl.length());
+        }
+
+        try {
+            byte[] bytes = Base64.getUrlDecoder().decode(token);
+            return bytes.length == TOKEN_LENGTH ? bytes : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static void writeLong(byte[] target, int offset, long value) {
+        for (int i = Long.BYTES - 1; i >= 0; i--) {
+            target[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    private static long readLong(byte[] source, int offset) {
+        long value = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            value = (value << 8) | (source[offset + i] & 0xFF);
+        }
+        return value;
+    }
+
+    /**
+     * Secret'ı anahtar, sabit etiketi mesaj olarak kullanan HMAC-SHA256 ile QR'a özel alt anahtar türetir
      */
-    public QrCodeData parseQrCode(String qrTokenOrUrl) {
+    private static SecretKeySpec deriveSigningKey(String masterSecret) {
         try {
-            String token = qrTokenOrUrl;
-
-            // Eğer URL gelirse, token kısmını çıkar
-            if (qrTokenOrUrl.contains("?qr=")) {
-                String[] parts = qrTokenOrUrl.split("\\?qr=");
-                if (parts.length > 1) {
-                    token = java.net.URLDecoder.decode(parts[1], StandardCharsets.UTF_8);
-                }
-            }
-
-            String json = new String(Base64.getDecoder().decode(token), StandardCharsets.UTF_8);
-            Map<String, Object> payload = objectMapper.readValue(json, Map.class);
-
-            Long sessionId = ((Number) payload.get("sessionId")).longValue();
-            String tokenValue = (String) payload.get("token");
-            String timestamp = (String) payload.get("timestamp");
-
-            return new QrCodeData(sessionId, tokenValue, LocalDateTime.parse(timestamp));
-        } catch (Exception e) {
-            throw new IllegalArgumentException("Geçersiz QR kod formatı");
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(masterSecret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM));
+            return new SecretKeySpec(mac.doFinal(KEY_LABEL), HMAC_ALGORITHM);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("QR imzalama anahtarı türetilemedi", e);
         }
     }
 
-    public boolean isQrCodeExpired(String qrCode, int validitySeconds) {
+    private Mac newMac() {
         try {
-            QrCodeData data = parseQrCode(qrCode);
-            return data.timestamp().plusSeconds(validitySeconds).isBefore(LocalDateTime.now());
-        } catch (Exception e) {
-            return true;
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(signingKey);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("QR imzalama anahtarı oluşturulamadı", e);
         }
     }
 
-    public record QrCodeData(Long sessionId, String token, LocalDateTime timestamp) {
+    public enum QrValidationResult {
+        VALID, INVALID, EXPIRED
     }
 }
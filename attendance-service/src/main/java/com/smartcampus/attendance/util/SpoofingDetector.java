@@ -1,19 +1,29 @@
 package com.smartcampus.attendance.util;
 
+import com.smartcampus.attendance.cache.BoundedCache;
 import com.smartcampus.attendance.entity.AttendanceRecord;
+import com.smartcampus.attendance.repository.AttendanceRecordRepository;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.time.Duration;
-import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * GPS check-in'lerinde sahte konum tespiti yapar.
+ * Sırasıyla mock location bayrağı, GPS doğruluğu, son konumlara göre hız ve cihaz değişimi kontrol edilir.
+ * Her öğrencinin son konumları bellekte sabit boyutlu bir halka tamponda tutulur; veritabanına sadece
+ * öğrencinin ilk check-in'inde son kaydı okumak için gidilir. Öğrenci sayısı sınırlıdır; kapasite dolunca
+ * en uzun süredir check-in yapmayan öğrencilerin geçmişi düşürülür.
+ */
 @Component
 @RequiredArgsConstructor
 public class SpoofingDetector {
 
-    private final GpsUtils gpsUtils;
+    private final AttendanceRecordRepository recordRepository;
 
     @Value("${attendance.max-walking-speed:2.0}")
     private double maxWalkingSpeed;
@@ -21,20 +31,158 @@ public class SpoofingDetector {
     @Value("${attendance.gps-accuracy-threshold:5000}")
     private double gpsAccuracyThreshold;
 
-    public SpoofingResult detectSpoofing(Double latitude, Double longitude, Double accuracy,
-            Boolean isMockLocation, Optional<AttendanceRecord> lastRecord) {
-        // TEST AŞAMASINDA GEÇİCİ OLARAK DEVRE DIŞI - Production'da açılmalı!
-        // Tüm spoofing kontrollerini bypass ediyoruz
-        return SpoofingResult.clean();
+    @Value("${attendance.spoofing.enabled:true}")
+    private boolean enabled;
+
+    @Value("${attendance.spoofing.history-size:8}")
+    private int historySize;
+
+    @Value("${attendance.spoofing.max-students:50000}")
+    private int maxStudents;
+
+    @Value("${attendance.spoofing.velocity-window-minutes:120}")
+    private long velocityWindowMinutes;
+
+    @Value("${attendance.spoofing.device-switch-window-minutes:10}")
+    private long deviceSwitchWindowMinutes;
+
+    private BoundedCache<Long, MovementTrack> tracks;
+
+    @PostConstruct
+    public void init() {
+        tracks = new BoundedCache<>(maxStudents);
+    }
+
+    public SpoofingResult detectSpoofing(Long studentId, Double latitude, Double longitude, Double accuracy,
+            Boolean isMockLocation, String deviceInfo) {
+        if (!enabled) {
+            return SpoofingResult.clean();
+        }
+
+        if (Boolean.TRUE.equals(isMockLocation)) {
+            return SpoofingResult.flagged("MOCK_LOCATION",
+                    "Cihazda sahte konum (mock location) kullanıldığı tespit edildi");
+        }
+
+        if (accuracy != null && accuracy > gpsAccuracyThreshold) {
+            return SpoofingResult.flagged("LOW_GPS_ACCURACY",
+                    String.format("GPS doğruluğu yetersiz (%.0f metre). Maksimum: %.0f metre",
+                            accuracy, gpsAccuracyThreshold));
+        }
+
+        if (latitude == null || longitude == null) {
+            return SpoofingResult.clean();
+        }
+
+        return getTrack(studentId).check(latitude, longitude, accuracy, deviceHash(deviceInfo),
+                System.currentTimeMillis(), maxWalkingSpeed,
+                TimeUnit.MINUTES.toMillis(velocityWindowMinutes),
+                TimeUnit.MINUTES.toMillis(deviceSwitchWindowMinutes));
+    }
+
+    /**
+     * Kabul edilen check-in konumunu öğrencinin geçmişine ekler.
+     */
+    public void recordPosition(Long studentId, double latitude, double longitude, Double accuracy,
+            String deviceInfo) {
+        getTrack(studentId).add(latitude, longitude, accuracy, deviceHash(deviceInfo), System.currentTimeMillis());
+    }
+
+    private MovementTrack getTrack(Long studentId) {
+        MovementTrack track = tracks.get(studentId);
+        if (track != null) {
+            return track;
+        }
+
+        // Uygulama yeniden başladıktan sonraki ilk check-in: son kayıt bir kez veritabanından okunur
+        MovementTrack loaded = new MovementTrack(historySize);
+        Optional<AttendanceRecord> lastRecord = recordRepository.findLastRecordByStudentId(studentId);
+        lastRecord.filter(r -> r.getLatitude() != null && r.getLongitude() != null && r.getCheckInTime() != null)
+                .ifPresent(r -> loaded.add(r.getLatitude(), r.getLongitude(), r.getGpsAccuracy(),
+                        deviceHash(r.getDeviceInfo()),
+                        r.getCheckInTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()));
+
+        MovementTrack existing = tracks.putIfAbsent(studentId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private static int deviceHash(String deviceInfo) {
+        return deviceInfo == null || deviceInfo.isBlank() ? 0 : deviceInfo.hashCode();
+    }
+
+    /**
+     * Bir öğrencinin son konumları için sabit boyutlu halka tampon. Değerler primitive dizilerde tutulur,
+     * kontrol sırasında nesne oluşturulmaz.
+     */
+    private static final class MovementTrack {
+        private final double[] latitudes;
+        private final double[] longitudes;
+        private final double[] accuracies;
+        private final long[] timestamps;
+        private final int[] devices;
+        private int head;
+        private int size;
+
+        private MovementTrack(int capacity) {
+            int length = Math.max(1, capacity);
+            this.latitudes = new double[length];
+            this.longitudes = new double[length];
+            this.accuracies = new double[length];
+            this.timestamps = new long[length];
+            this.devices = new int[length];
+        }
+
+        private synchronized void add(double latitude, double longitude, Double accuracy, int device, long at) {
+            latitudes[head] = latitude;
+            longitudes[head] = longitude;
+            accuracies[head] = accuracy != null ? accuracy : 0;
+            timestamps[head] = at;
+            devices[head] = device;
+            head = (head + 1) % latitudes.length;
+            size = Math.min(size + 1, latitudes.length);
+        }
+
+        private synchronized SpoofingResult check(double latitude, double longitude, Double accuracy, int device,
+                long now, double maxSpeed, long velocityWindowMillis, long deviceWindowMillis) {
+            double currentAccuracy = accuracy != null ? accuracy : 0;
+
+            for (int i = 1; i <= size; i++) {
+                int index = (head - i + latitudes.length) % latitudes.length;
+                long elapsedMillis = now - timestamps[index];
+                if (elapsedMillis > velocityWindowMillis) {
+                    // Daha eski konumlar da pencere dışında
+                    break;
+                }
+
+                if (device != 0 && devices[index] != 0 && device != devices[index]
+                        && elapsedMillis <= deviceWindowMillis) {
+                    return SpoofingResult.flagged("DEVICE_CHANGED",
+                            "Kısa süre içinde farklı bir cihazdan yoklama verilmeye çalışıldı");
+                }
+
+                // İki konumun doğruluk yarıçapları kadar sapma hız hesabından düşülür
+                double distance = GpsUtils.approximateDistance(latitudes[index], longitudes[index],
+                        latitude, longitude) - accuracies[index] - currentAccuracy;
+                double elapsedSeconds = Math.max(1, elapsedMillis / 1000.0);
+                if (distance > 0 && distance / elapsedSeconds > maxSpeed) {
+                    return SpoofingResult.flagged("IMPOSSIBLE_TRAVEL",
+                            String.format("Son konumunuzdan %.0f metre uzaktasınız (%.0f saniye önce). "
+                                    + "Bu mesafe yürüme hızıyla katedilemez", distance, elapsedSeconds));
+                }
+            }
+            return SpoofingResult.clean();
+        }
     }
 
     public record SpoofingResult(boolean isFlagged, String reason, String message) {
+        private static final SpoofingResult CLEAN = new SpoofingResult(false, null, null);
+
         public static SpoofingResult flagged(String reason, String message) {
             return new SpoofingResult(true, reason, message);
         }
 
         public static SpoofingResult clean() {
-            return new SpoofingResult(false, null, null);
+            return CLEAN;
         }
     }
 }
@@ -0,0 +1,365 @@
+package com.smartcampus.attendance.writebehind;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartcampus.attendance.entity.AttendanceRecord;
+import com.smartcampus.attendance.repository.AttendanceRecordJdbcRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Check-in kayıtları için isteğe bağlı write-behind kuyruğu.
+ * <p>
+ * Kabul edilen her kayıt önce yerel, sadece eklenebilen bir journal dosyasına yazılır ve
+ * istek bu noktada onaylanır. Arka plandaki flusher her {@code flush-interval-ms} sürede veya
+ * kuyruk {@code max-batch-size} satıra ulaştığında kayıtları JDBC batch ile veritabanına yazar,
+ * ardından ilgili journal segmentini siler. Uygulama kapanırken kuyruk boşaltılır; yazılamayan
+ * segmentler diskte kalır ve bir sonraki açılışta tekrar yazılır (INSERT IGNORE ile idempotent).
+ * <p>
+ * Henüz yazılmamış kayıtların öğrenci id'leri oturum bazında tutulur; oturum kapatılırken ve
+ * aktif oturum belleğe yüklenirken bu id'ler veritabanındakilerle birleştirilir, böylece kuyruktaki
+ * bir check-in devamsız sayılmaz ve ikinci kez kabul edilmez.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CheckInWriteBehindQueue {
+
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final long FLUSH_NOW_TIMEOUT_SECONDS = 10;
+
+    private final AttendanceRecordJdbcRepository attendanceRecordJdbcRepository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${attendance.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${attendance.write-behind.journal-dir:./data/checkin-journal}")
+    private String journalDir;
+
+    @Value("${attendance.write-behind.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    @Value("${attendance.write-behind.max-batch-size:500}")
+    private int maxBatchSize;
+
+    @Value("${attendance.write-behind.max-queue-depth:50000}")
+    private int maxQueueDepth;
+
+    @Value("${attendance.write-behind.fsync:true}")
+    private boolean fsync;
+
+    private final Object appendLock = new Object();
+    private final Deque<Segment> pendingSegments = new ArrayDeque<>();
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final AtomicLong segmentSequence = new AtomicLong();
+    // sessionId -> veritabanına henüz yazılmamış check-in'lerin öğrenci id'leri
+    private final ConcurrentHashMap<Long, Set<Long>> pendingStudentIds = new ConcurrentHashMap<>();
+
+    private Path journalPath;
+    private Segment currentSegment;
+    private ScheduledExecutorService flusher;
+    private Timer flushTimer;
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            log.info("Check-in write-behind kuyruğu devre dışı");
+            return;
+        }
+
+        try {
+            journalPath = Paths.get(journalDir);
+            Files.createDirectories(journalPath);
+            recoverSegments();
+            currentSegment = openSegment();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Write-behind journal dizini hazırlanamadı: " + journalDir, e);
+        }
+
+        Gauge.builder("attendance.write_behind.queue.depth", queueDepth, AtomicInteger::get)
+                .description("Veritabanına henüz yazılmamış check-in kaydı sayısı")
+                .register(meterRegistry);
+        flushTimer = Timer.builder("attendance.write_behind.flush.latency")
+                .description("Bir journal segmentinin veritabanına yazılma süresi")
+                .register(meterRegistry);
+
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "checkin-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+
+        log.info("Check-in write-behind kuyruğu başlatıldı - dizin: {}, aralık: {} ms, parti: {}, bekleyen: {}",
+                journalPath.toAbsolutePath(), flushIntervalMs, maxBatchSize, queueDepth.get());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Kaydı journal'a ekler. Kayıt diske yazıldıktan sonra döner.
+     *
+     * @return kuyruk dolu olduğu için kayıt alınamadıysa false (çağıran doğrudan yazmalıdır)
+     */
+    public boolean enqueue(AttendanceRecord record) {
+        if (queueDepth.get() >= maxQueueDepth) {
+            log.warn("Write-behind kuyruğu dolu ({}), kayıt doğrudan yazılacak", queueDepth.get());
+            return false;
+        }
+
+        String line;
+        try {
+            line = objectMapper.writeValueAsString(record);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Yoklama kaydı journal'a yazılamadı", e);
+        }
+
+        synchronized (appendLock) {
+            currentSegment.append(line, record, fsync);
+        }
+        trackPending(record);
+
+        if (queueDepth.incrementAndGet() >= maxBatchSize && flushRequested.compareAndSet(false, true)) {
+            flusher.execute(this::flushQuietly);
+        }
+        return true;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    /**
+     * Oturum için journal'da bekleyen, veritabanına henüz yazılmamış check-in'lerin öğrenci id'leri.
+     */
+    public Set<Long> getPendingStudentIds(Long sessionId) {
+        Set<Long> pending = pendingStudentIds.get(sessionId);
+        return pending == null ? Set.of() : Set.copyOf(pending);
+    }
+
+    /**
+     * Bekleyen kayıtları hemen yazar ve yazma bitene kadar bekler.
+     * Yazma flusher thread'inde yapılır, böylece çağıranın transaction'ına katılmaz ve
+     * çağıran geri alınsa bile yazılan kayıtlar kalıcı olur.
+     *
+     * @throws IllegalStateException kayıtlar yazılamadıysa (kayıtlar kuyrukta kalır)
+     */
+    public void flushNow() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            flusher.submit(() -> {
+                flush();
+                return null;
+            }).get(FLUSH_NOW_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Write-behind flush beklenirken kesildi", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Write-behind kuyruğu veritabanına yazılamadı", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!enabled) {
+            return;
+        }
+
+        flusher.shutdown();
+        try {
+            if (!flusher.awaitTermination(10, TimeUnit.SECONDS)) {
+                flusher.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Kalan kayıtları boşalt; yazılamayanlar diskte kalır ve açılışta tekrar denenir
+        flushQuietly();
+        synchronized (appendLock) {
+            currentSegment.close();
+            currentSegment.deleteIfEmpty();
+        }
+        log.info("Check-in write-behind kuyruğu kapatıldı - bekleyen kayıt: {}", queueDepth.get());
+    }
+
+    private void flushQuietly() {
+        flushRequested.set(false);
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Write-behind flush başarısız, bir sonraki denemede tekrar yazılacak: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Aktif segmenti kapatıp bekleyenlere ekler ve bekleyen segmentleri sırayla yazar.
+     * Sadece flusher thread'i (veya kapanışta çağıran thread) tarafından çalıştırılır.
+     */
+    private synchronized void flush() throws IOException {
+        synchronized (appendLock) {
+            if (!currentSegment.records.isEmpty()) {
+                currentSegment.close();
+                pendingSegments.addLast(currentSegment);
+                currentSegment = openSegment();
+            }
+        }
+
+        while (!pendingSegments.isEmpty()) {
+            Segment segment = pendingSegments.peekFirst();
+            long start = System.nanoTime();
+            attendanceRecordJdbcRepository.batchInsertRecords(segment.records, maxBatchSize);
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+            pendingSegments.removeFirst();
+            queueDepth.addAndGet(-segment.records.size());
+            segment.records.forEach(this::untrackPending);
+            Files.deleteIfExists(segment.path);
+            log.debug("{} check-in kaydı veritabanına yazıldı - segment: {}",
+                    segment.records.size(), segment.path.getFileName());
+        }
+    }
+
+    private void recoverSegments() throws IOException {
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(journalPath)) {
+            files = stream.filter(p -> p.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+
+        for (Path file : files) {
+            Segment segment = new Segment(file, null);
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    AttendanceRecord record = objectMapper.readValue(line, AttendanceRecord.class);
+                    segment.records.add(record);
+                    trackPending(record);
+                } catch (JsonProcessingException e) {
+                    // Yarım kalmış son satır (ani kapanma) atlanır
+                    log.warn("Bozuk journal satırı atlandı - segment: {}", file.getFileName());
+                }
+            }
+            pendingSegments.addLast(segment);
+            queueDepth.addAndGet(segment.records.size());
+        }
+
+        if (!files.isEmpty()) {
+            log.info("{} journal segmentinden {} bekleyen check-in kaydı kurtarıldı", files.size(), queueDepth.get());
+        }
+    }
+
+    private void trackPending(AttendanceRecord record) {
+        pendingStudentIds.computeIfAbsent(record.getSessionId(), id -> ConcurrentHashMap.newKeySet())
+                .add(record.getStudentId());
+    }
+
+    private void untrackPending(AttendanceRecord record) {
+        pendingStudentIds.computeIfPresent(record.getSessionId(), (id, students) -> {
+            students.remove(record.getStudentId());
+            return students.isEmpty() ? null : students;
+        });
+    }
+
+    private Segment openSegment() {
+        String name = String.format("%020d-%06d%s", System.currentTimeMillis(),
+                segmentSequence.incrementAndGet(), SEGMENT_SUFFIX);
+        Path path = journalPath.resolve(name);
+        try {
+            FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            return new Segment(path, channel);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Journal segmenti açılamadı: " + path, e);
+        }
+    }
+
+    private final class Segment {
+        private final Path path;
+        private final FileChannel channel;
+        private final List<AttendanceRecord> records = new ArrayList<>();
+
+        private Segment(Path path, FileChannel channel) {
+            this.path = path;
+            this.channel = channel;
+        }
+
+        private void append(String line, AttendanceRecord record, boolean force) {
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8));
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                if (force) {
+                    channel.force(false);
+                }
+                records.add(record);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Journal'a yazılamadı: " + path, e);
+            }
+        }
+
+        private void close() {
+            if (channel == null) {
+                return;
+            }
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("Journal segmenti kapatılamadı: {}", path, e);
+            }
+        }
+
+        private void deleteIfEmpty() {
+            if (records.isEmpty()) {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    log.warn("Boş journal segmenti silinemedi: {}", path, e);
+                }
+            }
+        }
+    }
+}
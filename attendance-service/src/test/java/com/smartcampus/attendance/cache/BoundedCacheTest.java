@@ -0,0 +1,68 @@
+package com.smartcampus.attendance.cache;
+
+import org.junit.jupiter.api.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BoundedCache Unit Tests")
+class BoundedCacheTest {
+
+    @Test
+    @DisplayName("Should evict the least recently read entries when full")
+    void put_CapacityReached_EvictsLeastRecentlyUsed() throws Exception {
+        BoundedCache<Integer, String> cache = new BoundedCache<>(10);
+        for (int i = 0; i < 10; i++) {
+            cache.put(i, "v" + i);
+            Thread.sleep(1);
+        }
+        // 0 numaralı kayıt en eski eklenen olsa da yeniden okunduğu için korunmalı
+        assertEquals("v0", cache.get(0));
+
+        cache.put(10, "v10");
+
+        assertEquals(10, cache.size());
+        assertEquals("v0", cache.get(0));
+        assertNull(cache.get(1));
+        assertEquals("v10", cache.get(10));
+    }
+
+    @Test
+    @DisplayName("Should not return entries whose TTL has passed")
+    void get_ExpiredEntry_ReturnsNull() throws Exception {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, 1, TimeUnit.DAYS);
+        cache.put("short", "a", 1, TimeUnit.MILLISECONDS);
+        cache.put("default", "b");
+        Thread.sleep(5);
+
+        assertNull(cache.get("short"));
+        assertEquals("b", cache.get("default"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    @DisplayName("Should keep the existing value on putIfAbsent")
+    void putIfAbsent_ExistingEntry_ReturnsExisting() {
+        BoundedCache<String, String> cache = new BoundedCache<>(10);
+
+        assertNull(cache.putIfAbsent("key", "first"));
+        assertEquals("first", cache.putIfAbsent("key", "second"));
+        assertEquals("first", cache.get("key"));
+    }
+
+    @Test
+    @DisplayName("Should remove an entry only while it still holds the given value")
+    void removeIfSame_ReplacedValue_KeepsNewEntry() {
+        BoundedCache<String, long[]> cache = new BoundedCache<>(10);
+        long[] stale = {1L};
+        long[] fresh = {1L};
+        cache.put("key", stale);
+        cache.put("key", fresh);
+
+        assertFalse(cache.remove("key", stale));
+        assertSame(fresh, cache.get("key"));
+        assertTrue(cache.remove("key", fresh));
+        assertNull(cache.get("key"));
+    }
+}
@@ -0,0 +1,86 @@
+package com.smartcampus.attendance.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SectionRosterCache Unit Tests")
+class SectionRosterCacheTest {
+
+    private static final Long SECTION_ID = 20L;
+    private static final Long STUDENT_ID = 2L;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private SectionRosterCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new SectionRosterCache(jdbcTemplate, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "ttlMinutes", 5L);
+        ReflectionTestUtils.setField(cache, "maxSections", 100);
+        ReflectionTestUtils.setField(cache, "maxStudents", 100);
+        ReflectionTestUtils.setField(cache, "changePollSeconds", 0L);
+        cache.init();
+    }
+
+    @Test
+    @DisplayName("Should serve a loaded roster from cache until evicted")
+    void getRoster_LoadedOnce_ServedFromCache() {
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(SECTION_ID)))
+                .thenReturn(List.of(3L, 1L, 2L));
+
+        assertArrayEquals(new long[]{1L, 2L, 3L}, cache.getRoster(SECTION_ID));
+        assertArrayEquals(new long[]{1L, 2L, 3L}, cache.getRoster(SECTION_ID));
+        verify(jdbcTemplate, times(1)).queryForList(anyString(), eq(Long.class), eq(SECTION_ID));
+
+        cache.evictSection(SECTION_ID);
+        cache.getRoster(SECTION_ID);
+        verify(jdbcTemplate, times(2)).queryForList(anyString(), eq(Long.class), eq(SECTION_ID));
+    }
+
+    @Test
+    @DisplayName("Should not keep a roster whose load started before an eviction")
+    void getRoster_EvictedDuringLoad_DoesNotCacheStaleRoster() {
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(SECTION_ID)))
+                .thenAnswer(invocation -> {
+                    // Sorgu eski kadroyu okuduktan sonra kayıt değişikliği commit edilip evict gelir
+                    cache.evictSection(SECTION_ID);
+                    return List.of(1L, 2L);
+                })
+                .thenReturn(List.of(1L));
+
+        assertArrayEquals(new long[]{1L, 2L}, cache.getRoster(SECTION_ID));
+        assertArrayEquals(new long[]{1L}, cache.getRoster(SECTION_ID));
+        assertArrayEquals(new long[]{1L}, cache.getRoster(SECTION_ID));
+        verify(jdbcTemplate, times(2)).queryForList(anyString(), eq(Long.class), eq(SECTION_ID));
+    }
+
+    @Test
+    @DisplayName("Should not keep a student's sections whose load started before an eviction")
+    void getSectionIds_EvictedDuringLoad_DoesNotCacheStaleSections() {
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(STUDENT_ID)))
+                .thenAnswer(invocation -> {
+                    cache.evictStudent(STUDENT_ID);
+                    return List.of(SECTION_ID);
+                })
+                .thenReturn(List.of());
+
+        assertArrayEquals(new long[]{SECTION_ID}, cache.getSectionIds(STUDENT_ID));
+        assertArrayEquals(new long[0], cache.getSectionIds(STUDENT_ID));
+        assertArrayEquals(new long[0], cache.getSectionIds(STUDENT_ID));
+        verify(jdbcTemplate, times(2)).queryForList(anyString(), eq(Long.class), eq(STUDENT_ID));
+    }
+}
@@ -0,0 +1,196 @@
+package com.smartcampus.attendance.notification;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("MailDispatcher Tests")
+class MailDispatcherTest {
+
+    private static final String WARNING_TEMPLATE = "<p>-name- devamsızlık uyarısı</p>";
+    private static final String CRITICAL_TEMPLATE = "<p>-name- kritik devamsızlık</p>";
+
+    private SendGridStubServer sendGrid;
+    private MeterRegistry meterRegistry;
+    private MailDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        sendGrid = new SendGridStubServer(new ObjectMapper());
+        sendGrid.start();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+        }
+        sendGrid.stop();
+    }
+
+    private void startDispatcher(double requestsPerSecond, int burst, int maxAttempts) {
+        dispatcher = new MailDispatcher(WebClient.builder(), meterRegistry);
+        ReflectionTestUtils.setField(dispatcher, "sendGridApiKey", "test-key");
+        ReflectionTestUtils.setField(dispatcher, "sendGridEnabled", true);
+        ReflectionTestUtils.setField(dispatcher, "fromEmail", "noreply@smartcampus.edu.tr");
+        ReflectionTestUtils.setField(dispatcher, "baseUrl", sendGrid.getBaseUrl());
+        ReflectionTestUtils.setField(dispatcher, "queueCapacity", 100);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 100);
+        ReflectionTestUtils.setField(dispatcher, "requestsPerSecond", requestsPerSecond);
+        ReflectionTestUtils.setField(dispatcher, "burst", burst);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", maxAttempts);
+        ReflectionTestUtils.setField(dispatcher, "initialBackoffMs", 20L);
+        ReflectionTestUtils.setField(dispatcher, "maxBackoffMs", 100L);
+        ReflectionTestUtils.setField(dispatcher, "maxConnections", 2);
+        ReflectionTestUtils.setField(dispatcher, "requestTimeoutSeconds", 1L);
+        ReflectionTestUtils.setField(dispatcher, "shutdownTimeoutSeconds", 5L);
+        dispatcher.init();
+    }
+
+    private static MailDispatcher.OutgoingMail mail(String templateKey, String template, String to) {
+        return new MailDispatcher.OutgoingMail(templateKey, to, "Devamsızlık", template, Map.of("-name-", to));
+    }
+
+    /**
+     * İlk isteği bekleterek dispatcher'ı meşgul eder; bu sırada kuyruğa eklenenler tek partide alınır.
+     */
+    private void holdDispatcher() {
+        sendGrid.respondAfter(500, 202);
+        assertTrue(dispatcher.enqueue(mail("hold", "<p>hold</p>", "hold@smartcampus.edu.tr")));
+        await(() -> sendGrid.getReceivedRequests() == 1);
+    }
+
+    private double recipients(String result) {
+        return meterRegistry.get("attendance.mail.recipients").tag("result", result).counter().count();
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(15);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Condition not met within 15 seconds");
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail("Interrupted");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should send one request per template with one personalization per recipient")
+    void enqueue_MixedTemplates_GroupsByTemplate() {
+        startDispatcher(100, 10, 3);
+        holdDispatcher();
+
+        dispatcher.enqueue(mail("warning", WARNING_TEMPLATE, "a@smartcampus.edu.tr"));
+        dispatcher.enqueue(mail("critical", CRITICAL_TEMPLATE, "b@smartcampus.edu.tr"));
+        dispatcher.enqueue(mail("warning", WARNING_TEMPLATE, "c@smartcampus.edu.tr"));
+        dispatcher.enqueue(mail("warning", WARNING_TEMPLATE, "d@smartcampus.edu.tr"));
+        dispatcher.enqueue(mail("critical", CRITICAL_TEMPLATE, "e@smartcampus.edu.tr"));
+        await(() -> recipients("sent") == 6);
+
+        List<SendGridStubServer.ReceivedRequest> requests = sendGrid.getRequests();
+        assertEquals(3, requests.size());
+        assertEquals(WARNING_TEMPLATE, requests.get(1).template());
+        assertEquals(3, requests.get(1).recipients());
+        assertEquals(CRITICAL_TEMPLATE, requests.get(2).template());
+        assertEquals(2, requests.get(2).recipients());
+        assertEquals("Bearer test-key", requests.get(1).authorization());
+        assertEquals(6, sendGrid.getAcceptedRecipients());
+    }
+
+    @Test
+    @DisplayName("Should limit requests per second once the burst is used")
+    void enqueue_ManyTemplates_RateLimitsRequests() {
+        startDispatcher(5, 1, 3);
+        holdDispatcher();
+
+        for (int i = 0; i < 6; i++) {
+            dispatcher.enqueue(mail("template-" + i, "<p>" + i + "</p>", i + "@smartcampus.edu.tr"));
+        }
+        await(() -> recipients("sent") == 7);
+
+        List<SendGridStubServer.ReceivedRequest> requests = sendGrid.getRequests();
+        assertEquals(7, requests.size());
+        // Saniyede 5 istek: ardışık altı istek arasında en az beş token aralığı (~1 s) olmalı
+        long spanMs = TimeUnit.NANOSECONDS.toMillis(requests.get(6).receivedAtNanos() - requests.get(1).receivedAtNanos());
+        assertTrue(spanMs >= 900, "Six requests took only " + spanMs + " ms");
+    }
+
+    @Test
+    @DisplayName("Should retry 429 and 5xx responses until accepted")
+    void enqueue_TransientErrors_RetriesUntilAccepted() {
+        startDispatcher(100, 10, 5);
+        sendGrid.respond(429).respond(503).respond(500);
+
+        dispatcher.enqueue(mail("warning", WARNING_TEMPLATE, "a@smartcampus.edu.tr"));
+        await(() -> recipients("sent") == 1);
+
+        assertEquals(4, sendGrid.getReceivedRequests());
+        assertEquals(0.0, recipients("failed"));
+        assertEquals(1, sendGrid.getAcceptedRecipients());
+    }
+
+    @Test
+    @DisplayName("Should retry a request that times out")
+    void enqueue_SlowResponse_RetriesAfterTimeout() {
+        startDispatcher(100, 10, 3);
+        sendGrid.respondAfter(3000, 202);
+
+        dispatcher.enqueue(mail("warning", WARNING_TEMPLATE, "a@smartcampus.edu.tr"));
+        await(() -> recipients("sent") == 1);
+
+        assertEquals(2, sendGrid.getReceivedRequests());
+        assertEquals(0.0, recipients("failed"));
+    }
+
+    @Test
+    @DisplayName("Should give up after max attempts on persistent server errors")
+    void enqueue_PersistentServerErrors_FailsAfterMaxAttempts() {
+        startDispatcher(100, 10, 3);
+        sendGrid.respond(500).respond(502).respond(503).respond(504);
+
+        dispatcher.enqueue(mail("warning", WARNING_TEMPLATE, "a@smartcampus.edu.tr"));
+        await(() -> recipients("failed") == 1);
+
+        // Dördüncü senaryo yanıtı hiç istenmez; başarısız e-posta kuyruğa geri konmaz
+        assertEquals(3, sendGrid.getReceivedRequests());
+        assertEquals(0.0, recipients("sent"));
+    }
+
+    @Test
+    @DisplayName("Should not retry client errors")
+    void enqueue_BadRequest_FailsWithoutRetry() {
+        startDispatcher(100, 10, 5);
+        sendGrid.respond(400);
+
+        dispatcher.enqueue(mail("warning", WARNING_TEMPLATE, "a@smartcampus.edu.tr"));
+        await(() -> recipients("failed") == 1);
+
+        assertEquals(1, sendGrid.getReceivedRequests());
+    }
+
+    @Test
+    @DisplayName("Should not queue emails when SendGrid is disabled")
+    void enqueue_Disabled_ReturnsFalse() {
+        startDispatcher(100, 10, 3);
+        ReflectionTestUtils.setField(dispatcher, "sendGridEnabled", false);
+
+        assertFalse(dispatcher.enqueue(mail("warning", WARNING_TEMPLATE, "a@smartcampus.edu.tr")));
+        assertEquals(0, sendGrid.getReceivedRequests());
+    }
+}
@@ -0,0 +1,128 @@
+package com.smartcampus.attendance.notification;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Testler için SendGrid {@code /v3/mail/send} taklidi; sadece test classpath'inde bulunur.
+ * Loopback adresinde rastgele bir portu dinler, gelen istekleri kaydeder ve sıradaki senaryo
+ * yanıtıyla (durum kodu ve gecikme) döner; senaryo bittiğinde 202 döner. Dışarıya e-posta gönderilmez.
+ * 429/5xx veya gecikmeli yanıt verilerek dispatcher'ın tekrar deneme davranışı denenir.
+ */
+@Slf4j
+public class SendGridStubServer {
+
+    private static final int ACCEPTED = 202;
+
+    private final ObjectMapper objectMapper;
+    private final Queue<ScriptedResponse> script = new ConcurrentLinkedQueue<>();
+    private final List<ReceivedRequest> requests = new CopyOnWriteArrayList<>();
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public SendGridStubServer(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/v3/mail/send", this::handleMailSend);
+        // Gecikmeli yanıt sonraki istekleri bekletmesin
+        executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    public String getBaseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Sıradaki isteğe verilecek yanıtı ekler.
+     */
+    public SendGridStubServer respond(int status) {
+        return respondAfter(0, status);
+    }
+
+    public SendGridStubServer respondAfter(long delayMs, int status) {
+        script.add(new ScriptedResponse(status, delayMs));
+        return this;
+    }
+
+    public List<ReceivedRequest> getRequests() {
+        return List.copyOf(requests);
+    }
+
+    public int getReceivedRequests() {
+        return requests.size();
+    }
+
+    /**
+     * 2xx ile kabul edilen isteklerdeki toplam alıcı sayısı.
+     */
+    public int getAcceptedRecipients() {
+        return requests.stream()
+                .filter(request -> request.status() < 300)
+                .mapToInt(ReceivedRequest::recipients)
+                .sum();
+    }
+
+    private void handleMailSend(HttpExchange exchange) throws IOException {
+        try (exchange; InputStream body = exchange.getRequestBody()) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            JsonNode request = objectMapper.readTree(body);
+            ScriptedResponse response = script.poll();
+            int status = response != null ? response.status() : ACCEPTED;
+            requests.add(new ReceivedRequest(System.nanoTime(),
+                    request.path("personalizations").size(),
+                    request.path("content").path(0).path("value").asText(),
+                    exchange.getRequestHeaders().getFirst("Authorization"),
+                    status));
+            log.debug("SendGrid stub received {} personalizations, responding {}",
+                    request.path("personalizations").size(), status);
+
+            if (response != null && response.delayMs() > 0) {
+                TimeUnit.MILLISECONDS.sleep(response.delayMs());
+            }
+            exchange.sendResponseHeaders(status, -1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // İstemci zaman aşımıyla bağlantıyı kapatmış olabilir
+            log.debug("SendGrid stub could not respond: {}", e.getMessage());
+        }
+    }
+
+    private record ScriptedResponse(int status, long delayMs) {
+    }
+
+    public record ReceivedRequest(long receivedAtNanos, int recipients, String template, String authorization,
+            int status) {
+    }
+}
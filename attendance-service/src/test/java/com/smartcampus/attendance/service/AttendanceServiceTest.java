@@ -0,0 +1,137 @@
+package com.smartcampus.attendance.service;
+
+import com.smartcampus.attendance.cache.ActiveSessionRegistry;
+import com.smartcampus.attendance.cache.SectionRosterCache;
+import com.smartcampus.attendance.entity.AttendanceSession;
+import com.smartcampus.attendance.entity.SessionStatus;
+import com.smartcampus.attendance.live.LiveAttendanceBroadcaster;
+import com.smartcampus.attendance.repository.AttendanceRecordJdbcRepository;
+import com.smartcampus.attendance.repository.AttendanceRecordRepository;
+import com.smartcampus.attendance.repository.AttendanceSessionRepository;
+import com.smartcampus.attendance.service.impl.AttendanceServiceImpl;
+import com.smartcampus.attendance.writebehind.CheckInWriteBehindQueue;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AttendanceService Unit Tests")
+class AttendanceServiceTest {
+
+    private static final Long INSTRUCTOR_ID = 5L;
+    private static final Long SESSION_ID = 10L;
+    private static final Long SECTION_ID = 20L;
+
+    @Mock
+    private AttendanceSessionRepository sessionRepository;
+
+    @Mock
+    private AttendanceRecordRepository recordRepository;
+
+    @Mock
+    private AttendanceRecordJdbcRepository attendanceRecordJdbcRepository;
+
+    @Mock
+    private ActiveSessionRegistry activeSessionRegistry;
+
+    @Mock
+    private SectionRosterCache sectionRosterCache;
+
+    @Mock
+    private CheckInWriteBehindQueue checkInWriteBehindQueue;
+
+    @Mock
+    private LiveAttendanceBroadcaster liveAttendanceBroadcaster;
+
+    @InjectMocks
+    private AttendanceServiceImpl attendanceService;
+
+    private AttendanceSession activeSession;
+
+    @BeforeEach
+    void setUp() {
+        activeSession = AttendanceSession.builder()
+                .id(SESSION_ID)
+                .sectionId(SECTION_ID)
+                .instructorId(INSTRUCTOR_ID)
+                .sessionDate(LocalDate.now())
+                .startTime(LocalTime.of(9, 0))
+                .geofenceRadius(15)
+                .status(SessionStatus.ACTIVE)
+                .build();
+    }
+
+    @Nested
+    @DisplayName("Close Session Tests")
+    class CloseSessionTests {
+
+        @BeforeEach
+        void setUp() {
+            when(sessionRepository.findById(SESSION_ID)).thenReturn(Optional.of(activeSession));
+            when(sessionRepository.save(any(AttendanceSession.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            when(sectionRosterCache.getRoster(SECTION_ID)).thenReturn(new long[]{1L, 2L, 3L});
+            when(recordRepository.findStudentIdsBySessionId(SESSION_ID)).thenReturn(List.of(1L));
+        }
+
+        @Test
+        @DisplayName("Should flush queued check-ins before marking absent students")
+        void closeSession_WithQueuedCheckIns_FlushesBeforeMarkingAbsent() {
+            when(checkInWriteBehindQueue.isEnabled()).thenReturn(true);
+            when(checkInWriteBehindQueue.getPendingStudentIds(SESSION_ID)).thenReturn(Set.of());
+            when(attendanceRecordJdbcRepository.insertAbsentRecords(eq(SESSION_ID), any(long[].class))).thenReturn(2);
+
+            attendanceService.closeSession(INSTRUCTOR_ID, SESSION_ID);
+
+            InOrder inOrder = inOrder(checkInWriteBehindQueue, recordRepository, attendanceRecordJdbcRepository);
+            inOrder.verify(checkInWriteBehindQueue).flushNow();
+            inOrder.verify(recordRepository).findStudentIdsBySessionId(SESSION_ID);
+            inOrder.verify(attendanceRecordJdbcRepository).insertAbsentRecords(eq(SESSION_ID), any(long[].class));
+        }
+
+        @Test
+        @DisplayName("Should not mark students with still-queued check-ins as absent when flush fails")
+        void closeSession_FlushFails_QueuedCheckInsAreNotMarkedAbsent() {
+            when(checkInWriteBehindQueue.isEnabled()).thenReturn(true);
+            doThrow(new IllegalStateException("Write-behind kuyruğu veritabanına yazılamadı"))
+                    .when(checkInWriteBehindQueue).flushNow();
+            when(checkInWriteBehindQueue.getPendingStudentIds(SESSION_ID)).thenReturn(Set.of(2L));
+            when(attendanceRecordJdbcRepository.insertAbsentRecords(eq(SESSION_ID), any(long[].class))).thenReturn(1);
+
+            attendanceService.closeSession(INSTRUCTOR_ID, SESSION_ID);
+
+            ArgumentCaptor<long[]> absentCaptor = ArgumentCaptor.forClass(long[].class);
+            verify(attendanceRecordJdbcRepository).insertAbsentRecords(eq(SESSION_ID), absentCaptor.capture());
+            assertArrayEquals(new long[]{3L}, absentCaptor.getValue());
+            assertEquals(SessionStatus.CLOSED, activeSession.getStatus());
+        }
+
+        @Test
+        @DisplayName("Should mark only students without any check-in as absent when write-behind is disabled")
+        void closeSession_WriteBehindDisabled_MarksMissingStudentsAbsent() {
+            when(checkInWriteBehindQueue.isEnabled()).thenReturn(false);
+            when(attendanceRecordJdbcRepository.insertAbsentRecords(eq(SESSION_ID), any(long[].class))).thenReturn(2);
+
+            attendanceService.closeSession(INSTRUCTOR_ID, SESSION_ID);
+
+            ArgumentCaptor<long[]> absentCaptor = ArgumentCaptor.forClass(long[].class);
+            verify(attendanceRecordJdbcRepository).insertAbsentRecords(eq(SESSION_ID), absentCaptor.capture());
+            assertArrayEquals(new long[]{2L, 3L}, absentCaptor.getValue());
+            verify(checkInWriteBehindQueue, never()).flushNow();
+            verify(checkInWriteBehindQueue, never()).getPendingStudentIds(anyLong());
+        }
+    }
+}
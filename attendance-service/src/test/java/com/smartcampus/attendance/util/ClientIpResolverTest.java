@@ -0,0 +1,122 @@
+package com.smartcampus.attendance.util;
+
+import org.junit.jupiter.api.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ClientIpResolver Unit Tests")
+class ClientIpResolverTest {
+
+    private static final String GATEWAY = "172.18.0.5";
+    private static final String OFF_CAMPUS_CLIENT = "203.0.113.7";
+
+    private ClientIpResolver resolver;
+    private IpValidator ipValidator;
+
+    @BeforeEach
+    void setUp() {
+        resolver = new ClientIpResolver();
+        ReflectionTestUtils.setField(resolver, "trustedProxies", "172.18.0.0/16");
+        resolver.init();
+
+        ipValidator = new IpValidator();
+        ReflectionTestUtils.setField(ipValidator, "campusIpRanges", "10.0.0.0/8");
+        ReflectionTestUtils.setField(ipValidator, "campusIpRangesFile", "");
+        ReflectionTestUtils.setField(ipValidator, "ipValidationEnabled", true);
+        ipValidator.init();
+    }
+
+    @Test
+    @DisplayName("Should ignore a spoofed X-Forwarded-For header from an untrusted client")
+    void resolve_SpoofedHeaderFromUntrustedClient_UsesRemoteAddress() {
+        MockHttpServletRequest request = request(OFF_CAMPUS_CLIENT, "10.1.2.3");
+
+        String clientIp = resolver.resolve(request);
+
+        assertEquals(OFF_CAMPUS_CLIENT, clientIp);
+        assertFalse(ipValidator.isOnCampusNetwork(clientIp));
+    }
+
+    @Test
+    @DisplayName("Should take the right-most untrusted hop when a spoofed value is forwarded by the gateway")
+    void resolve_SpoofedHeaderThroughGateway_UsesRightMostUntrustedHop() {
+        // İstemci "10.1.2.3" yazdı, gateway gerçek bağlantı adresini sona ekledi
+        MockHttpServletRequest request = request(GATEWAY, "10.1.2.3, " + OFF_CAMPUS_CLIENT);
+
+        String clientIp = resolver.resolve(request);
+
+        assertEquals(OFF_CAMPUS_CLIENT, clientIp);
+        assertFalse(ipValidator.isOnCampusNetwork(clientIp));
+    }
+
+    @Test
+    @DisplayName("Should use the forwarded client address from a trusted gateway")
+    void resolve_HeaderFromTrustedGateway_UsesForwardedClient() {
+        MockHttpServletRequest request = request(GATEWAY, "10.20.30.40");
+
+        String clientIp = resolver.resolve(request);
+
+        assertEquals("10.20.30.40", clientIp);
+        assertTrue(ipValidator.isOnCampusNetwork(clientIp));
+    }
+
+    @Test
+    @DisplayName("Should skip trusted proxy hops in the forwarded chain")
+    void resolve_ChainOfTrustedProxies_SkipsProxyHops() {
+        MockHttpServletRequest request = request(GATEWAY, "10.20.30.40, 172.18.0.9, 127.0.0.1");
+
+        assertEquals("10.20.30.40", resolver.resolve(request));
+    }
+
+    @Test
+    @DisplayName("Should use the remote address when no header is present")
+    void resolve_NoHeader_UsesRemoteAddress() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(GATEWAY);
+
+        assertEquals(GATEWAY, resolver.resolve(request));
+    }
+
+    @Test
+    @DisplayName("Should not treat the gateway's Docker address as on-campus with the shipped defaults")
+    void resolve_GatewayWithDefaultConfig_IsNotOnCampus() throws IOException {
+        ClientIpResolver defaultResolver = new ClientIpResolver();
+        ReflectionTestUtils.setField(defaultResolver, "trustedProxies", shippedDefault("attendance.trusted-proxies"));
+        defaultResolver.init();
+
+        IpValidator defaultValidator = new IpValidator();
+        ReflectionTestUtils.setField(defaultValidator, "campusIpRanges", shippedDefault("attendance.campus-ip-ranges"));
+        ReflectionTestUtils.setField(defaultValidator, "campusIpRangesFile", "");
+        ReflectionTestUtils.setField(defaultValidator, "ipValidationEnabled", true);
+        defaultValidator.init();
+
+        // TRUSTED_PROXIES verilmemiş: gateway'in kendi adresi istemci adresi olarak döner
+        String clientIp = defaultResolver.resolve(request(GATEWAY, OFF_CAMPUS_CLIENT));
+
+        assertEquals(GATEWAY, clientIp);
+        assertFalse(defaultValidator.isOnCampusNetwork(clientIp));
+    }
+
+    // application.properties'teki ${ENV:varsayılan} ifadesinin varsayılan kısmı
+    private static String shippedDefault(String key) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = ClientIpResolverTest.class.getResourceAsStream("/application.properties")) {
+            properties.load(in);
+        }
+        String value = properties.getProperty(key);
+        return value.substring(value.indexOf(':') + 1, value.length() - 1);
+    }
+
+    private MockHttpServletRequest request(String remoteAddr, String forwardedFor) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddr);
+        request.addHeader("X-Forwarded-For", forwardedFor);
+        return request;
+    }
+}
@@ -0,0 +1,66 @@
+package com.smartcampus.attendance.util;
+
+import org.junit.jupiter.api.*;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("QrCodeGenerator Unit Tests")
+class QrCodeGeneratorTest {
+
+    private static final String JWT_SECRET = "jwt-secret-0123456789abcdef0123456789abcdef";
+    private static final String QR_SECRET = "qr-secret-0123456789abcdef0123456789abcdef";
+    private static final Long SESSION_ID = 42L;
+
+    @Test
+    @DisplayName("Should accept a token it generated for the same session")
+    void validate_OwnToken_ReturnsValid() {
+        QrCodeGenerator generator = new QrCodeGenerator(QR_SECRET, JWT_SECRET, 5);
+
+        String token = generator.generateQrToken(SESSION_ID);
+
+        assertEquals(QrCodeGenerator.QrValidationResult.VALID, generator.validate(token, SESSION_ID));
+        assertEquals(QrCodeGenerator.QrValidationResult.VALID,
+                generator.validate(generator.generateQrCode(SESSION_ID), SESSION_ID));
+        assertEquals(QrCodeGenerator.QrValidationResult.INVALID, generator.validate(token, SESSION_ID + 1));
+    }
+
+    @Test
+    @DisplayName("Should derive a QR key from the JWT secret instead of signing with it")
+    void validate_TokenSignedWithJwtSecret_ReturnsInvalid() throws Exception {
+        QrCodeGenerator generator = new QrCodeGenerator("", JWT_SECRET, 5);
+
+        String forged = signRaw(generator.generateQrToken(SESSION_ID), JWT_SECRET);
+
+        assertEquals(QrCodeGenerator.QrValidationResult.INVALID, generator.validate(forged, SESSION_ID));
+    }
+
+    @Test
+    @DisplayName("Should not accept tokens across different QR secrets")
+    void validate_TokenFromOtherSecret_ReturnsInvalid() {
+        QrCodeGenerator dedicated = new QrCodeGenerator(QR_SECRET, JWT_SECRET, 5);
+        QrCodeGenerator fallback = new QrCodeGenerator(null, JWT_SECRET, 5);
+
+        assertEquals(QrCodeGenerator.QrValidationResult.INVALID,
+                fallback.validate(dedicated.generateQrToken(SESSION_ID), SESSION_ID));
+        assertEquals(QrCodeGenerator.QrValidationResult.INVALID,
+                dedicated.validate(fallback.generateQrToken(SESSION_ID), SESSION_ID));
+    }
+
+    /**
+     * Token'ın payload'ını koruyup imzasını verilen secret'ın kendisiyle yeniden hesaplar.
+     */
+    private static String signRaw(String token, String secret) throws Exception {
+        byte[] bytes = Base64.getUrlDecoder().decode(token);
+        int payloadLength = bytes.length - 16;
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        mac.update(bytes, 0, payloadLength);
+        System.arraycopy(mac.doFinal(), 0, bytes, payloadLength, 16);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
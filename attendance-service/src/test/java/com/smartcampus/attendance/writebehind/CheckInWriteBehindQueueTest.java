@@ -0,0 +1,117 @@
+package com.smartcampus.attendance.writebehind;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartcampus.attendance.entity.AttendanceRecord;
+import com.smartcampus.attendance.entity.AttendanceStatus;
+import com.smartcampus.attendance.entity.CheckInMethod;
+import com.smartcampus.attendance.repository.AttendanceRecordJdbcRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CheckInWriteBehindQueue Unit Tests")
+class CheckInWriteBehindQueueTest {
+
+    private static final Long SESSION_ID = 10L;
+
+    @Mock
+    private AttendanceRecordJdbcRepository attendanceRecordJdbcRepository;
+
+    @TempDir
+    Path journalDir;
+
+    private CheckInWriteBehindQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        queue = newQueue();
+    }
+
+    @AfterEach
+    void tearDown() {
+        queue.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should expose queued check-ins until they are flushed")
+    void flushNow_WritesQueuedRecordsAndClearsPendingStudents() {
+        assertTrue(queue.enqueue(checkIn(2L)));
+        assertTrue(queue.enqueue(checkIn(3L)));
+
+        assertEquals(Set.of(2L, 3L), queue.getPendingStudentIds(SESSION_ID));
+        assertEquals(Set.of(), queue.getPendingStudentIds(99L));
+
+        queue.flushNow();
+
+        verify(attendanceRecordJdbcRepository).batchInsertRecords(argThat(records -> records.size() == 2), anyInt());
+        assertEquals(Set.of(), queue.getPendingStudentIds(SESSION_ID));
+        assertEquals(0, queue.getQueueDepth());
+    }
+
+    @Test
+    @DisplayName("Should keep check-ins pending when the database write fails")
+    void flushNow_DatabaseFailure_KeepsRecordsPending() {
+        doThrow(new DataAccessResourceFailureException("connection refused"))
+                .when(attendanceRecordJdbcRepository).batchInsertRecords(anyList(), anyInt());
+        queue.enqueue(checkIn(2L));
+
+        assertThrows(IllegalStateException.class, () -> queue.flushNow());
+
+        assertEquals(Set.of(2L), queue.getPendingStudentIds(SESSION_ID));
+        assertEquals(1, queue.getQueueDepth());
+    }
+
+    @Test
+    @DisplayName("Should restore pending check-ins from the journal after a restart")
+    void init_UnflushedJournal_RestoresPendingStudents() {
+        doThrow(new DataAccessResourceFailureException("connection refused"))
+                .when(attendanceRecordJdbcRepository).batchInsertRecords(anyList(), anyInt());
+        queue.enqueue(checkIn(2L));
+        queue.shutdown();
+
+        queue = newQueue();
+
+        assertEquals(Set.of(2L), queue.getPendingStudentIds(SESSION_ID));
+        assertEquals(1, queue.getQueueDepth());
+    }
+
+    private CheckInWriteBehindQueue newQueue() {
+        CheckInWriteBehindQueue newQueue = new CheckInWriteBehindQueue(attendanceRecordJdbcRepository,
+                new ObjectMapper().findAndRegisterModules(), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(newQueue, "enabled", true);
+        ReflectionTestUtils.setField(newQueue, "journalDir", journalDir.toString());
+        // Otomatik flush test süresince çalışmaz; yazma flushNow ile tetiklenir
+        ReflectionTestUtils.setField(newQueue, "flushIntervalMs", 60_000L);
+        ReflectionTestUtils.setField(newQueue, "maxBatchSize", 500);
+        ReflectionTestUtils.setField(newQueue, "maxQueueDepth", 1000);
+        ReflectionTestUtils.setField(newQueue, "fsync", false);
+        newQueue.init();
+        return newQueue;
+    }
+
+    private AttendanceRecord checkIn(Long studentId) {
+        return AttendanceRecord.builder()
+                .sessionId(SESSION_ID)
+                .studentId(studentId)
+                .status(AttendanceStatus.PRESENT)
+                .checkInTime(LocalDateTime.now())
+                .checkInMethod(CheckInMethod.GPS)
+                .isFlagged(false)
+                .build();
+    }
+}
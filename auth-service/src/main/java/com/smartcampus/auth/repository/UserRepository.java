@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -38,5 +39,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
            "OR LOWER(u.lastName) LIKE LOWER(CONCAT('%', :search, '%')) " +
            "OR LOWER(u.email) LIKE LOWER(CONCAT('%', :search, '%')))")
     Page<User> searchUsersByRole(@Param("search") String search, @Param("role") Role role, Pageable pageable);
-}
 
+    @Query("SELECT u.id FROM User u WHERE u.isActive = false OR u.deletedAt IS NOT NULL")
+    List<Long> findRevokedUserIds();
+}
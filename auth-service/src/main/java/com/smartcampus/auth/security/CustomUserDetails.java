@@ -19,7 +19,10 @@ public class CustomUserDetails implements UserDetails {
     private final Role role;
     private final Collection<? extends GrantedAuthority> authorities;
     private final boolean isActive;
-    private final boolean isVerified;
+    /**
+     * E-posta doğrulama durumu; claim'siz eski token'larda ve gateway kimlik header'larında bilinmez (null).
+     */
+    private final Boolean isVerified;
 
     public CustomUserDetails(User user) {
         this.id = user.getId();
@@ -33,6 +36,22 @@ public class CustomUserDetails implements UserDetails {
         this.isVerified = user.getIsVerified();
     }
 
+    /**
+     * İmzalı access token claim'lerinden oluşturur; istek başına veritabanı okuması yapılmaz.
+     * Şifre token'da taşınmaz; e-posta doğrulama durumu token'da yoksa null bırakılır, doğrulanmış sayılmaz.
+     */
+    public CustomUserDetails(Long id, String email, Role role, boolean isActive, Boolean isVerified) {
+        this.id = id;
+        this.email = email;
+        this.password = null;
+        this.role = role;
+        this.authorities = Collections.singletonList(
+                new SimpleGrantedAuthority("ROLE_" + role.name())
+        );
+        this.isActive = isActive;
+        this.isVerified = isVerified;
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return authorities;
@@ -65,7 +84,7 @@ public class CustomUserDetails implements UserDetails {
 
     @Override
     public boolean isEnabled() {
-        return isActive && isVerified;
+        return isActive && Boolean.TRUE.equals(isVerified);
     }
 }
 
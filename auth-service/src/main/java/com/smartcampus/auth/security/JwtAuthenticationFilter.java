@@ -1,5 +1,6 @@
 package com.smartcampus.auth.security;
 
+import com.smartcampus.auth.entity.Role;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -24,6 +25,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider jwtTokenProvider;
     private final CustomUserDetailsService userDetailsService;
+    private final RevokedUserRegistry revokedUserRegistry;
+    private final GatewayIdentityVerifier gatewayIdentityVerifier;
 
     @Override
     protected void doFilterInternal(
@@ -32,20 +35,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             @NonNull FilterChain filterChain
     ) throws ServletException, IOException {
         try {
-            String jwt = getJwtFromRequest(request);
+            // Gateway token'ı doğrulamışsa imzalı kimlik header'ları kullanılır, JWT tekrar parse edilmez
+            GatewayIdentityVerifier.GatewayIdentity identity = gatewayIdentityVerifier.verify(request);
+            String jwt = identity == null ? getJwtFromRequest(request) : null;
 
-            if (StringUtils.hasText(jwt) && jwtTokenProvider.validateToken(jwt)) {
-                String email = jwtTokenProvider.getEmailFromToken(jwt);
+            UserDetails userDetails = null;
+            if (identity != null) {
+                userDetails = resolveUserDetails(identity);
+            } else if (StringUtils.hasText(jwt) && jwtTokenProvider.validateToken(jwt)) {
+                userDetails = resolveUserDetails(jwt);
+            }
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-                
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(
                                 userDetails,
                                 null,
                                 userDetails.getAuthorities()
                         );
-                
+
                 authentication.setDetails(
                         new WebAuthenticationDetailsSource().buildDetails(request)
                 );
@@ -59,6 +67,38 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Kullanıcı bilgisini token claim'lerinden oluşturur; istek başına veritabanı okuması yapılmaz.
+     * Sadece userId içermeyen eski (email subject'li) token'larda veritabanından yüklenir.
+     *
+     * @return hesap devre dışıysa veya iptal listesindeyse null
+     */
+    private UserDetails resolveUserDetails(String jwt) {
+        Long userId = jwtTokenProvider.getUserIdFromToken(jwt);
+        String email = jwtTokenProvider.getEmailFromToken(jwt);
+
+        if (userId == null) {
+            return userDetailsService.loadUserByUsername(email);
+        }
+
+        if (revokedUserRegistry.isRevoked(userId) || !jwtTokenProvider.isActiveFromToken(jwt)) {
+            log.warn("Devre dışı kullanıcı token'ı reddedildi - userId: {}", userId);
+            return null;
+        }
+
+        Role role = Role.valueOf(jwtTokenProvider.getRoleFromToken(jwt));
+        return new CustomUserDetails(userId, email, role, true, jwtTokenProvider.getVerifiedFromToken(jwt));
+    }
+
+    private UserDetails resolveUserDetails(GatewayIdentityVerifier.GatewayIdentity identity) {
+        if (revokedUserRegistry.isRevoked(identity.getUserId())) {
+            log.warn("Devre dışı kullanıcı isteği reddedildi - userId: {}", identity.getUserId());
+            return null;
+        }
+        return new CustomUserDetails(identity.getUserId(), identity.getEmail(),
+                Role.valueOf(identity.getRole()), true, null);
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         
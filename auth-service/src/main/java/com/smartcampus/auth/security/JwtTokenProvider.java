@@ -1,9 +1,11 @@
 package com.smartcampus.auth.security;
 
+import com.smartcampus.auth.cache.BoundedCache;
 import com.smartcampus.auth.exception.TokenException;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
@@ -12,6 +14,7 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Component
@@ -26,9 +29,39 @@ public class JwtTokenProvider {
     @Value("${jwt.refresh-token-expiration}")
     private Long refreshTokenExpiration;
 
+    @Value("${jwt.claims-cache.max-size:10000}")
+    private int claimsCacheMaxSize = 10000;
+
+    private volatile SecretKey signingKey;
+    private volatile JwtParser jwtParser;
+    private volatile BoundedCache<String, TokenClaims> claimsCache;
+
     private SecretKey getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
+        if (signingKey == null) {
+            byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
+            signingKey = Keys.hmacShaKeyFor(keyBytes);
+        }
+        return signingKey;
+    }
+
+    private BoundedCache<String, TokenClaims> getClaimsCache() {
+        if (claimsCache == null) {
+            synchronized (this) {
+                if (claimsCache == null) {
+                    claimsCache = new BoundedCache<>(claimsCacheMaxSize);
+                }
+            }
+        }
+        return claimsCache;
+    }
+
+    private JwtParser getJwtParser() {
+        if (jwtParser == null) {
+            jwtParser = Jwts.parser()
+                    .verifyWith(getSigningKey())
+                    .build();
+        }
+        return jwtParser;
     }
 
     public String generateAccessToken(Authentication authentication) {
@@ -37,7 +70,8 @@ public class JwtTokenProvider {
             return generateAccessToken(
                     customUserDetails.getId(),
                     customUserDetails.getUsername(),
-                    customUserDetails.getRole().name());
+                    customUserDetails.getRole().name(),
+                    customUserDetails.isActive());
         }
         // Fallback - sadece email ile (geriye dönük uyumluluk)
         return generateAccessToken(null, userDetails.getUsername(), null);
@@ -46,9 +80,26 @@ public class JwtTokenProvider {
     /**
      * Tam bilgi ile JWT Access Token oluşturur.
      * Token payload'ı: { sub: "userId", email: "...", role:
-     * "STUDENT|FACULTY|ADMIN", iat: ..., exp: ... }
+     * "STUDENT|FACULTY|ADMIN", active: true, iat: ..., exp: ... }
      */
     public String generateAccessToken(Long userId, String email, String role) {
+        return generateAccessToken(userId, email, role, true);
+    }
+
+    /**
+     * Servisler kullanıcıyı veritabanından okumadan doğrulayabilsin diye
+     * hesap durumunu da token'a yazar.
+     */
+    public String generateAccessToken(Long userId, String email, String role, boolean active) {
+        return generateAccessToken(userId, email, role, active, null, null, null);
+    }
+
+    /**
+     * E-posta doğrulama durumunu ve öğrenci/akademisyen id'sini de token'a yazar; gateway id'leri
+     * kimlik header'ları olarak servislere iletir. verified null ise claim yazılmaz (durum bilinmiyor).
+     */
+    public String generateAccessToken(Long userId, String email, String role, boolean active,
+                                      Boolean verified, Long studentId, Long facultyId) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + accessTokenExpiration);
 
@@ -70,6 +121,20 @@ public class JwtTokenProvider {
             builder.claim("role", role);
         }
 
+        if (userId != null) {
+            builder.claim("active", active);
+            if (verified != null) {
+                builder.claim("verified", verified);
+            }
+        }
+
+        if (studentId != null) {
+            builder.claim("studentId", studentId);
+        }
+        if (facultyId != null) {
+            builder.claim("facultyId", facultyId);
+        }
+
         return builder.compact();
     }
 
@@ -94,17 +159,34 @@ public class JwtTokenProvider {
                 .compact();
     }
 
+    /**
+     * Token'ı tek seferde doğrular ve claim'lerini değişmez bir nesne olarak döner.
+     * Aynı token için sonraki çağrılar (ör. polling yapan istemciler) imza doğrulaması ve
+     * JSON parse yapmadan cache'ten karşılanır. Kayıtlar token'ın süresi dolunca geçersiz olur.
+     * Cache anahtarı token'ın kendisidir; eşitlik tam karşılaştırmayla yapıldığı için
+     * imzası doğrulanmamış bir token cache'ten sonuç alamaz.
+     *
+     * @throws JwtException token geçersiz veya süresi dolmuşsa
+     * @throws IllegalArgumentException token boşsa
+     */
+    public TokenClaims parseToken(String token) {
+        TokenClaims cached = token != null ? getClaimsCache().get(token) : null;
+        if (cached != null && !cached.isExpired()) {
+            return cached;
+        }
+
+        TokenClaims parsed = new TokenClaims(getJwtParser().parseSignedClaims(token).getPayload());
+        getClaimsCache().put(token, parsed, Math.max(1, parsed.getExpiresAtMillis() - System.currentTimeMillis()),
+                TimeUnit.MILLISECONDS);
+        return parsed;
+    }
+
     public String getEmailFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        TokenClaims claims = parseToken(token);
 
         // Subject olarak userId kullanılıyorsa, email claim'den al
-        String email = claims.get("email", String.class);
-        if (email != null) {
-            return email;
+        if (claims.getEmail() != null) {
+            return claims.getEmail();
         }
         // Geriye dönük uyumluluk: subject olarak email kullanılmış olabilir
         return claims.getSubject();
@@ -112,42 +194,39 @@ public class JwtTokenProvider {
 
     /**
      * JWT token'dan userId'yi çıkarır.
-     * Token subject'i userId ise doğrudan döndürür.
+     * Token subject'i userId ise doğrudan döndürür, email ise null döner.
      */
     public Long getUserIdFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-
-        try {
-            return Long.parseLong(claims.getSubject());
-        } catch (NumberFormatException e) {
-            // Subject email ise, null döndür
-            return null;
-        }
+        return parseToken(token).getUserId();
     }
 
     /**
      * JWT token'dan role bilgisini çıkarır.
      */
     public String getRoleFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parseToken(token).getRole();
+    }
 
-        return claims.get("role", String.class);
+    /**
+     * JWT token'daki hesap durumunu döner.
+     * active claim'i olmayan eski token'lar aktif kabul edilir (devre dışı bırakma iptal listesiyle yakalanır).
+     */
+    public boolean isActiveFromToken(String token) {
+        return parseToken(token).isActive();
+    }
+
+    /**
+     * JWT token'daki e-posta doğrulama durumunu döner.
+     *
+     * @return verified claim'i olmayan eski token'larda null (durum bilinmiyor)
+     */
+    public Boolean getVerifiedFromToken(String token) {
+        return parseToken(token).getVerified();
     }
 
     public boolean validateToken(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
+            parseToken(token);
             return true;
         } catch (ExpiredJwtException ex) {
             log.error("JWT token expired: {}", ex.getMessage());
@@ -171,4 +250,42 @@ public class JwtTokenProvider {
     public Long getRefreshTokenExpiration() {
         return refreshTokenExpiration;
     }
+
+    /**
+     * Doğrulanmış access token claim'leri.
+     */
+    @Getter
+    public static final class TokenClaims {
+        private final String subject;
+        private final Long userId;
+        private final String email;
+        private final String role;
+        private final boolean active;
+        private final Boolean verified;
+        private final long expiresAtMillis;
+
+        private TokenClaims(Claims claims) {
+            this.subject = claims.getSubject();
+            this.userId = parseUserId(subject);
+            this.email = claims.get("email", String.class);
+            this.role = claims.get("role", String.class);
+            // active claim'i olmayan eski token'lar aktif kabul edilir (devre dışı bırakma iptal listesiyle yakalanır)
+            this.active = !Boolean.FALSE.equals(claims.get("active", Boolean.class));
+            this.verified = claims.get("verified", Boolean.class);
+            this.expiresAtMillis = claims.getExpiration() != null ? claims.getExpiration().getTime() : Long.MAX_VALUE;
+        }
+
+        public boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAtMillis;
+        }
+
+        private static Long parseUserId(String subject) {
+            try {
+                return subject != null ? Long.parseLong(subject) : null;
+            } catch (NumberFormatException e) {
+                // Subject email ise userId yoktur
+                return null;
+            }
+        }
+    }
 }
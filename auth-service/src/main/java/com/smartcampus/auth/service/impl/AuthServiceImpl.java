@@ -129,11 +129,7 @@ public class AuthServiceImpl implements AuthService {
 
         // Token'lar oluştur (doğrulama bekliyor durumunda da login yapabilsin)
         // Yeni format: userId, email, role bilgisi ile token oluştur
-        String accessToken = jwtTokenProvider.generateAccessToken(
-                user.getId(),
-                user.getEmail(),
-                user.getRole().name()
-        );
+        String accessToken = createAccessToken(user);
         String refreshToken = createRefreshToken(user);
 
         log.info("User registered: {}", user.getEmail());
@@ -165,11 +161,7 @@ public class AuthServiceImpl implements AuthService {
         }
 
         // Token'lar oluştur - userId, email, role bilgisi ile
-        String accessToken = jwtTokenProvider.generateAccessToken(
-                user.getId(),
-                user.getEmail(),
-                user.getRole().name()
-        );
+        String accessToken = createAccessToken(user);
         String refreshToken = createRefreshToken(user);
 
         log.info("User logged in: {}", user.getEmail());
@@ -199,11 +191,7 @@ public class AuthServiceImpl implements AuthService {
         refreshTokenRepository.delete(refreshToken);
 
         // Yeni token'lar oluştur - userId, email, role bilgisi ile
-        String newAccessToken = jwtTokenProvider.generateAccessToken(
-                user.getId(),
-                user.getEmail(),
-                user.getRole().name()
-        );
+        String newAccessToken = createAccessToken(user);
         String newRefreshToken = createRefreshToken(user);
 
         log.info("Token refreshed for user: {}", user.getEmail());
@@ -377,6 +365,21 @@ public class AuthServiceImpl implements AuthService {
         return token;
     }
 
+    /**
+     * Access token'ı userId, email, role, hesap ve e-posta doğrulama durumu ve öğrenci/akademisyen id'si ile oluşturur.
+     */
+    private String createAccessToken(User user) {
+        return jwtTokenProvider.generateAccessToken(
+                user.getId(),
+                user.getEmail(),
+                user.getRole().name(),
+                Boolean.TRUE.equals(user.getIsActive()),
+                Boolean.TRUE.equals(user.getIsVerified()),
+                user.getStudent() != null ? user.getStudent().getId() : null,
+                user.getFaculty() != null ? user.getFaculty().getId() : null
+        );
+    }
+
     private String createRefreshToken(User user) {
         String token = UUID.randomUUID().toString();
         RefreshToken refreshToken = RefreshToken.builder()
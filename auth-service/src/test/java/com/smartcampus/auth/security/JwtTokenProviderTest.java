@@ -1,6 +1,8 @@
 package com.smartcampus.auth.security;
 
+import com.smartcampus.auth.entity.Role;
 import com.smartcampus.auth.exception.TokenException;
+import io.jsonwebtoken.JwtException;
 import org.junit.jupiter.api.*;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -137,6 +139,102 @@ class JwtTokenProviderTest {
         }
     }
 
+    @Nested
+    @DisplayName("Account Status Claim Tests")
+    class AccountStatusClaimTests {
+
+        @Test
+        @DisplayName("Should carry user id, role and active flag in access token")
+        void shouldCarryIdentityClaims() {
+            String token = jwtTokenProvider.generateAccessToken(42L, "student@smartcampus.edu.tr", "STUDENT");
+
+            assertEquals(42L, jwtTokenProvider.getUserIdFromToken(token));
+            assertEquals("STUDENT", jwtTokenProvider.getRoleFromToken(token));
+            assertTrue(jwtTokenProvider.isActiveFromToken(token));
+        }
+
+        @Test
+        @DisplayName("Should mark token of inactive user as inactive")
+        void shouldMarkInactiveUser() {
+            String token = jwtTokenProvider.generateAccessToken(42L, "student@smartcampus.edu.tr", "STUDENT", false);
+
+            assertFalse(jwtTokenProvider.isActiveFromToken(token));
+        }
+
+        @Test
+        @DisplayName("Should treat legacy token without active claim as active")
+        void shouldTreatLegacyTokenAsActive() {
+            String token = jwtTokenProvider.generateAccessToken("test@smartcampus.edu.tr");
+
+            assertTrue(jwtTokenProvider.isActiveFromToken(token));
+        }
+
+        @Test
+        @DisplayName("Should carry the email verification state in the access token")
+        void shouldCarryVerifiedClaim() {
+            String verified = jwtTokenProvider.generateAccessToken(1L, "test@smartcampus.edu.tr", "STUDENT",
+                    true, true, 10L, null);
+            String unverified = jwtTokenProvider.generateAccessToken(2L, "new@smartcampus.edu.tr", "STUDENT",
+                    true, false, 11L, null);
+
+            assertEquals(Boolean.TRUE, jwtTokenProvider.getVerifiedFromToken(verified));
+            assertEquals(Boolean.FALSE, jwtTokenProvider.getVerifiedFromToken(unverified));
+        }
+
+        @Test
+        @DisplayName("Should leave the verification state unknown when the token has no claim")
+        void shouldLeaveVerifiedUnknownWithoutClaim() {
+            String token = jwtTokenProvider.generateAccessToken(1L, "test@smartcampus.edu.tr", "STUDENT", true);
+
+            assertNull(jwtTokenProvider.getVerifiedFromToken(token));
+            CustomUserDetails userDetails = new CustomUserDetails(1L, "test@smartcampus.edu.tr",
+                    Role.STUDENT, true, jwtTokenProvider.getVerifiedFromToken(token));
+            assertFalse(userDetails.isEnabled());
+        }
+    }
+
+    @Nested
+    @DisplayName("Parse Token Tests")
+    class ParseTokenTests {
+
+        @Test
+        @DisplayName("Should return all claims from a single parse")
+        void shouldReturnAllClaims() {
+            String token = jwtTokenProvider.generateAccessToken(7L, "faculty@smartcampus.edu.tr", "FACULTY");
+
+            JwtTokenProvider.TokenClaims claims = jwtTokenProvider.parseToken(token);
+
+            assertEquals(7L, claims.getUserId());
+            assertEquals("faculty@smartcampus.edu.tr", claims.getEmail());
+            assertEquals("FACULTY", claims.getRole());
+            assertTrue(claims.isActive());
+            assertFalse(claims.isExpired());
+        }
+
+        @Test
+        @DisplayName("Should serve repeated parses of the same token from cache")
+        void shouldServeRepeatedParsesFromCache() {
+            String token = jwtTokenProvider.generateAccessToken(7L, "faculty@smartcampus.edu.tr", "FACULTY");
+
+            JwtTokenProvider.TokenClaims first = jwtTokenProvider.parseToken(token);
+            JwtTokenProvider.TokenClaims second = jwtTokenProvider.parseToken(token);
+
+            assertSame(first, second);
+        }
+
+        @Test
+        @DisplayName("Should reject tampered token even after original is cached")
+        void shouldRejectTamperedToken() {
+            String token = jwtTokenProvider.generateAccessToken(7L, "faculty@smartcampus.edu.tr", "FACULTY");
+            jwtTokenProvider.parseToken(token);
+
+            String tampered = token.substring(0, token.length() - 2)
+                    + (token.endsWith("AA") ? "BB" : "AA");
+
+            assertThrows(JwtException.class, () -> jwtTokenProvider.parseToken(tampered));
+        }
+    }
+
     @Nested
     @DisplayName("Expiration Getter Tests")
     class ExpirationGetterTests {
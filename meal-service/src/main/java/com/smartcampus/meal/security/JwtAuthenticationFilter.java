@@ -21,34 +21,29 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
+    private final RevokedUserRegistry revokedUserRegistry;
+    private final GatewayIdentityVerifier gatewayIdentityVerifier;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
             FilterChain filterChain) throws ServletException, IOException {
         try {
-            String jwt = getJwtFromRequest(request);
+            // Gateway token'ı doğrulamışsa imzalı kimlik header'ları kullanılır, JWT tekrar parse edilmez
+            GatewayIdentityVerifier.GatewayIdentity identity = gatewayIdentityVerifier.verify(request);
+            String jwt = identity == null ? getJwtFromRequest(request) : null;
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
+            if (identity != null) {
+                authenticate(request, identity.getUserId(), identity.getEmail(), identity.getRole());
+            } else if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
                 Long userId = tokenProvider.getUserIdFromToken(jwt);
                 String email = tokenProvider.getEmailFromToken(jwt);
                 String role = tokenProvider.getRoleFromToken(jwt);
 
-                // userId varsa kullan, yoksa email üzerinden işlem yap
-                CustomUserDetails userDetails;
-                if (userId != null) {
-                    userDetails = new CustomUserDetails(userId, email, role);
+                if (!tokenProvider.isActiveFromToken(jwt)) {
+                    log.warn("Devre dışı kullanıcı token'ı reddedildi - userId: {}", userId);
                 } else {
-                    // userId yoksa, email'den user lookup yapılması gerekir
-                    // Şimdilik email'i identifier olarak kullanalım
-                    log.warn("Token does not contain userId, using email as fallback: {}", email);
-                    userDetails = new CustomUserDetails(email, role);
+                    authenticate(request, userId, email, role);
                 }
-
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-
-                SecurityContextHolder.getContext().setAuthentication(authentication);
             }
         } catch (Exception ex) {
             log.error("Could not set user authentication in security context", ex);
@@ -57,6 +52,30 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private void authenticate(HttpServletRequest request, Long userId, String email, String role) {
+        if (revokedUserRegistry.isRevoked(userId)) {
+            log.warn("Devre dışı kullanıcı isteği reddedildi - userId: {}", userId);
+            return;
+        }
+
+        // userId varsa kullan, yoksa email üzerinden işlem yap
+        CustomUserDetails userDetails;
+        if (userId != null) {
+            userDetails = new CustomUserDetails(userId, email, role);
+        } else {
+            // userId yoksa, email'den user lookup yapılması gerekir
+            // Şimdilik email'i identifier olarak kullanalım
+            log.warn("Token does not contain userId, using email as fallback: {}", email);
+            userDetails = new CustomUserDetails(email, role);
+        }
+
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                userDetails, null, userDetails.getAuthorities());
+        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -1,74 +1,93 @@
 package com.smartcampus.meal.security;
 
+import com.smartcampus.meal.cache.BoundedCache;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Component
 public class JwtTokenProvider {
 
     private final SecretKey secretKey;
+    private final JwtParser jwtParser;
 
-    public JwtTokenProvider(@Value("${jwt.secret}") String secret) {
+    private final BoundedCache<String, TokenClaims> claimsCache;
+
+    public JwtTokenProvider(@Value("${jwt.secret}") String secret,
+                            @Value("${jwt.claims-cache.max-size:10000}") int claimsCacheMaxSize) {
         byte[] keyBytes = Decoders.BASE64.decode(secret);
         this.secretKey = Keys.hmacShaKeyFor(keyBytes);
+        this.jwtParser = Jwts.parser()
+                .verifyWith(secretKey)
+                .build();
+        this.claimsCache = new BoundedCache<>(claimsCacheMaxSize);
     }
 
-    public Long getUserIdFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    /**
+     * Token'ı tek seferde doğrular ve claim'lerini değişmez bir nesne olarak döner.
+     * Aynı token için sonraki çağrılar (ör. polling yapan istemciler) imza doğrulaması ve
+     * JSON parse yapmadan cache'ten karşılanır. Kayıtlar token'ın süresi dolunca geçersiz olur.
+     * Cache anahtarı token'ın kendisidir; eşitlik tam karşılaştırmayla yapıldığı için
+     * imzası doğrulanmamış bir token cache'ten sonuç alamaz.
+     *
+     * @throws JwtException token geçersiz veya süresi dolmuşsa
+     * @throws IllegalArgumentException token boşsa
+     */
+    public TokenClaims parseToken(String token) {
+        TokenClaims cached = token != null ? claimsCache.get(token) : null;
+        if (cached != null && !cached.isExpired()) {
+            return cached;
+        }
 
-        try {
-            return Long.parseLong(claims.getSubject());
-        } catch (NumberFormatException e) {
+        TokenClaims parsed = new TokenClaims(jwtParser.parseSignedClaims(token).getPayload());
+        claimsCache.put(token, parsed, Math.max(1, parsed.getExpiresAtMillis() - System.currentTimeMillis()),
+                TimeUnit.MILLISECONDS);
+        return parsed;
+    }
+
+    public Long getUserIdFromToken(String token) {
+        TokenClaims claims = parseToken(token);
+        if (claims.getUserId() == null) {
             // Subject email ise, null döndür
             log.debug("Subject is not a numeric userId, likely an email: {}", claims.getSubject());
-            return null;
         }
+        return claims.getUserId();
     }
 
     public String getEmailFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        TokenClaims claims = parseToken(token);
 
         // Önce email claim'i kontrol et
-        String email = claims.get("email", String.class);
-        if (email != null) {
-            return email;
+        if (claims.getEmail() != null) {
+            return claims.getEmail();
         }
         // Subject email olabilir
         return claims.getSubject();
     }
 
     public String getRoleFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parseToken(token).getRole();
+    }
 
-        return claims.get("role", String.class);
+    /**
+     * active claim'i olmayan eski token'lar aktif kabul edilir (devre dışı bırakma iptal listesiyle yakalanır).
+     */
+    public boolean isActiveFromToken(String token) {
+        return parseToken(token).isActive();
     }
 
     public boolean validateToken(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(secretKey)
-                    .build()
-                    .parseSignedClaims(token);
+            parseToken(token);
             return true;
         } catch (SignatureException ex) {
             log.error("JWT signature validation failed: {}", ex.getMessage());
@@ -85,4 +104,40 @@ public class JwtTokenProvider {
         }
         return false;
     }
+
+    /**
+     * Doğrulanmış access token claim'leri.
+     */
+    @Getter
+    public static final class TokenClaims {
+        private final String subject;
+        private final Long userId;
+        private final String email;
+        private final String role;
+        private final boolean active;
+        private final long expiresAtMillis;
+
+        private TokenClaims(Claims claims) {
+            this.subject = claims.getSubject();
+            this.userId = parseUserId(subject);
+            this.email = claims.get("email", String.class);
+            this.role = claims.get("role", String.class);
+            // active claim'i olmayan eski token'lar aktif kabul edilir (devre dışı bırakma iptal listesiyle yakalanır)
+            this.active = !Boolean.FALSE.equals(claims.get("active", Boolean.class));
+            this.expiresAtMillis = claims.getExpiration() != null ? claims.getExpiration().getTime() : Long.MAX_VALUE;
+        }
+
+        public boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAtMillis;
+        }
+
+        private static Long parseUserId(String subject) {
+            try {
+                return subject != null ? Long.parseLong(subject) : null;
+            } catch (NumberFormatException e) {
+                // Subject email ise userId yoktur
+                return null;
+            }
+        }
+    }
 }